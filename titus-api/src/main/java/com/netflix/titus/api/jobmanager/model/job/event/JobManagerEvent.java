@@ -27,6 +27,8 @@ public abstract class JobManagerEvent<TYPE> {
 
     private static final SnapshotMarkerEvent SNAPSHOT_MARKER = new SnapshotMarkerEvent();
 
+    private static final ResumeMarkerEvent RESUME_MARKER = new ResumeMarkerEvent();
+
     private final TYPE current;
     private final Optional<TYPE> previous;
     private final boolean archived;
@@ -76,6 +78,13 @@ public abstract class JobManagerEvent<TYPE> {
         return SNAPSHOT_MARKER;
     }
 
+    /**
+     * Emitted before the snapshot events, if they are changes since the last connection, not the full snapshot.
+     */
+    public static JobManagerEvent<Job> resumeMarker() {
+        return RESUME_MARKER;
+    }
+
     public static JobManagerEvent<Job> keepAliveEvent(long timestamp) {
         return new JobKeepAliveEvent(timestamp);
     }
@@ -90,4 +99,15 @@ public abstract class JobManagerEvent<TYPE> {
             );
         }
     }
+
+    private static class ResumeMarkerEvent extends JobManagerEvent<Job> {
+
+        private ResumeMarkerEvent() {
+            super(Job.newBuilder().build(),
+                    Optional.empty(),
+                    false,
+                    CallMetadata.newBuilder().withCallerId("ResumeMarkerEvent").withCallReason("resuming").build()
+            );
+        }
+    }
 }
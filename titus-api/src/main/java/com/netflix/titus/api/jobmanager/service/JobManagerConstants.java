@@ -47,4 +47,16 @@ public class JobManagerConstants {
      */
     public static final CallMetadata GRPC_REPLICATOR_CALL_METADATA = CallMetadata.newBuilder().withCallerId("JobReplictorEvent").withCallReason("Replication").build();
 
+    /**
+     * ObserveJobs filtering criteria key with the timestamp of the last keep alive request acknowledged on a previous
+     * connection. If the server can resume from this point, it emits the resume marker followed by the changes since
+     * then instead of the full snapshot.
+     */
+    public static final String OBSERVE_JOBS_RESUME_FROM_TIMESTAMP = "resumeFromTimestamp";
+
+    /**
+     * Request id of the keep alive response sent as the resume marker.
+     */
+    public static final long OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID = -1;
+
 }
@@ -42,6 +42,17 @@ public interface JobStore {
      */
     Observable<Pair<List<Job<?>>, Integer>> retrieveJobs();
 
+    /**
+     * Retrieve all jobs in batches, emitted as soon as they are loaded from the database. Each batch contains also
+     * number of records within this batch that could not be loaded or mapped to {@link Job} instance. The default
+     * implementation emits a single batch with all the jobs.
+     *
+     * @return all the jobs, in batches.
+     */
+    default Observable<Pair<List<Job<?>>, Integer>> retrieveJobsInBatches() {
+        return retrieveJobs();
+    }
+
     /**
      * Retrieve the job with the specified jobId.
      *
@@ -18,6 +18,7 @@ package com.netflix.titus.api.json;
 
 import java.util.Collection;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
@@ -160,13 +161,21 @@ import com.netflix.titus.common.util.jackson.CommonObjectMappers;
  */
 public class ObjectMappers {
 
-    private static final ObjectMapper STORE = createStoreMapper();
+    private static final ObjectMapper STORE = createStoreMapper(null);
     private static final ObjectMapper APP_SCALE_STORE = createAppScalePolicyMapper();
 
     public static ObjectMapper storeMapper() {
         return STORE;
     }
 
+    /**
+     * Creates a new mapper with the {@link #storeMapper()} configuration, backed by the given factory (for example
+     * one of a binary data format).
+     */
+    public static ObjectMapper newStoreMapper(JsonFactory jsonFactory) {
+        return createStoreMapper(jsonFactory);
+    }
+
     public static ObjectMapper appScalePolicyMapper() {
         return APP_SCALE_STORE;
     }
@@ -223,8 +232,8 @@ public class ObjectMappers {
         return objectMapper;
     }
 
-    private static ObjectMapper createStoreMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
+    private static ObjectMapper createStoreMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.registerModule(new Jdk8Module());
 
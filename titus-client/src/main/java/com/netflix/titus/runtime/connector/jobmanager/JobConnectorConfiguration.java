@@ -45,4 +45,12 @@ public interface JobConnectorConfiguration {
      */
     @DefaultValue("100")
     long getKeepAliveIntervalMs();
+
+    /**
+     * Set to true to resume the replicated stream after a reconnect from the last acknowledged keep alive, instead of
+     * loading a new snapshot. Requires {@link #isKeepAliveReplicatedStreamEnabled()}, and a TitusMaster version
+     * supporting it. If the stream cannot be resumed, TitusMaster sends the full snapshot.
+     */
+    @DefaultValue("false")
+    boolean isResumableReplicatedStreamEnabled();
 }
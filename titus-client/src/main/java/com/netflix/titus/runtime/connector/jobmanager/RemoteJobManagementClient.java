@@ -238,6 +238,9 @@ public class RemoteJobManagementClient implements JobManagementClient {
                             case SNAPSHOTEND:
                                 return JobManagerEvent.snapshotMarker();
                             case KEEPALIVERESPONSE:
+                                if (event.getKeepAliveResponse().getRequest().getRequestId() == JobManagerConstants.OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID) {
+                                    return JobManagerEvent.resumeMarker();
+                                }
                                 return JobManagerEvent.keepAliveEvent(event.getKeepAliveResponse().getRequest().getTimestamp());
                             case NOTIFICATION_NOT_SET:
                             default:
@@ -45,6 +45,7 @@ import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.ExceptionExt;
 import com.netflix.titus.common.util.spectator.SpectatorExt;
 import com.netflix.titus.common.util.spectator.ValueRangeCounter;
+import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.runtime.connector.common.replicator.AbstractReplicatorEventStream;
 import com.netflix.titus.runtime.connector.common.replicator.DataReplicatorMetrics;
 import com.netflix.titus.runtime.connector.common.replicator.ReplicatorEvent;
@@ -75,9 +76,11 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
 
     // We read this property on startup as in some places it cannot be changed dynamically.
     private final boolean keepAliveEnabled;
+    private final boolean resumeEnabled;
 
     private final ValueRangeCounter eventProcessingLatencies;
     private final AtomicInteger subscriptionCounter = new AtomicInteger();
+    private final AtomicReference<CacheUpdater> lastCacheUpdaterRef = new AtomicReference<>();
 
     public GrpcJobReplicatorEventStream(JobManagementClient client,
                                         JobSnapshotFactory jobSnapshotFactory,
@@ -101,6 +104,10 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
         this.jobSnapshotFactory = jobSnapshotFactory;
         this.configuration = configuration;
         this.keepAliveEnabled = configuration.isKeepAliveReplicatedStreamEnabled();
+        this.resumeEnabled = keepAliveEnabled
+                && configuration.isResumableReplicatedStreamEnabled()
+                && client instanceof RemoteJobManagementClientWithKeepAlive
+                && filteringCriteria.isEmpty();
 
         PolledMeter.using(titusRuntime.getRegistry()).withName(METRICS_ROOT + "activeSubscriptions").monitorValue(subscriptionCounter);
         this.eventProcessingLatencies = SpectatorExt.newValueRangeCounterSortable(
@@ -114,10 +121,26 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
     protected Flux<ReplicatorEvent<JobSnapshot, JobManagerEvent<?>>> newConnection() {
         return Flux
                 .<ReplicatorEvent<JobSnapshot, JobManagerEvent<?>>>create(sink -> {
-                    CacheUpdater cacheUpdater = new CacheUpdater(jobSnapshotFactory, keepAliveEnabled, titusRuntime);
-                    logger.info("Connecting to the job event stream (filteringCriteria={})...", filteringCriteria);
+                    CacheUpdater cacheUpdater;
+                    Map<String, String> connectionCriteria;
+                    Optional<Pair<JobSnapshot, Long>> resumePoint = resumeEnabled && lastCacheUpdaterRef.get() != null
+                            ? lastCacheUpdaterRef.get().getResumePoint()
+                            : Optional.empty();
+                    if (resumePoint.isPresent()) {
+                        JobSnapshot resumeSnapshot = resumePoint.get().getLeft();
+                        long checkpoint = resumePoint.get().getRight();
+                        cacheUpdater = new CacheUpdater(jobSnapshotFactory, keepAliveEnabled, resumeSnapshot, checkpoint, titusRuntime);
+                        connectionCriteria = new HashMap<>(filteringCriteria);
+                        connectionCriteria.put(JobManagerConstants.OBSERVE_JOBS_RESUME_FROM_TIMESTAMP, Long.toString(checkpoint));
+                        logger.info("Connecting to the job event stream, resuming from the last checkpoint (checkpoint={})...", checkpoint);
+                    } else {
+                        cacheUpdater = new CacheUpdater(jobSnapshotFactory, keepAliveEnabled, titusRuntime);
+                        connectionCriteria = filteringCriteria;
+                        logger.info("Connecting to the job event stream (filteringCriteria={})...", filteringCriteria);
+                    }
+                    lastCacheUpdaterRef.set(cacheUpdater);
 
-                    ConnectableFlux<JobManagerEvent<?>> connectableStream = client.observeJobs(filteringCriteria).publish();
+                    ConnectableFlux<JobManagerEvent<?>> connectableStream = client.observeJobs(connectionCriteria).publish();
                     Flux<JobManagerEvent<?>> augmentedStream;
                     if (configuration.isConnectionTimeoutEnabled()) {
                         augmentedStream = Flux.merge(
@@ -137,7 +160,9 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
                                     cacheUpdater.onEvent(jobEvent).ifPresent(sink::next);
                                     eventProcessingLatencies.recordLevel(titusRuntime.getClock().wallTime() - started);
                                 } catch (Exception e) {
-                                    // Throw error to force the cache reconnect.
+                                    // Throw error to force the cache reconnect. The cache state cannot be trusted, so
+                                    // the next connection loads the full snapshot.
+                                    cacheUpdater.markFailed();
                                     logger.warn("Unexpected error when handling the job change notification: {}", jobEvent, e);
                                     ExceptionExt.silent(() -> sink.error(e));
                                 }
@@ -164,14 +189,53 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
         private final AtomicReference<JobSnapshot> lastJobSnapshotRef = new AtomicReference<>();
         private final AtomicLong lastKeepAliveTimestamp;
 
+        /**
+         * Snapshot from the previous connection, and its checkpoint, if this connection resumes it. Otherwise null.
+         */
+        private final JobSnapshot resumeSnapshot;
+        private final long resumeCheckpoint;
+
+        private volatile boolean resumed;
+        private volatile boolean failed;
+
         CacheUpdater(JobSnapshotFactory jobSnapshotFactory, boolean archiveMode, TitusRuntime titusRuntime) {
+            this(jobSnapshotFactory, archiveMode, null, -1, titusRuntime);
+        }
+
+        CacheUpdater(JobSnapshotFactory jobSnapshotFactory,
+                     boolean archiveMode,
+                     JobSnapshot resumeSnapshot,
+                     long resumeCheckpoint,
+                     TitusRuntime titusRuntime) {
             this.jobSnapshotFactory = jobSnapshotFactory;
             this.archiveMode = archiveMode;
+            this.resumeSnapshot = resumeSnapshot;
+            this.resumeCheckpoint = resumeCheckpoint;
             this.titusRuntime = titusRuntime;
             this.startTime = titusRuntime.getClock().wallTime();
             this.lastKeepAliveTimestamp = new AtomicLong(startTime);
         }
 
+        /**
+         * Returns the last snapshot and the time up to which all changes are known to be included in it. The next
+         * connection may resume from this point. If the snapshot is not loaded yet, returns the point this connection
+         * was resumed from.
+         */
+        Optional<Pair<JobSnapshot, Long>> getResumePoint() {
+            if (failed) {
+                return Optional.empty();
+            }
+            JobSnapshot snapshot = lastJobSnapshotRef.get();
+            if (snapshot != null) {
+                return Optional.of(Pair.of(snapshot, lastKeepAliveTimestamp.get()));
+            }
+            return resumeSnapshot == null ? Optional.empty() : Optional.of(Pair.of(resumeSnapshot, resumeCheckpoint));
+        }
+
+        void markFailed() {
+            this.failed = true;
+        }
+
         Optional<ReplicatorEvent<JobSnapshot, JobManagerEvent<?>>> onEvent(JobManagerEvent<?> event) {
             if (logger.isDebugEnabled()) {
                 if (event instanceof JobUpdateEvent) {
@@ -182,6 +246,8 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
                     logger.debug("Received task update event: taskId={}, state={}, version={}", task.getId(), task.getStatus(), task.getVersion());
                 } else if (event.equals(JobManagerEvent.snapshotMarker())) {
                     logger.debug("Received snapshot marker");
+                } else if (event.equals(JobManagerEvent.resumeMarker())) {
+                    logger.debug("Received resume marker");
                 } else if (event instanceof JobKeepAliveEvent) {
                     logger.debug("Received job keep alive event: {}", event);
                 } else {
@@ -192,8 +258,15 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
             if (lastJobSnapshotRef.get() != null) {
                 return processCacheUpdate(event);
             }
+            if (event.equals(JobManagerEvent.resumeMarker())) {
+                if (resumeSnapshot == null) {
+                    throw new IllegalStateException("Resume marker received, but there is no snapshot to resume from");
+                }
+                this.resumed = true;
+                return Optional.empty();
+            }
             if (event.equals(JobManagerEvent.snapshotMarker())) {
-                return Optional.of(buildInitialCache());
+                return Optional.of(resumed ? buildResumedCache() : buildInitialCache());
             }
 
             // Snapshot event. Collect all of them before processing.
@@ -266,6 +339,45 @@ public class GrpcJobReplicatorEventStream extends AbstractReplicatorEventStream<
             return new ReplicatorEvent<>(initialSnapshot, JobManagerEvent.snapshotMarker(), titusRuntime.getClock().wallTime(), startTime);
         }
 
+        /**
+         * The snapshot events are changes since the resume checkpoint, which are applied on top of the snapshot
+         * from the previous connection.
+         */
+        private ReplicatorEvent<JobSnapshot, JobManagerEvent<?>> buildResumedCache() {
+            lastJobSnapshotRef.set(resumeSnapshot);
+
+            snapshotEvents.forEach(event -> processCacheUpdate(toResumedEvent(event)));
+            int changes = snapshotEvents.size();
+
+            // No longer needed
+            snapshotEvents.clear();
+
+            JobSnapshot snapshot = lastJobSnapshotRef.get();
+            logger.info("Job snapshot resumed: changes={}, {}", changes, snapshot.toSummaryString());
+
+            return new ReplicatorEvent<>(snapshot, JobManagerEvent.snapshotMarker(), titusRuntime.getClock().wallTime(), startTime);
+        }
+
+        /**
+         * The server sends the latest task state only, so we must detect here if a task was moved to another job.
+         */
+        private JobManagerEvent<?> toResumedEvent(JobManagerEvent<?> event) {
+            if (!(event instanceof TaskUpdateEvent) || ((TaskUpdateEvent) event).isMovedFromAnotherJob()) {
+                return event;
+            }
+            Task task = ((TaskUpdateEvent) event).getCurrentTask();
+            JobSnapshot lastSnapshot = lastJobSnapshotRef.get();
+            boolean moved = lastSnapshot.findTaskById(task.getId())
+                    .map(jobTaskPair -> !jobTaskPair.getLeft().getId().equals(task.getJobId()))
+                    .orElse(false);
+            if (!moved) {
+                return event;
+            }
+            return lastSnapshot.findJob(task.getJobId())
+                    .<JobManagerEvent<?>>map(job -> TaskUpdateEvent.newTaskFromAnotherJob(job, task, JobManagerConstants.GRPC_REPLICATOR_CALL_METADATA))
+                    .orElse(event);
+        }
+
         private Optional<ReplicatorEvent<JobSnapshot, JobManagerEvent<?>>> processCacheUpdate(JobManagerEvent<?> event) {
             JobSnapshot lastSnapshot = lastJobSnapshotRef.get();
 
@@ -46,7 +46,8 @@ class CachedBatchJob extends CachedJob {
         return Optional.ofNullable(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById.plus(job.getId(), updatedJob),
-                snapshot.taskById
+                snapshot.taskById,
+                snapshot.indexes.updateJob(job, updatedJob)
         ));
     }
 
@@ -67,7 +68,8 @@ class CachedBatchJob extends CachedJob {
             return Optional.ofNullable(snapshot.newSnapshot(
                     snapshot.cachedJobsById.plus(job.getId(), update),
                     snapshot.jobsById,
-                    snapshot.taskById.plus(task.getId(), task)
+                    snapshot.taskById.plus(task.getId(), task),
+                    snapshot.indexes.updateTask(null, task)
             ));
         }
 
@@ -91,7 +93,8 @@ class CachedBatchJob extends CachedJob {
         return Optional.of(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById,
-                snapshot.taskById.minus(current.getId()).plus(task.getId(), task)
+                snapshot.taskById.minus(current.getId()).plus(task.getId(), task),
+                snapshot.indexes.updateTask(current, task)
         ));
     }
 
@@ -100,7 +103,8 @@ class CachedBatchJob extends CachedJob {
         return Optional.of(snapshot.newSnapshot(
                 snapshot.cachedJobsById.minus(job.getId()),
                 snapshot.jobsById.minus(job.getId()),
-                snapshot.taskById.minusAll(tasks.keySet())
+                snapshot.taskById.minusAll(tasks.keySet()),
+                snapshot.indexes.removeJob(this.job, tasks.values())
         ));
     }
 
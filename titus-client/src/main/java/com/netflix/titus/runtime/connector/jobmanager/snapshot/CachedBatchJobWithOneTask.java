@@ -48,7 +48,8 @@ public class CachedBatchJobWithOneTask extends CachedJob {
         return Optional.ofNullable(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById.plus(job.getId(), updatedJob),
-                snapshot.taskById
+                snapshot.taskById,
+                snapshot.indexes.updateJob(job, updatedJob)
         ));
     }
 
@@ -59,7 +60,8 @@ public class CachedBatchJobWithOneTask extends CachedJob {
             return Optional.of(snapshot.newSnapshot(
                     snapshot.cachedJobsById.plus(job.getId(), update),
                     snapshot.jobsById,
-                    snapshot.taskById.plus(updatedTask.getId(), updatedTask)
+                    snapshot.taskById.plus(updatedTask.getId(), updatedTask),
+                    snapshot.indexes.updateTask(null, updatedTask)
             ));
         }
 
@@ -79,7 +81,8 @@ public class CachedBatchJobWithOneTask extends CachedJob {
         return Optional.of(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById,
-                snapshot.taskById.minus(task.getId()).plus(updatedTask.getId(), updatedTask)
+                snapshot.taskById.minus(task.getId()).plus(updatedTask.getId(), updatedTask),
+                snapshot.indexes.updateTask(task, updatedTask)
         ));
     }
 
@@ -88,7 +91,8 @@ public class CachedBatchJobWithOneTask extends CachedJob {
         return Optional.of(snapshot.newSnapshot(
                 snapshot.cachedJobsById.minus(job.getId()),
                 snapshot.jobsById.minus(job.getId()),
-                task == null ? snapshot.taskById : snapshot.taskById.minus(task.getId())
+                task == null ? snapshot.taskById : snapshot.taskById.minus(task.getId()),
+                snapshot.indexes.removeJob(this.job, tasks.values())
         ));
     }
 
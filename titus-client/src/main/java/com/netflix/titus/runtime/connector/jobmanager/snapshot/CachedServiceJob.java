@@ -49,7 +49,8 @@ class CachedServiceJob extends CachedJob {
         return Optional.ofNullable(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById.plus(job.getId(), updatedJob),
-                snapshot.taskById
+                snapshot.taskById,
+                snapshot.indexes.updateJob(job, updatedJob)
         ));
     }
 
@@ -70,7 +71,8 @@ class CachedServiceJob extends CachedJob {
             return Optional.ofNullable(snapshot.newSnapshot(
                     snapshot.cachedJobsById.plus(job.getId(), update),
                     snapshot.jobsById,
-                    snapshot.taskById.plus(taskId, updatedTask)
+                    snapshot.taskById.plus(taskId, updatedTask),
+                    snapshot.indexes.updateTask(null, updatedTask)
             ));
         }
 
@@ -92,7 +94,8 @@ class CachedServiceJob extends CachedJob {
         return Optional.ofNullable(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById,
-                snapshot.taskById.plus(taskId, updatedTask)
+                snapshot.taskById.plus(taskId, updatedTask),
+                snapshot.indexes.updateTask(currentTaskVersion, updatedTask)
         ));
     }
 
@@ -101,7 +104,8 @@ class CachedServiceJob extends CachedJob {
         return Optional.of(snapshot.newSnapshot(
                 snapshot.cachedJobsById.minus(job.getId()),
                 snapshot.jobsById.minus(job.getId()),
-                snapshot.taskById.minusAll(tasks.keySet())
+                snapshot.taskById.minusAll(tasks.keySet()),
+                snapshot.indexes.removeJob(this.job, tasks.values())
         ));
     }
 
@@ -114,7 +118,8 @@ class CachedServiceJob extends CachedJob {
         return Optional.ofNullable(snapshot.newSnapshot(
                 snapshot.cachedJobsById.plus(job.getId(), update),
                 snapshot.jobsById,
-                snapshot.taskById.minus(task.getId())
+                snapshot.taskById.minus(task.getId()),
+                snapshot.indexes.removeTask(tasks.get(task.getId()))
         ));
     }
 
@@ -72,6 +72,11 @@ public abstract class JobSnapshot extends ReplicatedSnapshot {
 
     public abstract Optional<Pair<Job<?>, Task>> findTaskById(String taskId);
 
+    /**
+     * Secondary indexes for the most commonly queried job and task attributes, kept in sync with this snapshot.
+     */
+    public abstract JobSnapshotIndexes getIndexes();
+
     public abstract Optional<JobSnapshot> updateJob(Job<?> job);
 
     public abstract Optional<JobSnapshot> removeArchivedJob(Job<?> job);
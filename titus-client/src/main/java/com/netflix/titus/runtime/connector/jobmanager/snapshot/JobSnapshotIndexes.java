@@ -0,0 +1,368 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.runtime.connector.jobmanager.snapshot;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Image;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import org.pcollections.HashTreePMap;
+import org.pcollections.HashTreePSet;
+import org.pcollections.PMap;
+import org.pcollections.PSet;
+
+/**
+ * Immutable secondary indexes for {@link PCollectionJobSnapshot}, mapping the most commonly queried job/task
+ * attributes to job/task ids. The indexes are updated incrementally together with the snapshot, so each update
+ * costs only as much as the number of modified jobs and tasks. Queries use them to narrow the set of candidates,
+ * which must still be evaluated against the full query criteria.
+ */
+public class JobSnapshotIndexes {
+
+    private static final JobSnapshotIndexes EMPTY = new JobSnapshotIndexes(
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty(),
+            HashTreePMap.empty()
+    );
+
+    private final PMap<String, PSet<String>> jobIdsByApplicationName;
+    private final PMap<String, PSet<String>> jobIdsByCapacityGroup;
+    private final PMap<String, PSet<String>> jobIdsByImageName;
+    private final PMap<String, PSet<String>> jobIdsByAttributeName;
+    private final PMap<JobState, PSet<String>> jobIdsByState;
+    private final PMap<TaskState, PSet<String>> taskIdsByState;
+    private final PMap<String, PSet<String>> taskIdsByAgentInstanceId;
+    private final PMap<String, PSet<String>> taskIdsByAttributeName;
+
+    private JobSnapshotIndexes(PMap<String, PSet<String>> jobIdsByApplicationName,
+                               PMap<String, PSet<String>> jobIdsByCapacityGroup,
+                               PMap<String, PSet<String>> jobIdsByImageName,
+                               PMap<String, PSet<String>> jobIdsByAttributeName,
+                               PMap<JobState, PSet<String>> jobIdsByState,
+                               PMap<TaskState, PSet<String>> taskIdsByState,
+                               PMap<String, PSet<String>> taskIdsByAgentInstanceId,
+                               PMap<String, PSet<String>> taskIdsByAttributeName) {
+        this.jobIdsByApplicationName = jobIdsByApplicationName;
+        this.jobIdsByCapacityGroup = jobIdsByCapacityGroup;
+        this.jobIdsByImageName = jobIdsByImageName;
+        this.jobIdsByAttributeName = jobIdsByAttributeName;
+        this.jobIdsByState = jobIdsByState;
+        this.taskIdsByState = taskIdsByState;
+        this.taskIdsByAgentInstanceId = taskIdsByAgentInstanceId;
+        this.taskIdsByAttributeName = taskIdsByAttributeName;
+    }
+
+    public Set<String> getJobIdsByApplicationName(String applicationName) {
+        return get(jobIdsByApplicationName, applicationName);
+    }
+
+    public Set<String> getJobIdsByCapacityGroup(String capacityGroup) {
+        return get(jobIdsByCapacityGroup, capacityGroup);
+    }
+
+    public Set<String> getJobIdsByImageName(String imageName) {
+        return get(jobIdsByImageName, imageName);
+    }
+
+    /**
+     * Returns ids of jobs with the given attribute set in their job descriptor (irrespective of the attribute value).
+     */
+    public Set<String> getJobIdsByAttributeName(String attributeName) {
+        return get(jobIdsByAttributeName, attributeName);
+    }
+
+    public Set<String> getJobIdsByState(JobState jobState) {
+        return get(jobIdsByState, jobState);
+    }
+
+    public Set<String> getTaskIdsByState(TaskState taskState) {
+        return get(taskIdsByState, taskState);
+    }
+
+    /**
+     * Returns ids of tasks placed on the given agent instance (see {@link TaskAttributes#TASK_ATTRIBUTES_AGENT_INSTANCE_ID}).
+     */
+    public Set<String> getTaskIdsByAgentInstanceId(String agentInstanceId) {
+        return get(taskIdsByAgentInstanceId, agentInstanceId);
+    }
+
+    /**
+     * Returns ids of tasks with the given attribute set (irrespective of the attribute value).
+     */
+    public Set<String> getTaskIdsByAttributeName(String attributeName) {
+        return get(taskIdsByAttributeName, attributeName);
+    }
+
+    JobSnapshotIndexes updateJob(Job<?> previous, Job<?> current) {
+        if (previous == current) {
+            return this;
+        }
+        if (previous == null) {
+            return addJob(current);
+        }
+
+        JobDescriptor<?> previousDescriptor = previous.getJobDescriptor();
+        JobDescriptor<?> currentDescriptor = current.getJobDescriptor();
+        String jobId = current.getId();
+
+        PMap<String, PSet<String>> newJobIdsByApplicationName = jobIdsByApplicationName;
+        if (!Objects.equals(previousDescriptor.getApplicationName(), currentDescriptor.getApplicationName())) {
+            newJobIdsByApplicationName = plus(minus(jobIdsByApplicationName, previousDescriptor.getApplicationName(), jobId), currentDescriptor.getApplicationName(), jobId);
+        }
+        PMap<String, PSet<String>> newJobIdsByCapacityGroup = jobIdsByCapacityGroup;
+        if (!Objects.equals(previousDescriptor.getCapacityGroup(), currentDescriptor.getCapacityGroup())) {
+            newJobIdsByCapacityGroup = plus(minus(jobIdsByCapacityGroup, previousDescriptor.getCapacityGroup(), jobId), currentDescriptor.getCapacityGroup(), jobId);
+        }
+        PMap<String, PSet<String>> newJobIdsByImageName = jobIdsByImageName;
+        if (!Objects.equals(getImageName(previous), getImageName(current))) {
+            newJobIdsByImageName = plus(minus(jobIdsByImageName, getImageName(previous), jobId), getImageName(current), jobId);
+        }
+        PMap<String, PSet<String>> newJobIdsByAttributeName = jobIdsByAttributeName;
+        Set<String> previousAttributeNames = previousDescriptor.getAttributes().keySet();
+        Set<String> currentAttributeNames = currentDescriptor.getAttributes().keySet();
+        if (!previousAttributeNames.equals(currentAttributeNames)) {
+            for (String name : previousAttributeNames) {
+                newJobIdsByAttributeName = minus(newJobIdsByAttributeName, name, jobId);
+            }
+            for (String name : currentAttributeNames) {
+                newJobIdsByAttributeName = plus(newJobIdsByAttributeName, name, jobId);
+            }
+        }
+        PMap<JobState, PSet<String>> newJobIdsByState = jobIdsByState;
+        JobState previousState = previous.getStatus().getState();
+        JobState currentState = current.getStatus().getState();
+        if (previousState != currentState) {
+            newJobIdsByState = plus(minus(jobIdsByState, previousState, jobId), currentState, jobId);
+        }
+
+        return new JobSnapshotIndexes(
+                newJobIdsByApplicationName,
+                newJobIdsByCapacityGroup,
+                newJobIdsByImageName,
+                newJobIdsByAttributeName,
+                newJobIdsByState,
+                taskIdsByState,
+                taskIdsByAgentInstanceId,
+                taskIdsByAttributeName
+        );
+    }
+
+    JobSnapshotIndexes removeJob(Job<?> job, Collection<Task> tasks) {
+        JobDescriptor<?> descriptor = job.getJobDescriptor();
+        String jobId = job.getId();
+
+        PMap<String, PSet<String>> newJobIdsByAttributeName = jobIdsByAttributeName;
+        for (String name : descriptor.getAttributes().keySet()) {
+            newJobIdsByAttributeName = minus(newJobIdsByAttributeName, name, jobId);
+        }
+        PMap<TaskState, PSet<String>> newTaskIdsByState = taskIdsByState;
+        PMap<String, PSet<String>> newTaskIdsByAgentInstanceId = taskIdsByAgentInstanceId;
+        PMap<String, PSet<String>> newTaskIdsByAttributeName = taskIdsByAttributeName;
+        for (Task task : tasks) {
+            newTaskIdsByState = minus(newTaskIdsByState, task.getStatus().getState(), task.getId());
+            newTaskIdsByAgentInstanceId = minus(newTaskIdsByAgentInstanceId, getAgentInstanceId(task), task.getId());
+            for (String name : task.getAttributes().keySet()) {
+                newTaskIdsByAttributeName = minus(newTaskIdsByAttributeName, name, task.getId());
+            }
+        }
+
+        return new JobSnapshotIndexes(
+                minus(jobIdsByApplicationName, descriptor.getApplicationName(), jobId),
+                minus(jobIdsByCapacityGroup, descriptor.getCapacityGroup(), jobId),
+                minus(jobIdsByImageName, getImageName(job), jobId),
+                newJobIdsByAttributeName,
+                minus(jobIdsByState, job.getStatus().getState(), jobId),
+                newTaskIdsByState,
+                newTaskIdsByAgentInstanceId,
+                newTaskIdsByAttributeName
+        );
+    }
+
+    JobSnapshotIndexes updateTask(Task previous, Task current) {
+        if (previous == current) {
+            return this;
+        }
+        if (previous != null && !previous.getId().equals(current.getId())) {
+            return removeTask(previous).updateTask(null, current);
+        }
+
+        String taskId = current.getId();
+
+        PMap<TaskState, PSet<String>> newTaskIdsByState = taskIdsByState;
+        TaskState previousState = previous == null ? null : previous.getStatus().getState();
+        TaskState currentState = current.getStatus().getState();
+        if (previousState != currentState) {
+            newTaskIdsByState = plus(minus(taskIdsByState, previousState, taskId), currentState, taskId);
+        }
+        PMap<String, PSet<String>> newTaskIdsByAgentInstanceId = taskIdsByAgentInstanceId;
+        String previousAgentInstanceId = previous == null ? null : getAgentInstanceId(previous);
+        String currentAgentInstanceId = getAgentInstanceId(current);
+        if (!Objects.equals(previousAgentInstanceId, currentAgentInstanceId)) {
+            newTaskIdsByAgentInstanceId = plus(minus(taskIdsByAgentInstanceId, previousAgentInstanceId, taskId), currentAgentInstanceId, taskId);
+        }
+        PMap<String, PSet<String>> newTaskIdsByAttributeName = taskIdsByAttributeName;
+        Set<String> previousAttributeNames = previous == null ? Collections.emptySet() : previous.getAttributes().keySet();
+        Set<String> currentAttributeNames = current.getAttributes().keySet();
+        if (!previousAttributeNames.equals(currentAttributeNames)) {
+            for (String name : previousAttributeNames) {
+                newTaskIdsByAttributeName = minus(newTaskIdsByAttributeName, name, taskId);
+            }
+            for (String name : currentAttributeNames) {
+                newTaskIdsByAttributeName = plus(newTaskIdsByAttributeName, name, taskId);
+            }
+        }
+
+        return withTaskIndexes(newTaskIdsByState, newTaskIdsByAgentInstanceId, newTaskIdsByAttributeName);
+    }
+
+    JobSnapshotIndexes removeTask(Task task) {
+        String taskId = task.getId();
+        PMap<String, PSet<String>> newTaskIdsByAttributeName = taskIdsByAttributeName;
+        for (String name : task.getAttributes().keySet()) {
+            newTaskIdsByAttributeName = minus(newTaskIdsByAttributeName, name, taskId);
+        }
+        return withTaskIndexes(
+                minus(taskIdsByState, task.getStatus().getState(), taskId),
+                minus(taskIdsByAgentInstanceId, getAgentInstanceId(task), taskId),
+                newTaskIdsByAttributeName
+        );
+    }
+
+    private JobSnapshotIndexes addJob(Job<?> job) {
+        JobDescriptor<?> descriptor = job.getJobDescriptor();
+        String jobId = job.getId();
+
+        PMap<String, PSet<String>> newJobIdsByAttributeName = jobIdsByAttributeName;
+        for (String name : descriptor.getAttributes().keySet()) {
+            newJobIdsByAttributeName = plus(newJobIdsByAttributeName, name, jobId);
+        }
+
+        return new JobSnapshotIndexes(
+                plus(jobIdsByApplicationName, descriptor.getApplicationName(), jobId),
+                plus(jobIdsByCapacityGroup, descriptor.getCapacityGroup(), jobId),
+                plus(jobIdsByImageName, getImageName(job), jobId),
+                newJobIdsByAttributeName,
+                plus(jobIdsByState, job.getStatus().getState(), jobId),
+                taskIdsByState,
+                taskIdsByAgentInstanceId,
+                taskIdsByAttributeName
+        );
+    }
+
+    private JobSnapshotIndexes withTaskIndexes(PMap<TaskState, PSet<String>> newTaskIdsByState,
+                                               PMap<String, PSet<String>> newTaskIdsByAgentInstanceId,
+                                               PMap<String, PSet<String>> newTaskIdsByAttributeName) {
+        if (newTaskIdsByState == taskIdsByState
+                && newTaskIdsByAgentInstanceId == taskIdsByAgentInstanceId
+                && newTaskIdsByAttributeName == taskIdsByAttributeName) {
+            return this;
+        }
+        return new JobSnapshotIndexes(
+                jobIdsByApplicationName,
+                jobIdsByCapacityGroup,
+                jobIdsByImageName,
+                jobIdsByAttributeName,
+                jobIdsByState,
+                newTaskIdsByState,
+                newTaskIdsByAgentInstanceId,
+                newTaskIdsByAttributeName
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "JobSnapshotIndexes{" +
+                "applicationNames=" + jobIdsByApplicationName.size() +
+                ", capacityGroups=" + jobIdsByCapacityGroup.size() +
+                ", imageNames=" + jobIdsByImageName.size() +
+                ", attributeNames=" + jobIdsByAttributeName.size() +
+                ", jobStates=" + jobIdsByState.size() +
+                ", taskStates=" + taskIdsByState.size() +
+                ", taskAgentInstances=" + taskIdsByAgentInstanceId.size() +
+                ", taskAttributeNames=" + taskIdsByAttributeName.size() +
+                '}';
+    }
+
+    public static JobSnapshotIndexes empty() {
+        return EMPTY;
+    }
+
+    public static JobSnapshotIndexes newInstance(Map<String, Job<?>> jobsById, Map<String, Task> taskById) {
+        JobSnapshotIndexes indexes = EMPTY;
+        for (Job<?> job : jobsById.values()) {
+            indexes = indexes.addJob(job);
+        }
+        for (Task task : taskById.values()) {
+            indexes = indexes.updateTask(null, task);
+        }
+        return indexes;
+    }
+
+    private static String getImageName(Job<?> job) {
+        Image image = job.getJobDescriptor().getContainer().getImage();
+        return image == null ? null : image.getName();
+    }
+
+    private static String getAgentInstanceId(Task task) {
+        return task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID);
+    }
+
+    private static <K> Set<String> get(PMap<K, PSet<String>> index, K key) {
+        if (key == null) {
+            return Collections.emptySet();
+        }
+        PSet<String> ids = index.get(key);
+        return ids == null ? Collections.emptySet() : ids;
+    }
+
+    private static <K> PMap<K, PSet<String>> plus(PMap<K, PSet<String>> index, K key, String id) {
+        if (key == null) {
+            return index;
+        }
+        PSet<String> ids = index.get(key);
+        if (ids == null) {
+            return index.plus(key, HashTreePSet.singleton(id));
+        }
+        return ids.contains(id) ? index : index.plus(key, ids.plus(id));
+    }
+
+    private static <K> PMap<K, PSet<String>> minus(PMap<K, PSet<String>> index, K key, String id) {
+        if (key == null) {
+            return index;
+        }
+        PSet<String> ids = index.get(key);
+        if (ids == null || !ids.contains(id)) {
+            return index;
+        }
+        PSet<String> newIds = ids.minus(id);
+        return newIds.isEmpty() ? index.minus(key) : index.plus(key, newIds);
+    }
+}
@@ -45,6 +45,7 @@ public class PCollectionJobSnapshot extends JobSnapshot {
     final PMap<String, CachedJob> cachedJobsById;
     final PMap<String, Job<?>> jobsById;
     final PMap<String, Task> taskById;
+    final JobSnapshotIndexes indexes;
 
     private final boolean autoFixInconsistencies;
     private final boolean archiveMode;
@@ -85,6 +86,7 @@ public class PCollectionJobSnapshot extends JobSnapshot {
                 HashTreePMap.from(cachedJobsById),
                 HashTreePMap.from(jobsById),
                 HashTreePMap.from(taskById),
+                JobSnapshotIndexes.newInstance(jobsById, taskById),
                 autoFixInconsistencies,
                 archiveMode,
                 inconsistentDataListener,
@@ -96,6 +98,7 @@ public class PCollectionJobSnapshot extends JobSnapshot {
                                    PMap<String, CachedJob> cachedJobsById,
                                    PMap<String, Job<?>> jobsById,
                                    PMap<String, Task> taskById,
+                                   JobSnapshotIndexes indexes,
                                    boolean autoFixInconsistencies,
                                    boolean archiveMode,
                                    Consumer<String> inconsistentDataListener,
@@ -104,6 +107,7 @@ public class PCollectionJobSnapshot extends JobSnapshot {
         this.cachedJobsById = cachedJobsById;
         this.jobsById = jobsById;
         this.taskById = taskById;
+        this.indexes = indexes;
         this.autoFixInconsistencies = autoFixInconsistencies;
         this.archiveMode = archiveMode;
         this.inconsistentDataListener = inconsistentDataListener;
@@ -182,6 +186,11 @@ public class PCollectionJobSnapshot extends JobSnapshot {
         return allJobTaskPairs;
     }
 
+    @Override
+    public JobSnapshotIndexes getIndexes() {
+        return indexes;
+    }
+
     public Optional<Pair<Job<?>, Task>> findTaskById(String taskId) {
         Task task = taskById.get(taskId);
         if (task == null) {
@@ -206,7 +215,8 @@ public class PCollectionJobSnapshot extends JobSnapshot {
             return Optional.of(newSnapshot(
                     cachedJobsById.plus(job.getId(), CachedJob.newInstance(job, HashTreePMap.empty(), archiveMode, titusRuntime)),
                     jobsById.plus(job.getId(), job),
-                    taskById
+                    taskById,
+                    indexes.updateJob(null, job)
             ));
         }
 
@@ -266,12 +276,14 @@ public class PCollectionJobSnapshot extends JobSnapshot {
 
     JobSnapshot newSnapshot(PMap<String, CachedJob> cachedJobsById,
                             PMap<String, Job<?>> jobsById,
-                            PMap<String, Task> taskById) {
+                            PMap<String, Task> taskById,
+                            JobSnapshotIndexes indexes) {
         return new PCollectionJobSnapshot(
                 this.snapshotId,
                 cachedJobsById,
                 jobsById,
                 taskById,
+                indexes,
                 autoFixInconsistencies,
                 archiveMode,
                 inconsistentDataListener,
@@ -36,6 +36,7 @@ import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
 import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
 import com.netflix.titus.api.model.callmetadata.CallMetadata;
 import com.netflix.titus.api.model.callmetadata.CallMetadataConstants;
 import com.netflix.titus.common.runtime.TitusRuntime;
@@ -269,6 +270,45 @@ public class GrpcJobReplicatorEventStreamTest {
         assertThat(snapshotEvent.getSnapshot().getTaskMap()).isEmpty();
     }
 
+    @Test
+    public void testCacheResumeFromPreviousSnapshot() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+        BatchJobTask task1 = tasks.get(0);
+        BatchJobTask task2 = tasks.get(1);
+        Task launchedTask1 = JobFunctions.changeTaskStatus(task1, TaskStatus.newBuilder().withState(TaskState.Launched).build());
+
+        // Initial connection with the full snapshot.
+        CacheUpdater initialUpdater = new CacheUpdater(JobSnapshotFactories.newDefault(titusRuntime), true, titusRuntime);
+        assertThat(initialUpdater.getResumePoint()).isEmpty();
+        initialUpdater.onEvent(JobUpdateEvent.newJob(job, CallMetadataConstants.UNDEFINED_CALL_METADATA));
+        initialUpdater.onEvent(TaskUpdateEvent.newTask(job, task1, CallMetadataConstants.UNDEFINED_CALL_METADATA));
+        assertThat(initialUpdater.onEvent(JobManagerEvent.snapshotMarker())).isNotEmpty();
+        initialUpdater.onEvent(JobManagerEvent.keepAliveEvent(123));
+
+        Pair<JobSnapshot, Long> resumePoint = initialUpdater.getResumePoint().orElse(null);
+        assertThat(resumePoint).isNotNull();
+        assertThat(resumePoint.getRight()).isEqualTo(123L);
+
+        // Resumed connection receives only the changes.
+        CacheUpdater resumedUpdater = new CacheUpdater(JobSnapshotFactories.newDefault(titusRuntime), true,
+                resumePoint.getLeft(), resumePoint.getRight(), titusRuntime);
+        assertThat(resumedUpdater.getResumePoint().map(Pair::getRight)).contains(123L);
+        assertThat(resumedUpdater.onEvent(JobManagerEvent.resumeMarker())).isEmpty();
+        assertThat(resumedUpdater.onEvent(TaskUpdateEvent.taskChange(job, launchedTask1, task1, CallMetadataConstants.UNDEFINED_CALL_METADATA))).isEmpty();
+        assertThat(resumedUpdater.onEvent(TaskUpdateEvent.newTask(job, task2, CallMetadataConstants.UNDEFINED_CALL_METADATA))).isEmpty();
+
+        ReplicatorEvent<JobSnapshot, JobManagerEvent<?>> snapshotEvent = resumedUpdater.onEvent(JobManagerEvent.snapshotMarker()).orElse(null);
+        assertThat(snapshotEvent).isNotNull();
+        assertThat(snapshotEvent.getSnapshot().getJobMap()).containsOnlyKeys(job.getId());
+        assertThat(snapshotEvent.getSnapshot().getTaskMap()).containsOnlyKeys(task1.getId(), task2.getId());
+        assertThat(snapshotEvent.getSnapshot().getTaskMap().get(task1.getId()).getStatus().getState()).isEqualTo(TaskState.Launched);
+
+        // A failed connection cannot be resumed.
+        resumedUpdater.markFailed();
+        assertThat(resumedUpdater.getResumePoint()).isEmpty();
+    }
+
     private GrpcJobReplicatorEventStream newStream() {
         when(client.observeJobs(any())).thenReturn(ReactorExt.toFlux(jobServiceStub.observeJobs(true)));
         return new GrpcJobReplicatorEventStream(client, JobSnapshotFactories.newDefault(titusRuntime), configuration, new DataReplicatorMetrics("test", false, titusRuntime), titusRuntime, Schedulers.parallel());
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.runtime.connector.jobmanager.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobModel;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.tuple.Pair;
+import org.junit.Test;
+
+import static com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotTestUtil.newJobWithTasks;
+import static com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotTestUtil.newSnapshot;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobSnapshotIndexesTest {
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.internal();
+
+    private final JobSnapshotFactory factory = JobSnapshotFactories.newDefault(titusRuntime);
+
+    @Test
+    public void testJobIndexes() {
+        Pair<Job<?>, Map<String, Task>> pair1 = newJobWithTasks(1, 2);
+        Job<?> job1 = pair1.getLeft();
+
+        JobSnapshot snapshot = newSnapshot(factory, pair1);
+        JobSnapshotIndexes indexes = snapshot.getIndexes();
+        assertThat(indexes.getJobIdsByApplicationName(job1.getJobDescriptor().getApplicationName())).containsExactly(job1.getId());
+        assertThat(indexes.getJobIdsByCapacityGroup(job1.getJobDescriptor().getCapacityGroup())).containsExactly(job1.getId());
+        assertThat(indexes.getJobIdsByImageName(job1.getJobDescriptor().getContainer().getImage().getName())).containsExactly(job1.getId());
+        assertThat(indexes.getJobIdsByState(job1.getStatus().getState())).containsExactly(job1.getId());
+        assertThat(indexes.getJobIdsByApplicationName("unknown")).isEmpty();
+
+        // Change job state
+        Job<?> killInitiated = JobFunctions.changeJobStatus(job1, JobState.KillInitiated, "test");
+        snapshot = snapshot.updateJob(killInitiated).orElse(null);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getIndexes().getJobIdsByState(JobState.KillInitiated)).containsExactly(job1.getId());
+
+        // Finish the job, which removes it from the snapshot
+        Job<?> finished = JobFunctions.changeJobStatus(killInitiated, JobState.Finished, "test");
+        snapshot = snapshot.updateJob(finished).orElse(null);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getIndexes().getJobIdsByApplicationName(job1.getJobDescriptor().getApplicationName())).isEmpty();
+        assertThat(snapshot.getIndexes().getJobIdsByState(JobState.Finished)).isEmpty();
+        for (Task task : pair1.getRight().values()) {
+            assertThat(snapshot.getIndexes().getTaskIdsByState(task.getStatus().getState())).doesNotContain(task.getId());
+        }
+    }
+
+    @Test
+    public void testTaskIndexes() {
+        Pair<Job<?>, Map<String, Task>> pair1 = newJobWithTasks(1, 2);
+        List<Task> tasks = new ArrayList<>(pair1.getRight().values());
+        Task task = tasks.get(0);
+
+        JobSnapshot snapshot = newSnapshot(factory, pair1);
+        assertThat(snapshot.getIndexes().getTaskIdsByState(task.getStatus().getState())).contains(task.getId());
+
+        Task killInitiated = JobFunctions.changeTaskStatus(task, JobModel.newTaskStatus()
+                .withState(TaskState.KillInitiated)
+                .withReasonCode("test")
+                .build()
+        );
+        snapshot = snapshot.updateTask(killInitiated, false).orElse(null);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getIndexes().getTaskIdsByState(TaskState.KillInitiated)).containsExactly(task.getId());
+        assertThat(snapshot.getIndexes().getTaskIdsByState(task.getStatus().getState())).doesNotContain(task.getId());
+    }
+
+    @Test
+    public void testTaskPlacementAndAttributeIndexes() {
+        Pair<Job<?>, Map<String, Task>> pair1 = newJobWithTasks(1, 2);
+        List<Task> tasks = new ArrayList<>(pair1.getRight().values());
+        Task task = tasks.get(0);
+
+        JobSnapshot snapshot = newSnapshot(factory, pair1);
+        assertThat(snapshot.getIndexes().getTaskIdsByAgentInstanceId("agent1")).isEmpty();
+
+        // Place the task, and tag it
+        Task placed = task.toBuilder()
+                .addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID, "agent1")
+                .withAttributes(Collections.singletonMap("relocation.required", "true"))
+                .build();
+        snapshot = snapshot.updateTask(placed, false).orElse(null);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getIndexes().getTaskIdsByAgentInstanceId("agent1")).containsExactly(task.getId());
+        assertThat(snapshot.getIndexes().getTaskIdsByAttributeName("relocation.required")).containsExactly(task.getId());
+
+        // Move the task to another agent, and remove the tag
+        Task moved = placed.toBuilder()
+                .addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID, "agent2")
+                .withAttributes(Collections.emptyMap())
+                .build();
+        snapshot = snapshot.updateTask(moved, false).orElse(null);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getIndexes().getTaskIdsByAgentInstanceId("agent1")).isEmpty();
+        assertThat(snapshot.getIndexes().getTaskIdsByAgentInstanceId("agent2")).containsExactly(task.getId());
+        assertThat(snapshot.getIndexes().getTaskIdsByAttributeName("relocation.required")).isEmpty();
+    }
+}
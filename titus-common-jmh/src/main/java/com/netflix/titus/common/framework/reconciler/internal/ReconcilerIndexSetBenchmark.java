@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.framework.reconciler.internal;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.jmh.BenchmarkItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the reconciliation framework {@link IndexSet}, comparing a full rebuild from the whole collection
+ * of items with an incremental update of a single item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReconcilerIndexSetBenchmark {
+
+    private static final String ORDER_BY_ID = "orderById";
+    private static final String ORDER_BY_SLOT = "orderBySlot";
+
+    private static final int ITEMS_PER_SLOT = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private final Random random = new Random(123);
+
+    private IndexSet<BenchmarkItem> indexSet;
+    private List<BenchmarkItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Object, Comparator<BenchmarkItem>> comparators = new HashMap<>();
+        comparators.put(ORDER_BY_ID, Comparator.comparing(BenchmarkItem::getId));
+        comparators.put(ORDER_BY_SLOT, Comparator.comparing(BenchmarkItem::getSlot).thenComparing(BenchmarkItem::getId));
+
+        this.items = BenchmarkItem.newItems(size, ITEMS_PER_SLOT);
+        this.indexSet = IndexSet.newIndexSet(comparators, BenchmarkItem::getId).apply(items);
+    }
+
+    @Benchmark
+    public IndexSet<BenchmarkItem> apply() {
+        return indexSet.apply(items);
+    }
+
+    @Benchmark
+    public IndexSet<BenchmarkItem> updateOne() {
+        int idx = random.nextInt(size);
+        BenchmarkItem updated = items.get(idx).nextVersion();
+        items.set(idx, updated);
+        indexSet = indexSet.add(Collections.singletonList(updated));
+        return indexSet;
+    }
+
+    @Benchmark
+    public List<BenchmarkItem> getOrdered() {
+        return indexSet.getOrdered(ORDER_BY_SLOT);
+    }
+}
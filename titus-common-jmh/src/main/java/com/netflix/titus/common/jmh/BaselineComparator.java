@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares JMH results (JSON format) with a baseline, and exits with a non-zero status if any benchmark regressed.
+ * Benchmarks are matched by their name and parameters. A benchmark regressed if the confidence intervals of its
+ * baseline and current scores do not overlap, and the score changed by more than the given threshold (in percent).
+ * For the throughput mode a lower score is a regression, for the other modes (average/sample/single shot time)
+ * a higher one. Benchmarks run with more threads than there are processors on this machine are reported, but not
+ * checked, as they measure time slicing rather than contention.
+ */
+public class BaselineComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BaselineComparator <baseline_file> <results_file> <threshold_percent>");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            System.err.println("Baseline file not found: " + baselineFile + ". Record it with './gradlew :titus-common-jmh:jmh -PjmhBaseline'");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = load(baselineFile);
+        Map<String, Score> results = load(new File(args[1]));
+        double threshold = Double.parseDouble(args[2]);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        List<String> regressions = new ArrayList<>();
+        results.forEach((key, result) -> {
+            Score reference = baseline.get(key);
+            if (reference == null) {
+                System.out.printf("%-100s %s (no baseline)%n", key, result);
+                return;
+            }
+            double change = reference.value == 0 ? 0 : (result.value - reference.value) * 100 / reference.value;
+            if (result.threads > processors) {
+                System.out.printf("%-100s %s -> %s (%+.1f%%, not checked: threads=%d, processors=%d)%n",
+                        key, reference, result, change, result.threads, processors);
+                return;
+            }
+            boolean worse = result.isThroughput() ? result.high < reference.low : result.low > reference.high;
+            double regression = result.isThroughput() ? -change : change;
+            System.out.printf("%-100s %s -> %s (%+.1f%%)%n", key, reference, result, change);
+            if (worse && regression > threshold) {
+                regressions.add(String.format("%s: %s -> %s", key, reference, result));
+            }
+        });
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.1f%%, outside of the confidence intervals:%n", regressions.size(), threshold);
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> load(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode benchmark : MAPPER.readTree(file)) {
+            StringBuilder keyBuilder = new StringBuilder(benchmark.get("benchmark").asText());
+            JsonNode params = benchmark.get("params");
+            if (params != null) {
+                Map<String, String> sortedParams = new TreeMap<>();
+                params.fields().forEachRemaining(entry -> sortedParams.put(entry.getKey(), entry.getValue().asText()));
+                keyBuilder.append(sortedParams);
+            }
+            JsonNode primaryMetric = benchmark.get("primaryMetric");
+            double score = primaryMetric.get("score").asDouble();
+            // JMH reports NaN bounds if there is a single measurement only, in which case the interval is the score
+            JsonNode confidence = primaryMetric.get("scoreConfidence");
+            double low = confidence == null ? Double.NaN : confidence.get(0).asDouble();
+            double high = confidence == null ? Double.NaN : confidence.get(1).asDouble();
+            scores.put(keyBuilder.toString(), new Score(
+                    benchmark.get("mode").asText(),
+                    benchmark.get("threads").asInt(1),
+                    score,
+                    Double.isNaN(low) ? score : low,
+                    Double.isNaN(high) ? score : high,
+                    primaryMetric.get("scoreUnit").asText()
+            ));
+        }
+        return scores;
+    }
+
+    private static class Score {
+
+        private final String mode;
+        private final int threads;
+        private final double value;
+        private final double low;
+        private final double high;
+        private final String unit;
+
+        private Score(String mode, int threads, double value, double low, double high, String unit) {
+            this.mode = mode;
+            this.threads = threads;
+            this.value = value;
+            this.low = low;
+            this.high = high;
+            this.unit = unit;
+        }
+
+        private boolean isThroughput() {
+            return "thrpt".equals(mode);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f [%.3f, %.3f] %s", value, low, high, unit);
+        }
+    }
+}
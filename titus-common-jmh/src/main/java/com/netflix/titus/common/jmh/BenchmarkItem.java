@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable value used by the benchmarks. Items are grouped into slots, which mimics tasks grouped by their jobs.
+ */
+public class BenchmarkItem {
+
+    private final String id;
+    private final String slot;
+    private final long version;
+
+    public BenchmarkItem(String id, String slot, long version) {
+        this.id = id;
+        this.slot = slot;
+        this.version = version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSlot() {
+        return slot;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BenchmarkItem nextVersion() {
+        return new BenchmarkItem(id, slot, version + 1);
+    }
+
+    public static BenchmarkItem newItem(int idx, int itemsPerSlot) {
+        return new BenchmarkItem(String.format("item#%08d", idx), String.format("slot#%08d", idx / itemsPerSlot), 0);
+    }
+
+    public static List<BenchmarkItem> newItems(int count, int itemsPerSlot) {
+        List<BenchmarkItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(newItem(i, itemsPerSlot));
+        }
+        return items;
+    }
+}
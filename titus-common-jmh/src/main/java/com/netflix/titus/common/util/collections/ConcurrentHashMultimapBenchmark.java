@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.jmh.BenchmarkItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ConcurrentHashMultimap}, with items keyed by their slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrentHashMultimapBenchmark {
+
+    private static final int ITEMS_PER_SLOT = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private ConcurrentHashMultimap<String, BenchmarkItem> multimap;
+    private List<BenchmarkItem> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.items = BenchmarkItem.newItems(size, ITEMS_PER_SLOT);
+        this.multimap = new ConcurrentHashMultimap<>(BenchmarkItem::getId, (existing, replacement) -> true);
+        items.forEach(item -> multimap.put(item.getSlot(), item));
+    }
+
+    @Benchmark
+    public boolean replace() {
+        BenchmarkItem item = randomItem();
+        return multimap.put(item.getSlot(), item.nextVersion());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean replaceContended() {
+        return replace();
+    }
+
+    @Benchmark
+    public boolean removeAndPut() {
+        BenchmarkItem item = randomItem();
+        multimap.remove(item.getSlot(), item);
+        return multimap.put(item.getSlot(), item);
+    }
+
+    @Benchmark
+    public Collection<BenchmarkItem> get() {
+        return multimap.get(randomItem().getSlot());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Collection<BenchmarkItem> getContended() {
+        return get();
+    }
+
+    private BenchmarkItem randomItem() {
+        return items.get(ThreadLocalRandom.current().nextInt(size));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.jmh.BenchmarkItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the {@link IndexSet} created by {@link Indexes}, which exercises {@link DefaultIndexSet},
+ * {@link DefaultOrder}, {@link DefaultGroup} and {@link DefaultIndex}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IndexSetBenchmark {
+
+    private static final String ORDER_BY_ID = "orderById";
+    private static final String GROUP_BY_SLOT = "groupBySlot";
+    private static final String INDEX_BY_ID = "indexById";
+
+    private static final int ITEMS_PER_SLOT = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private final Random random = new Random(123);
+
+    private IndexSet<String, BenchmarkItem> indexSet;
+    private List<BenchmarkItem> items;
+    private int nextNewItemIdx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.items = BenchmarkItem.newItems(size, ITEMS_PER_SLOT);
+        this.indexSet = newIndexSet().add(items);
+        this.nextNewItemIdx = size;
+    }
+
+    @Benchmark
+    public IndexSet<String, BenchmarkItem> updateOne() {
+        int idx = random.nextInt(size);
+        BenchmarkItem updated = items.get(idx).nextVersion();
+        items.set(idx, updated);
+        indexSet = indexSet.add(Collections.singletonList(updated));
+        return indexSet;
+    }
+
+    /**
+     * Adds a new item, and removes it immediately, so the index set size stays constant.
+     */
+    @Benchmark
+    public IndexSet<String, BenchmarkItem> addAndRemoveOne() {
+        BenchmarkItem newItem = BenchmarkItem.newItem(nextNewItemIdx++, ITEMS_PER_SLOT);
+        IndexSet<String, BenchmarkItem> withNew = indexSet.add(Collections.singletonList(newItem));
+        return withNew.remove(Collections.singletonList(newItem.getId()));
+    }
+
+    @Benchmark
+    public BenchmarkItem lookupById() {
+        Map<String, BenchmarkItem> byId = indexSet.<String, BenchmarkItem>getIndex(INDEX_BY_ID).get();
+        return byId.get(items.get(random.nextInt(size)).getId());
+    }
+
+    @Benchmark
+    public Map<String, BenchmarkItem> lookupGroup() {
+        Map<String, Map<String, BenchmarkItem>> bySlot = indexSet.<String, BenchmarkItem>getGroup(GROUP_BY_SLOT).get();
+        return bySlot.get(items.get(random.nextInt(size)).getSlot());
+    }
+
+    @Benchmark
+    public BenchmarkItem orderedListRandomAccess() {
+        List<BenchmarkItem> ordered = indexSet.<BenchmarkItem>getOrder(ORDER_BY_ID).orderedList();
+        return ordered.get(random.nextInt(ordered.size()));
+    }
+
+    private static IndexSet<String, BenchmarkItem> newIndexSet() {
+        return Indexes.<String, BenchmarkItem>newBuilder()
+                .withOrder(ORDER_BY_ID, IndexSpec.<String, String, BenchmarkItem, BenchmarkItem>newBuilder()
+                        .withIndexKeyExtractor(BenchmarkItem::getId)
+                        .withPrimaryKeyExtractor(BenchmarkItem::getId)
+                        .withIndexKeyComparator(String::compareTo)
+                        .withPrimaryKeyComparator(String::compareTo)
+                        .build()
+                )
+                .withGroup(GROUP_BY_SLOT, IndexSpec.<String, String, BenchmarkItem, BenchmarkItem>newBuilder()
+                        .withIndexKeyExtractor(BenchmarkItem::getSlot)
+                        .withPrimaryKeyExtractor(BenchmarkItem::getId)
+                        .withIndexKeyComparator(String::compareTo)
+                        .withPrimaryKeyComparator(String::compareTo)
+                        .build()
+                )
+                .withIndex(INDEX_BY_ID, IndexSpec.<String, String, BenchmarkItem, BenchmarkItem>newBuilder()
+                        .withIndexKeysExtractor(item -> Collections.singleton(item.getId()))
+                        .withPrimaryKeyExtractor(BenchmarkItem::getId)
+                        .withIndexKeyComparator(String::compareTo)
+                        .withPrimaryKeyComparator(String::compareTo)
+                        .build()
+                )
+                .build();
+    }
+}
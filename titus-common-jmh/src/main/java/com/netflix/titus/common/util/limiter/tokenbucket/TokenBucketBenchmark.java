@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.util.limiter.Limiters;
+import com.netflix.titus.common.util.time.Clocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the fixed interval {@link TokenBucket} implementations, comparing the synchronized one with
+ * the lock-free one at 1, 8 and 64 threads. The bucket is refilled fast enough to never run out of tokens, so only
+ * the cost of the bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TokenBucketBenchmark {
+
+    private static final long CAPACITY = 1_000_000_000_000L;
+
+    @Param({"synchronized", "lockFree"})
+    public String implementation;
+
+    private TokenBucket tokenBucket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("lockFree".equals(implementation)) {
+            this.tokenBucket = Limiters.createLockFreeFixedIntervalTokenBucket(
+                    "benchmark", CAPACITY, CAPACITY, CAPACITY / 1000, 1, TimeUnit.MILLISECONDS, Clocks.system()
+            );
+        } else {
+            this.tokenBucket = Limiters.createFixedIntervalTokenBucket(
+                    "benchmark", CAPACITY, CAPACITY, CAPACITY / 1000, 1, TimeUnit.MILLISECONDS, Clocks.system()
+            );
+        }
+    }
+
+    @Benchmark
+    public boolean tryTake() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean tryTakeContended() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean tryTakeHighlyContended() {
+        return tokenBucket.tryTake();
+    }
+
+    @Benchmark
+    public long getNumberOfTokens() {
+        return tokenBucket.getNumberOfTokens();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.batch;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.titus.common.util.limiter.Limiters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+/**
+ * Measures the cost of pushing a stream of updates through {@link RateLimitedBatcher}, including deduplication of
+ * updates for the same identifier, and flushing them in batches. Time is driven by {@link TestScheduler}, so only
+ * the CPU cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RateLimitedBatcherBenchmark {
+
+    private static final long INITIAL_DELAY_MS = 1_000;
+    private static final long MAX_DELAY_MS = 10_000;
+
+    @Param({"10000", "100000"})
+    public int updates;
+
+    /**
+     * Number of distinct items (identifiers) the updates are applied to.
+     */
+    @Param({"1000", "10000"})
+    public int items;
+
+    @Param({"100"})
+    public int batches;
+
+    @Benchmark
+    public long offerAndFlush() {
+        TestScheduler testScheduler = Schedulers.test();
+        RateLimitedBatcher<Update, String> batcher = RateLimitedBatcher.create(
+                Limiters.unlimited("benchmark"),
+                INITIAL_DELAY_MS,
+                MAX_DELAY_MS,
+                Update::getBatchId,
+                new LargestPerTimeBucket(0, INITIAL_DELAY_MS, testScheduler),
+                "benchmark",
+                new NoopRegistry(),
+                testScheduler
+        );
+
+        AtomicLong emittedItems = new AtomicLong();
+        PublishSubject<Update> subject = PublishSubject.create();
+        TestSubscriber<Batch<Update, String>> subscriber = new TestSubscriber<>();
+        subject.lift(batcher).doOnNext(batch -> emittedItems.addAndGet(batch.size())).subscribe(subscriber);
+
+        Instant now = Instant.ofEpochMilli(testScheduler.now());
+        for (int i = 0; i < updates; i++) {
+            int itemIdx = i % items;
+            subject.onNext(new Update("item#" + itemIdx, "batch#" + (itemIdx % batches), i, now));
+        }
+        subject.onCompleted();
+        testScheduler.advanceTimeBy(MAX_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        return emittedItems.get();
+    }
+
+    private static class Update implements Batchable<String> {
+
+        private final String identifier;
+        private final String batchId;
+        private final long version;
+        private final Instant timestamp;
+
+        private Update(String identifier, String batchId, long version, Instant timestamp) {
+            this.identifier = identifier;
+            this.batchId = batchId;
+            this.version = version;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        private String getBatchId() {
+            return batchId;
+        }
+
+        @Override
+        public Priority getPriority() {
+            return Priority.LOW;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public boolean isEquivalent(Batchable<?> other) {
+            if (!(other instanceof Update)) {
+                return false;
+            }
+            Update otherUpdate = (Update) other;
+            return identifier.equals(otherUpdate.identifier) && version == otherUpdate.version;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link JobStoreRecordCodec}, encoding and decoding generated batch jobs and tasks in each of the
+ * record formats. The <tt>encode</tt> benchmark also reports the <tt>bytesWritten</tt> and <tt>recordsWritten</tt>
+ * secondary results, which give the average record size in each format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JobStoreRecordCodecBenchmark {
+
+    private static final int RECORD_COUNT = 2_000;
+
+    @Param({"Json", "Smile"})
+    public JobStoreRecordCodec.Format format;
+
+    private JobStoreRecordCodec codec;
+    private List<Object> records;
+    private List<JobStoreRecordCodec.Record> encodedRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.codec = new JobStoreRecordCodec(ObjectMappers.storeMapper(), format);
+        this.records = new ArrayList<>();
+        this.encodedRecords = new ArrayList<>();
+        for (Job<BatchJobExt> job : JobGenerator.batchJobsOfSize(10).getValues(RECORD_COUNT / 2)) {
+            Task task = JobGenerator.batchTasks(job).getValue();
+            records.add(job);
+            records.add(task);
+            encodedRecords.add(codec.encode(job));
+            encodedRecords.add(codec.encode(task));
+        }
+    }
+
+    @Benchmark
+    public JobStoreRecordCodec.Record encode(EncodedBytes encodedBytes) {
+        JobStoreRecordCodec.Record record = codec.encode(records.get(ThreadLocalRandom.current().nextInt(RECORD_COUNT)));
+        encodedBytes.recordsWritten++;
+        encodedBytes.bytesWritten += record.getBinaryValue() != null
+                ? record.getBinaryValue().remaining()
+                : record.getValue().getBytes(StandardCharsets.UTF_8).length;
+        return record;
+    }
+
+    @Benchmark
+    public Object decode() {
+        int index = ThreadLocalRandom.current().nextInt(RECORD_COUNT);
+        Class<?> type = index % 2 == 0 ? Job.class : Task.class;
+        return codec.decode(encodedRecords.get(index), type);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedBytes {
+
+        public long bytesWritten;
+        public long recordsWritten;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesWritten = 0;
+            recordsWritten = 0;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import io.kubernetes.client.openapi.models.V1PersistentVolumeList;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodList;
 import io.kubernetes.client.util.CallGeneratorParams;
+import okhttp3.Call;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
@@ -136,9 +137,9 @@ public class DefaultStdStdKubeApiFacade implements StdKubeApiFacade {
 
     @Override
     public Mono<V1Pod> createNamespacedPodAsync(String namespace, V1Pod pod) {
-        return KubeUtil.toReact(handler ->
+        return KubeUtil.<V1Pod>toReact(handler ->
                 coreV1Api.createNamespacedPodAsync(namespace, pod, null, null, null, handler)
-        );
+        ).onErrorMap(ApiException.class, KubeApiException::new);
     }
 
     @Override
@@ -177,6 +178,29 @@ public class DefaultStdStdKubeApiFacade implements StdKubeApiFacade {
         }
     }
 
+    /**
+     * The response body is not deserialized, as depending on the deletion stage the API server returns either
+     * the pod or the status object, and the generated client expects the former only.
+     */
+    @Override
+    public Mono<Void> deleteNamespacedPodAsync(String namespace, String podName, int deleteGracePeriod) {
+        return KubeUtil.<Void>toReact(handler -> {
+            Call call = coreV1Api.deleteNamespacedPodCall(
+                    podName,
+                    namespace,
+                    null,
+                    null,
+                    deleteGracePeriod,
+                    null,
+                    null,
+                    null,
+                    handler
+            );
+            coreV1Api.getApiClient().executeAsync(call, handler);
+            return call;
+        }).onErrorMap(ApiException.class, KubeApiException::new);
+    }
+
     @Override
     public void deleteNamespacedPersistentVolumeClaim(String namespace, String volumeClaimName) throws KubeApiException {
         try {
@@ -33,6 +33,7 @@ import io.kubernetes.client.informer.SharedInformerFactory;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.util.Config;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Request;
@@ -49,6 +50,8 @@ public class StdKubeApiClients {
      */
     public static final Pattern INSTANCE_ID_PATTERN = Pattern.compile("i-(\\p{Alnum}){17}+");
 
+    private static final int MAX_ASYNC_REQUESTS = 512;
+
     public static ApiClient createApiClient(String metricsNamePrefix,
                                             TitusRuntime titusRuntime,
                                             long readTimeoutMs) {
@@ -91,8 +94,15 @@ public class StdKubeApiClients {
 
         OkHttpClient.Builder newBuilder = client.getHttpClient().newBuilder();
 
+        // OkHttp limits the number of concurrent asynchronous requests to 5 per host by default. The async API users
+        // bound the number of in-flight requests themselves.
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_ASYNC_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_ASYNC_REQUESTS);
+
         // See: https://github.com/kubernetes-client/java/pull/960
         newBuilder.protocols(Collections.singletonList(Protocol.HTTP_1_1))
+                .dispatcher(dispatcher)
                 .addInterceptor(metricsInterceptor)
                 .readTimeout(readTimeoutMs, TimeUnit.SECONDS);
 
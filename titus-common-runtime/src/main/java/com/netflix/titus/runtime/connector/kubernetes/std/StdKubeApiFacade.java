@@ -42,12 +42,20 @@ public interface StdKubeApiFacade {
 
     void createNamespacedPod(String namespace, V1Pod pod) throws KubeApiException;
 
+    /**
+     * Non-blocking version of {@link #createNamespacedPod(String, V1Pod)}. Errors are reported as {@link KubeApiException}.
+     */
     Mono<V1Pod> createNamespacedPodAsync(String namespace, V1Pod pod);
 
     void deleteNamespacedPod(String namespace, String nodeName) throws KubeApiException;
 
     void deleteNamespacedPod(String namespace, String podName, int deleteGracePeriod) throws KubeApiException;
 
+    /**
+     * Non-blocking version of {@link #deleteNamespacedPod(String, String, int)}. Errors are reported as {@link KubeApiException}.
+     */
+    Mono<Void> deleteNamespacedPodAsync(String namespace, String podName, int deleteGracePeriod);
+
     SharedIndexInformer<V1Pod> getPodInformer();
 
     // Persistent volumes
@@ -65,6 +65,9 @@ public class DefaultReconciliationEngine<EVENT> implements InternalReconciliatio
 
     private boolean firstTrigger;
 
+    private volatile Runnable readinessListener = () -> {
+    };
+
     public DefaultReconciliationEngine(EntityHolder bootstrapModel,
                                        boolean newlyCreated,
                                        DifferenceResolver<EVENT> runningDifferenceResolver,
@@ -75,7 +78,7 @@ public class DefaultReconciliationEngine<EVENT> implements InternalReconciliatio
                                        TitusRuntime titusRuntime) {
         this.runningDifferenceResolver = runningDifferenceResolver;
         this.eventFactory = eventFactory;
-        this.indexSet = IndexSet.newIndexSet(indexComparators);
+        this.indexSet = IndexSet.newIndexSet(indexComparators, EntityHolder::getId);
         this.titusRuntime = titusRuntime;
         this.clock = titusRuntime.getClock();
         this.eventObservable = ObservableExt.protectFromMissingExceptionHandlers(eventSubject, logger);
@@ -99,6 +102,11 @@ public class DefaultReconciliationEngine<EVENT> implements InternalReconciliatio
                 .orElse(false);
     }
 
+    @Override
+    public void setReadinessListener(Runnable readinessListener) {
+        this.readinessListener = readinessListener;
+    }
+
     @Override
     public boolean hasPendingTransactions() {
         return !pendingTransaction.isClosed() || !referenceChangeActions.isEmpty();
@@ -172,6 +180,7 @@ public class DefaultReconciliationEngine<EVENT> implements InternalReconciliatio
             changeActionEventQueue.add(eventFactory.newBeforeChangeEvent(this, referenceUpdate, transactionId));
             referenceChangeActions.add(new ChangeActionHolder(entityHolderId, referenceUpdate, subscriber, transactionId, clock.wallTime()));
             metrics.updateChangeActionQueueSize(referenceChangeActions.size());
+            readinessListener.run();
         });
     }
 
@@ -17,27 +17,33 @@
 package com.netflix.titus.common.framework.reconciler.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.netflix.spectator.api.DistributionSummary;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Timer;
 import com.netflix.spectator.api.patterns.PolledMeter;
@@ -61,6 +67,12 @@ import rx.Subscriber;
 import rx.Subscription;
 import rx.schedulers.Schedulers;
 
+/**
+ * Reconciliation framework running all engines from a single event loop. By default each loop iteration visits all
+ * engines. If the number of loop partitions is greater than zero, an engine is visited only when it is ready
+ * (new change action queued, a transaction in progress, or just added), or in a full reconciliation cycle. The ready
+ * engines are split into partitions by their root id, and the partitions are processed in parallel.
+ */
 public class DefaultReconciliationFramework<EVENT> implements ReconciliationFramework<EVENT> {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultReconciliationFramework.class);
@@ -69,6 +81,7 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
     private static final String LOOP_EXECUTION_TIME_METRIC = ROOT_METRIC_NAME + "executionTime";
     private static final String LAST_EXECUTION_TIME_METRIC = ROOT_METRIC_NAME + "lastExecutionTime";
     private static final String LAST_FULL_CYCLE_EXECUTION_TIME_METRIC = ROOT_METRIC_NAME + "lastFullCycleExecutionTime";
+    private static final String PROCESSED_ENGINES_METRIC = ROOT_METRIC_NAME + "processedEngines";
 
     private final Function<EntityHolder, InternalReconciliationEngine<EVENT>> engineFactory;
     private final long idleTimeoutMs;
@@ -77,12 +90,21 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
     private final ExecutorService executor;
     private final Scheduler scheduler;
 
+    private final int loopPartitions;
+    private final ExecutorService partitionExecutor;
+
     private final Set<InternalReconciliationEngine<EVENT>> engines = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+    // Used only if loop partitioning is enabled.
+    private final Set<InternalReconciliationEngine<EVENT>> readyEngines = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<InternalReconciliationEngine<EVENT>> activeEngines = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
     private final BlockingQueue<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> enginesAdded = new LinkedBlockingQueue<>();
     private final BlockingQueue<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> enginesToRemove = new LinkedBlockingQueue<>();
 
-    private final AtomicReference<Map<String, InternalReconciliationEngine<EVENT>>> idToEngineMapRef = new AtomicReference<>(Collections.emptyMap());
+    private final Map<String, InternalReconciliationEngine<EVENT>> idToEngineMap = new ConcurrentHashMap<>();
+    // Entity ids owned by each engine, as seen in the last index update. Accessed from the loop thread only.
+    private final Map<InternalReconciliationEngine<EVENT>, Set<String>> engineEntityIds = new HashMap<>();
     private IndexSet<EntityHolder> indexSet;
 
     private final Scheduler.Worker worker;
@@ -93,6 +115,7 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
     private final EventDistributor<EVENT> eventDistributor;
 
     private final Timer loopExecutionTime;
+    private final DistributionSummary processedEngines;
     private volatile long lastFullCycleExecutionTimeMs; // Probed by a polled meter.
     private volatile long lastExecutionTimeMs; // Probed by a polled meter.
 
@@ -107,11 +130,31 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
                                           ReconcileEventFactory<EVENT> eventFactory,
                                           Registry registry,
                                           Optional<Scheduler> optionalScheduler) {
+        this(bootstrapEngines, engineFactory, idleTimeoutMs, activeTimeoutMs, checkpointIntervalMs, indexComparators,
+                eventFactory, 0, registry, optionalScheduler);
+    }
+
+    /**
+     * @param loopPartitions if greater than zero, only ready engines are processed in a loop iteration (all engines
+     *                       in a full reconciliation cycle), split into this number of partitions processed in parallel.
+     *                       If a scheduler is provided, the partitions are processed sequentially on the scheduler thread.
+     */
+    public DefaultReconciliationFramework(List<InternalReconciliationEngine<EVENT>> bootstrapEngines,
+                                          Function<EntityHolder, InternalReconciliationEngine<EVENT>> engineFactory,
+                                          long idleTimeoutMs,
+                                          long activeTimeoutMs,
+                                          long checkpointIntervalMs,
+                                          Map<Object, Comparator<EntityHolder>> indexComparators,
+                                          ReconcileEventFactory<EVENT> eventFactory,
+                                          int loopPartitions,
+                                          Registry registry,
+                                          Optional<Scheduler> optionalScheduler) {
         Preconditions.checkArgument(idleTimeoutMs > 0, "idleTimeout <= 0 (%s)", idleTimeoutMs);
         Preconditions.checkArgument(activeTimeoutMs <= idleTimeoutMs, "activeTimeout(%s) > idleTimeout(%s)", activeTimeoutMs, idleTimeoutMs);
+        Preconditions.checkArgument(loopPartitions >= 0, "loopPartitions < 0 (%s)", loopPartitions);
 
         this.engineFactory = engineFactory;
-        this.indexSet = IndexSet.newIndexSet(indexComparators);
+        this.indexSet = IndexSet.newIndexSet(indexComparators, EntityHolder::getId);
 
         this.idleTimeoutMs = idleTimeoutMs;
         this.activeTimeoutMs = activeTimeoutMs;
@@ -130,18 +173,34 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
 
         this.worker = scheduler.createWorker();
 
+        this.loopPartitions = loopPartitions;
+        if (loopPartitions > 1 && !optionalScheduler.isPresent()) {
+            AtomicInteger threadIdx = new AtomicInteger();
+            this.partitionExecutor = Executors.newFixedThreadPool(loopPartitions, runnable -> {
+                Thread thread = new Thread(runnable, "TitusReconciliationFramework-partition-" + threadIdx.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.partitionExecutor = null;
+        }
+
         this.eventDistributor = new EventDistributor<>(eventFactory, checkpointIntervalMs, registry);
 
         this.loopExecutionTime = registry.timer(LOOP_EXECUTION_TIME_METRIC);
+        this.processedEngines = registry.distributionSummary(PROCESSED_ENGINES_METRIC);
         this.lastFullCycleExecutionTimeMs = scheduler.now() - idleTimeoutMs;
         this.lastExecutionTimeMs = scheduler.now();
         PolledMeter.using(registry).withName(LAST_EXECUTION_TIME_METRIC).monitorValue(this, self -> scheduler.now() - self.lastExecutionTimeMs);
         PolledMeter.using(registry).withName(LAST_FULL_CYCLE_EXECUTION_TIME_METRIC).monitorValue(this, self -> scheduler.now() - self.lastFullCycleExecutionTimeMs);
 
         engines.addAll(bootstrapEngines);
-        bootstrapEngines.forEach(eventDistributor::connectReconciliationEngine);
+        bootstrapEngines.forEach(engine -> {
+            eventDistributor.connectReconciliationEngine(engine);
+            registerReadinessListener(engine);
+        });
 
-        updateIndexSet();
+        updateIndexSet(bootstrapEngines, Collections.emptyList());
     }
 
     @Override
@@ -177,6 +236,9 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
         if (executor != null) {
             executor.shutdownNow();
         }
+        if (partitionExecutor != null) {
+            partitionExecutor.shutdownNow();
+        }
 
         return latch.getCount() == 0;
     }
@@ -188,6 +250,8 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
             }
         });
         engines.clear();
+        readyEngines.clear();
+        activeEngines.clear();
     }
 
     @Override
@@ -270,7 +334,7 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
 
     @Override
     public Optional<ReconciliationEngine<EVENT>> findEngineByRootId(String id) {
-        InternalReconciliationEngine<EVENT> engine = idToEngineMapRef.get().get(id);
+        InternalReconciliationEngine<EVENT> engine = idToEngineMap.get(id);
         if (engine == null) {
             return Optional.empty();
         }
@@ -279,7 +343,7 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
 
     @Override
     public Optional<Pair<ReconciliationEngine<EVENT>, EntityHolder>> findEngineByChildId(String childId) {
-        InternalReconciliationEngine<EVENT> engine = idToEngineMapRef.get().get(childId);
+        InternalReconciliationEngine<EVENT> engine = idToEngineMap.get(childId);
         if (engine == null) {
             return Optional.empty();
         }
@@ -322,52 +386,30 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
     }
 
     private void doLoop(boolean fullReconciliationCycle) {
+        if (loopPartitions > 0) {
+            doPartitionedLoop(fullReconciliationCycle);
+            return;
+        }
+
         Set<InternalReconciliationEngine<EVENT>> mustRunEngines = new HashSet<>();
 
         // Apply pending model updates/send events
-        boolean modelUpdates = false;
-        for (InternalReconciliationEngine engine : engines) {
+        Set<InternalReconciliationEngine<EVENT>> modifiedEngines = new HashSet<>();
+        for (InternalReconciliationEngine<EVENT> engine : engines) {
             try {
-                boolean anyChange = engine.applyModelUpdates();
-                modelUpdates = modelUpdates || anyChange;
+                if (engine.applyModelUpdates()) {
+                    modifiedEngines.add(engine);
+                }
             } catch (Exception e) {
                 logger.warn("Unexpected error from reconciliation engine 'applyModelUpdates' method", e);
             }
         }
 
-        // Add new engines.
-        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> recentlyAdded = new ArrayList<>();
-        enginesAdded.drainTo(recentlyAdded);
-        recentlyAdded.forEach(pair -> {
-            InternalReconciliationEngine<EVENT> newEngine = pair.getLeft();
-            engines.add(newEngine);
-            mustRunEngines.add(newEngine);
-            eventDistributor.connectReconciliationEngine(newEngine);
-        });
-
-        // Remove engines.
-        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> recentlyRemoved = new ArrayList<>();
-        enginesToRemove.drainTo(recentlyRemoved);
-        shutdownEnginesToRemove(recentlyRemoved);
-
-        boolean engineSetUpdate = !recentlyAdded.isEmpty() || !recentlyRemoved.isEmpty();
-
-        // Update indexes if there are model changes.
-        if (modelUpdates || engineSetUpdate) {
-            updateIndexSet();
-        }
-
-        // Complete engine add/remove subscribers.
-        // We want to complete the subscribers that create new engines, before the first event is emitted.
-        // Otherwise the initial event would be emitted immediately, before the subscriber has a chance to subscriber to the event stream.
-        recentlyAdded.forEach(pair -> {
-            Subscriber<ReconciliationEngine> subscriber = pair.getRight();
-            if (!subscriber.isUnsubscribed()) {
-                subscriber.onNext(pair.getLeft());
-                subscriber.onCompleted();
-            }
-        });
-        recentlyRemoved.forEach(pair -> pair.getRight().onCompleted());
+        // Add/remove engines, and update the indexes.
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> recentlyAdded = addNewEngines();
+        recentlyAdded.forEach(pair -> mustRunEngines.add(pair.getLeft()));
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> recentlyRemoved = removeEngines();
+        updateIndexSetAndCompleteSubscribers(modifiedEngines, recentlyAdded, recentlyRemoved);
 
         // Emit events
         for (InternalReconciliationEngine engine : engines) {
@@ -399,6 +441,175 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
                 }
             }
         }
+        processedEngines.record(engines.size());
+    }
+
+    /**
+     * Loop iteration, which visits only the ready and active engines (or all of them in the full reconciliation cycle).
+     * The processing is split into two parallel stages, as the index update and adding new engines must happen after
+     * all model updates are applied, and before any event is emitted. Each engine is always processed in the same
+     * partition, so the per engine event order is preserved. Multi-engine change actions are added to the queues
+     * of all involved engines (which makes all of them ready), and coordinated by {@link #changeReferenceModel}.
+     */
+    private void doPartitionedLoop(boolean fullReconciliationCycle) {
+        Set<InternalReconciliationEngine<EVENT>> toProcess;
+        if (fullReconciliationCycle) {
+            readyEngines.clear();
+            toProcess = new HashSet<>(engines);
+        } else {
+            toProcess = new HashSet<>(activeEngines);
+            for (Iterator<InternalReconciliationEngine<EVENT>> it = readyEngines.iterator(); it.hasNext(); ) {
+                InternalReconciliationEngine<EVENT> engine = it.next();
+                it.remove();
+                if (engines.contains(engine)) {
+                    toProcess.add(engine);
+                }
+            }
+        }
+        activeEngines.clear();
+
+        // Apply pending model updates
+        Set<InternalReconciliationEngine<EVENT>> modifiedEngines = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        runPartitioned(partition(toProcess), engine -> {
+            try {
+                if (engine.applyModelUpdates()) {
+                    modifiedEngines.add(engine);
+                }
+            } catch (Exception e) {
+                logger.warn("Unexpected error from reconciliation engine 'applyModelUpdates' method", e);
+            }
+        });
+
+        // Add/remove engines, and update the indexes.
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> recentlyAdded = addNewEngines();
+        recentlyAdded.forEach(pair -> toProcess.add(pair.getLeft()));
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> recentlyRemoved = removeEngines();
+        recentlyRemoved.forEach(pair -> toProcess.remove(pair.getLeft()));
+        updateIndexSetAndCompleteSubscribers(modifiedEngines, recentlyAdded, recentlyRemoved);
+
+        Set<InternalReconciliationEngine<EVENT>> newEngines = new HashSet<>();
+        recentlyAdded.forEach(pair -> newEngines.add(pair.getLeft()));
+
+        // Emit events, complete ChangeAction subscribers, and trigger actions.
+        runPartitioned(partition(toProcess), engine -> {
+            boolean mustRun = newEngines.contains(engine);
+            try {
+                engine.emitEvents();
+            } catch (Exception e) {
+                logger.warn("Unexpected error from reconciliation engine 'emitEvents' method", e);
+            }
+            try {
+                if (engine.closeFinishedTransactions()) {
+                    mustRun = true;
+                }
+            } catch (Exception e) {
+                logger.warn("Unexpected error from reconciliation engine 'closeFinishedTransactions' method", e);
+            }
+            if (fullReconciliationCycle || mustRun || engine.hasPendingTransactions()) {
+                try {
+                    engine.triggerActions();
+                } catch (Exception e) {
+                    logger.warn("Unexpected error from reconciliation engine 'triggerActions' method", e);
+                }
+            }
+            // Engines with running transactions are visited in each loop iteration, until the transactions complete.
+            if (engine.hasPendingTransactions()) {
+                activeEngines.add(engine);
+            }
+        });
+        processedEngines.record(toProcess.size());
+    }
+
+    private List<List<InternalReconciliationEngine<EVENT>>> partition(Set<InternalReconciliationEngine<EVENT>> toProcess) {
+        List<List<InternalReconciliationEngine<EVENT>>> partitions = new ArrayList<>(loopPartitions);
+        for (int i = 0; i < loopPartitions; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        toProcess.forEach(engine ->
+                partitions.get(Math.floorMod(engine.getReferenceView().getId().hashCode(), loopPartitions)).add(engine)
+        );
+        return partitions;
+    }
+
+    private void runPartitioned(List<List<InternalReconciliationEngine<EVENT>>> partitions,
+                                Consumer<InternalReconciliationEngine<EVENT>> action) {
+        if (partitionExecutor == null) {
+            partitions.forEach(partition -> partition.forEach(action));
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (List<InternalReconciliationEngine<EVENT>> partition : partitions) {
+            if (!partition.isEmpty()) {
+                tasks.add(() -> {
+                    partition.forEach(action);
+                    return null;
+                });
+            }
+        }
+        try {
+            for (Future<Void> future : partitionExecutor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation loop interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reconciliation loop partition failure", e.getCause());
+        }
+    }
+
+    private List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> addNewEngines() {
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> recentlyAdded = new ArrayList<>();
+        enginesAdded.drainTo(recentlyAdded);
+        recentlyAdded.forEach(pair -> {
+            InternalReconciliationEngine<EVENT> newEngine = pair.getLeft();
+            engines.add(newEngine);
+            eventDistributor.connectReconciliationEngine(newEngine);
+            registerReadinessListener(newEngine);
+        });
+        return recentlyAdded;
+    }
+
+    private List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> removeEngines() {
+        List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> recentlyRemoved = new ArrayList<>();
+        enginesToRemove.drainTo(recentlyRemoved);
+        shutdownEnginesToRemove(recentlyRemoved);
+        return recentlyRemoved;
+    }
+
+    private void updateIndexSetAndCompleteSubscribers(Set<InternalReconciliationEngine<EVENT>> modifiedEngines,
+                                                      List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<ReconciliationEngine>>> recentlyAdded,
+                                                      List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> recentlyRemoved) {
+        // Update indexes if there are model changes.
+        if (!modifiedEngines.isEmpty() || !recentlyAdded.isEmpty() || !recentlyRemoved.isEmpty()) {
+            Set<InternalReconciliationEngine<EVENT>> updated = new HashSet<>(modifiedEngines);
+            recentlyAdded.forEach(pair -> updated.add(pair.getLeft()));
+            List<InternalReconciliationEngine<EVENT>> removed = new ArrayList<>();
+            recentlyRemoved.forEach(pair -> {
+                updated.remove(pair.getLeft());
+                removed.add(pair.getLeft());
+            });
+            updateIndexSet(updated, removed);
+        }
+
+        // Complete engine add/remove subscribers.
+        // We want to complete the subscribers that create new engines, before the first event is emitted.
+        // Otherwise the initial event would be emitted immediately, before the subscriber has a chance to subscriber to the event stream.
+        recentlyAdded.forEach(pair -> {
+            Subscriber<ReconciliationEngine> subscriber = pair.getRight();
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onNext(pair.getLeft());
+                subscriber.onCompleted();
+            }
+        });
+        recentlyRemoved.forEach(pair -> pair.getRight().onCompleted());
+    }
+
+    private void registerReadinessListener(InternalReconciliationEngine<EVENT> engine) {
+        if (loopPartitions > 0) {
+            engine.setReadinessListener(() -> readyEngines.add(engine));
+        }
     }
 
     private void shutdownEnginesToRemove(List<Pair<InternalReconciliationEngine<EVENT>, Subscriber<Void>>> toRemove) {
@@ -408,15 +619,46 @@ public class DefaultReconciliationFramework<EVENT> implements ReconciliationFram
                 ((DefaultReconciliationEngine) e).shutdown();
             }
             engines.remove(e);
+            readyEngines.remove(e);
+            activeEngines.remove(e);
             eventDistributor.removeReconciliationEngine(e);
         });
     }
 
-    private void updateIndexSet() {
-        Map<String, InternalReconciliationEngine<EVENT>> idToEngineMap = new HashMap<>();
-        engines.forEach(engine -> engine.getReferenceView().visit(h -> idToEngineMap.put(h.getId(), engine)));
-        this.idToEngineMapRef.set(idToEngineMap);
+    /**
+     * Applies changes of the updated and removed engines only to the id map and the index set. New entity ids are added
+     * to the id map before the stale ones are removed, so concurrent lookups never miss an entity that still exists.
+     */
+    private void updateIndexSet(Collection<InternalReconciliationEngine<EVENT>> updated,
+                                Collection<InternalReconciliationEngine<EVENT>> removed) {
+        List<String> removedRootIds = new ArrayList<>();
+        for (InternalReconciliationEngine<EVENT> engine : removed) {
+            Set<String> entityIds = engineEntityIds.remove(engine);
+            if (entityIds != null) {
+                entityIds.forEach(id -> idToEngineMap.remove(id, engine));
+                removedRootIds.add(engine.getReferenceView().getId());
+            }
+        }
+
+        List<EntityHolder> updatedRoots = new ArrayList<>();
+        for (InternalReconciliationEngine<EVENT> engine : updated) {
+            EntityHolder rootHolder = engine.getReferenceView();
+            Set<String> entityIds = new HashSet<>();
+            rootHolder.visit(h -> {
+                entityIds.add(h.getId());
+                idToEngineMap.put(h.getId(), engine);
+            });
+            Set<String> previousEntityIds = engineEntityIds.put(engine, entityIds);
+            if (previousEntityIds != null) {
+                previousEntityIds.forEach(id -> {
+                    if (!entityIds.contains(id)) {
+                        idToEngineMap.remove(id, engine);
+                    }
+                });
+            }
+            updatedRoots.add(rootHolder);
+        }
 
-        indexSet = indexSet.apply(engines.stream().map(ReconciliationEngine::getReferenceView).collect(Collectors.toList()));
+        indexSet = indexSet.remove(removedRootIds).add(updatedRoots);
     }
 }
@@ -16,16 +16,21 @@
 
 package com.netflix.titus.common.framework.reconciler.internal;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+
+import com.netflix.titus.common.util.collections.index.IndexSpec;
+import com.netflix.titus.common.util.collections.index.Indexes;
 
 /**
- * TODO Optimize. This is expensive and inefficient implementation.
+ * A collection of ordered views of entities. Each order is backed by a persistent balanced tree, so adding, updating
+ * or removing a single entity costs O(log(n)), and produces a new {@link IndexSet} instance sharing most of its
+ * structure with the previous one.
  */
 public class IndexSet<T> {
 
@@ -37,9 +42,36 @@ public class IndexSet<T> {
         this.indexes = indexes;
     }
 
-    public IndexSet<T> apply(Collection<T> added) {
+    /**
+     * Replaces the current content with the given collection of values.
+     */
+    public IndexSet<T> apply(Collection<T> values) {
+        Map<Object, Index<T>> copy = new HashMap<>();
+        indexes.forEach((k, v) -> copy.put(k, v.apply(values)));
+        return new IndexSet<>(copy);
+    }
+
+    /**
+     * Adds new values, or replaces existing ones with the same ids.
+     */
+    public IndexSet<T> add(Collection<T> values) {
+        if (values.isEmpty()) {
+            return this;
+        }
+        Map<Object, Index<T>> copy = new HashMap<>();
+        indexes.forEach((k, v) -> copy.put(k, v.add(values)));
+        return new IndexSet<>(copy);
+    }
+
+    /**
+     * Removes values with the given ids.
+     */
+    public IndexSet<T> remove(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return this;
+        }
         Map<Object, Index<T>> copy = new HashMap<>();
-        indexes.forEach((k, v) -> copy.put(k, v.apply(added)));
+        indexes.forEach((k, v) -> copy.put(k, v.remove(ids)));
         return new IndexSet<>(copy);
     }
 
@@ -55,34 +87,56 @@ public class IndexSet<T> {
         return (IndexSet<T>) EMPTY;
     }
 
-    public static <T> IndexSet<T> newIndexSet(Map<Object, Comparator<T>> comparators) {
+    /**
+     * @param idExtractor returns a unique value id. Values with the same index position (comparator returns 0) are
+     *                    ordered by their ids.
+     */
+    public static <T> IndexSet<T> newIndexSet(Map<Object, Comparator<T>> comparators, Function<T, String> idExtractor) {
         Map<Object, Index<T>> indexes = new HashMap<>();
-        comparators.forEach((k, v) -> indexes.put(k, Index.newIndex(v)));
+        comparators.forEach((k, v) -> indexes.put(k, Index.newIndex(v, idExtractor)));
         return new IndexSet<>(indexes);
     }
 
     static class Index<T> {
 
-        private final Comparator<T> comparator;
-        private final List<T> ordered;
+        private static final String ORDER_ID = "ordered";
+
+        private final IndexSpec<T, String, T, T> spec;
+        private final com.netflix.titus.common.util.collections.index.IndexSet<String, T> ordered;
 
-        private Index(Comparator<T> comparator, List<T> ordered) {
-            this.comparator = comparator;
+        private Index(IndexSpec<T, String, T, T> spec, com.netflix.titus.common.util.collections.index.IndexSet<String, T> ordered) {
+            this.spec = spec;
             this.ordered = ordered;
         }
 
-        Index<T> apply(Collection<T> added) {
-            List<T> copy = new ArrayList<>(added);
-            copy.sort(comparator);
-            return new Index<>(comparator, copy);
+        Index<T> apply(Collection<T> values) {
+            return new Index<>(spec, newOrder(spec).add(values));
+        }
+
+        Index<T> add(Collection<T> values) {
+            return new Index<>(spec, ordered.add(values));
+        }
+
+        Index<T> remove(Collection<String> ids) {
+            return new Index<>(spec, ordered.remove(ids));
         }
 
         List<T> getOrdered() {
-            return ordered;
+            return ordered.<T>getOrder(ORDER_ID).orderedList();
+        }
+
+        static <T> Index<T> newIndex(Comparator<T> comparator, Function<T, String> idExtractor) {
+            IndexSpec<T, String, T, T> spec = IndexSpec.<T, String, T, T>newBuilder()
+                    .withIndexKeyExtractor(Function.identity())
+                    .withPrimaryKeyExtractor(idExtractor)
+                    .withIndexKeyComparator(comparator)
+                    .withPrimaryKeyComparator(String::compareTo)
+                    .build();
+            return new Index<>(spec, newOrder(spec));
         }
 
-        static <T> Index<T> newIndex(Comparator<T> comparator) {
-            return new Index<>(comparator, Collections.emptyList());
+        private static <T> com.netflix.titus.common.util.collections.index.IndexSet<String, T> newOrder(IndexSpec<T, String, T, T> spec) {
+            return Indexes.<String, T>newBuilder().withOrder(ORDER_ID, spec).build();
         }
     }
 }
@@ -20,6 +20,12 @@ import com.netflix.titus.common.framework.reconciler.ReconciliationEngine;
 
 public interface InternalReconciliationEngine<EVENT>  extends ReconciliationEngine<EVENT> {
 
+    /**
+     * Registers a listener, which is called each time a new change action is added to the engine queue. The listener
+     * may be called from any thread.
+     */
+    void setReadinessListener(Runnable readinessListener);
+
     boolean hasPendingTransactions();
 
     /**
@@ -49,6 +49,10 @@ class DefaultGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> implements Group<GROUP
         return raw;
     }
 
+    IndexSpec<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> getSpec() {
+        return spec;
+    }
+
     DefaultGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> add(Collection<INPUT> values) {
         if (CollectionsExt.isNullOrEmpty(values)) {
             return this;
@@ -51,6 +51,14 @@ public class DefaultIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> implemen
         return indexedValues;
     }
 
+    IndexSpec<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> getSpec() {
+        return spec;
+    }
+
+    Map<PRIMARY_KEY, PSet<UNIQUE_INDEX_KEY>> getPrimaryKeyToIndexKeys() {
+        return primaryKeyToIndexKeys;
+    }
+
     DefaultIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> add(Collection<INPUT> values) {
         if (CollectionsExt.isNullOrEmpty(values)) {
             return this;
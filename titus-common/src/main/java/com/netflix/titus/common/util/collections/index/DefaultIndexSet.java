@@ -35,6 +35,18 @@ class DefaultIndexSet<PRIMARY_KEY, INPUT> implements IndexSet<PRIMARY_KEY, INPUT
         this.orders = orders;
     }
 
+    Map<String, DefaultGroup<?, PRIMARY_KEY, INPUT, ?>> getDefaultGroups() {
+        return groups;
+    }
+
+    Map<String, DefaultIndex<?, PRIMARY_KEY, INPUT, ?>> getDefaultIndexes() {
+        return indexes;
+    }
+
+    Map<String, DefaultOrder<?, PRIMARY_KEY, INPUT, ?>> getDefaultOrders() {
+        return orders;
+    }
+
     @Override
     public Map<String, Group<?, PRIMARY_KEY, ?>> getGroups() {
         return (Map) groups;
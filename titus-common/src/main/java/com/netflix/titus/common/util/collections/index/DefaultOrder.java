@@ -21,19 +21,20 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.netflix.titus.common.util.CollectionsExt;
 import org.pcollections.HashTreePMap;
 import org.pcollections.PMap;
-import org.pcollections.PVector;
-import org.pcollections.TreePVector;
 
 public class DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> implements Order<OUTPUT> {
 
     private final IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec;
     private final PMap<PRIMARY_KEY, INDEX_KEY> primaryKeyToIndexKey;
-    private final PVector<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> sorted;
+    private final OrderStatisticTree<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> sorted;
     private final List<OUTPUT> result;
 
     private final ListItemComparator<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> listItemComparator;
@@ -41,7 +42,7 @@ public class DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> implements Orde
     DefaultOrder(IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec,
                  ListItemComparator<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> listItemComparator,
                  PMap<PRIMARY_KEY, INDEX_KEY> primaryKeyToIndexKey,
-                 PVector<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> sorted) {
+                 OrderStatisticTree<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> sorted) {
         this.spec = spec;
         this.listItemComparator = listItemComparator;
         this.primaryKeyToIndexKey = primaryKeyToIndexKey;
@@ -49,49 +50,91 @@ public class DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> implements Orde
         this.result = new AbstractList<OUTPUT>() {
             @Override
             public OUTPUT get(int index) {
-                ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> item = sorted.get(index);
-                return item == null ? null : item.getOutput();
+                return sorted.get(index).getOutput();
             }
 
             @Override
             public int size() {
                 return sorted.size();
             }
+
+            @Override
+            public Iterator<OUTPUT> iterator() {
+                Iterator<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> itemIterator = sorted.asList().iterator();
+                return new Iterator<OUTPUT>() {
+                    @Override
+                    public boolean hasNext() {
+                        return itemIterator.hasNext();
+                    }
+
+                    @Override
+                    public OUTPUT next() {
+                        return itemIterator.next().getOutput();
+                    }
+                };
+            }
         };
     }
 
     static <INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>
     DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> newEmpty(IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec) {
-        return new DefaultOrder<>(spec, new ListItemComparator<>(spec), HashTreePMap.empty(), TreePVector.empty());
+        ListItemComparator<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> listItemComparator = new ListItemComparator<>(spec);
+        return new DefaultOrder<>(spec, listItemComparator, HashTreePMap.empty(), OrderStatisticTree.empty(listItemComparator));
     }
 
+    /**
+     * Ordered list view. Positional access is O(log(n)), and iteration is O(n).
+     */
     @Override
     public List<OUTPUT> orderedList() {
         return result;
     }
 
+    /**
+     * Returns the position of a value with the given index and primary keys in O(log(n)) time. If there is no such
+     * value, <tt>-(insertion point) - 1</tt> is returned, as in {@link Collections#binarySearch(List, Object)}.
+     * This allows cursor based pagination to jump directly to the first value after the cursor.
+     */
+    public int indexOf(INDEX_KEY indexKey, PRIMARY_KEY primaryKey) {
+        return sorted.indexOf(new ListItem<>(indexKey, primaryKey, null, null));
+    }
+
+    IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> getSpec() {
+        return spec;
+    }
+
+    /**
+     * @return input values in the index order
+     */
+    List<INPUT> getInputs() {
+        List<INPUT> inputs = new ArrayList<>(sorted.size());
+        for (ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> item : sorted.asList()) {
+            inputs.add(item.getInput());
+        }
+        return inputs;
+    }
+
     DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> add(Collection<INPUT> values) {
         List<INPUT> filtered = filter(values);
         if (CollectionsExt.isNullOrEmpty(filtered)) {
             return this;
         }
+        if (sorted.isEmpty() && filtered.size() > 1) {
+            return buildFromScratch(filtered);
+        }
 
-        PVector<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> newSorted = sorted;
+        OrderStatisticTree<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> newSorted = sorted;
         PMap<PRIMARY_KEY, INDEX_KEY> newPrimaryKeyToIndexKey = primaryKeyToIndexKey;
         for (INPUT input : filtered) {
-            INDEX_KEY indexKey = spec.getIndexKeyExtractor().apply(input);
-            PRIMARY_KEY primaryKey = spec.getPrimaryKeyExtractor().apply(input);
-            int pos = findKeyPosition(indexKey, primaryKey, newSorted);
-            OUTPUT output = spec.getTransformer().apply(indexKey, input);
-            ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> newItem = new ListItem<>(indexKey, primaryKey, input, output);
-            if (pos >= 0) {
-                // Override existing item.
-                newSorted = newSorted.minus(pos).plus(pos, newItem);
-            } else {
-                int insertionPoint = -(pos + 1);
-                newSorted = newSorted.plus(insertionPoint, newItem);
+            ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> newItem = newListItem(input);
+            INDEX_KEY previousIndexKey = newPrimaryKeyToIndexKey.get(newItem.getPrimaryKey());
+            if (previousIndexKey != null && spec.getIndexKeyComparator().compare(previousIndexKey, newItem.getIndexKey()) != 0) {
+                // The index key changed, so the item moves to a different position.
+                newSorted = newSorted.minus(new ListItem<>(previousIndexKey, newItem.getPrimaryKey(), null, null));
             }
-            newPrimaryKeyToIndexKey = newPrimaryKeyToIndexKey.plus(primaryKey, indexKey);
+            // Overrides an existing item with the same keys.
+            newSorted = newSorted.plus(newItem);
+            newPrimaryKeyToIndexKey = newPrimaryKeyToIndexKey.plus(newItem.getPrimaryKey(), newItem.getIndexKey());
         }
 
         return new DefaultOrder<>(spec, listItemComparator, newPrimaryKeyToIndexKey, newSorted);
@@ -102,27 +145,52 @@ public class DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> implements Orde
             return this;
         }
 
-        PVector<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> newSorted = sorted;
+        OrderStatisticTree<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> newSorted = sorted;
         PMap<PRIMARY_KEY, INDEX_KEY> newPrimaryKeyToIndexKey = primaryKeyToIndexKey;
         for (PRIMARY_KEY primaryKey : primaryKeys) {
-            INDEX_KEY indexKey = primaryKeyToIndexKey.get(primaryKey);
+            INDEX_KEY indexKey = newPrimaryKeyToIndexKey.get(primaryKey);
             if (indexKey != null) {
-                int pos = findKeyPosition(indexKey, primaryKey, newSorted);
-                if (pos >= 0) {
-                    // Remove existing item.
-                    newSorted = newSorted.minus(pos);
-                    newPrimaryKeyToIndexKey = newPrimaryKeyToIndexKey.minus(primaryKey);
-                }
+                newSorted = newSorted.minus(new ListItem<>(indexKey, primaryKey, null, null));
+                newPrimaryKeyToIndexKey = newPrimaryKeyToIndexKey.minus(primaryKey);
             }
         }
+        if (newSorted == sorted) {
+            return this;
+        }
 
         return new DefaultOrder<>(spec, listItemComparator, newPrimaryKeyToIndexKey, newSorted);
     }
 
-    private int findKeyPosition(INDEX_KEY indexKey,
-                                PRIMARY_KEY primaryKey,
-                                PVector<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> sorted) {
-        return PCollectionUtil.binarySearch(sorted, new ListItem<>(indexKey, primaryKey, null, null), listItemComparator);
+    /**
+     * Sorting all values, and building a balanced tree from the sorted list is much cheaper than inserting them
+     * one by one, which is what happens when the index is populated for the first time.
+     */
+    private DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> buildFromScratch(List<INPUT> filtered) {
+        Map<PRIMARY_KEY, ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> byPrimaryKey = new LinkedHashMap<>();
+        for (INPUT input : filtered) {
+            ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> item = newListItem(input);
+            byPrimaryKey.put(item.getPrimaryKey(), item);
+        }
+
+        List<ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>> items = new ArrayList<>(byPrimaryKey.values());
+        items.sort(listItemComparator);
+
+        Map<PRIMARY_KEY, INDEX_KEY> newPrimaryKeyToIndexKey = new LinkedHashMap<>();
+        byPrimaryKey.forEach((primaryKey, item) -> newPrimaryKeyToIndexKey.put(primaryKey, item.getIndexKey()));
+
+        return new DefaultOrder<>(
+                spec,
+                listItemComparator,
+                HashTreePMap.from(newPrimaryKeyToIndexKey),
+                OrderStatisticTree.fromSorted(items, listItemComparator)
+        );
+    }
+
+    private ListItem<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> newListItem(INPUT input) {
+        INDEX_KEY indexKey = spec.getIndexKeyExtractor().apply(input);
+        PRIMARY_KEY primaryKey = spec.getPrimaryKeyExtractor().apply(input);
+        OUTPUT output = spec.getTransformer().apply(indexKey, input);
+        return new ListItem<>(indexKey, primaryKey, input, output);
     }
 
     private List<INPUT> filter(Collection<INPUT> values) {
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link IndexSetHolder} implementation backed by mutable hash maps and trees, instead of the persistent collections
+ * used by {@link DefaultIndexSet}. Each group, index and order is guarded by its own lock (stripe). Writers lock the
+ * stripes one by one, always in the same order, and acquire the next stripe before releasing the previous one,
+ * so concurrent updates are applied to all stripes in the same sequence, but two writers can work on different
+ * stripes at the same time. Readers get immutable snapshots, which are copied lazily on the first read after a change.
+ * A reader that has to build a new snapshot waits for the updates in progress to complete, and blocks new ones
+ * while it copies the stripes, so the snapshot reflects the same updates in all groups, indexes and orders, as with
+ * {@link IndexSetHolderBasic} and {@link IndexSetHolderConcurrent}.
+ * <p>
+ * This variant allocates much less on updates than {@link IndexSetHolderBasic} or {@link IndexSetHolderConcurrent},
+ * but the first read after a change pays for a full copy (O(n)) of every stripe that was changed. It is the right
+ * choice only when updates are much more frequent than reads. A snapshot returned by {@link #getIndexSet()} is
+ * read only, and its {@link IndexSet#add(Collection)} and {@link IndexSet#remove(Collection)} methods throw
+ * {@link UnsupportedOperationException}.
+ */
+public class IndexSetHolderMutable<PRIMARY_KEY, INPUT> implements IndexSetHolder<PRIMARY_KEY, INPUT> {
+
+    private final Map<String, MutableGroup<?, PRIMARY_KEY, INPUT, ?>> groups = new HashMap<>();
+    private final Map<String, MutableIndex<?, PRIMARY_KEY, INPUT, ?>> indexes = new HashMap<>();
+    private final Map<String, MutableOrder<?, PRIMARY_KEY, INPUT, ?>> orders = new HashMap<>();
+    private final List<MutableIndexStripe<PRIMARY_KEY, INPUT, ?>> stripes = new ArrayList<>();
+
+    /**
+     * Writers share the read lock, so they can still update different stripes at the same time. A reader building
+     * a new snapshot takes the write lock to get a view in which no update is half applied.
+     */
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    private volatile IndexSet<PRIMARY_KEY, INPUT> snapshot;
+
+    /**
+     * @param indexSet index set created by {@link Indexes#newBuilder()}, which provides the index definitions,
+     *                 and the initial content
+     */
+    public IndexSetHolderMutable(IndexSet<PRIMARY_KEY, INPUT> indexSet) {
+        Preconditions.checkArgument(indexSet instanceof DefaultIndexSet, "Index set not created with Indexes builder: %s", indexSet.getClass());
+        DefaultIndexSet<PRIMARY_KEY, INPUT> defaultIndexSet = (DefaultIndexSet<PRIMARY_KEY, INPUT>) indexSet;
+
+        defaultIndexSet.getDefaultGroups().forEach((groupId, group) -> groups.put(groupId, MutableGroup.copyOf(group)));
+        defaultIndexSet.getDefaultIndexes().forEach((indexId, index) -> indexes.put(indexId, MutableIndex.copyOf(index)));
+        defaultIndexSet.getDefaultOrders().forEach((orderId, order) -> orders.put(orderId, MutableOrder.copyOf(order)));
+
+        stripes.addAll(groups.values());
+        stripes.addAll(indexes.values());
+        stripes.addAll(orders.values());
+    }
+
+    @Override
+    public IndexSet<PRIMARY_KEY, INPUT> getIndexSet() {
+        IndexSet<PRIMARY_KEY, INPUT> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        Lock lock = snapshotLock.writeLock();
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = newSnapshot();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IndexSet<PRIMARY_KEY, INPUT> newSnapshot() {
+        Map<String, Group<?, PRIMARY_KEY, ?>> groupSnapshots = new HashMap<>();
+        groups.forEach((groupId, group) -> groupSnapshots.put(groupId, group.getSnapshot()));
+
+        Map<String, Index<?, ?>> indexSnapshots = new HashMap<>();
+        indexes.forEach((indexId, index) -> indexSnapshots.put(indexId, index.getSnapshot()));
+
+        Map<String, Order<?>> orderSnapshots = new HashMap<>();
+        orders.forEach((orderId, order) -> orderSnapshots.put(orderId, order.getSnapshot()));
+
+        return new IndexSetSnapshot<>(groupSnapshots, indexSnapshots, orderSnapshots);
+    }
+
+    @Override
+    public void add(Collection<INPUT> values) {
+        update(stripe -> stripe.add(values));
+    }
+
+    @Override
+    public void remove(Collection<PRIMARY_KEY> values) {
+        update(stripe -> stripe.remove(values));
+    }
+
+    private void update(Consumer<MutableIndexStripe<PRIMARY_KEY, INPUT, ?>> action) {
+        Lock updateLock = snapshotLock.readLock();
+        updateLock.lock();
+        Lock previous = null;
+        try {
+            snapshot = null;
+            for (MutableIndexStripe<PRIMARY_KEY, INPUT, ?> stripe : stripes) {
+                Lock current = stripe.getWriteLock();
+                current.lock();
+                if (previous != null) {
+                    previous.unlock();
+                }
+                previous = current;
+                action.accept(stripe);
+            }
+        } finally {
+            if (previous != null) {
+                previous.unlock();
+            }
+            updateLock.unlock();
+        }
+    }
+
+    private static class IndexSetSnapshot<PRIMARY_KEY, INPUT> implements IndexSet<PRIMARY_KEY, INPUT> {
+
+        private final Map<String, Group<?, PRIMARY_KEY, ?>> groups;
+        private final Map<String, Index<?, ?>> indexes;
+        private final Map<String, Order<?>> orders;
+
+        private IndexSetSnapshot(Map<String, Group<?, PRIMARY_KEY, ?>> groups,
+                                 Map<String, Index<?, ?>> indexes,
+                                 Map<String, Order<?>> orders) {
+            this.groups = Collections.unmodifiableMap(groups);
+            this.indexes = Collections.unmodifiableMap(indexes);
+            this.orders = Collections.unmodifiableMap(orders);
+        }
+
+        @Override
+        public Map<String, Group<?, PRIMARY_KEY, ?>> getGroups() {
+            return groups;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <GROUP_KEY, OUTPUT> Group<GROUP_KEY, PRIMARY_KEY, OUTPUT> getGroup(String groupId) {
+            return (Group<GROUP_KEY, PRIMARY_KEY, OUTPUT>) groups.get(groupId);
+        }
+
+        @Override
+        public Map<String, Index<?, ?>> getIndexes() {
+            return indexes;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <UNIQUE_INDEX_KEY, OUTPUT> Index<UNIQUE_INDEX_KEY, OUTPUT> getIndex(String indexId) {
+            return (Index<UNIQUE_INDEX_KEY, OUTPUT>) indexes.get(indexId);
+        }
+
+        @Override
+        public Map<String, Order<?>> getOrders() {
+            return orders;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <OUTPUT> Order<OUTPUT> getOrder(String orderId) {
+            return (Order<OUTPUT>) orders.get(orderId);
+        }
+
+        @Override
+        public IndexSet<PRIMARY_KEY, INPUT> add(Collection<INPUT> values) {
+            throw new UnsupportedOperationException("Index set snapshot is read only");
+        }
+
+        @Override
+        public IndexSet<PRIMARY_KEY, INPUT> remove(Collection<PRIMARY_KEY> values) {
+            throw new UnsupportedOperationException("Index set snapshot is read only");
+        }
+    }
+}
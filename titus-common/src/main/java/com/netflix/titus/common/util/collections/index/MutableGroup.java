@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.netflix.titus.common.util.CollectionsExt;
+
+class MutableGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+        extends MutableIndexStripe<PRIMARY_KEY, INPUT, Group<GROUP_KEY, PRIMARY_KEY, OUTPUT>> {
+
+    private final IndexSpec<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec;
+    private final Map<PRIMARY_KEY, GROUP_KEY> primaryKeyToGroupKey = new HashMap<>();
+    private final Map<GROUP_KEY, Map<PRIMARY_KEY, OUTPUT>> indexedValues = new HashMap<>();
+
+    private MutableGroup(IndexSpec<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec) {
+        this.spec = spec;
+    }
+
+    static <GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+    MutableGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> copyOf(DefaultGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> group) {
+        MutableGroup<GROUP_KEY, PRIMARY_KEY, INPUT, OUTPUT> mutableGroup = new MutableGroup<>(group.getSpec());
+        group.get().forEach((groupKey, byPrimaryKey) -> {
+            mutableGroup.indexedValues.put(groupKey, new HashMap<>(byPrimaryKey));
+            byPrimaryKey.keySet().forEach(primaryKey -> mutableGroup.primaryKeyToGroupKey.put(primaryKey, groupKey));
+        });
+        return mutableGroup;
+    }
+
+    @Override
+    protected boolean doAdd(Collection<INPUT> values) {
+        if (CollectionsExt.isNullOrEmpty(values)) {
+            return false;
+        }
+        boolean changed = false;
+        for (INPUT value : values) {
+            if (!spec.getFilter().test(value)) {
+                continue;
+            }
+            GROUP_KEY groupKey = spec.getIndexKeyExtractor().apply(value);
+            PRIMARY_KEY primaryKey = spec.getPrimaryKeyExtractor().apply(value);
+            if (groupKey != null && primaryKey != null) {
+                OUTPUT output = spec.getTransformer().apply(groupKey, value);
+                GROUP_KEY previousGroupKey = primaryKeyToGroupKey.put(primaryKey, groupKey);
+                if (previousGroupKey != null && !previousGroupKey.equals(groupKey)) {
+                    removeFromGroup(previousGroupKey, primaryKey);
+                }
+                indexedValues.computeIfAbsent(groupKey, k -> new HashMap<>()).put(primaryKey, output);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected boolean doRemove(Collection<PRIMARY_KEY> primaryKeys) {
+        if (CollectionsExt.isNullOrEmpty(primaryKeys)) {
+            return false;
+        }
+        boolean changed = false;
+        for (PRIMARY_KEY primaryKey : primaryKeys) {
+            GROUP_KEY groupKey = primaryKeyToGroupKey.remove(primaryKey);
+            if (groupKey != null) {
+                removeFromGroup(groupKey, primaryKey);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected Group<GROUP_KEY, PRIMARY_KEY, OUTPUT> buildSnapshot() {
+        Map<GROUP_KEY, Map<PRIMARY_KEY, OUTPUT>> copy = new HashMap<>();
+        indexedValues.forEach((groupKey, byPrimaryKey) ->
+                copy.put(groupKey, Collections.unmodifiableMap(new HashMap<>(byPrimaryKey)))
+        );
+        Map<GROUP_KEY, Map<PRIMARY_KEY, OUTPUT>> snapshot = Collections.unmodifiableMap(copy);
+        return () -> snapshot;
+    }
+
+    private void removeFromGroup(GROUP_KEY groupKey, PRIMARY_KEY primaryKey) {
+        Map<PRIMARY_KEY, OUTPUT> byPrimaryKey = indexedValues.get(groupKey);
+        if (byPrimaryKey != null) {
+            byPrimaryKey.remove(primaryKey);
+            if (byPrimaryKey.isEmpty()) {
+                indexedValues.remove(groupKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.netflix.titus.common.util.CollectionsExt;
+
+class MutableIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+        extends MutableIndexStripe<PRIMARY_KEY, INPUT, Index<UNIQUE_INDEX_KEY, OUTPUT>> {
+
+    private final IndexSpec<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec;
+    private final Map<PRIMARY_KEY, Set<UNIQUE_INDEX_KEY>> primaryKeyToIndexKeys = new HashMap<>();
+    private final Map<UNIQUE_INDEX_KEY, OUTPUT> indexedValues = new HashMap<>();
+
+    private MutableIndex(IndexSpec<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec) {
+        this.spec = spec;
+    }
+
+    static <UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+    MutableIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> copyOf(DefaultIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> index) {
+        MutableIndex<UNIQUE_INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> mutableIndex = new MutableIndex<>(index.getSpec());
+        index.getPrimaryKeyToIndexKeys().forEach((primaryKey, indexKeys) -> {
+            if (!indexKeys.isEmpty()) {
+                mutableIndex.primaryKeyToIndexKeys.put(primaryKey, new HashSet<>(indexKeys));
+            }
+        });
+        mutableIndex.indexedValues.putAll(index.get());
+        return mutableIndex;
+    }
+
+    @Override
+    protected boolean doAdd(Collection<INPUT> values) {
+        if (CollectionsExt.isNullOrEmpty(values)) {
+            return false;
+        }
+        boolean changed = false;
+        for (INPUT value : values) {
+            if (!spec.getFilter().test(value)) {
+                continue;
+            }
+            PRIMARY_KEY primaryKey = spec.getPrimaryKeyExtractor().apply(value);
+            if (primaryKey == null) {
+                continue;
+            }
+            Set<UNIQUE_INDEX_KEY> indexKeys = spec.getIndexKeysExtractor().apply(value);
+            Set<UNIQUE_INDEX_KEY> currentKeys = CollectionsExt.isNullOrEmpty(indexKeys)
+                    ? primaryKeyToIndexKeys.remove(primaryKey)
+                    : primaryKeyToIndexKeys.put(primaryKey, new HashSet<>(indexKeys));
+            if (!CollectionsExt.isNullOrEmpty(indexKeys)) {
+                for (UNIQUE_INDEX_KEY key : indexKeys) {
+                    indexedValues.put(key, spec.getTransformer().apply(key, value));
+                }
+                changed = true;
+            }
+            if (currentKeys != null) {
+                for (UNIQUE_INDEX_KEY key : currentKeys) {
+                    if (indexKeys == null || !indexKeys.contains(key)) {
+                        indexedValues.remove(key);
+                    }
+                }
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected boolean doRemove(Collection<PRIMARY_KEY> primaryKeys) {
+        if (CollectionsExt.isNullOrEmpty(primaryKeys)) {
+            return false;
+        }
+        boolean changed = false;
+        for (PRIMARY_KEY primaryKey : primaryKeys) {
+            Set<UNIQUE_INDEX_KEY> indexKeys = primaryKeyToIndexKeys.remove(primaryKey);
+            if (indexKeys != null) {
+                indexKeys.forEach(indexedValues::remove);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected Index<UNIQUE_INDEX_KEY, OUTPUT> buildSnapshot() {
+        Map<UNIQUE_INDEX_KEY, OUTPUT> snapshot = Collections.unmodifiableMap(new HashMap<>(indexedValues));
+        return () -> snapshot;
+    }
+}
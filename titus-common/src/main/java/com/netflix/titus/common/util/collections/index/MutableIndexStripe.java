@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A single group, index or order in {@link IndexSetHolderMutable}, guarded by its own lock. The mutable state is
+ * copied into an immutable snapshot on the first read after a change, and the snapshot is reused until the next one.
+ */
+abstract class MutableIndexStripe<PRIMARY_KEY, INPUT, SNAPSHOT> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile SNAPSHOT snapshot;
+
+    Lock getWriteLock() {
+        return lock.writeLock();
+    }
+
+    /**
+     * Must be called with the write lock held.
+     */
+    void add(Collection<INPUT> values) {
+        if (doAdd(values)) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Must be called with the write lock held.
+     */
+    void remove(Collection<PRIMARY_KEY> primaryKeys) {
+        if (doRemove(primaryKeys)) {
+            snapshot = null;
+        }
+    }
+
+    SNAPSHOT getSnapshot() {
+        SNAPSHOT current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                current = buildSnapshot();
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the state was modified
+     */
+    protected abstract boolean doAdd(Collection<INPUT> values);
+
+    /**
+     * @return true if the state was modified
+     */
+    protected abstract boolean doRemove(Collection<PRIMARY_KEY> primaryKeys);
+
+    protected abstract SNAPSHOT buildSnapshot();
+}
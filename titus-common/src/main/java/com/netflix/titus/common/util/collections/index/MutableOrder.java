@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.netflix.titus.common.util.CollectionsExt;
+
+class MutableOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+        extends MutableIndexStripe<PRIMARY_KEY, INPUT, Order<OUTPUT>> {
+
+    private final IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec;
+    private final Map<PRIMARY_KEY, INDEX_KEY> primaryKeyToIndexKey = new HashMap<>();
+    private final TreeMap<OrderKey<INDEX_KEY, PRIMARY_KEY>, OUTPUT> sorted;
+
+    private MutableOrder(IndexSpec<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> spec) {
+        this.spec = spec;
+        this.sorted = new TreeMap<>((o1, o2) -> {
+            int r = spec.getIndexKeyComparator().compare(o1.indexKey, o2.indexKey);
+            if (r != 0) {
+                return r;
+            }
+            return spec.getPrimaryKeyComparator().compare(o1.primaryKey, o2.primaryKey);
+        });
+    }
+
+    static <INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT>
+    MutableOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> copyOf(DefaultOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> order) {
+        MutableOrder<INDEX_KEY, PRIMARY_KEY, INPUT, OUTPUT> mutableOrder = new MutableOrder<>(order.getSpec());
+        mutableOrder.doAdd(order.getInputs());
+        return mutableOrder;
+    }
+
+    @Override
+    protected boolean doAdd(Collection<INPUT> values) {
+        if (CollectionsExt.isNullOrEmpty(values)) {
+            return false;
+        }
+        boolean changed = false;
+        for (INPUT value : values) {
+            if (!spec.getFilter().test(value)) {
+                continue;
+            }
+            INDEX_KEY indexKey = spec.getIndexKeyExtractor().apply(value);
+            PRIMARY_KEY primaryKey = spec.getPrimaryKeyExtractor().apply(value);
+            INDEX_KEY previousIndexKey = primaryKeyToIndexKey.put(primaryKey, indexKey);
+            if (previousIndexKey != null && spec.getIndexKeyComparator().compare(previousIndexKey, indexKey) != 0) {
+                sorted.remove(new OrderKey<>(previousIndexKey, primaryKey));
+            }
+            sorted.put(new OrderKey<>(indexKey, primaryKey), spec.getTransformer().apply(indexKey, value));
+            changed = true;
+        }
+        return changed;
+    }
+
+    @Override
+    protected boolean doRemove(Collection<PRIMARY_KEY> primaryKeys) {
+        if (CollectionsExt.isNullOrEmpty(primaryKeys)) {
+            return false;
+        }
+        boolean changed = false;
+        for (PRIMARY_KEY primaryKey : primaryKeys) {
+            INDEX_KEY indexKey = primaryKeyToIndexKey.remove(primaryKey);
+            if (indexKey != null) {
+                sorted.remove(new OrderKey<>(indexKey, primaryKey));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    protected Order<OUTPUT> buildSnapshot() {
+        List<OUTPUT> snapshot = Collections.unmodifiableList(new ArrayList<>(sorted.values()));
+        return () -> snapshot;
+    }
+
+    private static class OrderKey<INDEX_KEY, PRIMARY_KEY> {
+
+        private final INDEX_KEY indexKey;
+        private final PRIMARY_KEY primaryKey;
+
+        private OrderKey(INDEX_KEY indexKey, PRIMARY_KEY primaryKey) {
+            this.indexKey = indexKey;
+            this.primaryKey = primaryKey;
+        }
+    }
+}
@@ -28,4 +28,15 @@ public interface Order<VALUE> {
      * @return immutable ordered set of values.
      */
     List<VALUE> orderedList();
+
+    /**
+     * Returns up to <tt>pageSize</tt> values starting at the given position. The default implementation uses
+     * {@link List#subList(int, int)}, which for the tree based orders jumps straight to the offset.
+     */
+    default List<VALUE> page(int offset, int pageSize) {
+        List<VALUE> all = orderedList();
+        int from = Math.min(Math.max(0, offset), all.size());
+        int to = (int) Math.min(all.size(), (long) from + Math.max(0, pageSize));
+        return all.subList(from, to);
+    }
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Persistent (immutable) weight balanced binary search tree, with each node storing the size of its subtree. Besides
+ * O(log(n)) insert and remove, it supports O(log(n)) access by position, and position (rank) lookup by value, which
+ * makes it suitable for ordered lists which are frequently modified and paginated. Modifications copy only the path
+ * from the root to the changed node (see https://en.wikipedia.org/wiki/Weight-balanced_tree and
+ * https://en.wikipedia.org/wiki/Order_statistic_tree).
+ * <p>
+ * Values equal according to the comparator are treated as the same entry, and the last one added wins.
+ */
+final class OrderStatisticTree<T> {
+
+    /**
+     * Balancing parameters as proposed in "Balancing weight-balanced trees" (Hirai, Yamamoto).
+     */
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> root;
+    private final List<T> listView;
+
+    private OrderStatisticTree(Comparator<? super T> comparator, Node<T> root) {
+        this.comparator = comparator;
+        this.root = root;
+        this.listView = new AbstractList<T>() {
+            @Override
+            public T get(int index) {
+                return OrderStatisticTree.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return OrderStatisticTree.this.size();
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return new InOrderIterator<>(root);
+            }
+        };
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + size() + ")");
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the given value, with the same semantics as {@link java.util.Collections#binarySearch(List, Object)}.
+     * If the value is not found, <tt>-(insertion point) - 1</tt> is returned.
+     */
+    int indexOf(T value) {
+        Node<T> node = root;
+        int offset = 0;
+        while (node != null) {
+            int c = comparator.compare(value, node.value);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                offset += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return offset + size(node.left);
+            }
+        }
+        return -(offset + 1);
+    }
+
+    OrderStatisticTree<T> plus(T value) {
+        return new OrderStatisticTree<>(comparator, insert(root, value));
+    }
+
+    OrderStatisticTree<T> minus(T value) {
+        Node<T> newRoot = delete(root, value);
+        return newRoot == root ? this : new OrderStatisticTree<>(comparator, newRoot);
+    }
+
+    /**
+     * @return immutable list view of the tree
+     */
+    List<T> asList() {
+        return listView;
+    }
+
+    static <T> OrderStatisticTree<T> empty(Comparator<? super T> comparator) {
+        return new OrderStatisticTree<>(comparator, null);
+    }
+
+    /**
+     * Builds a perfectly balanced tree in O(n) time. The values must be sorted, and unique according to the comparator.
+     */
+    static <T> OrderStatisticTree<T> fromSorted(List<T> sorted, Comparator<? super T> comparator) {
+        return new OrderStatisticTree<>(comparator, build(sorted, 0, sorted.size()));
+    }
+
+    private static <T> Node<T> build(List<T> sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<>(sorted.get(middle), build(sorted, from, middle), build(sorted, middle + 1, to));
+    }
+
+    private Node<T> insert(Node<T> node, T value) {
+        if (node == null) {
+            return new Node<>(value, null, null);
+        }
+        int c = comparator.compare(value, node.value);
+        if (c < 0) {
+            return balance(node.value, insert(node.left, value), node.right);
+        }
+        if (c > 0) {
+            return balance(node.value, node.left, insert(node.right, value));
+        }
+        return new Node<>(value, node.left, node.right);
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int c = comparator.compare(value, node.value);
+        if (c < 0) {
+            Node<T> newLeft = delete(node.left, value);
+            return newLeft == node.left ? node : balance(node.value, newLeft, node.right);
+        }
+        if (c > 0) {
+            Node<T> newRight = delete(node.right, value);
+            return newRight == node.right ? node : balance(node.value, node.left, newRight);
+        }
+        return glue(node.left, node.right);
+    }
+
+    private static <T> Node<T> glue(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.size > right.size) {
+            return balance(max(left), deleteMax(left), right);
+        }
+        return balance(min(right), left, deleteMin(right));
+    }
+
+    private static <T> T min(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.value;
+    }
+
+    private static <T> T max(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.value;
+    }
+
+    private static <T> Node<T> deleteMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.value, deleteMin(node.left), node.right);
+    }
+
+    private static <T> Node<T> deleteMax(Node<T> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(node.value, node.left, deleteMax(node.right));
+    }
+
+    private static <T> Node<T> balance(T value, Node<T> left, Node<T> right) {
+        int leftSize = size(left);
+        int rightSize = size(right);
+        if (leftSize + rightSize <= 1) {
+            return new Node<>(value, left, right);
+        }
+        if (rightSize > DELTA * leftSize) {
+            return size(right.left) < RATIO * size(right.right)
+                    ? new Node<>(right.value, new Node<>(value, left, right.left), right.right)
+                    : new Node<>(right.left.value, new Node<>(value, left, right.left.left), new Node<>(right.value, right.left.right, right.right));
+        }
+        if (leftSize > DELTA * rightSize) {
+            return size(left.right) < RATIO * size(left.left)
+                    ? new Node<>(left.value, left.left, new Node<>(value, left.right, right))
+                    : new Node<>(left.right.value, new Node<>(left.value, left.left, left.right.left), new Node<>(value, left.right.right, right));
+        }
+        return new Node<>(value, left, right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node<T> {
+
+        private final T value;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int size;
+
+        private Node(T value, Node<T> left, Node<T> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private static class InOrderIterator<T> implements Iterator<T> {
+
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+        private InOrderIterator(Node<T> root) {
+            pushLeft(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<T> node = stack.pop();
+            pushLeft(node.right);
+            return node.value;
+        }
+
+        private void pushLeft(Node<T> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.netflix.titus.common.util.limiter.tokenbucket.internal.DefaultTokenBu
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.DynamicTokenBucketDelegate;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.FixedIntervalRefillStrategy;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.FixedIntervalTokenBucketSupplier;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.LockFreeFixedIntervalTokenBucket;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.SpectatorTokenBucketDecorator;
 import com.netflix.titus.common.util.time.Clock;
 
@@ -53,6 +54,16 @@ public class Limiters {
         return new DefaultTokenBucket(name, capacity, refillStrategy, initialNumberOfTokens);
     }
 
+    /**
+     * Functionally equivalent to {@link #createFixedIntervalTokenBucket(String, long, long, long, long, TimeUnit, Clock)},
+     * but non-blocking. Prefer it for token buckets accessed concurrently on hot paths.
+     */
+    public static TokenBucket createLockFreeFixedIntervalTokenBucket(String name, long capacity, long initialNumberOfTokens,
+                                                                     long numberOfTokensPerInterval, long interval, TimeUnit unit,
+                                                                     Clock clock) {
+        return new LockFreeFixedIntervalTokenBucket(name, capacity, initialNumberOfTokens, numberOfTokensPerInterval, interval, unit, clock);
+    }
+
     /**
      * Create a {@link TokenBucket} with a fixed interval {@link RefillStrategy}. The token bucket configuration is
      * checked on each invocation, and the bucket is automatically recreated if it changes.
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.netflix.titus.common.util.DateTimeExt;
+import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import com.netflix.titus.common.util.time.Clock;
+
+/**
+ * {@link TokenBucket} with a fixed interval refill, which keeps its whole state in a single CAS updated long, and
+ * refills lazily when tokens are taken or counted. It behaves the same way as {@link DefaultTokenBucket} with
+ * {@link FixedIntervalRefillStrategy}, but concurrent callers never block.
+ * <p>
+ * The state is a token offset. With <tt>k</tt> being the number of intervals elapsed since the bucket was created,
+ * the number of tokens in the bucket is <tt>min(capacity, k * numberOfTokensPerInterval - offset)</tt>. Taking tokens
+ * increases the offset. If the bucket is observed full, the offset is moved forward to discard the tokens above
+ * the capacity.
+ */
+public class LockFreeFixedIntervalTokenBucket implements TokenBucket {
+
+    private final String name;
+    private final long capacity;
+    private final long numberOfTokensPerInterval;
+    private final long intervalInNanos;
+    private final Clock clock;
+    private final RefillStrategy refillStrategy;
+
+    /**
+     * Like in {@link FixedIntervalRefillStrategy}, the first interval is complete when the bucket is created.
+     */
+    private final long originNano;
+
+    private final AtomicLong offset;
+
+    public LockFreeFixedIntervalTokenBucket(String name,
+                                            long capacity,
+                                            long initialNumberOfTokens,
+                                            long numberOfTokensPerInterval,
+                                            long interval,
+                                            TimeUnit unit,
+                                            Clock clock) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "Name must not be null or empty.");
+        Preconditions.checkArgument(capacity > 0, "Capacity must be greater than 0.");
+        Preconditions.checkArgument(initialNumberOfTokens >= 0, "Capacity must not be negative.");
+        Preconditions.checkArgument(numberOfTokensPerInterval >= 0, "Number of tokens per interval must not be negative.");
+        Preconditions.checkArgument(interval > 0, "Interval must be greater than 0.");
+
+        this.name = name;
+        this.capacity = capacity;
+        this.numberOfTokensPerInterval = numberOfTokensPerInterval;
+        this.intervalInNanos = unit.toNanos(interval);
+        this.clock = clock;
+        this.originNano = clock.nanoTime() - intervalInNanos;
+        this.offset = new AtomicLong(-initialNumberOfTokens);
+        this.refillStrategy = new LazyRefillStrategy(
+                "FixedIntervalRefillStrategy{refillRate=" + DateTimeExt.toRateString(interval, numberOfTokensPerInterval, unit, "refill") + '}'
+        );
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getNumberOfTokens() {
+        return Math.min(capacity, producedTokens() - offset.get());
+    }
+
+    @Override
+    public boolean tryTake() {
+        return tryTake(1);
+    }
+
+    @Override
+    public boolean tryTake(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        while (true) {
+            long currentOffset = offset.get();
+            long produced = producedTokens();
+            long available = produced - currentOffset;
+            if (available < numberOfTokens) {
+                return false;
+            }
+            long baseOffset = available > capacity ? produced - capacity : currentOffset;
+            if (offset.compareAndSet(currentOffset, baseOffset + numberOfTokens)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void take() {
+        take(1);
+    }
+
+    @Override
+    public void take(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        while (!tryTake(numberOfTokens)) {
+            long timeUntilNextRefill = refillStrategy.getTimeUntilNextRefill(TimeUnit.NANOSECONDS);
+            if (timeUntilNextRefill > 0) {
+                Uninterruptibles.sleepUninterruptibly(timeUntilNextRefill, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Unlike {@link DefaultTokenBucket}, the tokens are added to the current number of tokens, including those
+     * from the intervals that elapsed since the last bucket access.
+     */
+    @Override
+    public void refill(long numberOfTokens) {
+        while (true) {
+            long currentOffset = offset.get();
+            long produced = producedTokens();
+            long available = Math.min(capacity, produced - currentOffset);
+            long newAvailable = Math.min(capacity, Math.max(0, available + numberOfTokens));
+            if (offset.compareAndSet(currentOffset, produced - newAvailable)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public RefillStrategy getRefillStrategy() {
+        return refillStrategy;
+    }
+
+    /**
+     * Total number of tokens added since the bucket was created, ignoring the capacity limit.
+     */
+    private long producedTokens() {
+        return elapsedIntervals(clock.nanoTime()) * numberOfTokensPerInterval;
+    }
+
+    private long elapsedIntervals(long nowNano) {
+        return (nowNano - originNano) / intervalInNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LockFreeFixedIntervalTokenBucket{" +
+                "name='" + name + '\'' +
+                ", capacity=" + capacity +
+                ", refillStrategy=" + refillStrategy +
+                ", numberOfTokens=" + getNumberOfTokens() +
+                '}';
+    }
+
+    /**
+     * Tokens are added by the token bucket itself, so {@link #refill()} always returns 0.
+     */
+    private class LazyRefillStrategy implements RefillStrategy {
+
+        private final String toStringValue;
+
+        private LazyRefillStrategy(String toStringValue) {
+            this.toStringValue = toStringValue;
+        }
+
+        @Override
+        public long refill() {
+            return 0;
+        }
+
+        @Override
+        public long getTimeUntilNextRefill(TimeUnit unit) {
+            long nowNano = clock.nanoTime();
+            long nextRefillTimeNano = originNano + (elapsedIntervals(nowNano) + 1) * intervalInNanos;
+            return unit.convert(Math.max(0, nextRefillTimeNano - nowNano), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return toStringValue;
+        }
+    }
+}
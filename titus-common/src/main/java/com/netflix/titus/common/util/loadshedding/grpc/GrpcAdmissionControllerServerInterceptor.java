@@ -16,8 +16,13 @@
 
 package com.netflix.titus.common.util.loadshedding.grpc;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+import com.netflix.spectator.api.Clock;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.histogram.PercentileTimer;
 import com.netflix.titus.common.util.loadshedding.AdmissionController;
 import com.netflix.titus.common.util.loadshedding.AdmissionControllerRequest;
 import com.netflix.titus.common.util.loadshedding.AdmissionControllerResponse;
@@ -33,21 +38,35 @@ public class GrpcAdmissionControllerServerInterceptor implements ServerIntercept
 
     private static final Logger logger = LoggerFactory.getLogger(GrpcAdmissionControllerServerInterceptor.class);
 
+    private static final String DECISION_LATENCY_METRIC = "titus.admissionController.grpc.decisionLatency";
+
     private static final ServerCall.Listener<Object> NO_OP_LISTENER = new ServerCall.Listener<Object>() {
     };
 
     private final AdmissionController admissionController;
     private final Supplier<String> callerIdResolver;
 
+    private final Clock clock;
+    private final Timer allowedLatency;
+    private final Timer rejectedLatency;
+    private final Timer errorLatency;
+
     public GrpcAdmissionControllerServerInterceptor(AdmissionController admissionController,
-                                                    Supplier<String> callerIdResolver) {
+                                                    Supplier<String> callerIdResolver,
+                                                    Registry registry) {
         this.admissionController = admissionController;
         this.callerIdResolver = callerIdResolver;
+
+        this.clock = registry.clock();
+        this.allowedLatency = PercentileTimer.get(registry, registry.createId(DECISION_LATENCY_METRIC, "decision", "allowed"));
+        this.rejectedLatency = PercentileTimer.get(registry, registry.createId(DECISION_LATENCY_METRIC, "decision", "rejected"));
+        this.errorLatency = PercentileTimer.get(registry, registry.createId(DECISION_LATENCY_METRIC, "decision", "error"));
     }
 
     @Override
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
         AdmissionControllerResponse result;
+        long startTime = clock.monotonicTime();
         try {
             AdmissionControllerRequest request = AdmissionControllerRequest.newBuilder()
                     .withCallerId(callerIdResolver.get())
@@ -55,6 +74,7 @@ public class GrpcAdmissionControllerServerInterceptor implements ServerIntercept
                     .build();
             result = admissionController.apply(request);
         } catch (Exception e) {
+            errorLatency.record(clock.monotonicTime() - startTime, TimeUnit.NANOSECONDS);
             logger.warn("Admission controller error: {}", e.getMessage());
             logger.debug("Stack trace", e);
 
@@ -62,8 +82,10 @@ public class GrpcAdmissionControllerServerInterceptor implements ServerIntercept
         }
 
         if (result.isAllowed()) {
+            allowedLatency.record(clock.monotonicTime() - startTime, TimeUnit.NANOSECONDS);
             return next.startCall(call, headers);
         }
+        rejectedLatency.record(clock.monotonicTime() - startTime, TimeUnit.NANOSECONDS);
 
         call.close(Status.RESOURCE_EXHAUSTED.withDescription(result.getReasonMessage()), new Metadata());
         return (ServerCall.Listener<ReqT>) NO_OP_LISTENER;
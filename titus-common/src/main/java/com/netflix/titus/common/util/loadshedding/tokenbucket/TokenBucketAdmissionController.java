@@ -33,13 +33,12 @@ import com.netflix.titus.common.util.loadshedding.AdmissionControllerRequest;
 import com.netflix.titus.common.util.loadshedding.AdmissionControllerResponse;
 import com.netflix.titus.common.util.time.Clock;
 import com.netflix.titus.common.util.tuple.Pair;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Admission controller with multiple token buckets. A token bucket is selected by evaluating matching criteria in
  * declaration order until first match is found. The selected bucket is tried, and either success or failure is
- * returned to the caller.
+ * returned to the caller. The matching criteria are compiled into {@link TokenBucketMatchTable}, so the regular
+ * expressions are evaluated only for patterns that are not plain literals or literal prefixes.
  * <p/>
  * <h1>Example: shared caller bucket</h1>
  * slowMethods.sharedByCallers=true<br/>
@@ -72,8 +71,6 @@ import org.slf4j.LoggerFactory;
  */
 public class TokenBucketAdmissionController implements AdaptiveAdmissionController {
 
-    private static final Logger logger = LoggerFactory.getLogger(TokenBucketAdmissionController.class);
-
     private static final String METRIC_ROOT = "titus.tokenBucketAdmissionController.";
 
     private static final AdmissionControllerResponse RESPONSE_DEFAULT_OK = AdmissionControllerResponse.newBuilder()
@@ -99,7 +96,7 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
     private static final int MAX_CACHE_SIZE = 10_000;
     private static final Duration CACHE_ITEM_TIMEOUT = Duration.ofSeconds(600);
 
-    private final List<TokenBucketConfiguration> tokenBucketConfigurations;
+    private final TokenBucketMatchTable matchTable;
 
     private final AdmissionBackoffStrategy admissionBackoffStrategy;
 
@@ -115,19 +112,13 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
 
     private final Random random = new Random();
 
-    /**
-     * Maps requests to its assigned bucket ids. We cannot map to the {@link TokenBucketInstance} directly, as its
-     * lifecycle is managed by {@link #bucketsById} cache, and we would not know when it was recreated.
-     */
-    private final Cache<AdmissionControllerRequest, Pair<String, String>> requestToBucketIdCache;
-
     private final TitusRuntime titusRuntime;
 
     public TokenBucketAdmissionController(List<TokenBucketConfiguration> tokenBucketConfigurations,
                                           AdmissionBackoffStrategy admissionBackoffStrategy,
                                           boolean includeDetailsInResponse,
                                           TitusRuntime titusRuntime) {
-        this.tokenBucketConfigurations = tokenBucketConfigurations;
+        this.matchTable = new TokenBucketMatchTable(tokenBucketConfigurations);
         this.admissionBackoffStrategy = admissionBackoffStrategy;
         this.includeDetailsInResponse = includeDetailsInResponse;
 
@@ -137,12 +128,6 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
                 METRIC_ROOT + "cache",
                 titusRuntime.getRegistry()
         );
-        this.requestToBucketIdCache = Caches.instrumentedCacheWithMaxSize(
-                MAX_CACHE_SIZE,
-                CACHE_ITEM_TIMEOUT,
-                METRIC_ROOT + "requestCache",
-                titusRuntime.getRegistry()
-        );
 
         this.titusRuntime = titusRuntime;
     }
@@ -167,19 +152,7 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
     }
 
     private Optional<TokenBucketInstance> findTokenBucket(AdmissionControllerRequest request) {
-        Pair<String, String> bucketId = requestToBucketIdCache.getIfPresent(request);
-        if (bucketId != null) {
-            TokenBucketInstance instance = bucketsById.getIfPresent(bucketId);
-            if (instance != null) {
-                return Optional.of(instance);
-            }
-        }
-
-        TokenBucketConfiguration tokenBucketConfiguration = tokenBucketConfigurations.stream()
-                .filter(configuration -> matches(configuration, request))
-                .findFirst()
-                .orElse(null);
-
+        TokenBucketConfiguration tokenBucketConfiguration = matchTable.findFirst(request.getCallerId(), request.getEndpointName()).orElse(null);
         if (tokenBucketConfiguration == null) {
             return Optional.empty();
         }
@@ -189,31 +162,12 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
                 ? tokenBucketConfiguration.getCallerPatternString()
                 : request.getCallerId();
 
-        if (bucketId == null) {
-            bucketId = Pair.of(effectiveCallerId, tokenBucketConfiguration.getEndpointPatternString());
-            requestToBucketIdCache.put(request, bucketId);
-        }
-
+        Pair<String, String> bucketId = Pair.of(effectiveCallerId, tokenBucketConfiguration.getEndpointPatternString());
         return Optional.ofNullable(bucketsById.get(bucketId, i ->
                 new TokenBucketInstance(effectiveCallerId, tokenBucketConfiguration, titusRuntime.getClock())
         ));
     }
 
-    private boolean matches(TokenBucketConfiguration configuration, AdmissionControllerRequest request) {
-        try {
-            if (!configuration.getCallerPattern().matcher(request.getCallerId()).matches()) {
-                return false;
-            }
-            if (!configuration.getEndpointPattern().matcher(request.getEndpointName()).matches()) {
-                return false;
-            }
-            return true;
-        } catch (Exception e) {
-            logger.warn("Unexpected error", e);
-            return false;
-        }
-    }
-
     private AdmissionControllerResponse consumeFast(TokenBucketInstance tokenBucketInstance) {
         TokenBucket tokenBucket = tokenBucketInstance.getTokenBucket();
         if (tokenBucket.tryTake()) {
@@ -260,7 +214,7 @@ public class TokenBucketAdmissionController implements AdaptiveAdmissionControll
 
         private TokenBucketInstance(String effectiveCallerId, TokenBucketConfiguration configuration, Clock clock) {
             this.configuration = configuration;
-            this.tokenBucket = Limiters.createFixedIntervalTokenBucket(
+            this.tokenBucket = Limiters.createLockFreeFixedIntervalTokenBucket(
                     configuration.getName(),
                     configuration.getCapacity(),
                     configuration.getCapacity(),
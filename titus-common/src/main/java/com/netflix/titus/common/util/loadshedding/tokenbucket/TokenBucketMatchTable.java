@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.loadshedding.tokenbucket;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import com.netflix.titus.common.util.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lookup structure compiled from a list of {@link TokenBucketConfiguration}s, which finds the first configuration
+ * matching a caller id and an endpoint name. Literal patterns are resolved by a hash lookup, and literal prefixes
+ * followed by '.*' by a prefix trie. Only the remaining patterns are evaluated as regular expressions.
+ */
+class TokenBucketMatchTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketMatchTable.class);
+
+    private static final String ANY_SUFFIX = ".*";
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final List<TokenBucketConfiguration> configurations;
+    private final PatternTable callerTable = new PatternTable();
+    private final PatternTable endpointTable = new PatternTable();
+
+    TokenBucketMatchTable(List<TokenBucketConfiguration> configurations) {
+        this.configurations = new ArrayList<>(configurations);
+        for (int i = 0; i < this.configurations.size(); i++) {
+            TokenBucketConfiguration configuration = this.configurations.get(i);
+            callerTable.add(i, configuration.getCallerPatternString(), configuration.getCallerPattern());
+            endpointTable.add(i, configuration.getEndpointPatternString(), configuration.getEndpointPattern());
+        }
+    }
+
+    /**
+     * Returns the first configuration (in the declaration order) matching both the caller id and the endpoint name.
+     */
+    Optional<TokenBucketConfiguration> findFirst(String callerId, String endpointName) {
+        if (configurations.isEmpty()) {
+            return Optional.empty();
+        }
+        BitSet matching = callerTable.match(callerId);
+        if (matching.isEmpty()) {
+            return Optional.empty();
+        }
+        matching.and(endpointTable.match(endpointName));
+        int idx = matching.nextSetBit(0);
+        return idx < 0 ? Optional.empty() : Optional.of(configurations.get(idx));
+    }
+
+    static boolean isLiteral(String patternString) {
+        for (int i = 0; i < patternString.length(); i++) {
+            if (REGEX_META_CHARACTERS.indexOf(patternString.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The '.' character does not match line terminators, so for values that contain them we cannot use the
+     * prefix trie.
+     */
+    private static boolean hasLineTerminator(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regexMatches(Pattern pattern, String value) {
+        try {
+            return pattern.matcher(value).matches();
+        } catch (Exception e) {
+            logger.warn("Unexpected error", e);
+            return false;
+        }
+    }
+
+    private static class PatternTable {
+
+        private final Map<String, BitSet> exactMatches = new HashMap<>();
+        private final PrefixNode prefixRoot = new PrefixNode();
+        private final List<Pair<Integer, Pattern>> regexMatches = new ArrayList<>();
+        private final List<Pair<Integer, Pattern>> allPatterns = new ArrayList<>();
+
+        private void add(int configurationIdx, String patternString, Pattern pattern) {
+            allPatterns.add(Pair.of(configurationIdx, pattern));
+            if (isLiteral(patternString)) {
+                exactMatches.computeIfAbsent(patternString, p -> new BitSet()).set(configurationIdx);
+            } else if (patternString.endsWith(ANY_SUFFIX) && isLiteral(patternString.substring(0, patternString.length() - ANY_SUFFIX.length()))) {
+                prefixRoot.add(patternString, 0, patternString.length() - ANY_SUFFIX.length()).matches.set(configurationIdx);
+            } else {
+                regexMatches.add(Pair.of(configurationIdx, pattern));
+            }
+        }
+
+        private BitSet match(String value) {
+            BitSet result = new BitSet();
+            if (value == null) {
+                return result;
+            }
+            if (hasLineTerminator(value)) {
+                allPatterns.forEach(p -> {
+                    if (regexMatches(p.getRight(), value)) {
+                        result.set(p.getLeft());
+                    }
+                });
+                return result;
+            }
+
+            BitSet exact = exactMatches.get(value);
+            if (exact != null) {
+                result.or(exact);
+            }
+            prefixRoot.collect(value, result);
+            for (Pair<Integer, Pattern> p : regexMatches) {
+                if (regexMatches(p.getRight(), value)) {
+                    result.set(p.getLeft());
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private final BitSet matches = new BitSet();
+
+        private PrefixNode add(String prefix, int position, int end) {
+            if (position == end) {
+                return this;
+            }
+            return children.computeIfAbsent(prefix.charAt(position), c -> new PrefixNode()).add(prefix, position + 1, end);
+        }
+
+        /**
+         * Adds configurations of all prefixes of the given value.
+         */
+        private void collect(String value, BitSet result) {
+            PrefixNode node = this;
+            int position = 0;
+            while (node != null) {
+                result.or(node.matches);
+                if (position == value.length()) {
+                    return;
+                }
+                node = node.children.get(value.charAt(position++));
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ import com.netflix.titus.testkit.rx.ExtTestSubscriber;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import rx.Observable;
 import rx.observers.AssertableSubscriber;
 import rx.schedulers.Schedulers;
@@ -47,7 +48,9 @@ import rx.subjects.PublishSubject;
 import static com.jayway.awaitility.Awaitility.await;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -174,6 +177,53 @@ public class DefaultReconciliationFrameworkTest {
         verify(engine, times(1)).triggerActions();
     }
 
+    @Test
+    public void testPartitionedLoopVisitsOnlyReadyEngines() {
+        DefaultReconciliationFramework<SimpleReconcilerEvent> partitionedFramework = new DefaultReconciliationFramework<>(
+                Collections.emptyList(),
+                engineFactory,
+                IDLE_TIMEOUT_MS,
+                ACTIVE_TIMEOUT_MS,
+                CHECKPOINT_INTERVAL_MS,
+                indexComparators,
+                new SimpleReconcilerEventFactory(),
+                2,
+                new DefaultRegistry(),
+                Optional.of(testScheduler)
+        );
+        partitionedFramework.start();
+        try {
+            ExtTestSubscriber<ReconciliationEngine> addSubscriber = new ExtTestSubscriber<>();
+            partitionedFramework.newEngine(EntityHolder.newRoot("myRoot1", "myEntity")).subscribe(addSubscriber);
+            testScheduler.triggerActions();
+
+            InternalReconciliationEngine engine = (InternalReconciliationEngine) addSubscriber.takeNext();
+            verify(engine, times(1)).emitEvents();
+            verify(engine, times(1)).triggerActions();
+            ArgumentCaptor<Runnable> readinessListenerCaptor = ArgumentCaptor.forClass(Runnable.class);
+            verify(engine).setReadinessListener(readinessListenerCaptor.capture());
+
+            // Engine with no pending work is not visited.
+            testScheduler.advanceTimeBy(ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            verify(engine, times(0)).applyModelUpdates();
+            verify(engine, times(1)).emitEvents();
+
+            // Now signal readiness.
+            readinessListenerCaptor.getValue().run();
+            testScheduler.advanceTimeBy(ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            verify(engine, times(1)).applyModelUpdates();
+            verify(engine, times(2)).emitEvents();
+            verify(engine, times(1)).triggerActions();
+
+            // All engines are visited in the full reconciliation cycle.
+            testScheduler.advanceTimeBy(IDLE_TIMEOUT_MS - 2 * ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            verify(engine, times(2)).applyModelUpdates();
+            verify(engine, times(2)).triggerActions();
+        } finally {
+            partitionedFramework.stop(STOP_TIMEOUT_MS);
+        }
+    }
+
     @Test
     public void testMultiEngineChangeAction() {
         EntityHolder root1 = EntityHolder.newRoot("myRoot1", "myEntity1");
@@ -295,6 +345,37 @@ public class DefaultReconciliationFrameworkTest {
         assertThat(framework.orderedView("descending").stream().map(EntityHolder::getEntity)).containsExactly("myEntity2", "myEntity1");
     }
 
+    @Test
+    public void testIndexesAreUpdatedOnlyForModifiedEngines() {
+        framework.newEngine(EntityHolder.newRoot("myRoot1", "myEntity1")).subscribe();
+        framework.newEngine(EntityHolder.newRoot("myRoot2", "myEntity2")).subscribe();
+        testScheduler.triggerActions();
+
+        // Add a child to the first engine
+        EntityHolder root1WithChild = EntityHolder.newRoot("myRoot1", "myEntity3").addChild(EntityHolder.newRoot("myChild1", "myChildEntity1"));
+        when(engine1.getReferenceView()).thenReturn(root1WithChild);
+        when(engine1.applyModelUpdates()).thenReturn(true);
+        clearInvocations(engine2);
+        testScheduler.advanceTimeBy(ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        verify(engine2, never()).getReferenceView();
+        assertThat(framework.findEngineByChildId("myChild1")).isPresent();
+        assertThat(framework.orderedView("ascending").stream().map(EntityHolder::getEntity)).containsExactly("myEntity2", "myEntity3");
+
+        // Remove the child
+        when(engine1.getReferenceView()).thenReturn(EntityHolder.newRoot("myRoot1", "myEntity3"));
+        testScheduler.advanceTimeBy(ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(framework.findEngineByChildId("myChild1")).isNotPresent();
+        assertThat(framework.findEngineByRootId("myRoot1")).isPresent();
+
+        // Remove the second engine
+        when(engine1.applyModelUpdates()).thenReturn(false);
+        framework.removeEngine(engine2).subscribe();
+        testScheduler.advanceTimeBy(ACTIVE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertThat(framework.findEngineByRootId("myRoot2")).isNotPresent();
+        assertThat(framework.orderedView("ascending").stream().map(EntityHolder::getEntity)).containsExactly("myEntity3");
+    }
+
     @Test
     public void testEventsPublishing() throws Exception {
         framework.newEngine(EntityHolder.newRoot("myRoot1", "myEntity1")).subscribe();
@@ -65,4 +65,34 @@ public class DefaultOrderTest {
         index = index.remove(Collections.singleton("b1"));
         assertThat(index.orderedList()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIndexKeyChange() {
+        // Index by value, so an update of an existing item may change its index key.
+        IndexSpec<Character, String, SampleItem, String> byValueSpec = IndexSpec.<Character, String, SampleItem, String>newBuilder()
+                .withIndexKeyExtractor(item -> item.getValue().charAt(0))
+                .withPrimaryKeyExtractor(SampleItem::getKey)
+                .withIndexKeyComparator(Character::compareTo)
+                .withPrimaryKeyComparator(String::compareTo)
+                .withTransformer((key, value) -> value.getValue())
+                .build();
+        DefaultOrder<Character, String, SampleItem, String> byValue = DefaultOrder.newEmpty(byValueSpec).add(newItems("k1", "a", "k2", "b"));
+        assertThat(byValue.orderedList()).containsExactly("a", "b");
+
+        byValue = byValue.add(newItems("k1", "c"));
+        assertThat(byValue.orderedList()).containsExactly("b", "c");
+    }
+
+    @Test
+    public void testIndexOfAndPage() {
+        DefaultOrder<Character, String, SampleItem, String> index = EMPTY_INDEX.add(
+                newItems("a1", "#a1", "a2", "#a2", "b1", "#b1", "b2", "#b2", "c1", "#c1")
+        );
+        assertThat(index.indexOf('b', "b1")).isEqualTo(2);
+        assertThat(index.indexOf('b', "b0")).isEqualTo(-3);
+
+        assertThat(index.page(2, 2)).containsExactly("#b1", "#b2");
+        assertThat(index.page(4, 2)).containsExactly("#c1");
+        assertThat(index.page(10, 2)).isEmpty();
+    }
+}
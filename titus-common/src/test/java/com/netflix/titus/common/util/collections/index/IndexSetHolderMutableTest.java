@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static com.netflix.titus.common.util.collections.index.SampleItem.newItems;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IndexSetHolderMutableTest {
+
+    private static final String BY_FIRST_LETTER = "byFirstLetter";
+    private static final String BY_KEY = "byKey";
+
+    private static final IndexSpec<Character, String, SampleItem, String> FIRST_LETTER_SPEC = IndexSpec.<Character, String, SampleItem, String>newBuilder()
+            .withIndexKeyExtractor(item -> item.getKey().charAt(0))
+            .withPrimaryKeyExtractor(SampleItem::getKey)
+            .withIndexKeyComparator(Character::compareTo)
+            .withPrimaryKeyComparator(String::compareTo)
+            .withTransformer((key, value) -> value.getValue())
+            .build();
+
+    private static final IndexSpec<String, String, SampleItem, String> KEY_SPEC = IndexSpec.<String, String, SampleItem, String>newBuilder()
+            .withIndexKeysExtractor(item -> new HashSet<>(Collections.singleton(item.getKey())))
+            .withPrimaryKeyExtractor(SampleItem::getKey)
+            .withIndexKeyComparator(String::compareTo)
+            .withPrimaryKeyComparator(String::compareTo)
+            .withTransformer((key, value) -> value.getValue())
+            .build();
+
+    private static final IndexSet<String, SampleItem> EMPTY = Indexes.<String, SampleItem>newBuilder()
+            .withGroup(BY_FIRST_LETTER, FIRST_LETTER_SPEC)
+            .withIndex(BY_KEY, KEY_SPEC)
+            .withOrder(BY_FIRST_LETTER, FIRST_LETTER_SPEC)
+            .build();
+
+    @Test
+    public void testAdd() {
+        IndexSetHolderMutable<String, SampleItem> holder = new IndexSetHolderMutable<>(EMPTY);
+        holder.add(newItems("b1", "#b1", "a2", "#a2", "a1", "#a1"));
+
+        IndexSet<String, SampleItem> indexSet = holder.getIndexSet();
+        assertThat(indexSet.<Character, String>getGroup(BY_FIRST_LETTER).get()).containsOnlyKeys('a', 'b');
+        assertThat(indexSet.<Character, String>getGroup(BY_FIRST_LETTER).get().get('a')).containsOnlyKeys("a1", "a2");
+        assertThat(indexSet.<String, String>getIndex(BY_KEY).get()).containsEntry("a1", "#a1").hasSize(3);
+        assertThat(indexSet.<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a1", "#a2", "#b1");
+
+        // Update existing value.
+        holder.add(newItems("a1", "#a1v2"));
+        assertThat(holder.getIndexSet().<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a1v2", "#a2", "#b1");
+        assertThat(holder.getIndexSet().<String, String>getIndex(BY_KEY).get()).containsEntry("a1", "#a1v2");
+    }
+
+    @Test
+    public void testRemove() {
+        IndexSetHolderMutable<String, SampleItem> holder = new IndexSetHolderMutable<>(EMPTY);
+        holder.add(newItems("a1", "#a1", "a2", "#a2", "b1", "#b1"));
+
+        holder.remove(Collections.singleton("a1"));
+        IndexSet<String, SampleItem> indexSet = holder.getIndexSet();
+        assertThat(indexSet.<Character, String>getGroup(BY_FIRST_LETTER).get().get('a')).containsOnlyKeys("a2");
+        assertThat(indexSet.<String, String>getIndex(BY_KEY).get()).containsOnlyKeys("a2", "b1");
+        assertThat(indexSet.<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a2", "#b1");
+
+        holder.remove(Collections.singleton("a2"));
+        assertThat(holder.getIndexSet().<Character, String>getGroup(BY_FIRST_LETTER).get()).containsOnlyKeys('b');
+    }
+
+    @Test
+    public void testInitialContentIsCopied() {
+        IndexSet<String, SampleItem> initial = EMPTY.add(newItems("a1", "#a1", "b1", "#b1"));
+        IndexSetHolderMutable<String, SampleItem> holder = new IndexSetHolderMutable<>(initial);
+
+        IndexSet<String, SampleItem> indexSet = holder.getIndexSet();
+        assertThat(indexSet.<Character, String>getGroup(BY_FIRST_LETTER).get()).containsOnlyKeys('a', 'b');
+        assertThat(indexSet.<String, String>getIndex(BY_KEY).get()).containsOnlyKeys("a1", "b1");
+        assertThat(indexSet.<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a1", "#b1");
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        IndexSetHolderMutable<String, SampleItem> holder = new IndexSetHolderMutable<>(EMPTY);
+        holder.add(newItems("a1", "#a1"));
+
+        IndexSet<String, SampleItem> snapshot = holder.getIndexSet();
+        assertThat(holder.getIndexSet().getOrder(BY_FIRST_LETTER)).isSameAs(snapshot.getOrder(BY_FIRST_LETTER));
+
+        holder.add(newItems("a2", "#a2"));
+        assertThat(snapshot.<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a1");
+        assertThat(holder.getIndexSet().<String>getOrder(BY_FIRST_LETTER).orderedList()).containsExactly("#a1", "#a2");
+
+        assertThatThrownBy(() -> snapshot.add(newItems("a3", "#a3"))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test(timeout = 30_000)
+    public void testSnapshotIsConsistentAcrossStripes() throws Exception {
+        IndexSetHolderMutable<String, SampleItem> holder = new IndexSetHolderMutable<>(EMPTY);
+        holder.add(newItems("a1", "#0"));
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 10_000; i++) {
+                holder.add(newItems("a1", "#" + i));
+            }
+            done.set(true);
+        }, "index-writer");
+        writer.start();
+
+        try {
+            while (!done.get()) {
+                IndexSet<String, SampleItem> indexSet = holder.getIndexSet();
+                String fromIndex = indexSet.<String, String>getIndex(BY_KEY).get().get("a1");
+                String fromGroup = indexSet.<Character, String>getGroup(BY_FIRST_LETTER).get().get('a').get("a1");
+                String fromOrder = indexSet.<String>getOrder(BY_FIRST_LETTER).orderedList().get(0);
+                assertThat(fromGroup).isEqualTo(fromIndex);
+                assertThat(fromOrder).isEqualTo(fromIndex);
+            }
+        } finally {
+            writer.join();
+        }
+        assertThat(holder.getIndexSet().<String, String>getIndex(BY_KEY).get()).containsEntry("a1", "#10000");
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.collections.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderStatisticTreeTest {
+
+    private static final OrderStatisticTree<Integer> EMPTY = OrderStatisticTree.empty(Integer::compareTo);
+
+    @Test
+    public void testPlusAndMinus() {
+        OrderStatisticTree<Integer> tree = EMPTY.plus(5).plus(1).plus(3);
+        assertThat(tree.asList()).containsExactly(1, 3, 5);
+        assertThat(tree.get(1)).isEqualTo(3);
+
+        OrderStatisticTree<Integer> noChange = tree.minus(4);
+        assertThat(noChange).isSameAs(tree);
+
+        tree = tree.minus(1);
+        assertThat(tree.asList()).containsExactly(3, 5);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testIndexOf() {
+        OrderStatisticTree<Integer> tree = OrderStatisticTree.fromSorted(Arrays.asList(10, 20, 30, 40), Integer::compareTo);
+        assertThat(tree.indexOf(10)).isEqualTo(0);
+        assertThat(tree.indexOf(40)).isEqualTo(3);
+        assertThat(tree.indexOf(5)).isEqualTo(-1);
+        assertThat(tree.indexOf(25)).isEqualTo(-3);
+        assertThat(tree.indexOf(50)).isEqualTo(-5);
+    }
+
+    @Test
+    public void testRandomOperationsAgainstTreeSet() {
+        Random random = new Random(123);
+        TreeSet<Integer> expected = new TreeSet<>();
+        OrderStatisticTree<Integer> tree = EMPTY;
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(1_000);
+            if (random.nextBoolean()) {
+                expected.add(value);
+                tree = tree.plus(value);
+            } else {
+                expected.remove(value);
+                tree = tree.minus(value);
+            }
+        }
+
+        List<Integer> expectedList = new ArrayList<>(expected);
+        assertThat(tree.asList()).containsExactlyElementsOf(expectedList);
+        for (int i = 0; i < expectedList.size(); i++) {
+            assertThat(tree.get(i)).isEqualTo(expectedList.get(i));
+        }
+        for (int value = -1; value <= 1_000; value++) {
+            assertThat(tree.indexOf(value)).isEqualTo(Collections.binarySearch(expectedList, value));
+        }
+    }
+}
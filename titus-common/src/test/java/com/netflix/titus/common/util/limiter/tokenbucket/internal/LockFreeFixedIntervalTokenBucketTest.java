@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.common.util.time.TestClock;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreeFixedIntervalTokenBucketTest {
+
+    private final TestClock clock = Clocks.test();
+
+    @Test
+    public void testTakeAndRefill() {
+        TokenBucket tokenBucket = new LockFreeFixedIntervalTokenBucket("test", 10, 0, 2, 1, TimeUnit.SECONDS, clock);
+
+        // The first interval is refilled immediately.
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(2);
+        assertThat(tokenBucket.tryTake(2)).isTrue();
+        assertThat(tokenBucket.tryTake()).isFalse();
+
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        assertThat(tokenBucket.tryTake(3)).isFalse();
+        assertThat(tokenBucket.tryTake(2)).isTrue();
+    }
+
+    @Test
+    public void testCapacityLimit() {
+        TokenBucket tokenBucket = new LockFreeFixedIntervalTokenBucket("test", 10, 5, 2, 1, TimeUnit.SECONDS, clock);
+
+        clock.advanceTime(100, TimeUnit.SECONDS);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(10);
+        assertThat(tokenBucket.tryTake(10)).isTrue();
+        assertThat(tokenBucket.tryTake()).isFalse();
+    }
+
+    @Test
+    public void testExternalRefill() {
+        TokenBucket tokenBucket = new LockFreeFixedIntervalTokenBucket("test", 10, 0, 1, 1, TimeUnit.SECONDS, clock);
+
+        tokenBucket.refill(5);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(6);
+        tokenBucket.refill(100);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(10);
+        tokenBucket.refill(-100);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(0);
+    }
+
+    @Test
+    public void testTimeUntilNextRefill() {
+        TokenBucket tokenBucket = new LockFreeFixedIntervalTokenBucket("test", 10, 0, 1, 5, TimeUnit.SECONDS, clock);
+
+        assertThat(tokenBucket.getRefillStrategy().getTimeUntilNextRefill(TimeUnit.MILLISECONDS)).isEqualTo(5_000);
+        clock.advanceTime(2, TimeUnit.SECONDS);
+        assertThat(tokenBucket.getRefillStrategy().getTimeUntilNextRefill(TimeUnit.MILLISECONDS)).isEqualTo(3_000);
+    }
+
+    @Test
+    public void testSameBehaviorAsDefaultTokenBucket() {
+        TokenBucket lockFree = new LockFreeFixedIntervalTokenBucket("lockFree", 20, 3, 4, 100, TimeUnit.MILLISECONDS, clock);
+        TokenBucket reference = new DefaultTokenBucket("reference", 20, new FixedIntervalRefillStrategy(4, 100, TimeUnit.MILLISECONDS, clock), 3);
+
+        Random random = new Random(123);
+        for (int i = 0; i < 10_000; i++) {
+            clock.advanceTime(random.nextInt(60), TimeUnit.MILLISECONDS);
+            long numberOfTokens = 1 + random.nextInt(8);
+            assertThat(lockFree.tryTake(numberOfTokens)).isEqualTo(reference.tryTake(numberOfTokens));
+            assertThat(lockFree.getNumberOfTokens()).isEqualTo(reference.getNumberOfTokens());
+        }
+    }
+}
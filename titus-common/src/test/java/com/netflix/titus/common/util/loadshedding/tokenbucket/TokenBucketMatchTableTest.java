@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.loadshedding.tokenbucket;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketMatchTableTest {
+
+    private static final TokenBucketConfiguration EXACT = newConfiguration("exact", "alice", "getJob");
+    private static final TokenBucketConfiguration PREFIX = newConfiguration("prefix", "bob.*", "get.*");
+    private static final TokenBucketConfiguration REGEX = newConfiguration("regex", "(carol|dave)", "(create|kill)Job");
+    private static final TokenBucketConfiguration ANY = newConfiguration("any", ".*", ".*");
+
+    private final TokenBucketMatchTable matchTable = new TokenBucketMatchTable(Arrays.asList(EXACT, PREFIX, REGEX, ANY));
+
+    @Test
+    public void testExactMatch() {
+        assertThat(find("alice", "getJob")).contains(EXACT);
+        assertThat(find("alice", "getJobs")).contains(ANY);
+    }
+
+    @Test
+    public void testPrefixMatch() {
+        assertThat(find("bob", "get")).contains(PREFIX);
+        assertThat(find("bob2", "getTask")).contains(PREFIX);
+        assertThat(find("bo", "getTask")).contains(ANY);
+    }
+
+    @Test
+    public void testRegexMatch() {
+        assertThat(find("carol", "killJob")).contains(REGEX);
+        assertThat(find("carol", "getJob")).contains(ANY);
+    }
+
+    @Test
+    public void testFirstMatchInDeclarationOrder() {
+        TokenBucketMatchTable reversed = new TokenBucketMatchTable(Arrays.asList(ANY, EXACT));
+        assertThat(reversed.findFirst("alice", "getJob")).contains(ANY);
+    }
+
+    @Test
+    public void testLineTerminatorsFallBackToRegex() {
+        assertThat(find("bob\n", "getJob")).isEmpty();
+    }
+
+    @Test
+    public void testNoMatch() {
+        TokenBucketMatchTable exactOnly = new TokenBucketMatchTable(Collections.singletonList(EXACT));
+        assertThat(exactOnly.findFirst("bob", "getJob")).isEmpty();
+        assertThat(exactOnly.findFirst(null, "getJob")).isEmpty();
+        assertThat(new TokenBucketMatchTable(Collections.emptyList()).findFirst("alice", "getJob")).isEmpty();
+    }
+
+    private Optional<TokenBucketConfiguration> find(String callerId, String endpointName) {
+        return matchTable.findFirst(callerId, endpointName);
+    }
+
+    private static TokenBucketConfiguration newConfiguration(String name, String callerPattern, String endpointPattern) {
+        return new TokenBucketConfiguration(name, 1, true, callerPattern, endpointPattern, 10, 1);
+    }
+}
@@ -76,6 +76,11 @@ public class EmbeddedCassandraStoreFactory {
             return 10;
         }
 
+        @Override
+        public int getBootstrapBucketConcurrencyLimit() {
+            return 5;
+        }
+
         @Override
         public int getLoadBalancerWriteConcurrencyLimit() {
             return 100;
@@ -90,6 +95,11 @@ public class EmbeddedCassandraStoreFactory {
         public boolean isTracingEnabled() {
             return false;
         }
+
+        @Override
+        public String getJobRecordFormat() {
+            return "Json";
+        }
     };
 
     private final Session session;
@@ -22,6 +22,7 @@ import java.util.function.Function;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.netflix.titus.common.util.tuple.Pair;
 import rx.Observable;
@@ -90,6 +91,13 @@ public class AsyncCassandraExecutor {
         return queryOperations.executeRawRangeQuery2(keyName, valueName, statement, Optional.empty());
     }
 
+    /**
+     * Reads all rows returned by a range query, mapping each of them with the given function.
+     */
+    public <T> Observable<T> rawRangeQuery2(PreparedStatement statement, Function<Row, T> rowMapper) {
+        return queryOperations.executeRawRangeQuery2(statement, rowMapper);
+    }
+
     /**
      * Reads { rowId, columnId, value } entries from Cassandra.
      */
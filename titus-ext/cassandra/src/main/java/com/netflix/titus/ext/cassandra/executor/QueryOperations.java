@@ -99,9 +99,17 @@ class QueryOperations {
     }
 
     public Observable<Pair<Object, Object>> executeRawRangeQuery2(String keyName, String valueName, PreparedStatement statement, Optional<Class<?>> entityType) {
-        List<Observable<Pair<Object, Object>>> allQueries = tokenRanges.stream()
+        return executeRawRangeQuery2(statement, row -> {
+            Object key = row.getObject(keyName);
+            Object value = entityType.isPresent() ? row.get(valueName, entityType.get()) : row.getString(valueName);
+            return Pair.of(key, value);
+        });
+    }
+
+    public <T> Observable<T> executeRawRangeQuery2(PreparedStatement statement, Function<Row, T> rowMapper) {
+        List<Observable<T>> allQueries = tokenRanges.stream()
                 .map(range -> statement.bind().setToken("min", range.getStart()).setToken("max", range.getEnd()))
-                .map(boundStatement -> executeQueryInternal2(keyName, valueName, boundStatement, entityType).onBackpressureBuffer())
+                .map(boundStatement -> executeQueryInternal2(boundStatement, rowMapper).onBackpressureBuffer())
                 .collect(Collectors.toList());
         return Observable.merge(allQueries);
     }
@@ -153,24 +161,16 @@ class QueryOperations {
         );
     }
 
-    private Observable<Pair<Object, Object>> executeQueryInternal2(String keyName, String valueName, BoundStatement boundStatement, Optional<Class<?>> type) {
+    private <T> Observable<T> executeQueryInternal2(BoundStatement boundStatement, Function<Row, T> rowMapper) {
         boundStatement.setFetchSize(pageSize);
         return FuturePaginatedQuery.paginatedQuery(
                 () -> session.executeAsync(boundStatement),
                 ResultSet::fetchMoreResults,
                 (rs, total) -> {
                     int remaining = rs.getAvailableWithoutFetching();
-                    List<Pair<Object, Object>> pageItems = new ArrayList<>(remaining);
+                    List<T> pageItems = new ArrayList<>(remaining);
                     for (Row row : rs) {
-                        Object key = row.getObject(keyName);
-                        if (!type.isPresent()) {
-                            String value = row.getString(valueName);
-                            pageItems.add(Pair.of(key, value));
-                        } else {
-                            Class<?> entityType = type.get();
-                            Object value = row.get(valueName, entityType);
-                            pageItems.add(Pair.of(key, value));
-                        }
+                        pageItems.add(rowMapper.apply(row));
                         if (--remaining == 0) {
                             break;
                         }
@@ -18,6 +18,7 @@ package com.netflix.titus.ext.cassandra.store;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -119,6 +120,17 @@ public class BalancedBucketManager<T> {
         return Collections.unmodifiableList(new ArrayList<>(itemToBucket.keySet()));
     }
 
+    /**
+     * Get all items grouped by their buckets. Empty buckets are not included.
+     *
+     * @return map of bucket index to the list of items in the bucket
+     */
+    public Map<Integer, List<T>> getItemsByBucket() {
+        Map<Integer, List<T>> result = new HashMap<>();
+        itemToBucket.forEach((item, bucket) -> result.computeIfAbsent(bucket, b -> new ArrayList<>()).add(item));
+        return result;
+    }
+
     /**
      * Check to see if an item exists in any of the buckets.
      *
@@ -17,6 +17,7 @@
 package com.netflix.titus.ext.cassandra.store;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +39,7 @@ import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.exceptions.DriverException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -83,15 +85,21 @@ public class CassandraJobStore implements JobStore {
     private static final int MAX_BUCKET_SIZE = 2_000;
     private static final String METRIC_NAME_ROOT = "titusMaster.jobManager.cassandra";
 
+    /**
+     * Tables holding job and task records, each with a JSON <tt>value</tt> column, and (in the current schema)
+     * a <tt>value_bin</tt> column for records in the binary format.
+     */
+    private static final List<String> RECORD_TABLES = Arrays.asList("active_jobs", "active_tasks", "archived_jobs", "archived_tasks");
+
     // SELECT Queries
     private static final String RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING = "SELECT distinct bucket FROM active_job_ids";
     private static final String RETRIEVE_ACTIVE_JOB_IDS_STRING = "SELECT job_id FROM active_job_ids WHERE bucket = ?;";
-    private static final String RETRIEVE_ACTIVE_JOB_STRING = "SELECT value FROM active_jobs WHERE job_id = ?;";
-    private static final String RETRIEVE_ARCHIVED_JOB_STRING = "SELECT value FROM archived_jobs WHERE job_id = ?;";
+    private static final String RETRIEVE_ACTIVE_JOB_STRING = "SELECT %s FROM active_jobs WHERE job_id = ?;";
+    private static final String RETRIEVE_ARCHIVED_JOB_STRING = "SELECT %s FROM archived_jobs WHERE job_id = ?;";
     private static final String RETRIEVE_ACTIVE_TASK_IDS_FOR_JOB_STRING = "SELECT task_id FROM active_task_ids WHERE job_id = ?;";
     private static final String RETRIEVE_ARCHIVED_TASK_IDS_FOR_JOB_STRING = "SELECT task_id FROM archived_task_ids WHERE job_id = ?;";
-    private static final String RETRIEVE_ACTIVE_TASK_STRING = "SELECT value FROM active_tasks WHERE task_id = ?;";
-    private static final String RETRIEVE_ARCHIVED_TASK_STRING = "SELECT value FROM archived_tasks WHERE task_id = ?;";
+    private static final String RETRIEVE_ACTIVE_TASK_STRING = "SELECT %s FROM active_tasks WHERE task_id = ?;";
+    private static final String RETRIEVE_ARCHIVED_TASK_STRING = "SELECT %s FROM archived_tasks WHERE task_id = ?;";
     private static final String RETRIEVE_ARCHIVED_TASKS_COUNT_STRING = "SELECT count(*) FROM archived_task_ids WHERE job_id = ?;";
 
     private final PreparedStatement retrieveActiveJobIdBucketsStatement;
@@ -106,12 +114,12 @@ public class CassandraJobStore implements JobStore {
 
     // INSERT Queries
     private static final String INSERT_ACTIVE_JOB_ID_STRING = "INSERT INTO active_job_ids (bucket, job_id) VALUES (?, ?);";
-    private static final String INSERT_ACTIVE_JOB_STRING = "INSERT INTO active_jobs (job_id, value) VALUES (?, ?);";
-    private static final String INSERT_ARCHIVED_JOB_STRING = "INSERT INTO archived_jobs (job_id, value) VALUES (?, ?);";
+    private static final String INSERT_ACTIVE_JOB_STRING = "INSERT INTO active_jobs (job_id, %s) VALUES (?, %s);";
+    private static final String INSERT_ARCHIVED_JOB_STRING = "INSERT INTO archived_jobs (job_id, %s) VALUES (?, %s);";
     private static final String INSERT_ACTIVE_TASK_ID_STRING = "INSERT INTO active_task_ids (job_id, task_id) VALUES (?, ?);";
-    private static final String INSERT_ACTIVE_TASK_STRING = "INSERT INTO active_tasks (task_id, value) VALUES (?, ?);";
+    private static final String INSERT_ACTIVE_TASK_STRING = "INSERT INTO active_tasks (task_id, %s) VALUES (?, %s);";
     private static final String INSERT_ARCHIVED_TASK_ID_STRING = "INSERT INTO archived_task_ids (job_id, task_id) VALUES (?, ?);";
-    private static final String INSERT_ARCHIVED_TASK_STRING = "INSERT INTO archived_tasks (task_id, value) VALUES (?, ?);";
+    private static final String INSERT_ARCHIVED_TASK_STRING = "INSERT INTO archived_tasks (task_id, %s) VALUES (?, %s);";
 
     private final PreparedStatement insertActiveJobStatement;
     private final PreparedStatement insertActiveJobIdStatement;
@@ -138,7 +146,8 @@ public class CassandraJobStore implements JobStore {
 
     private final TitusRuntime titusRuntime;
     private final Session session;
-    private final ObjectMapper mapper;
+    private final JobStoreRecordCodec codec;
+    private final boolean binaryValueColumnEnabled;
     private final BalancedBucketManager<String> activeJobIdsBucketManager;
     private final CassandraStoreConfiguration configuration;
     private final Optional<FitInjection> fitDriverInjection;
@@ -181,26 +190,34 @@ public class CassandraJobStore implements JobStore {
             this.fitBadDataInjection = Optional.empty();
         }
 
-        this.mapper = mapper;
+        this.codec = new JobStoreRecordCodec(mapper, JobStoreRecordCodec.parseFormat(configuration.getJobRecordFormat()));
+        this.binaryValueColumnEnabled = RECORD_TABLES.stream().allMatch(table -> JobStoreRecordCodec.hasBinaryValueColumn(session, table));
+        Preconditions.checkState(binaryValueColumnEnabled || codec.getWriteFormat() == JobStoreRecordCodec.Format.Json,
+                "Job record format %s requires the %s column in tables %s", codec.getWriteFormat(), JobStoreRecordCodec.BINARY_VALUE_COLUMN, RECORD_TABLES
+        );
+        String recordColumns = binaryValueColumnEnabled
+                ? JobStoreRecordCodec.VALUE_COLUMN + ", " + JobStoreRecordCodec.BINARY_VALUE_COLUMN
+                : JobStoreRecordCodec.VALUE_COLUMN;
+        String recordBindMarkers = binaryValueColumnEnabled ? "?, ?" : "?";
         this.activeJobIdsBucketManager = new BalancedBucketManager<>(initialBucketCount, maxBucketSize, METRIC_NAME_ROOT, titusRuntime.getRegistry());
 
         retrieveActiveJobIdBucketsStatement = session.prepare(RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveActiveJobIdsStatement = session.prepare(RETRIEVE_ACTIVE_JOB_IDS_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveActiveJobStatement = session.prepare(RETRIEVE_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveArchivedJobStatement = session.prepare(RETRIEVE_ARCHIVED_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        retrieveActiveJobStatement = session.prepare(String.format(RETRIEVE_ACTIVE_JOB_STRING, recordColumns)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        retrieveArchivedJobStatement = session.prepare(String.format(RETRIEVE_ARCHIVED_JOB_STRING, recordColumns)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveActiveTaskIdsForJobStatement = session.prepare(RETRIEVE_ACTIVE_TASK_IDS_FOR_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveArchivedTaskIdsForJobStatement = session.prepare(RETRIEVE_ARCHIVED_TASK_IDS_FOR_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveActiveTaskStatement = session.prepare(RETRIEVE_ACTIVE_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveArchivedTaskStatement = session.prepare(RETRIEVE_ARCHIVED_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        retrieveActiveTaskStatement = session.prepare(String.format(RETRIEVE_ACTIVE_TASK_STRING, recordColumns)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        retrieveArchivedTaskStatement = session.prepare(String.format(RETRIEVE_ARCHIVED_TASK_STRING, recordColumns)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveArchivedTasksCountStatement = session.prepare(RETRIEVE_ARCHIVED_TASKS_COUNT_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
 
-        insertActiveJobStatement = session.prepare(INSERT_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        insertActiveJobStatement = session.prepare(String.format(INSERT_ACTIVE_JOB_STRING, recordColumns, recordBindMarkers)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertActiveJobIdStatement = session.prepare(INSERT_ACTIVE_JOB_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertArchivedJobStatement = session.prepare(INSERT_ARCHIVED_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertActiveTaskStatement = session.prepare(INSERT_ACTIVE_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        insertArchivedJobStatement = session.prepare(String.format(INSERT_ARCHIVED_JOB_STRING, recordColumns, recordBindMarkers)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        insertActiveTaskStatement = session.prepare(String.format(INSERT_ACTIVE_TASK_STRING, recordColumns, recordBindMarkers)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertActiveTaskIdStatement = session.prepare(INSERT_ACTIVE_TASK_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertArchivedTaskIdStatement = session.prepare(INSERT_ARCHIVED_TASK_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertArchivedTaskStatement = session.prepare(INSERT_ARCHIVED_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        insertArchivedTaskStatement = session.prepare(String.format(INSERT_ARCHIVED_TASK_STRING, recordColumns, recordBindMarkers)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
 
         deleteActiveJobIdStatement = session.prepare(DELETE_ACTIVE_JOB_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         deleteActiveJobStatement = session.prepare(DELETE_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
@@ -248,67 +265,96 @@ public class CassandraJobStore implements JobStore {
 
     @Override
     public Observable<Pair<List<Job<?>>, Integer>> retrieveJobs() {
-        Observable result = Observable.fromCallable(() -> {
-            List<String> jobIds = activeJobIdsBucketManager.getItems();
-            return jobIds.stream().map(retrieveActiveJobStatement::bind).map(this::execute).collect(Collectors.toList());
-        }).flatMap(observables -> Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(resultSet -> {
-            List<Row> allRows = resultSet.all();
-            if (allRows.isEmpty()) {
-                logger.debug("Job id with no record");
-                return Collections.emptyList();
+        return retrieveJobsInBatches().toList().map(batches -> {
+            List<Job<?>> allJobs = new ArrayList<>();
+            int errors = 0;
+            for (Pair<List<Job<?>>, Integer> batch : batches) {
+                allJobs.addAll(batch.getLeft());
+                errors += batch.getRight();
             }
-            return allRows.stream()
-                    .map(row -> row.getString(0))
-                    .map(value -> {
-                        String effectiveValue;
-                        if (fitBadDataInjection.isPresent()) {
-                            effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value);
-                        } else {
-                            effectiveValue = value;
-                        }
+            return Pair.of(allJobs, errors);
+        });
+    }
 
-                        Job<?> job;
-                        try {
-                            job = deserializeJob(effectiveValue);
-                        } catch (Exception e) {
-                            logger.error("Cannot map serialized job data to Job class: {}", effectiveValue, e);
-                            return Either.ofError(e);
-                        }
+    /**
+     * Jobs are loaded bucket by bucket, with up to {@link #getConcurrencyLimit()} buckets processed in parallel, and
+     * up to {@link CassandraStoreConfiguration#getBootstrapBucketConcurrencyLimit()} concurrent job queries within a
+     * bucket. Each bucket is emitted as a separate batch, as soon as all its jobs are loaded.
+     */
+    @Override
+    public Observable<Pair<List<Job<?>>, Integer>> retrieveJobsInBatches() {
+        return Observable.fromCallable(activeJobIdsBucketManager::getItemsByBucket)
+                .flatMap(jobIdsByBucket -> Observable.from(jobIdsByBucket.values())
+                        .flatMap(this::retrieveJobBucket, getConcurrencyLimit())
+                );
+    }
 
-                        if (job.getJobDescriptor().getDisruptionBudget() == null) {
-                            titusRuntime.getCodeInvariants().inconsistent("jobWithNoDisruptionBudget: jobId=%s", job.getId());
-                            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
-                        }
+    private Observable<Pair<List<Job<?>>, Integer>> retrieveJobBucket(List<String> jobIds) {
+        int bucketConcurrencyLimit = Math.max(1, configuration.getBootstrapBucketConcurrencyLimit());
+        return Observable.from(jobIds)
+                .flatMap(jobId -> execute(retrieveActiveJobStatement.bind(jobId)), bucketConcurrencyLimit)
+                .flatMapIterable(resultSet -> {
+                    List<Either<Job<?>, Throwable>> jobsOrErrors = new ArrayList<>();
+                    for (Row row : resultSet.all()) {
+                        jobsOrErrors.add(toJob(JobStoreRecordCodec.Record.fromRow(row)));
+                    }
+                    if (jobsOrErrors.isEmpty()) {
+                        logger.debug("Job id with no record");
+                    }
+                    return jobsOrErrors;
+                })
+                .toList()
+                .map(everything -> {
+                    List<Job<?>> goodJobs = everything.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
+                    int errors = everything.size() - goodJobs.size();
+                    return Pair.of(goodJobs, errors);
+                });
+    }
 
-                        // TODO Remove this code when there are no more jobs with missing migration data (caused by a bug in ServiceJobExt builder).
-                        if (job.getJobDescriptor().getExtensions() instanceof ServiceJobExt) {
-                            Job<ServiceJobExt> serviceJob = (Job<ServiceJobExt>) job;
-                            ServiceJobExt ext = serviceJob.getJobDescriptor().getExtensions();
-                            if (ext.getMigrationPolicy() == null) {
-                                titusRuntime.getCodePointTracker().markReachable("Corrupted task migration record in Cassandra: " + job.getId());
-                                ServiceJobExt fixedExt = ext.toBuilder().withMigrationPolicy(SystemDefaultMigrationPolicy.newBuilder().build()).build();
-                                logger.warn("Service job with no migration policy defined. Setting system default: {}", job.getId());
-                                job = serviceJob.toBuilder().withJobDescriptor(
-                                        serviceJob.getJobDescriptor().toBuilder().withExtensions(fixedExt).build()
-                                ).build();
-                            }
-                        }
+    private Either<Job<?>, Throwable> toJob(JobStoreRecordCodec.Record value) {
+        JobStoreRecordCodec.Record effectiveValue;
+        if (fitBadDataInjection.isPresent() && value.getValue() != null) {
+            effectiveValue = JobStoreRecordCodec.Record.of(
+                    fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value.getValue()),
+                    value.getBinaryValue()
+            );
+        } else {
+            effectiveValue = value;
+        }
 
-                        if (!fitBadDataInjection.isPresent()) {
-                            return Either.ofValue(job);
-                        }
+        Job<?> job;
+        try {
+            job = deserializeJob(effectiveValue);
+        } catch (Exception e) {
+            logger.error("Cannot map serialized job data to Job class: {}", effectiveValue, e);
+            return Either.ofError(e);
+        }
 
-                        Job<?> effectiveJob = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedJobRecords.name(), job);
-                        return Either.ofValue(effectiveJob);
-                    })
-                    .collect(Collectors.toList());
-        })).toList().map(everything -> {
-            List<Job> goodJobs = (List<Job>) everything.stream().filter(Either::hasValue).map(Either::getValue).collect(Collectors.toList());
-            int errors = everything.size() - goodJobs.size();
-            return Pair.of(goodJobs, errors);
-        });
+        if (job.getJobDescriptor().getDisruptionBudget() == null) {
+            titusRuntime.getCodeInvariants().inconsistent("jobWithNoDisruptionBudget: jobId=%s", job.getId());
+            job = JobFunctions.changeDisruptionBudget(job, DisruptionBudget.none());
+        }
+
+        // TODO Remove this code when there are no more jobs with missing migration data (caused by a bug in ServiceJobExt builder).
+        if (job.getJobDescriptor().getExtensions() instanceof ServiceJobExt) {
+            Job<ServiceJobExt> serviceJob = (Job<ServiceJobExt>) job;
+            ServiceJobExt ext = serviceJob.getJobDescriptor().getExtensions();
+            if (ext.getMigrationPolicy() == null) {
+                titusRuntime.getCodePointTracker().markReachable("Corrupted task migration record in Cassandra: " + job.getId());
+                ServiceJobExt fixedExt = ext.toBuilder().withMigrationPolicy(SystemDefaultMigrationPolicy.newBuilder().build()).build();
+                logger.warn("Service job with no migration policy defined. Setting system default: {}", job.getId());
+                job = serviceJob.toBuilder().withJobDescriptor(
+                        serviceJob.getJobDescriptor().toBuilder().withExtensions(fixedExt).build()
+                ).build();
+            }
+        }
+
+        if (!fitBadDataInjection.isPresent()) {
+            return Either.ofValue(job);
+        }
 
-        return result;
+        Job<?> effectiveJob = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedJobRecords.name(), job);
+        return Either.ofValue(effectiveJob);
     }
 
     @Override
@@ -321,8 +367,7 @@ public class CassandraJobStore implements JobStore {
             if (row == null) {
                 throw JobStoreException.jobDoesNotExist(jobId);
             }
-            String value = row.getString(0);
-            return deserializeJob(value);
+            return deserializeJob(JobStoreRecordCodec.Record.fromRow(row));
         }));
     }
 
@@ -333,11 +378,11 @@ public class CassandraJobStore implements JobStore {
                     String jobId = job.getId();
                     checkIfJobAlreadyExists(jobId);
 
-                    String jobJsonString = writeJobToString(job);
+                    JobStoreRecordCodec.Record jobRecord = codec.encode(job);
 
                     int bucket = activeJobIdsBucketManager.getNextBucket();
                     activeJobIdsBucketManager.addItem(bucket, jobId);
-                    Statement jobStatement = insertActiveJobStatement.bind(jobId, jobJsonString);
+                    Statement jobStatement = bindRecord(insertActiveJobStatement, jobId, jobRecord);
                     Statement jobIdStatement = insertActiveJobIdStatement.bind(bucket, jobId);
 
                     BatchStatement batchStatement = new BatchStatement();
@@ -355,20 +400,16 @@ public class CassandraJobStore implements JobStore {
                 .toCompletable();
     }
 
-    private String writeJobToString(Job job) {
-        return ObjectMappers.writeValueAsString(mapper, job);
-    }
-
     @Override
     public Completable updateJob(Job job) {
         return Observable
                 .fromCallable((Callable<Statement>) () -> {
                     String jobId = job.getId();
                     checkIfJobIsActive(jobId);
-                    String jobJsonString = writeJobToString(job);
+                    JobStoreRecordCodec.Record jobRecord = codec.encode(job);
 
                     transactionLogger().logBeforeUpdate(insertActiveJobStatement, "updateJob", job);
-                    return insertActiveJobStatement.bind(jobId, jobJsonString);
+                    return bindRecord(insertActiveJobStatement, jobId, jobRecord);
                 })
                 .flatMap(statement ->
                         execute(statement).doOnNext(rs -> transactionLogger().logAfterUpdate(insertActiveJobStatement, "updateJob", job))
@@ -450,11 +491,14 @@ public class CassandraJobStore implements JobStore {
             return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> {
                 List<Either<Task, Throwable>> tasks = new ArrayList<>();
                 for (Row row : tasksResultSet.all()) {
-                    String value = row.getString(0);
-
-                    String effectiveValue;
-                    if (fitBadDataInjection.isPresent()) {
-                        effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value);
+                    JobStoreRecordCodec.Record value = JobStoreRecordCodec.Record.fromRow(row);
+
+                    JobStoreRecordCodec.Record effectiveValue;
+                    if (fitBadDataInjection.isPresent() && value.getValue() != null) {
+                        effectiveValue = JobStoreRecordCodec.Record.of(
+                                fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value.getValue()),
+                                value.getBinaryValue()
+                        );
                     } else {
                         effectiveValue = value;
                     }
@@ -497,8 +541,7 @@ public class CassandraJobStore implements JobStore {
                 .flatMap(statement -> execute(statement).flatMap(resultSet -> {
                     Row row = resultSet.one();
                     if (row != null) {
-                        String value = row.getString(0);
-                        Task task = deserializeTask(value);
+                        Task task = deserializeTask(JobStoreRecordCodec.Record.fromRow(row));
 
                         transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTask", task);
 
@@ -515,8 +558,8 @@ public class CassandraJobStore implements JobStore {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
-            Statement taskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            JobStoreRecordCodec.Record taskRecord = codec.encode(task);
+            Statement taskStatement = bindRecord(insertActiveTaskStatement, taskId, taskRecord);
             Statement taskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             BatchStatement batchStatement = new BatchStatement();
@@ -537,11 +580,11 @@ public class CassandraJobStore implements JobStore {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
+            JobStoreRecordCodec.Record taskRecord = codec.encode(task);
 
             transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "updateTask", task);
 
-            return insertActiveTaskStatement.bind(taskId, taskJsonString);
+            return bindRecord(insertActiveTaskStatement, taskId, taskRecord);
         }).flatMap(statement -> {
                     transactionLogger().logAfterUpdate(insertActiveTaskStatement, "updateTask", task);
                     return execute(statement);
@@ -555,11 +598,11 @@ public class CassandraJobStore implements JobStore {
             String jobId = newTask.getJobId();
             checkIfJobIsActive(jobId);
             String taskId = newTask.getId();
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, newTask);
+            JobStoreRecordCodec.Record taskRecord = codec.encode(newTask);
 
             BatchStatement batchStatement = getArchiveTaskBatchStatement(oldTask);
 
-            Statement insertTaskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            Statement insertTaskStatement = bindRecord(insertActiveTaskStatement, taskId, taskRecord);
             Statement insertTaskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             batchStatement.add(insertTaskStatement);
@@ -585,13 +628,13 @@ public class CassandraJobStore implements JobStore {
             checkIfJobIsActive(jobFrom.getId());
             checkIfJobIsActive(jobTo.getId());
 
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, taskAfter);
-            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "moveTask", taskJsonString);
+            JobStoreRecordCodec.Record taskRecord = codec.encode(taskAfter);
+            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "moveTask", taskAfter);
 
             BatchStatement batchStatement = new BatchStatement();
-            batchStatement.add(insertActiveJobStatement.bind(jobFrom.getId(), ObjectMappers.writeValueAsString(mapper, jobFrom)));
-            batchStatement.add(insertActiveJobStatement.bind(jobTo.getId(), ObjectMappers.writeValueAsString(mapper, jobTo)));
-            batchStatement.add(insertActiveTaskStatement.bind(taskAfter.getId(), taskJsonString));
+            batchStatement.add(bindRecord(insertActiveJobStatement, jobFrom.getId(), codec.encode(jobFrom)));
+            batchStatement.add(bindRecord(insertActiveJobStatement, jobTo.getId(), codec.encode(jobTo)));
+            batchStatement.add(bindRecord(insertActiveTaskStatement, taskAfter.getId(), taskRecord));
             batchStatement.add(deleteActiveTaskIdStatement.bind(jobFrom.getId(), taskAfter.getId()));
             batchStatement.add(insertActiveTaskIdStatement.bind(jobTo.getId(), taskAfter.getId()));
 
@@ -658,7 +701,7 @@ public class CassandraJobStore implements JobStore {
                                     .map(this::execute)
                                     .collect(Collectors.toList());
                             return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> tasksResultSet.all().stream()
-                                    .map(row -> row.getString(0))
+                                    .map(JobStoreRecordCodec.Record::fromRow)
                                     .map(this::deserializeTask)
                                     .collect(Collectors.toList()));
                         }));
@@ -720,14 +763,14 @@ public class CassandraJobStore implements JobStore {
                         if (type == Long.class) {
                             return Observable.just(type.cast(row.getLong(0)));
                         }
-                        String value = row.getString(0);
+                        JobStoreRecordCodec.Record value = JobStoreRecordCodec.Record.fromRow(row);
                         if (type.isAssignableFrom(Job.class)) {
                             return Observable.just(type.cast(deserializeJob(value)));
                         }
                         if (type.isAssignableFrom(Task.class)) {
                             return Observable.just(type.cast(deserializeTask(value)));
                         }
-                        return Observable.just(ObjectMappers.readValue(mapper, value, type));
+                        return Observable.just(codec.decode(value, type));
                     } catch (Exception e) {
                         return Observable.error(e);
                     }
@@ -754,14 +797,14 @@ public class CassandraJobStore implements JobStore {
         return task;
     }
 
-    private Job<?> deserializeJob(String value) {
-        Job job = ObjectMappers.readValue(mapper, value, Job.class);
+    private Job<?> deserializeJob(JobStoreRecordCodec.Record value) {
+        Job job = codec.decode(value, Job.class);
         job = ensureHasVersion(job);
         return job;
     }
 
-    private Task deserializeTask(String value) {
-        Task task = ObjectMappers.readValue(mapper, value, Task.class);
+    private Task deserializeTask(JobStoreRecordCodec.Record value) {
+        Task task = codec.decode(value, Task.class);
 
         // Task attributes field check
         if (task.getAttributes() == null) {
@@ -780,11 +823,11 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveJobBatchStatement(Job job) {
         String jobId = job.getId();
         int bucket = activeJobIdsBucketManager.getItemBucket(jobId);
-        String jobJsonString = writeJobToString(job);
+        JobStoreRecordCodec.Record jobRecord = codec.encode(job);
 
         Statement deleteJobStatement = deleteActiveJobStatement.bind(jobId);
         Statement deleteJobIdStatement = deleteActiveJobIdStatement.bind(bucket, jobId);
-        Statement insertJobStatement = insertArchivedJobStatement.bind(jobId, jobJsonString);
+        Statement insertJobStatement = bindRecord(insertArchivedJobStatement, jobId, jobRecord);
 
         BatchStatement statement = new BatchStatement();
         statement.add(deleteJobStatement);
@@ -797,11 +840,11 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveTaskBatchStatement(Task task) {
         String jobId = task.getJobId();
         String taskId = task.getId();
-        String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
+        JobStoreRecordCodec.Record taskRecord = codec.encode(task);
 
         Statement deleteTaskStatement = deleteActiveTaskStatement.bind(taskId);
         Statement deleteTaskIdStatement = deleteActiveTaskIdStatement.bind(jobId, taskId);
-        Statement insertTaskStatement = insertArchivedTaskStatement.bind(taskId, taskJsonString);
+        Statement insertTaskStatement = bindRecord(insertArchivedTaskStatement, taskId, taskRecord);
         Statement insertTaskIdStatement = insertArchivedTaskIdStatement.bind(jobId, taskId);
 
         BatchStatement batchStatement = new BatchStatement();
@@ -813,6 +856,16 @@ public class CassandraJobStore implements JobStore {
         return batchStatement;
     }
 
+    /**
+     * Binds a record insert statement. With the binary column present both value columns are always written, so
+     * a record written in a new format replaces the one in the other column.
+     */
+    private Statement bindRecord(PreparedStatement insertStatement, String id, JobStoreRecordCodec.Record record) {
+        return binaryValueColumnEnabled
+                ? insertStatement.bind(id, record.getValue(), record.getBinaryValue())
+                : insertStatement.bind(id, record.getValue());
+    }
+
     private BatchStatement getDeleteArchivedTaskBatchStatement(String jobId, String taskId) {
         Statement deleteArchivedTaskIdStatement = deletedArchivedTaskIdStatement.bind(jobId, taskId);
         Statement deleteArchivedTaskStatement = deletedArchivedTaskStatement.bind(taskId);
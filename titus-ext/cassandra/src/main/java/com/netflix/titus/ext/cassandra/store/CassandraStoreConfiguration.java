@@ -50,6 +50,14 @@ public interface CassandraStoreConfiguration {
     @DefaultValue("10")
     int getConcurrencyLimit();
 
+    /**
+     * Number of concurrent job record queries within a single job id bucket during bootstrap. Buckets themselves
+     * are loaded in parallel up to {@link #getConcurrencyLimit()}, so the total number of concurrent job queries
+     * is a product of the two values.
+     */
+    @DefaultValue("5")
+    int getBootstrapBucketConcurrencyLimit();
+
     /**
      * Concurrency limit for load balancer target write operations (bulk INSERTs), in number of concurrent queries that
      * can be running per method invocation in {@link CassandraLoadBalancerStore#addOrUpdateTargets(Collection)}.
@@ -80,4 +88,12 @@ public interface CassandraStoreConfiguration {
     @DefaultValue("false")
     boolean isTracingEnabled();
 
+    /**
+     * Format in which job and task records are written (see {@link JobStoreRecordCodec.Format}). Records in any
+     * format are always readable, but before switching to a non-default format all nodes (including the CassTool
+     * instances) must run a version that understands it, and the job tables must have the <tt>value_bin</tt> column.
+     */
+    @DefaultValue("Json")
+    String getJobRecordFormat();
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.utils.Bytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.common.util.StringExt;
+import rx.exceptions.Exceptions;
+
+/**
+ * Encodes job and task records stored in the Cassandra job tables. Two formats are supported:
+ * <ul>
+ * <li>{@link Format#Json} - the original JSON representation, stored in the <tt>value</tt> text column</li>
+ * <li>{@link Format#Smile} - the same model in the Jackson Smile binary format, stored in the <tt>value_bin</tt>
+ * blob column</li>
+ * </ul>
+ * Only one of the two columns is set in a row, and it determines how the row is decoded, so tables may hold a mix
+ * of both formats.
+ */
+public class JobStoreRecordCodec {
+
+    public static final String VALUE_COLUMN = "value";
+    public static final String BINARY_VALUE_COLUMN = "value_bin";
+
+    private static final ObjectMapper SMILE_STORE_MAPPER = ObjectMappers.newStoreMapper(new SmileFactory());
+    private static final ObjectMapper SMILE_TREE_MAPPER = new ObjectMapper(new SmileFactory());
+    private static final ObjectMapper JSON_TREE_MAPPER = new ObjectMapper();
+
+    public enum Format {
+        Json,
+        Smile
+    }
+
+    private final ObjectMapper mapper;
+    private final Format writeFormat;
+
+    public JobStoreRecordCodec(ObjectMapper mapper, Format writeFormat) {
+        this.mapper = mapper;
+        this.writeFormat = writeFormat;
+    }
+
+    public Format getWriteFormat() {
+        return writeFormat;
+    }
+
+    public Record encode(Object value) {
+        try {
+            if (writeFormat == Format.Smile) {
+                return Record.of(null, ByteBuffer.wrap(SMILE_STORE_MAPPER.writeValueAsBytes(value)));
+            }
+            return Record.of(mapper.writeValueAsString(value), null);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    public <T> T decode(Record record, Class<T> type) {
+        try {
+            if (record.getFormat() == Format.Smile) {
+                return SMILE_STORE_MAPPER.readValue(Bytes.getArray(record.getBinaryValue()), type);
+            }
+            return mapper.readValue(record.getValue(), type);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    public static Format parseFormat(String formatName) {
+        if (StringExt.isEmpty(formatName)) {
+            return Format.Json;
+        }
+        for (Format format : Format.values()) {
+            if (format.name().equalsIgnoreCase(formatName.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown job store record format: " + formatName);
+    }
+
+    /**
+     * Returns true if the given table in the session keyspace has the {@link #BINARY_VALUE_COLUMN} column.
+     * Tables created before the binary format was introduced must be altered, before records can be written in it.
+     */
+    public static boolean hasBinaryValueColumn(Session session, String table) {
+        String keyspaceName = session.getLoggedKeyspace();
+        if (keyspaceName == null) {
+            return false;
+        }
+        KeyspaceMetadata keyspace = session.getCluster().getMetadata().getKeyspace(Metadata.quote(keyspaceName));
+        TableMetadata tableMetadata = keyspace == null ? null : keyspace.getTable(table);
+        return tableMetadata != null && tableMetadata.getColumn(BINARY_VALUE_COLUMN) != null;
+    }
+
+    /**
+     * Serialized job or task record, with either the JSON or the binary value set.
+     */
+    public static final class Record {
+
+        private final String value;
+        private final ByteBuffer binaryValue;
+
+        private Record(String value, ByteBuffer binaryValue) {
+            this.value = value;
+            this.binaryValue = binaryValue;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public ByteBuffer getBinaryValue() {
+            return binaryValue;
+        }
+
+        public Format getFormat() {
+            return binaryValue == null ? Format.Json : Format.Smile;
+        }
+
+        /**
+         * Returns the record as JSON text, converting it if it is stored in the binary format.
+         */
+        public String toJson() {
+            if (binaryValue == null) {
+                return value;
+            }
+            try {
+                return JSON_TREE_MAPPER.writeValueAsString(SMILE_TREE_MAPPER.readTree(Bytes.getArray(binaryValue)));
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return binaryValue == null ? value : "Smile[" + binaryValue.remaining() + " bytes]";
+        }
+
+        public static Record of(String value, ByteBuffer binaryValue) {
+            return new Record(value, binaryValue);
+        }
+
+        /**
+         * Reads a record from a row, with the JSON value in the first column, and the binary value, if selected,
+         * in the second one.
+         */
+        public static Record fromRow(Row row) {
+            ByteBuffer binaryValue = row.getColumnDefinitions().size() > 1 ? row.getBytes(1) : null;
+            return new Record(row.getString(0), binaryValue);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.netflix.titus.ext.cassandra.tool.command.CreateKeyspaceCommand;
 import com.netflix.titus.ext.cassandra.tool.command.DeleteKeyspaceCommand;
 import com.netflix.titus.ext.cassandra.tool.command.JobCopyCommand;
 import com.netflix.titus.ext.cassandra.tool.command.JobReconcilerCommand;
+import com.netflix.titus.ext.cassandra.tool.command.JobRecordFormatMigrationCommand;
 import com.netflix.titus.ext.cassandra.tool.command.JobSnapshotDownloadCommand;
 import com.netflix.titus.ext.cassandra.tool.command.JobSnapshotUploadCommand;
 import com.netflix.titus.ext.cassandra.tool.command.JobTruncateCommand;
@@ -41,6 +42,7 @@ public class CassTool extends AbstractCassTool {
             .put("jobReconciler", new JobReconcilerCommand())
             .put("jobCopy", new JobCopyCommand())
             .put("jobTruncate", new JobTruncateCommand())
+            .put("jobRecordFormatMigration", new JobRecordFormatMigrationCommand())
             .put("jobSnapshotDownload", new JobSnapshotDownloadCommand())
             .put("jobSnapshotUpload", new JobSnapshotUploadCommand())
             .put("createKeyspace", new CreateKeyspaceCommand())
@@ -28,6 +28,7 @@ import com.datastax.driver.core.exceptions.TruncateException;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.ext.cassandra.executor.AsyncCassandraExecutor;
+import com.netflix.titus.ext.cassandra.store.JobStoreRecordCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
@@ -84,7 +85,7 @@ public class CassandraUtils {
         String primaryKey = tableMetadata.getPartitionKey().get(0).getName();
         List<String> valueColumns = tableMetadata.getColumns().stream()
                 .map(ColumnMetadata::getName)
-                .filter(c -> !c.equals(primaryKey))
+                .filter(c -> !c.equals(primaryKey) && !c.equals(JobStoreRecordCodec.BINARY_VALUE_COLUMN))
                 .collect(Collectors.toList());
         Preconditions.checkState(valueColumns.size() == 1, "Expected one non primary key column, and is: %s", valueColumns);
         String valueColumn = valueColumns.get(0);
@@ -92,6 +93,10 @@ public class CassandraUtils {
         return Pair.of(primaryKey, valueColumn);
     }
 
+    /**
+     * Reads { primary_key, value } entries. For the job record tables, values stored in the binary format are
+     * returned as JSON text.
+     */
     public static Observable<Pair<Object, Object>> readTwoColumnTable(Session sourceSession, String table) {
         Pair<String, String> columnNames = resolveColumnNamesInTwoColumnTable(sourceSession, table);
         String primaryKey = columnNames.getLeft();
@@ -101,6 +106,12 @@ public class CassandraUtils {
                 String.format("SELECT * FROM %s WHERE token(%s) > :min AND token(%s) <= :max", table, primaryKey, primaryKey)
         );
         AsyncCassandraExecutor executor = new AsyncCassandraExecutor(sourceSession, PAGE_SIZE, SPLIT);
+        if (JobStoreRecordCodec.hasBinaryValueColumn(sourceSession, table)) {
+            return executor.rawRangeQuery2(queryAllStatement, row -> Pair.of(
+                    row.getObject(primaryKey),
+                    JobStoreRecordCodec.Record.of(row.getString(valueColumn), row.getBytes(JobStoreRecordCodec.BINARY_VALUE_COLUMN)).toJson()
+            ));
+        }
         return executor.rawRangeQuery2(primaryKey, valueColumn, queryAllStatement);
     }
 
@@ -109,9 +120,10 @@ public class CassandraUtils {
         String primaryKey = columnNames.getLeft();
         String valueColumn = columnNames.getRight();
 
-        PreparedStatement insertStatement = targetSession.prepare(
-                String.format("INSERT INTO %s (%s, %s) VALUES (?, ?)", table, primaryKey, valueColumn)
-        );
+        // Values are written as JSON text, so any binary value left in the row must be cleared.
+        PreparedStatement insertStatement = JobStoreRecordCodec.hasBinaryValueColumn(targetSession, table)
+                ? targetSession.prepare(String.format("INSERT INTO %s (%s, %s, %s) VALUES (?, ?, null)", table, primaryKey, valueColumn, JobStoreRecordCodec.BINARY_VALUE_COLUMN))
+                : targetSession.prepare(String.format("INSERT INTO %s (%s, %s) VALUES (?, ?)", table, primaryKey, valueColumn));
 
         AsyncCassandraExecutor executor = new AsyncCassandraExecutor(targetSession, PAGE_SIZE, SPLIT);
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.tool.command;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.base.Preconditions;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.ext.cassandra.executor.AsyncCassandraExecutor;
+import com.netflix.titus.ext.cassandra.store.CassStoreHelper;
+import com.netflix.titus.ext.cassandra.store.JobStoreRecordCodec;
+import com.netflix.titus.ext.cassandra.tool.CassandraSchemas;
+import com.netflix.titus.ext.cassandra.tool.CassandraUtils;
+import com.netflix.titus.ext.cassandra.tool.Command;
+import com.netflix.titus.ext.cassandra.tool.CommandContext;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+/**
+ * Rewrites job and task records in the requested {@link JobStoreRecordCodec.Format}, moving them between the
+ * <tt>value</tt> and <tt>value_bin</tt> columns. Records already in the requested format are not written back,
+ * so the command can be safely re-run after a partial failure.
+ * <p>
+ * The command must be run with all Titus masters using the keyspace stopped. As an additional safety measure,
+ * each record is written with a conditional update, which is applied only if the stored values are still the ones
+ * that were read, so a concurrent change is never overwritten with stale data. Records that changed in the meantime
+ * are skipped and reported.
+ */
+public class JobRecordFormatMigrationCommand implements Command {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRecordFormatMigrationCommand.class);
+
+    /**
+     * Conditional updates are Paxos rounds, which are much more expensive than regular writes, so their number
+     * is kept low.
+     */
+    private static final int MAX_CONCURRENCY = 100;
+
+    @Override
+    public String getDescription() {
+        return "Rewrite job and task records in the given storage format (Json or Smile). All Titus masters must be stopped";
+    }
+
+    @Override
+    public CommandType getCommandType() {
+        return CommandType.TargetKeySpace;
+    }
+
+    @Override
+    public Options getOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder("a").longOpt("archive").desc("Include archive tables").build());
+        options.addOption(Option.builder("f")
+                .longOpt("format")
+                .required()
+                .hasArg()
+                .desc("Target record format (Json or Smile)")
+                .build()
+        );
+        options.addOption(Option.builder("s")
+                .longOpt("masters-stopped")
+                .desc("Confirm that all Titus masters using the keyspace are stopped")
+                .build()
+        );
+        return options;
+    }
+
+    @Override
+    public void execute(CommandContext context) {
+        Preconditions.checkArgument(context.getCommandLine().hasOption('s'),
+                "All Titus masters using the keyspace must be stopped before the migration. Confirm it with the --masters-stopped option"
+        );
+        JobStoreRecordCodec codec = new JobStoreRecordCodec(
+                ObjectMappers.storeMapper(),
+                JobStoreRecordCodec.parseFormat(context.getCommandLine().getOptionValue('f'))
+        );
+        boolean includeArchive = context.getCommandLine().hasOption('a');
+
+        migrateTable(context, codec, CassandraSchemas.ACTIVE_JOBS_TABLE, Job.class);
+        migrateTable(context, codec, CassandraSchemas.ACTIVE_TASKS_TABLE, Task.class);
+        if (includeArchive) {
+            migrateTable(context, codec, CassandraSchemas.ARCHIVED_JOBS_TABLE, Job.class);
+            migrateTable(context, codec, CassandraSchemas.ARCHIVED_TASKS_TABLE, Task.class);
+        }
+    }
+
+    private void migrateTable(CommandContext context, JobStoreRecordCodec codec, String table, Class<?> type) {
+        Session session = context.getTargetSession();
+        Preconditions.checkState(JobStoreRecordCodec.hasBinaryValueColumn(session, table),
+                "Table %s has no %s column. Alter the table schema first", table, JobStoreRecordCodec.BINARY_VALUE_COLUMN
+        );
+        String primaryKey = CassandraUtils.resolveColumnNamesInTwoColumnTable(session, table).getLeft();
+
+        PreparedStatement queryAllStatement = session.prepare(String.format(
+                "SELECT %s, %s, %s FROM %s WHERE token(%s) > :min AND token(%s) <= :max",
+                primaryKey, JobStoreRecordCodec.VALUE_COLUMN, JobStoreRecordCodec.BINARY_VALUE_COLUMN, table, primaryKey, primaryKey
+        ));
+        PreparedStatement updateStatement = session.prepare(String.format(
+                "UPDATE %s SET %s = ?, %s = ? WHERE %s = ? IF %s = ? AND %s = ?",
+                table, JobStoreRecordCodec.VALUE_COLUMN, JobStoreRecordCodec.BINARY_VALUE_COLUMN, primaryKey,
+                JobStoreRecordCodec.VALUE_COLUMN, JobStoreRecordCodec.BINARY_VALUE_COLUMN
+        ));
+        AsyncCassandraExecutor executor = new AsyncCassandraExecutor(session, CassandraUtils.PAGE_SIZE, CassandraUtils.SPLIT);
+        CassStoreHelper storeHelper = new CassStoreHelper(session, Schedulers.io());
+
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong rewritten = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        executor.rawRangeQuery2(queryAllStatement, row -> Pair.of(
+                row.getObject(primaryKey),
+                JobStoreRecordCodec.Record.of(row.getString(JobStoreRecordCodec.VALUE_COLUMN), row.getBytes(JobStoreRecordCodec.BINARY_VALUE_COLUMN))
+        ))
+                .doOnNext(pair -> scanned.incrementAndGet())
+                .filter(pair -> pair.getRight().getFormat() != codec.getWriteFormat())
+                .flatMap(pair -> {
+                    JobStoreRecordCodec.Record record = pair.getRight();
+                    JobStoreRecordCodec.Record newRecord;
+                    try {
+                        newRecord = codec.encode(codec.decode(record, type));
+                    } catch (Exception e) {
+                        logger.warn("Cannot re-encode record {} in table {}: {}", pair.getLeft(), table, e.getMessage());
+                        failed.incrementAndGet();
+                        return Observable.empty();
+                    }
+                    return storeHelper.execute(updateStatement.bind(
+                            newRecord.getValue(), newRecord.getBinaryValue(), pair.getLeft(), record.getValue(), record.getBinaryValue()
+                    )).doOnNext(resultSet -> {
+                        if (resultSet.wasApplied()) {
+                            rewritten.incrementAndGet();
+                        } else {
+                            logger.warn("Record {} in table {} changed during the migration. Skipping it", pair.getLeft(), table);
+                            conflicts.incrementAndGet();
+                        }
+                    });
+                }, MAX_CONCURRENCY)
+                .ignoreElements()
+                .toBlocking()
+                .firstOrDefault(null);
+
+        logger.info("Migrated table {}.{} to format {}: scanned={}, rewritten={}, conflicts={}, failed={}",
+                context.getTargetKeySpace(), table, codec.getWriteFormat(), scanned.get(), rewritten.get(), conflicts.get(), failed.get()
+        );
+    }
+}
@@ -80,6 +80,11 @@ public class TestStoreLoadCommand implements Command {
             return MAX_RETRIEVE_TASK_CONCURRENCY;
         }
 
+        @Override
+        public int getBootstrapBucketConcurrencyLimit() {
+            return 5;
+        }
+
         @Override
         public int getLoadBalancerWriteConcurrencyLimit() {
             return MAX_RETRIEVE_TASK_CONCURRENCY;
@@ -94,6 +99,11 @@ public class TestStoreLoadCommand implements Command {
         public boolean isTracingEnabled() {
             return false;
         }
+
+        @Override
+        public String getJobRecordFormat() {
+            return "Json";
+        }
     };
 
     @Override
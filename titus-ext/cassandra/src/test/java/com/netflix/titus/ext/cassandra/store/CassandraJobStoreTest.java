@@ -76,6 +76,12 @@ public class CassandraJobStoreTest {
      */
     private static final String CONFIGURATION_FILE_NAME = "relocated-cassandra.yaml";
     private static final CassandraStoreConfiguration CONFIGURATION = new TestCassandraStoreConfiguration();
+    private static final CassandraStoreConfiguration SMILE_CONFIGURATION = new TestCassandraStoreConfiguration() {
+        @Override
+        public String getJobRecordFormat() {
+            return "Smile";
+        }
+    };
     @Rule
     public CassandraCQLUnit cassandraCqlUnit = new CassandraCQLUnit(
             new ClassPathCQLDataSet("tables.cql", "titus_integration_tests"),
@@ -189,6 +195,28 @@ public class CassandraJobStoreTest {
         assertItemsPerBucket(session, numberOfBuckets + 1, MAX_BUCKET_SIZE);
     }
 
+    @Test
+    public void testRetrieveJobsInBatches() {
+        int numberOfJobsToCreate = 3 * MAX_BUCKET_SIZE;
+        Session session = cassandraCqlUnit.getSession();
+        JobStore bootstrappingStore = getJobStore(session);
+        bootstrappingStore.init().await();
+        List<Completable> completables = new ArrayList<>();
+        for (int i = 0; i < numberOfJobsToCreate; i++) {
+            completables.add(bootstrappingStore.storeJob(createBatchJobObject()));
+        }
+        Completable.merge(Observable.from(completables), MAX_CONCURRENCY).await();
+
+        JobStore store = getJobStore(session);
+        store.init().await();
+        List<Pair<List<Job<?>>, Integer>> batches = store.retrieveJobsInBatches().toList().toBlocking().first();
+        assertThat(batches).hasSize(numberOfJobsToCreate / MAX_BUCKET_SIZE);
+        batches.forEach(batch -> {
+            assertThat(batch.getLeft()).hasSize(MAX_BUCKET_SIZE);
+            assertThat(batch.getRight()).isEqualTo(0);
+        });
+    }
+
     private void assertItemsPerBucket(Session session, int numberOfBuckets, int expectedNumberOfItemsPerBucket) {
         for (int i = 0; i < numberOfBuckets; i++) {
             ResultSet resultSet = session.execute("SELECT COUNT(*) FROM active_job_ids WHERE bucket = " + i);
@@ -337,6 +365,32 @@ public class CassandraJobStoreTest {
         assertThat(tasks.getLeft()).isEmpty();
     }
 
+    @Test
+    public void testRecordsInMixedFormats() {
+        Session session = cassandraCqlUnit.getSession();
+        JobStore smileStore = getJobStore(session, SMILE_CONFIGURATION);
+        Job<BatchJobExt> job = createFinishedBatchJobObject();
+        Task task = createTaskObject(job);
+        smileStore.init().await();
+        smileStore.storeJob(job).await();
+        smileStore.storeTask(task).await();
+
+        // Records written in the binary format are readable by a store writing JSON, and the other way round.
+        JobStore jsonStore = getJobStore(session, CONFIGURATION);
+        jsonStore.init().await();
+        checkRetrievedJob(job, jsonStore.retrieveJob(job.getId()).toBlocking().first());
+        checkRetrievedTask(task, jsonStore.retrieveTask(task.getId()).toBlocking().first());
+
+        Task finishedTask = JobFunctions.changeTaskStatus(task, TaskStatus.newBuilder().withState(TaskState.Finished).build());
+        jsonStore.updateTask(finishedTask).await();
+        checkRetrievedTask(finishedTask, smileStore.retrieveTask(task.getId()).toBlocking().first());
+
+        smileStore.deleteTask(finishedTask).await();
+        smileStore.deleteJob(job).await();
+        checkRetrievedJob(job, jsonStore.retrieveArchivedJob(job.getId()).toBlocking().first());
+        checkRetrievedTask(finishedTask, jsonStore.retrieveArchivedTask(task.getId()).toBlocking().first());
+    }
+
     @Test
     public void testRetrieveArchivedJob() {
         testRetrieveArchivedJob(true);
@@ -488,7 +542,11 @@ public class CassandraJobStoreTest {
         if (session == null) {
             session = cassandraCqlUnit.getSession();
         }
-        return new CassandraJobStore(CONFIGURATION, session, TitusRuntimes.internal(),
+        return getJobStore(session, CONFIGURATION);
+    }
+
+    private JobStore getJobStore(Session session, CassandraStoreConfiguration configuration) {
+        return new CassandraJobStore(configuration, session, TitusRuntimes.internal(),
                 ObjectMappers.storeMapper(), INITIAL_BUCKET_COUNT, MAX_BUCKET_SIZE);
     }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.json.ObjectMappers;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobStoreRecordCodecTest {
+
+    private static final int RECORD_COUNT = 2_000;
+
+    private final JobStoreRecordCodec jsonCodec = new JobStoreRecordCodec(ObjectMappers.storeMapper(), JobStoreRecordCodec.Format.Json);
+    private final JobStoreRecordCodec smileCodec = new JobStoreRecordCodec(ObjectMappers.storeMapper(), JobStoreRecordCodec.Format.Smile);
+
+    @Test
+    public void testSmileRoundTrip() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        Task task = JobGenerator.oneBatchTask();
+
+        JobStoreRecordCodec.Record encodedJob = smileCodec.encode(job);
+        assertThat(encodedJob.getFormat()).isEqualTo(JobStoreRecordCodec.Format.Smile);
+        assertThat(encodedJob.getValue()).isNull();
+        assertThat(smileCodec.decode(encodedJob, Job.class)).isEqualTo(job);
+
+        JobStoreRecordCodec.Record encodedTask = smileCodec.encode(task);
+        assertThat(smileCodec.decode(encodedTask, Task.class)).isEqualTo(task);
+    }
+
+    @Test
+    public void testBothFormatsAreReadableByAnyCodec() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        JobStoreRecordCodec.Record legacyJson = JobStoreRecordCodec.Record.of(ObjectMappers.writeValueAsString(ObjectMappers.storeMapper(), job), null);
+        JobStoreRecordCodec.Record smile = smileCodec.encode(job);
+
+        assertThat(jsonCodec.encode(job).getValue()).isEqualTo(legacyJson.getValue());
+        assertThat(smileCodec.decode(legacyJson, Job.class)).isEqualTo(job);
+        assertThat(jsonCodec.decode(smile, Job.class)).isEqualTo(job);
+    }
+
+    @Test
+    public void testSmileToJson() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        String json = smileCodec.encode(job).toJson();
+        assertThat(ObjectMappers.readValue(ObjectMappers.storeMapper(), json, Job.class)).isEqualTo(job);
+    }
+
+    @Test
+    public void testSmileIsSmaller() {
+        long jsonBytes = 0;
+        long smileBytes = 0;
+        for (Object record : newRecords()) {
+            jsonBytes += jsonCodec.encode(record).getValue().getBytes().length;
+            smileBytes += smileCodec.encode(record).getBinaryValue().remaining();
+        }
+        // Smile is about 20% smaller than JSON for the generated records.
+        assertThat(smileBytes).isLessThan(jsonBytes * 9 / 10);
+    }
+
+    @Test
+    public void testParseFormat() {
+        assertThat(JobStoreRecordCodec.parseFormat(null)).isEqualTo(JobStoreRecordCodec.Format.Json);
+        assertThat(JobStoreRecordCodec.parseFormat("smile")).isEqualTo(JobStoreRecordCodec.Format.Smile);
+    }
+
+    private List<Object> newRecords() {
+        List<Object> records = new ArrayList<>();
+        for (Job<BatchJobExt> job : JobGenerator.batchJobsOfSize(10).getValues(RECORD_COUNT / 2)) {
+            records.add(job);
+            records.add(JobGenerator.batchTasks(job).getValue());
+        }
+        return records;
+    }
+}
@@ -47,6 +47,11 @@ public class TestCassandraStoreConfiguration implements CassandraStoreConfigurat
         return 10;
     }
 
+    @Override
+    public int getBootstrapBucketConcurrencyLimit() {
+        return 5;
+    }
+
     @Override
     public int getLoadBalancerWriteConcurrencyLimit() {
         return 100;
@@ -61,4 +66,9 @@ public class TestCassandraStoreConfiguration implements CassandraStoreConfigurat
     public boolean isTracingEnabled() {
         return false;
     }
+
+    @Override
+    public String getJobRecordFormat() {
+        return "Json";
+    }
 }
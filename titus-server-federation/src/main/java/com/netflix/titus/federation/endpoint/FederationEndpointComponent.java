@@ -72,7 +72,8 @@ public class FederationEndpointComponent {
                         return UNIDENTIFIED;
                     }
                     return c.getCallers().get(0).getId();
-                }).orElse(UNIDENTIFIED)
+                }).orElse(UNIDENTIFIED),
+                titusRuntime.getRegistry()
         );
     }
 }
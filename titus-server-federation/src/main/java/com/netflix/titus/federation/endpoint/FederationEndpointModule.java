@@ -73,7 +73,8 @@ public class FederationEndpointModule extends AbstractModule {
                         return UNIDENTIFIED;
                     }
                     return c.getCallers().get(0).getId();
-                }).orElse(UNIDENTIFIED)
+                }).orElse(UNIDENTIFIED),
+                titusRuntime.getRegistry()
         );
     }
 }
@@ -18,6 +18,7 @@ package com.netflix.titus.federation.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -26,6 +27,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.api.service.TitusServiceException;
 import com.netflix.titus.common.util.tuple.Either;
 import io.grpc.ManagedChannel;
 import io.grpc.stub.AbstractStub;
@@ -89,6 +91,22 @@ class AggregatingCellClient {
         return Observable.merge(results);
     }
 
+    /**
+     * Call a service on a single {@link Cell}. Fails with {@link TitusServiceException#cellNotFound(String)} if the
+     * cell is not known.
+     */
+    <STUB extends AbstractStub<STUB>, RespT> Observable<CellResponse<STUB, RespT>> callCell(
+            Cell cell,
+            Function<ManagedChannel, STUB> stubFactory,
+            BiConsumer<STUB, StreamObserver<RespT>> fnCall) {
+        Optional<STUB> optionalClient = CellConnectorUtil.toStub(cell, connector, stubFactory);
+        if (!optionalClient.isPresent()) {
+            return Observable.error(TitusServiceException.cellNotFound(cell.getName()));
+        }
+        STUB client = optionalClient.get();
+        return callSingleCell(client, fnCall).map(result -> new CellResponse<>(cell, client, result));
+    }
+
     private <STUB extends AbstractStub<STUB>, RespT>
     Observable<RespT> callSingleCell(STUB client, BiConsumer<STUB, StreamObserver<RespT>> fnCall) {
         return createRequestObservable(emitter -> {
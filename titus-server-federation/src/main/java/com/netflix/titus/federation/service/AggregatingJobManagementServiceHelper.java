@@ -38,12 +38,15 @@ import static com.netflix.titus.runtime.endpoint.common.grpc.GrpcUtil.createWrap
 public class AggregatingJobManagementServiceHelper {
 
     private final AggregatingCellClient aggregatingCellClient;
+    private final CellLocationCache cellLocationCache;
     private final GrpcConfiguration grpcConfiguration;
 
     @Inject
     public AggregatingJobManagementServiceHelper(AggregatingCellClient aggregatingCellClient,
+                                                 CellLocationCache cellLocationCache,
                                                  GrpcConfiguration grpcConfiguration) {
         this.aggregatingCellClient = aggregatingCellClient;
+        this.cellLocationCache = cellLocationCache;
         this.grpcConfiguration = grpcConfiguration;
 
     }
@@ -52,13 +55,32 @@ public class AggregatingJobManagementServiceHelper {
         return createWrappedStub(stub, callMetadata, grpcConfiguration.getRequestTimeoutMs());
     }
 
+    /**
+     * Finds a job in its owning cell, if known from {@link CellLocationCache}. Falls back to querying all cells if
+     * the location is not known, or it is stale.
+     */
     public Observable<CellResponse<JobManagementServiceStub, Job>> findJobInAllCells(String jobId, CallMetadata callMetadata) {
-        return aggregatingCellClient.callExpectingErrors(JobManagementServiceGrpc::newStub, findJobInCell(jobId, callMetadata))
-                .reduce(ResponseMerger.singleValue())
-                .flatMap(response -> response.getResult()
-                        .map(v -> Observable.just(CellResponse.ofValue(response)))
-                        .onErrorGet(Observable::error)
-                );
+        Observable<CellResponse<JobManagementServiceStub, Job>> fanOut = Observable.defer(() ->
+                aggregatingCellClient.callExpectingErrors(JobManagementServiceGrpc::newStub, findJobInCell(jobId, callMetadata))
+                        .reduce(ResponseMerger.singleValue())
+                        .flatMap(response -> response.getResult()
+                                .map(v -> Observable.just(CellResponse.ofValue(response)))
+                                .onErrorGet(Observable::error)
+                        )
+                        .doOnNext(response -> cellLocationCache.addJob(jobId, response.getCell()))
+        );
+
+        return cellLocationCache.findJobCell(jobId)
+                .map(cell -> aggregatingCellClient.callCell(cell, JobManagementServiceGrpc::newStub, findJobInCell(jobId, callMetadata))
+                        .onErrorResumeNext(error -> {
+                            if (CellLocationCache.isStaleLocationError(error)) {
+                                cellLocationCache.invalidateJob(jobId);
+                                return fanOut;
+                            }
+                            return Observable.error(error);
+                        })
+                )
+                .orElse(fanOut);
     }
 
     public Mono<CellResponse<JobManagementServiceStub, Job>> findJobInAllCellsReact(String jobId, CallMetadata callMetadata) {
@@ -61,6 +61,7 @@ import com.netflix.titus.grpc.protogen.JobQuery;
 import com.netflix.titus.grpc.protogen.JobQueryResult;
 import com.netflix.titus.grpc.protogen.JobStatusUpdate;
 import com.netflix.titus.grpc.protogen.ObserveJobsQuery;
+import com.netflix.titus.grpc.protogen.Page;
 import com.netflix.titus.grpc.protogen.Pagination;
 import com.netflix.titus.grpc.protogen.Task;
 import com.netflix.titus.grpc.protogen.TaskAttributesDeleteRequest;
@@ -87,8 +88,6 @@ import static com.netflix.titus.api.jobmanager.JobAttributes.JOB_ATTRIBUTES_STAC
 import static com.netflix.titus.api.jobmanager.JobAttributes.JOB_ATTRIBUTE_ROUTING_CELL;
 import static com.netflix.titus.api.jobmanager.TaskAttributes.TASK_ATTRIBUTES_STACK;
 import static com.netflix.titus.federation.service.CellConnectorUtil.callToCell;
-import static com.netflix.titus.federation.service.PageAggregationUtil.combinePagination;
-import static com.netflix.titus.federation.service.PageAggregationUtil.takeCombinedPage;
 import static com.netflix.titus.runtime.connector.jobmanager.JobEventPropagationUtil.CHECKPOINT_FED_CLIENT;
 import static com.netflix.titus.runtime.endpoint.common.grpc.GrpcUtil.createRequestObservable;
 import static com.netflix.titus.runtime.endpoint.common.grpc.GrpcUtil.createWrappedStub;
@@ -107,6 +106,7 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
     private final CellConnector cellConnector;
     private final AggregatingCellClient aggregatingClient;
     private final AggregatingJobManagementServiceHelper jobManagementServiceHelper;
+    private final CellLocationCache cellLocationCache;
     private final TitusRuntime titusRuntime;
     private final CellRouter router;
 
@@ -117,6 +117,7 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
                                         CellRouter router,
                                         AggregatingCellClient aggregatingClient,
                                         AggregatingJobManagementServiceHelper jobManagementServiceHelper,
+                                        CellLocationCache cellLocationCache,
                                         TitusRuntime titusRuntime) {
 
         this.grpcConfiguration = grpcConfiguration;
@@ -125,6 +126,7 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
         this.router = router;
         this.aggregatingClient = aggregatingClient;
         this.jobManagementServiceHelper = jobManagementServiceHelper;
+        this.cellLocationCache = cellLocationCache;
         this.titusRuntime = titusRuntime;
     }
 
@@ -151,7 +153,10 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
         return createRequestObservable(emitter -> {
             StreamObserver<JobId> streamObserver = GrpcUtil.createClientResponseObserver(
                     emitter,
-                    jobId -> emitter.onNext(jobId.getId()),
+                    jobId -> {
+                        cellLocationCache.addJob(jobId.getId(), cell);
+                        emitter.onNext(jobId.getId());
+                    },
                     emitter::onError,
                     emitter::onCompleted
             );
@@ -262,17 +267,19 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
     }
 
     private Observable<JobQueryResult> findJobsWithCursorPagination(JobQuery request, Set<String> fields, CallMetadata callMetadata) {
-        return aggregatingClient.call(JobManagementServiceGrpc::newStub, findJobsInCell(request, callMetadata))
-                .map(CellResponse::getResult)
-                .map(this::addStackName)
-                .reduce(this::combineJobResults)
-                .map(combinedResults -> {
-                    Pair<List<Job>, Pagination> combinedPage = takeCombinedPage(
-                            request.getPage(),
-                            combinedResults.getItemsList(),
-                            combinedResults.getPagination(),
-                            JobManagerCursors.jobCursorOrderComparator(),
-                            JobManagerCursors::newCursorFrom
+        CursorPageMerger<JobManagementServiceStub, JobQueryResult, Job> pageMerger = new CursorPageMerger<>(
+                page -> aggregatingClient.call(JobManagementServiceGrpc::newStub, findJobsInCell(withPage(request, page), callMetadata)),
+                (cell, page) -> aggregatingClient.callCell(cell, JobManagementServiceGrpc::newStub, findJobsInCell(withPage(request, page), callMetadata)),
+                JobQueryResult::getItemsList,
+                JobQueryResult::getPagination,
+                JobManagerCursors.jobCursorOrderComparator(),
+                JobManagerCursors::newCursorFrom
+        );
+        return pageMerger.takePage(request.getPage(), cellConnector.getChannels().size())
+                .map(mergedPage -> {
+                    Pair<List<Job>, Pagination> combinedPage = mergedPage.mapLeft(jobs -> jobs.stream()
+                            .map(this::addStackName)
+                            .collect(Collectors.toList())
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
@@ -293,13 +300,8 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
         return (client, streamObserver) -> wrap(client, callMetadata).findJobs(request, streamObserver);
     }
 
-    private JobQueryResult combineJobResults(JobQueryResult one, JobQueryResult other) {
-        Pagination pagination = combinePagination(one.getPagination(), other.getPagination());
-        return JobQueryResult.newBuilder()
-                .setPagination(pagination)
-                .addAllItems(one.getItemsList())
-                .addAllItems(other.getItemsList())
-                .build();
+    private JobQuery withPage(JobQuery request, Page page) {
+        return request.toBuilder().setPage(page).build();
     }
 
     @Override
@@ -321,7 +323,9 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
                     () -> emitter.onNext(buildJobSnapshotEndMarker())
             );
             clients.forEach((cell, client) -> {
-                StreamObserver<JobChangeNotification> streamObserver = new FilterOutFirstMarker(emitter, markersEmitted);
+                StreamObserver<JobChangeNotification> streamObserver = new FilterOutFirstMarker(emitter, markersEmitted,
+                        notification -> cellLocationCache.onJobChangeNotification(notification, cell)
+                );
                 wrapWithNoDeadline(client, callMetadata).observeJobs(query, streamObserver);
             });
         });
@@ -344,13 +348,32 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
         return findTaskInAllCells(taskId, callMetadata).map(CellResponse::getResult).map(this::addStackName);
     }
 
+    /**
+     * Finds a task in its owning cell, if known from {@link CellLocationCache}. Falls back to querying all cells if
+     * the location is not known, or it is stale.
+     */
     private Observable<CellResponse<JobManagementServiceStub, Task>> findTaskInAllCells(String taskId, CallMetadata callMetadata) {
-        return aggregatingClient.callExpectingErrors(JobManagementServiceGrpc::newStub, findTaskInCell(taskId, callMetadata))
-                .reduce(ResponseMerger.singleValue())
-                .flatMap(response -> response.getResult()
-                        .map(v -> Observable.just(CellResponse.ofValue(response)))
-                        .onErrorGet(Observable::error)
-                );
+        Observable<CellResponse<JobManagementServiceStub, Task>> fanOut = Observable.defer(() ->
+                aggregatingClient.callExpectingErrors(JobManagementServiceGrpc::newStub, findTaskInCell(taskId, callMetadata))
+                        .reduce(ResponseMerger.singleValue())
+                        .flatMap(response -> response.getResult()
+                                .map(v -> Observable.just(CellResponse.ofValue(response)))
+                                .onErrorGet(Observable::error)
+                        )
+                        .doOnNext(response -> cellLocationCache.addTask(response.getResult(), response.getCell()))
+        );
+
+        return cellLocationCache.findTaskCell(taskId)
+                .map(cell -> aggregatingClient.callCell(cell, JobManagementServiceGrpc::newStub, findTaskInCell(taskId, callMetadata))
+                        .onErrorResumeNext(error -> {
+                            if (CellLocationCache.isStaleLocationError(error)) {
+                                cellLocationCache.invalidateTask(taskId);
+                                return fanOut;
+                            }
+                            return Observable.error(error);
+                        })
+                )
+                .orElse(fanOut);
     }
 
     private ClientCall<Task> findTaskInCell(String taskId, CallMetadata callMetadata) {
@@ -384,17 +407,19 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
     }
 
     private Observable<TaskQueryResult> findTasksWithCursorPagination(TaskQuery request, Set<String> fields, CallMetadata callMetadata) {
-        return aggregatingClient.call(JobManagementServiceGrpc::newStub, findTasksInCell(request, callMetadata))
-                .map(CellResponse::getResult)
-                .map(this::addStackName)
-                .reduce(this::combineTaskResults)
-                .map(combinedResults -> {
-                    Pair<List<Task>, Pagination> combinedPage = takeCombinedPage(
-                            request.getPage(),
-                            combinedResults.getItemsList(),
-                            combinedResults.getPagination(),
-                            JobManagerCursors.taskCursorOrderComparator(),
-                            JobManagerCursors::newTaskCursorFrom
+        CursorPageMerger<JobManagementServiceStub, TaskQueryResult, Task> pageMerger = new CursorPageMerger<>(
+                page -> aggregatingClient.call(JobManagementServiceGrpc::newStub, findTasksInCell(withPage(request, page), callMetadata)),
+                (cell, page) -> aggregatingClient.callCell(cell, JobManagementServiceGrpc::newStub, findTasksInCell(withPage(request, page), callMetadata)),
+                TaskQueryResult::getItemsList,
+                TaskQueryResult::getPagination,
+                JobManagerCursors.taskCursorOrderComparator(),
+                JobManagerCursors::newTaskCursorFrom
+        );
+        return pageMerger.takePage(request.getPage(), cellConnector.getChannels().size())
+                .map(mergedPage -> {
+                    Pair<List<Task>, Pagination> combinedPage = mergedPage.mapLeft(tasks -> tasks.stream()
+                            .map(this::addStackName)
+                            .collect(Collectors.toList())
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
@@ -415,13 +440,8 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
         return (client, streamObserver) -> wrap(client, callMetadata).findTasks(request, streamObserver);
     }
 
-    private TaskQueryResult combineTaskResults(TaskQueryResult one, TaskQueryResult other) {
-        Pagination pagination = combinePagination(one.getPagination(), other.getPagination());
-        return TaskQueryResult.newBuilder()
-                .setPagination(pagination)
-                .addAllItems(one.getItemsList())
-                .addAllItems(other.getItemsList())
-                .build();
+    private TaskQuery withPage(TaskQuery request, Page page) {
+        return request.toBuilder().setPage(page).build();
     }
 
     @Override
@@ -471,16 +491,6 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
                 .removeAttributes(JOB_ATTRIBUTES_FEDERATED_JOB_ID);
     }
 
-    private JobQueryResult addStackName(JobQueryResult result) {
-        List<Job> withStackName = result.getItemsList().stream().map(this::addStackName).collect(Collectors.toList());
-        return result.toBuilder().clearItems().addAllItems(withStackName).build();
-    }
-
-    private TaskQueryResult addStackName(TaskQueryResult result) {
-        List<Task> withStackName = result.getItemsList().stream().map(this::addStackName).collect(Collectors.toList());
-        return result.toBuilder().clearItems().addAllItems(withStackName).build();
-    }
-
     private JobDescriptor.Builder addStackName(JobDescriptor.Builder jobDescriptorBuilder) {
         return jobDescriptorBuilder.putAttributes(JOB_ATTRIBUTES_STACK, federationConfiguration.getStack());
     }
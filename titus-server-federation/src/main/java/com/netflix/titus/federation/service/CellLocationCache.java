@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.federation.service;
+
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.api.service.TitusServiceException;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.cache.Cache;
+import com.netflix.titus.common.util.cache.Caches;
+import com.netflix.titus.federation.startup.TitusFederationConfiguration;
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+import com.netflix.titus.grpc.protogen.Task;
+import io.grpc.Status;
+
+/**
+ * Remembers which cells own jobs and tasks, so lookups can be sent to a single cell instead of all of them. A job
+ * never changes its cell, so an entry is only removed when the cell reports that it does not know the job any more,
+ * or it is evicted due to the size limit. Tasks are mapped to their jobs, and resolved to cells via the job entries.
+ */
+@Singleton
+public class CellLocationCache {
+
+    private static final String METRIC_ROOT = "titus.federation.cellLocationCache.";
+
+    private final Cache<String, Cell> jobIdToCell;
+    private final Cache<String, String> taskIdToJobId;
+
+    @Inject
+    public CellLocationCache(TitusFederationConfiguration configuration, TitusRuntime titusRuntime) {
+        long maxSize = configuration.getCellLocationCacheSize();
+        if (maxSize > 0) {
+            this.jobIdToCell = Caches.instrumentedCacheWithMaxSize(maxSize, METRIC_ROOT + "jobs", titusRuntime.getRegistry());
+            this.taskIdToJobId = Caches.instrumentedCacheWithMaxSize(maxSize, METRIC_ROOT + "tasks", titusRuntime.getRegistry());
+        } else {
+            this.jobIdToCell = null;
+            this.taskIdToJobId = null;
+        }
+    }
+
+    public Optional<Cell> findJobCell(String jobId) {
+        if (jobIdToCell == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(jobIdToCell.getIfPresent(jobId));
+    }
+
+    public Optional<Cell> findTaskCell(String taskId) {
+        if (taskIdToJobId == null) {
+            return Optional.empty();
+        }
+        String jobId = taskIdToJobId.getIfPresent(taskId);
+        return jobId == null ? Optional.empty() : findJobCell(jobId);
+    }
+
+    public void addJob(String jobId, Cell cell) {
+        if (jobIdToCell != null) {
+            jobIdToCell.put(jobId, cell);
+        }
+    }
+
+    public void addTask(Task task, Cell cell) {
+        if (taskIdToJobId != null) {
+            taskIdToJobId.put(task.getId(), task.getJobId());
+            jobIdToCell.put(task.getJobId(), cell);
+        }
+    }
+
+    public void invalidateJob(String jobId) {
+        if (jobIdToCell != null) {
+            jobIdToCell.invalidate(jobId);
+        }
+    }
+
+    public void invalidateTask(String taskId) {
+        if (taskIdToJobId != null) {
+            taskIdToJobId.invalidate(taskId);
+        }
+    }
+
+    public void onJobChangeNotification(JobChangeNotification notification, Cell cell) {
+        switch (notification.getNotificationCase()) {
+            case JOBUPDATE:
+                addJob(notification.getJobUpdate().getJob().getId(), cell);
+                break;
+            case TASKUPDATE:
+                addTask(notification.getTaskUpdate().getTask(), cell);
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Returns true if a single cell lookup failed, because the entity or the cell itself are not found. In that
+     * case the cache entry is stale, and the lookup should be repeated in all cells.
+     */
+    static boolean isStaleLocationError(Throwable error) {
+        if (error instanceof TitusServiceException) {
+            return ((TitusServiceException) error).getErrorCode() == TitusServiceException.ErrorCode.CELL_NOT_FOUND;
+        }
+        return Status.fromThrowable(error).getCode() == Status.Code.NOT_FOUND;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.federation.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.grpc.protogen.Page;
+import com.netflix.titus.grpc.protogen.Pagination;
+import io.grpc.stub.AbstractStub;
+import rx.Observable;
+
+/**
+ * Builds a single page of cursor ordered items from all cells with a k-way merge, instead of fetching a full page
+ * from each cell and discarding most of it. Each cell is first asked for a prefetch window, which is a fraction of
+ * the requested page size. The merge proceeds as long as each cell has buffered items (or has no more items to give).
+ * When a cell runs out of buffered items before the page is complete, it is asked for the remaining number of items,
+ * starting after the last item it returned. As the second request is large enough to complete the page on its own,
+ * each cell is queried at most twice.
+ * <p>
+ * Item cursors define a total order, so a cursor returned to a client identifies a position in each cell, and no
+ * per-cell state must be encoded in it.
+ */
+class CursorPageMerger<STUB extends AbstractStub<STUB>, R, T> {
+
+    /**
+     * The first request to each cell asks for <tt>pageSize * PREFETCH_RATIO / numberOfCells</tt> items. With items
+     * spread evenly across cells, this is enough to complete the page in a single round trip.
+     */
+    static final double PREFETCH_RATIO = 1.5;
+
+    private final Function<Page, Observable<CellResponse<STUB, R>>> allCellsFetcher;
+    private final BiFunction<Cell, Page, Observable<CellResponse<STUB, R>>> cellFetcher;
+    private final Function<R, List<T>> itemsGetter;
+    private final Function<R, Pagination> paginationGetter;
+    private final Comparator<T> cursorComparator;
+    private final Function<T, String> cursorFactory;
+
+    CursorPageMerger(Function<Page, Observable<CellResponse<STUB, R>>> allCellsFetcher,
+                     BiFunction<Cell, Page, Observable<CellResponse<STUB, R>>> cellFetcher,
+                     Function<R, List<T>> itemsGetter,
+                     Function<R, Pagination> paginationGetter,
+                     Comparator<T> cursorComparator,
+                     Function<T, String> cursorFactory) {
+        this.allCellsFetcher = allCellsFetcher;
+        this.cellFetcher = cellFetcher;
+        this.itemsGetter = itemsGetter;
+        this.paginationGetter = paginationGetter;
+        this.cursorComparator = cursorComparator;
+        this.cursorFactory = cursorFactory;
+    }
+
+    Observable<Pair<List<T>, Pagination>> takePage(Page requested, int numberOfCells) {
+        Page prefetchPage = requested.toBuilder()
+                .setPageSize(prefetchSize(requested.getPageSize(), numberOfCells))
+                .build();
+        return allCellsFetcher.apply(prefetchPage)
+                .toList()
+                .flatMap(responses -> {
+                    List<CellCursor> cells = responses.stream()
+                            .map(response -> new CellCursor(response.getCell(), response.getResult()))
+                            .collect(Collectors.toList());
+                    return merge(requested, cells, new ArrayList<>());
+                });
+    }
+
+    static int prefetchSize(int pageSize, int numberOfCells) {
+        int perCell = (int) Math.ceil(pageSize * PREFETCH_RATIO / Math.max(1, numberOfCells));
+        return Math.max(1, Math.min(pageSize, perCell));
+    }
+
+    private Observable<Pair<List<T>, Pagination>> merge(Page requested, List<CellCursor> cells, List<T> pageItems) {
+        while (pageItems.size() < requested.getPageSize()) {
+            List<CellCursor> exhausted = cells.stream().filter(CellCursor::needsMore).collect(Collectors.toList());
+            if (!exhausted.isEmpty()) {
+                int remaining = requested.getPageSize() - pageItems.size();
+                List<Observable<Pair<CellCursor, R>>> refills = exhausted.stream()
+                        .map(cell -> cellFetcher.apply(cell.getCell(), cell.nextPage(remaining))
+                                .map(response -> Pair.of(cell, response.getResult()))
+                        )
+                        .collect(Collectors.toList());
+                return Observable.merge(refills)
+                        .toList()
+                        .flatMap(results -> {
+                            results.forEach(result -> result.getLeft().refill(result.getRight()));
+                            return merge(requested, cells, pageItems);
+                        });
+            }
+
+            CellCursor next = null;
+            for (CellCursor cell : cells) {
+                if (cell.hasBufferedItems() && (next == null || cursorComparator.compare(cell.peek(), next.peek()) < 0)) {
+                    next = cell;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            pageItems.add(next.poll());
+        }
+        return Observable.just(Pair.of(pageItems, buildPagination(requested, cells, pageItems)));
+    }
+
+    private Pagination buildPagination(Page requested, List<CellCursor> cells, List<T> pageItems) {
+        int pageSize = requested.getPageSize();
+        int totalItems = 0;
+        int firstItemPosition = 0;
+        boolean hasMore = false;
+        for (CellCursor cell : cells) {
+            totalItems += cell.getTotalItems();
+            firstItemPosition += cell.getItemsBefore();
+            hasMore = hasMore || cell.hasBufferedItems() || cell.hasMore();
+        }
+
+        String cursor = pageItems.isEmpty() ? "" : cursorFactory.apply(pageItems.get(pageItems.size() - 1));
+        int cursorPosition = pageItems.isEmpty()
+                ? Math.max(0, firstItemPosition - 1)
+                : firstItemPosition + pageItems.size() - 1;
+
+        return Pagination.newBuilder()
+                .setCurrentPage(requested.toBuilder().setPageNumber(firstItemPosition / pageSize))
+                .setHasMore(hasMore)
+                .setTotalPages((int) (((long) totalItems + pageSize - 1) / pageSize))
+                .setTotalItems(totalItems)
+                .setCursor(cursor)
+                .setCursorPosition(cursorPosition)
+                .build();
+    }
+
+    /**
+     * Merge state of a single cell.
+     */
+    private class CellCursor {
+
+        private final Cell cell;
+        private final Deque<T> buffer = new ArrayDeque<>();
+        private final int totalItems;
+
+        /**
+         * Number of items in the cell that precede the first item on the page.
+         */
+        private final int itemsBefore;
+
+        private boolean hasMore;
+        private String lastCursor;
+
+        private CellCursor(Cell cell, R firstResponse) {
+            this.cell = cell;
+
+            List<T> items = itemsGetter.apply(firstResponse);
+            Pagination pagination = paginationGetter.apply(firstResponse);
+            this.totalItems = pagination.getTotalItems();
+            if (!items.isEmpty()) {
+                // the cursorPosition points to the last returned item
+                this.itemsBefore = pagination.getCursorPosition() - items.size() + 1;
+            } else {
+                // all items (if any) precede the cursor
+                this.itemsBefore = totalItems > 0 ? pagination.getCursorPosition() + 1 : 0;
+            }
+            refill(firstResponse);
+        }
+
+        private Cell getCell() {
+            return cell;
+        }
+
+        private int getTotalItems() {
+            return totalItems;
+        }
+
+        private int getItemsBefore() {
+            return itemsBefore;
+        }
+
+        private boolean hasMore() {
+            return hasMore;
+        }
+
+        private boolean hasBufferedItems() {
+            return !buffer.isEmpty();
+        }
+
+        private boolean needsMore() {
+            return buffer.isEmpty() && hasMore;
+        }
+
+        private T peek() {
+            return buffer.peekFirst();
+        }
+
+        private T poll() {
+            return buffer.pollFirst();
+        }
+
+        private Page nextPage(int pageSize) {
+            return Page.newBuilder().setPageSize(pageSize).setCursor(lastCursor).build();
+        }
+
+        private void refill(R response) {
+            List<T> items = itemsGetter.apply(response);
+            buffer.addAll(items);
+            // guard against a cell reporting more items without returning any, which would never terminate
+            this.hasMore = paginationGetter.apply(response).getHasMore() && !items.isEmpty();
+            if (!items.isEmpty()) {
+                this.lastCursor = cursorFactory.apply(items.get(items.size() - 1));
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.netflix.titus.federation.service;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
 
 import com.google.protobuf.Empty;
 import com.netflix.titus.runtime.endpoint.common.grpc.GrpcUtil;
@@ -33,12 +34,24 @@ class FilterOutFirstMarker implements ClientResponseObserver<Empty, JobChangeNot
 
     private final Emitter<JobChangeNotification> emitter;
     private final CountDownLatch latch;
+    private final Consumer<JobChangeNotification> onNotification;
 
     private volatile boolean markerReceived = false;
 
     FilterOutFirstMarker(Emitter<JobChangeNotification> destination, CountDownLatch markersReceived) {
+        this(destination, markersReceived, notification -> {
+        });
+    }
+
+    /**
+     * @param onNotification invoked for each notification before it is forwarded to the destination
+     */
+    FilterOutFirstMarker(Emitter<JobChangeNotification> destination,
+                         CountDownLatch markersReceived,
+                         Consumer<JobChangeNotification> onNotification) {
         this.emitter = destination;
         this.latch = markersReceived;
+        this.onNotification = onNotification;
     }
 
     @Override
@@ -53,6 +66,7 @@ class FilterOutFirstMarker implements ClientResponseObserver<Empty, JobChangeNot
             latch.countDown();
             return;
         }
+        onNotification.accept(value);
         emitter.onNext(value);
     }
 
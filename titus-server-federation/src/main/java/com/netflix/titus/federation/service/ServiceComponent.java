@@ -32,6 +32,7 @@ import org.springframework.context.annotation.Primary;
 
         AggregatingJobManagementServiceHelper.class,
         AggregatingJobServiceGateway.class,
+        CellLocationCache.class,
         AggregatingAutoScalingService.class,
         AggregatingLoadbalancerService.class,
         DefaultAggregatingSchedulerService.class,
@@ -45,4 +45,11 @@ public interface TitusFederationConfiguration {
 
     @DefaultValue("false")
     boolean isRemoteFederationEnabled();
+
+    /**
+     * Maximum number of job (and separately task) locations kept in the cell location cache. Set to 0 to disable
+     * the cache, in which case each job/task lookup is sent to all cells.
+     */
+    @DefaultValue("100000")
+    long getCellLocationCacheSize();
 }
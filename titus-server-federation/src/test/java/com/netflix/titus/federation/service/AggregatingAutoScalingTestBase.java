@@ -20,8 +20,10 @@ import java.util.Map;
 import java.util.Optional;
 
 import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.runtime.endpoint.metadata.AnonymousCallMetadataResolver;
 import com.netflix.titus.federation.startup.GrpcConfiguration;
+import com.netflix.titus.federation.startup.TitusFederationConfiguration;
 import io.grpc.ManagedChannel;
 import io.grpc.testing.GrpcServerRule;
 import org.junit.Before;
@@ -62,7 +64,8 @@ public class AggregatingAutoScalingTestBase {
         final AggregatingCellClient aggregatingCellClient = new AggregatingCellClient(connector);
 
         service = new AggregatingAutoScalingService(connector, grpcConfiguration,
-                new AggregatingJobManagementServiceHelper(aggregatingCellClient, grpcConfiguration),
+                new AggregatingJobManagementServiceHelper(aggregatingCellClient,
+                        new CellLocationCache(mock(TitusFederationConfiguration.class), TitusRuntimes.internal()), grpcConfiguration),
                 aggregatingCellClient);
     }
 
@@ -100,6 +100,7 @@ public class AggregatingJobServiceGatewayTest {
     private static final int TASKS_IN_GENERATED_JOBS = 10;
     private static final long GRPC_REQUEST_TIMEOUT_MS = 1_000L;
     private static final long GRPC_PRIMARY_FALLBACK_TIMEOUT_MS = 100L;
+    private static final long CELL_LOCATION_CACHE_SIZE = 1_000L;
 
     private final TitusRuntime titusRuntime = TitusRuntimes.internal();
 
@@ -117,6 +118,7 @@ public class AggregatingJobServiceGatewayTest {
 
     private String stackName;
     private AggregatingJobServiceGateway service;
+    private CellLocationCache cellLocationCache;
     private List<Cell> cells;
     private Map<Cell, GrpcServerRule> cellToServiceMap;
     private TestClock clock;
@@ -133,6 +135,7 @@ public class AggregatingJobServiceGatewayTest {
         when(titusFederationConfiguration.getStack()).thenReturn(stackName);
         when(titusFederationConfiguration.getCells()).thenReturn("one=1;two=2");
         when(titusFederationConfiguration.getRoutingRules()).thenReturn("one=(app1.*|app2.*);two=(app3.*)");
+        when(titusFederationConfiguration.getCellLocationCacheSize()).thenReturn(CELL_LOCATION_CACHE_SIZE);
 
         CellInfoResolver cellInfoResolver = new DefaultCellInfoResolver(titusFederationConfiguration);
         ApplicationCellRouter cellRouter = new ApplicationCellRouter(cellInfoResolver, titusFederationConfiguration);
@@ -155,13 +158,15 @@ public class AggregatingJobServiceGatewayTest {
         );
 
         final AggregatingCellClient aggregatingCellClient = new AggregatingCellClient(cellConnector);
+        cellLocationCache = new CellLocationCache(titusFederationConfiguration, titusRuntime);
         service = new AggregatingJobServiceGateway(
                 grpcConfiguration,
                 titusFederationConfiguration,
                 cellConnector,
                 cellRouter,
                 aggregatingCellClient,
-                new AggregatingJobManagementServiceHelper(aggregatingCellClient, grpcConfiguration),
+                new AggregatingJobManagementServiceHelper(aggregatingCellClient, cellLocationCache, grpcConfiguration),
+                cellLocationCache,
                 titusRuntime
         );
 
@@ -396,6 +401,22 @@ public class AggregatingJobServiceGatewayTest {
         testSubscriber.assertValue(expected);
     }
 
+    @Test
+    public void findJobWithStaleCellLocation() {
+        List<Job> cellOneSnapshot = new ArrayList<>(dataGenerator.newServiceJobs(10, GrpcJobManagementModelConverters::toGrpcJob));
+        cellOne.getServiceRegistry().addService(new CellWithFixedJobsService(cellOneSnapshot, cellOneUpdates.serialize()));
+        cellTwo.getServiceRegistry().addService(new CellWithFixedJobsService(Collections.emptyList(), cellTwoUpdates.serialize()));
+
+        Job expected = withStackName(cellOneSnapshot.get(0));
+        cellLocationCache.addJob(expected.getId(), cells.get(1));
+
+        AssertableSubscriber<Job> testSubscriber = service.findJob(expected.getId(), UNDEFINED_CALL_METADATA).test();
+        testSubscriber.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValue(expected);
+        assertThat(cellLocationCache.findJobCell(expected.getId())).contains(cells.get(0));
+    }
+
     @Test
     public void findJobWithFailingCell() {
         Random random = new Random();
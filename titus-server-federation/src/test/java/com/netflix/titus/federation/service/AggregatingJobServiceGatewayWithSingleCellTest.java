@@ -106,6 +106,7 @@ public class AggregatingJobServiceGatewayWithSingleCellTest {
         );
 
         final AggregatingCellClient aggregatingCellClient = new AggregatingCellClient(cellConnector);
+        CellLocationCache cellLocationCache = new CellLocationCache(titusFederationConfiguration, titusRuntime);
         final AnonymousCallMetadataResolver anonymousCallMetadataResolver = new AnonymousCallMetadataResolver();
         service = new AggregatingJobServiceGateway(
                 grpcClientConfiguration,
@@ -113,7 +114,8 @@ public class AggregatingJobServiceGatewayWithSingleCellTest {
                 cellConnector,
                 cellRouter,
                 aggregatingCellClient,
-                new AggregatingJobManagementServiceHelper(aggregatingCellClient, grpcClientConfiguration),
+                new AggregatingJobManagementServiceHelper(aggregatingCellClient, cellLocationCache, grpcClientConfiguration),
+                cellLocationCache,
                 titusRuntime
         );
 
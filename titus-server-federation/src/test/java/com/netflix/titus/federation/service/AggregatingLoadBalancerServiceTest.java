@@ -27,7 +27,9 @@ import java.util.stream.Collectors;
 
 import com.netflix.titus.api.federation.model.Cell;
 import com.netflix.titus.api.loadbalancer.model.JobLoadBalancer;
+import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.federation.startup.GrpcConfiguration;
+import com.netflix.titus.federation.startup.TitusFederationConfiguration;
 import com.netflix.titus.grpc.protogen.AddLoadBalancerRequest;
 import com.netflix.titus.grpc.protogen.GetAllLoadBalancersRequest;
 import com.netflix.titus.grpc.protogen.GetAllLoadBalancersResult;
@@ -86,7 +88,8 @@ public class AggregatingLoadBalancerServiceTest {
         final AggregatingCellClient aggregatingCellClient = new AggregatingCellClient(connector);
 
         service = new AggregatingLoadbalancerService(connector, anonymousCallMetadataResolver, grpcConfiguration, aggregatingCellClient,
-                new AggregatingJobManagementServiceHelper(aggregatingCellClient, grpcConfiguration));
+                new AggregatingJobManagementServiceHelper(aggregatingCellClient,
+                        new CellLocationCache(mock(TitusFederationConfiguration.class), TitusRuntimes.internal()), grpcConfiguration));
     }
 
     @Test
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.federation.service;
+
+import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.api.service.TitusServiceException;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.federation.startup.TitusFederationConfiguration;
+import com.netflix.titus.grpc.protogen.Job;
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+import com.netflix.titus.grpc.protogen.Task;
+import io.grpc.Status;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CellLocationCacheTest {
+
+    private static final Cell CELL_ONE = new Cell("one", "1");
+    private static final Cell CELL_TWO = new Cell("two", "2");
+
+    private final TitusFederationConfiguration configuration = mock(TitusFederationConfiguration.class);
+
+    @Test
+    public void testJobAndTaskLocations() {
+        CellLocationCache cache = newCache(100);
+
+        cache.addJob("job1", CELL_ONE);
+        cache.addTask(Task.newBuilder().setId("task1").setJobId("job2").build(), CELL_TWO);
+
+        assertThat(cache.findJobCell("job1")).contains(CELL_ONE);
+        assertThat(cache.findJobCell("job2")).contains(CELL_TWO);
+        assertThat(cache.findTaskCell("task1")).contains(CELL_TWO);
+        assertThat(cache.findTaskCell("task2")).isEmpty();
+
+        cache.invalidateJob("job2");
+        assertThat(cache.findTaskCell("task1")).isEmpty();
+    }
+
+    @Test
+    public void testJobChangeNotifications() {
+        CellLocationCache cache = newCache(100);
+
+        cache.onJobChangeNotification(JobChangeNotification.newBuilder()
+                .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder().setJob(Job.newBuilder().setId("job1")))
+                .build(), CELL_ONE
+        );
+        cache.onJobChangeNotification(JobChangeNotification.newBuilder()
+                .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(Task.newBuilder().setId("task1").setJobId("job2")))
+                .build(), CELL_TWO
+        );
+
+        assertThat(cache.findJobCell("job1")).contains(CELL_ONE);
+        assertThat(cache.findTaskCell("task1")).contains(CELL_TWO);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        CellLocationCache cache = newCache(0);
+
+        cache.addJob("job1", CELL_ONE);
+        cache.addTask(Task.newBuilder().setId("task1").setJobId("job1").build(), CELL_ONE);
+
+        assertThat(cache.findJobCell("job1")).isEmpty();
+        assertThat(cache.findTaskCell("task1")).isEmpty();
+    }
+
+    @Test
+    public void testStaleLocationErrors() {
+        assertThat(CellLocationCache.isStaleLocationError(Status.NOT_FOUND.asRuntimeException())).isTrue();
+        assertThat(CellLocationCache.isStaleLocationError(TitusServiceException.cellNotFound("one"))).isTrue();
+        assertThat(CellLocationCache.isStaleLocationError(Status.UNAVAILABLE.asRuntimeException())).isFalse();
+        assertThat(CellLocationCache.isStaleLocationError(new RuntimeException("simulated error"))).isFalse();
+    }
+
+    private CellLocationCache newCache(long size) {
+        when(configuration.getCellLocationCacheSize()).thenReturn(size);
+        return new CellLocationCache(configuration, TitusRuntimes.internal());
+    }
+}
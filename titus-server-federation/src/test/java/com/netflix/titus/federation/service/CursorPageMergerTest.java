@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.federation.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.netflix.titus.api.federation.model.Cell;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.grpc.protogen.JobManagementServiceGrpc.JobManagementServiceStub;
+import com.netflix.titus.grpc.protogen.Page;
+import com.netflix.titus.grpc.protogen.Pagination;
+import org.junit.Test;
+import rx.Observable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CursorPageMergerTest {
+
+    private static final Cell CELL_ONE = new Cell("one", "1");
+    private static final Cell CELL_TWO = new Cell("two", "2");
+    private static final Cell CELL_THREE = new Cell("three", "3");
+
+    private final Map<Cell, List<String>> cellItems = new LinkedHashMap<>();
+    private final Map<Cell, AtomicInteger> cellCalls = new HashMap<>();
+    private final AtomicInteger fetchedItems = new AtomicInteger();
+
+    private final CursorPageMerger<JobManagementServiceStub, Pair<List<String>, Pagination>, String> merger = new CursorPageMerger<>(
+            page -> Observable.from(cellItems.keySet()).map(cell -> fetch(cell, page)),
+            (cell, page) -> Observable.just(fetch(cell, page)),
+            Pair::getLeft,
+            Pair::getRight,
+            Comparator.naturalOrder(),
+            item -> item
+    );
+
+    @Test
+    public void testAllPagesAreWalkedInOrder() {
+        cellItems.put(CELL_ONE, newItems(0, 3, 30));
+        cellItems.put(CELL_TWO, newItems(1, 3, 30));
+        cellItems.put(CELL_THREE, newItems(2, 3, 30));
+
+        List<String> all = walkAllPages(7);
+        assertThat(all).containsExactlyElementsOf(newItems(0, 1, 90));
+        // Items are evenly spread, so the prefetch window is always enough to complete the page
+        cellCalls.values().forEach(calls -> assertThat(calls.get()).isEqualTo(13));
+    }
+
+    @Test
+    public void testSkewedCellIsQueriedAtMostTwicePerPage() {
+        cellItems.put(CELL_ONE, newItems(0, 1, 50));
+        cellItems.put(CELL_TWO, Collections.emptyList());
+        cellItems.put(CELL_THREE, Collections.singletonList("item#9999"));
+
+        Pair<List<String>, Pagination> page = takePage(Page.newBuilder().setPageSize(10).build());
+        assertThat(page.getLeft()).containsExactlyElementsOf(newItems(0, 1, 10));
+        assertThat(page.getRight().getHasMore()).isTrue();
+        assertThat(page.getRight().getTotalItems()).isEqualTo(51);
+        assertThat(page.getRight().getCursorPosition()).isEqualTo(9);
+        assertThat(cellCalls.get(CELL_ONE).get()).isEqualTo(2);
+        assertThat(cellCalls.get(CELL_TWO).get()).isEqualTo(1);
+        assertThat(cellCalls.get(CELL_THREE).get()).isEqualTo(1);
+        // 5 items prefetched from the cell one, 1 from the cell three, and 5 more from the cell one after it run out
+        assertThat(fetchedItems.get()).isEqualTo(11);
+    }
+
+    @Test
+    public void testPaginationOfDeepPage() {
+        cellItems.put(CELL_ONE, newItems(0, 2, 40));
+        cellItems.put(CELL_TWO, newItems(1, 2, 40));
+
+        Pair<List<String>, Pagination> page = takePage(Page.newBuilder().setPageSize(10).setCursor(String.format("item#%04d", 29)).build());
+        assertThat(page.getLeft()).containsExactlyElementsOf(newItems(30, 1, 10));
+        assertThat(page.getRight().getCurrentPage().getPageNumber()).isEqualTo(3);
+        assertThat(page.getRight().getCursorPosition()).isEqualTo(39);
+        assertThat(page.getRight().getCursor()).isEqualTo("item#0039");
+        assertThat(page.getRight().getTotalPages()).isEqualTo(8);
+    }
+
+    @Test
+    public void testPrefetchSize() {
+        assertThat(CursorPageMerger.prefetchSize(100, 1)).isEqualTo(100);
+        assertThat(CursorPageMerger.prefetchSize(100, 3)).isEqualTo(50);
+        assertThat(CursorPageMerger.prefetchSize(1, 3)).isEqualTo(1);
+        assertThat(CursorPageMerger.prefetchSize(Integer.MAX_VALUE, 2)).isGreaterThan(0);
+    }
+
+    private List<String> walkAllPages(int pageSize) {
+        List<String> all = new ArrayList<>();
+        Page page = Page.newBuilder().setPageSize(pageSize).build();
+        while (true) {
+            Pair<List<String>, Pagination> result = takePage(page);
+            all.addAll(result.getLeft());
+            assertThat(result.getRight().getCursorPosition()).isEqualTo(all.size() - 1);
+            if (!result.getRight().getHasMore()) {
+                return all;
+            }
+            page = Page.newBuilder().setPageSize(pageSize).setCursor(result.getRight().getCursor()).build();
+        }
+    }
+
+    private Pair<List<String>, Pagination> takePage(Page page) {
+        return merger.takePage(page, cellItems.size()).toBlocking().single();
+    }
+
+    private CellResponse<JobManagementServiceStub, Pair<List<String>, Pagination>> fetch(Cell cell, Page page) {
+        cellCalls.computeIfAbsent(cell, c -> new AtomicInteger()).incrementAndGet();
+
+        List<String> items = cellItems.get(cell);
+        int offset = 0;
+        if (!page.getCursor().isEmpty()) {
+            while (offset < items.size() && items.get(offset).compareTo(page.getCursor()) <= 0) {
+                offset++;
+            }
+        }
+        int end = Math.min(items.size(), offset + page.getPageSize());
+        List<String> pageItems = items.subList(offset, end);
+        fetchedItems.addAndGet(pageItems.size());
+
+        Pagination pagination = Pagination.newBuilder()
+                .setHasMore(end < items.size())
+                .setTotalItems(items.size())
+                .setCursorPosition(items.isEmpty() ? 0 : Math.max(0, end - 1))
+                .build();
+        return new CellResponse<>(cell, null, Pair.of(pageItems, pagination));
+    }
+
+    private static List<String> newItems(int start, int step, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> String.format("item#%04d", start + i * step))
+                .collect(Collectors.toList());
+    }
+}
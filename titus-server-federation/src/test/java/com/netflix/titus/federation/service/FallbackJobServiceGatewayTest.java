@@ -105,13 +105,15 @@ public class FallbackJobServiceGatewayTest {
         );
 
         final AggregatingCellClient aggregatingCellClient = new AggregatingCellClient(cellConnector);
+        CellLocationCache cellLocationCache = new CellLocationCache(fedConfig, titusRuntime);
         aggregatingJobServiceGateway = new AggregatingJobServiceGateway(
                 grpcConfiguration,
                 fedConfig,
                 cellConnector,
                 cellRouter,
                 aggregatingCellClient,
-                new AggregatingJobManagementServiceHelper(aggregatingCellClient, grpcConfiguration),
+                new AggregatingJobManagementServiceHelper(aggregatingCellClient, cellLocationCache, grpcConfiguration),
+                cellLocationCache,
                 titusRuntime
         );
 
@@ -53,4 +53,11 @@ public interface GatewayConfiguration {
      */
     @DefaultValue("100")
     int getLocalCacheSchedulerThreadPoolSize();
+
+    /**
+     * Maximum number of job/task entities, for which the GRPC representation is cached and shared between all
+     * observeJobs subscribers (see {@link JobChangeNotificationCache}).
+     */
+    @DefaultValue("100000")
+    long getObserveJobsNotificationCacheSize();
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.gateway.service.v3.internal;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.LogStorageInfo;
+import com.netflix.titus.common.util.ProtobufExt;
+import com.netflix.titus.gateway.MetricConstants;
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+import com.netflix.titus.grpc.protogen.Task;
+import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
+
+/**
+ * The same job/task instances are delivered to all observeJobs subscribers sourced from the local cache. This cache
+ * makes sure that each of them is converted to the GRPC model (and trimmed to the requested set of fields) only once,
+ * and that all subscribers with the same field set share the result. The {@link JobChangeNotification} wrapping
+ * the shared value is built for each subscriber, as it carries the emit timestamp.
+ * <p>
+ * The cache uses weak keys, which in Caffeine implies identity comparison. As the core model entities are immutable,
+ * an identity match guarantees that the cached GRPC value is up to date.
+ */
+class JobChangeNotificationCache {
+
+    private static final String METRIC_ROOT = MetricConstants.METRIC_ROOT + "localCacheQueryProcessor.notificationCache.";
+
+    private final LogStorageInfo<com.netflix.titus.api.jobmanager.model.job.Task> logStorageInfo;
+
+    private final Cache<Object, ConcurrentMap<Set<String>, Object>> entityCache;
+
+    private final Counter conversionsMetric;
+    private final Counter hitsMetric;
+
+    JobChangeNotificationCache(GatewayConfiguration configuration,
+                               LogStorageInfo<com.netflix.titus.api.jobmanager.model.job.Task> logStorageInfo,
+                               Registry registry) {
+        this.logStorageInfo = logStorageInfo;
+        this.entityCache = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(configuration.getObserveJobsNotificationCacheSize())
+                .build();
+        this.conversionsMetric = registry.counter(METRIC_ROOT + "conversions");
+        this.hitsMetric = registry.counter(METRIC_ROOT + "hits");
+    }
+
+    com.netflix.titus.grpc.protogen.Job toGrpcJob(Job<?> job, Set<String> fields) {
+        return getOrConvert(job, fields, () -> {
+            com.netflix.titus.grpc.protogen.Job grpcJob = GrpcJobManagementModelConverters.toGrpcJob(job);
+            return fields.isEmpty() ? grpcJob : ProtobufExt.copy(grpcJob, fields);
+        });
+    }
+
+    Task toGrpcTask(com.netflix.titus.api.jobmanager.model.job.Task task, Set<String> fields) {
+        return getOrConvert(task, fields, () -> {
+            Task grpcTask = GrpcJobManagementModelConverters.toGrpcTask(task, logStorageInfo);
+            return fields.isEmpty() ? grpcTask : ProtobufExt.copy(grpcTask, fields);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getOrConvert(Object entity, Set<String> fields, Supplier<T> converter) {
+        ConcurrentMap<Set<String>, Object> byFields = entityCache.get(entity, e -> new ConcurrentHashMap<>());
+        Object cached = byFields.get(fields);
+        if (cached != null) {
+            hitsMetric.increment();
+            return (T) cached;
+        }
+        return (T) byFields.computeIfAbsent(fields, f -> {
+            conversionsMetric.increment();
+            return converter.get();
+        });
+    }
+}
@@ -18,12 +18,14 @@ package com.netflix.titus.gateway.service.v3.internal;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -45,7 +47,6 @@ import com.netflix.titus.api.model.PageResult;
 import com.netflix.titus.api.model.callmetadata.CallMetadata;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
-import com.netflix.titus.common.util.ProtobufExt;
 import com.netflix.titus.common.util.RegExpExt;
 import com.netflix.titus.common.util.rx.ReactorExt;
 import com.netflix.titus.common.util.spectator.MetricSelector;
@@ -65,6 +66,7 @@ import com.netflix.titus.grpc.protogen.TaskQueryResult;
 import com.netflix.titus.grpc.protogen.TaskStatus;
 import com.netflix.titus.runtime.connector.jobmanager.JobDataReplicator;
 import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshot;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotIndexes;
 import com.netflix.titus.runtime.endpoint.JobQueryCriteria;
 import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
 import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobQueryModelConverters;
@@ -110,6 +112,7 @@ public class LocalCacheQueryProcessor {
     private final Function<String, Matcher> callerIdMatcher;
     private final MetricSelector<ValueRangeCounter> syncDelayMetric;
     private final Counter rejectedByStalenessTooHighMetric;
+    private final JobChangeNotificationCache notificationCache;
 
     private final Scheduler scheduler;
 
@@ -148,6 +151,7 @@ public class LocalCacheQueryProcessor {
                 registry.createId(METRIC_ROOT + "syncDelay"), new String[]{"endpoint"}, LEVELS, registry
         );
         this.rejectedByStalenessTooHighMetric = registry.counter(METRIC_ROOT + "rejectedByStalenessTooHigh");
+        this.notificationCache = new JobChangeNotificationCache(configuration, logStorageInfo, registry);
     }
 
     @PreDestroy
@@ -207,13 +211,7 @@ public class LocalCacheQueryProcessor {
 
         Set<String> fields = newFieldsFilter(jobQuery.getFieldsList(), JOB_MINIMUM_FIELD_SET);
         List<com.netflix.titus.grpc.protogen.Job> grpcJob = pageResult.getItems().stream()
-                .map(coreJob -> {
-                    com.netflix.titus.grpc.protogen.Job job = GrpcJobManagementModelConverters.toGrpcJob(coreJob);
-                    if (!fields.isEmpty()) {
-                        job = ProtobufExt.copy(job, fields);
-                    }
-                    return job;
-                })
+                .map(coreJob -> notificationCache.toGrpcJob(coreJob, fields))
                 .collect(Collectors.toList());
 
         return JobQueryResult.newBuilder()
@@ -237,13 +235,7 @@ public class LocalCacheQueryProcessor {
 
         Set<String> fields = newFieldsFilter(taskQuery.getFieldsList(), TASK_MINIMUM_FIELD_SET);
         List<Task> grpcTasks = pageResult.getItems().stream()
-                .map(task -> {
-                    Task grpcTask = GrpcJobManagementModelConverters.toGrpcTask(task, logStorageInfo);
-                    if (!fields.isEmpty()) {
-                        grpcTask = ProtobufExt.copy(grpcTask, fields);
-                    }
-                    return grpcTask;
-                })
+                .map(task -> notificationCache.toGrpcTask(task, fields))
                 .collect(Collectors.toList());
 
         return TaskQueryResult.newBuilder()
@@ -356,13 +348,25 @@ public class LocalCacheQueryProcessor {
         V3JobQueryCriteriaEvaluator queryFilter = new V3JobQueryCriteriaEvaluator(queryCriteria, titusRuntime);
 
         List<com.netflix.titus.api.jobmanager.model.job.Job> matchingJobs = new ArrayList<>();
-        jobsById.forEach((jobId, job) -> {
+        BiConsumer<String, Job<?>> evaluator = (jobId, job) -> {
             List<com.netflix.titus.api.jobmanager.model.job.Task> tasks = new ArrayList<>(jobSnapshot.getTasks(jobId).values());
             Pair<Job<?>, List<com.netflix.titus.api.jobmanager.model.job.Task>> jobTaskPair = Pair.of(job, tasks);
             if (queryFilter.test(jobTaskPair)) {
                 matchingJobs.add(job);
             }
-        });
+        };
+
+        Optional<Set<String>> candidateJobIds = findCandidateJobIds(jobSnapshot, queryCriteria);
+        if (candidateJobIds.isPresent()) {
+            candidateJobIds.get().forEach(jobId -> {
+                Job<?> job = jobsById.get(jobId);
+                if (job != null) {
+                    evaluator.accept(jobId, job);
+                }
+            });
+        } else {
+            jobsById.forEach(evaluator);
+        }
 
         return matchingJobs;
     }
@@ -374,21 +378,119 @@ public class LocalCacheQueryProcessor {
         V3TaskQueryCriteriaEvaluator queryFilter = new V3TaskQueryCriteriaEvaluator(queryCriteria, titusRuntime);
 
         List<com.netflix.titus.api.jobmanager.model.job.Task> matchingTasks = new ArrayList<>();
-        jobsById.forEach((jobId, job) -> {
-            Map<String, com.netflix.titus.api.jobmanager.model.job.Task> tasks = jobSnapshot.getTasks(jobId);
-            if (!CollectionsExt.isNullOrEmpty(tasks)) {
-                tasks.forEach((taskId, task) -> {
-                    Pair<Job<?>, com.netflix.titus.api.jobmanager.model.job.Task> jobTaskPair = Pair.of(job, task);
-                    if (queryFilter.test(jobTaskPair)) {
-                        matchingTasks.add(task);
+        BiConsumer<Job<?>, com.netflix.titus.api.jobmanager.model.job.Task> evaluator = (job, task) -> {
+            Pair<Job<?>, com.netflix.titus.api.jobmanager.model.job.Task> jobTaskPair = Pair.of(job, task);
+            if (queryFilter.test(jobTaskPair)) {
+                matchingTasks.add(task);
+            }
+        };
+
+        Optional<Set<String>> candidateJobIds = findCandidateJobIds(jobSnapshot, queryCriteria);
+        Optional<Set<String>> candidateTaskIds = findCandidateTaskIds(jobSnapshot, queryCriteria);
+
+        // Iterate over the tasks, if their number is smaller than the number of candidate jobs.
+        if (candidateTaskIds.isPresent() && (!candidateJobIds.isPresent() || candidateTaskIds.get().size() <= candidateJobIds.get().size())) {
+            Map<String, com.netflix.titus.api.jobmanager.model.job.Task> taskMap = jobSnapshot.getTaskMap();
+            candidateTaskIds.get().forEach(taskId -> {
+                com.netflix.titus.api.jobmanager.model.job.Task task = taskMap.get(taskId);
+                if (task != null) {
+                    Job<?> job = jobsById.get(task.getJobId());
+                    if (job != null) {
+                        evaluator.accept(job, task);
                     }
-                });
+                }
+            });
+            return matchingTasks;
+        }
+
+        Iterable<String> jobIds = candidateJobIds.isPresent() ? candidateJobIds.get() : jobsById.keySet();
+        jobIds.forEach(jobId -> {
+            Job<?> job = jobsById.get(jobId);
+            Map<String, com.netflix.titus.api.jobmanager.model.job.Task> tasks = jobSnapshot.getTasks(jobId);
+            if (job != null && !CollectionsExt.isNullOrEmpty(tasks)) {
+                tasks.forEach((taskId, task) -> evaluator.accept(job, task));
             }
         });
 
         return matchingTasks;
     }
 
+    /**
+     * Narrows the set of jobs to evaluate using the job snapshot secondary indexes. Returns {@link Optional#empty()}
+     * if the query criteria has no indexed attributes, and all jobs must be evaluated.
+     */
+    private Optional<Set<String>> findCandidateJobIds(JobSnapshot jobSnapshot,
+                                                      JobQueryCriteria<TaskStatus.TaskState, JobDescriptor.JobSpecCase> queryCriteria) {
+        JobSnapshotIndexes indexes = jobSnapshot.getIndexes();
+        List<Set<String>> matches = new ArrayList<>();
+
+        if (!queryCriteria.getJobIds().isEmpty()) {
+            matches.add(queryCriteria.getJobIds());
+        }
+        queryCriteria.getAppName().ifPresent(appName -> matches.add(indexes.getJobIdsByApplicationName(appName)));
+        queryCriteria.getCapacityGroup().ifPresent(capacityGroup -> matches.add(indexes.getJobIdsByCapacityGroup(capacityGroup)));
+        queryCriteria.getImageName().ifPresent(imageName -> matches.add(indexes.getJobIdsByImageName(imageName)));
+        queryCriteria.getJobState().ifPresent(jobState -> matches.add(indexes.getJobIdsByState(
+                GrpcJobManagementModelConverters.toCoreJobState((JobStatus.JobState) jobState)
+        )));
+        if (!queryCriteria.getLabels().isEmpty()) {
+            if (queryCriteria.isLabelsAndOp()) {
+                queryCriteria.getLabels().keySet().forEach(name -> matches.add(indexes.getJobIdsByAttributeName(name)));
+            } else {
+                Set<String> anyLabel = new HashSet<>();
+                queryCriteria.getLabels().keySet().forEach(name -> anyLabel.addAll(indexes.getJobIdsByAttributeName(name)));
+                matches.add(anyLabel);
+            }
+        }
+
+        return intersect(matches);
+    }
+
+    /**
+     * Narrows the set of tasks to evaluate using the job snapshot secondary indexes. Returns {@link Optional#empty()}
+     * if the query criteria has no indexed task attributes.
+     */
+    private Optional<Set<String>> findCandidateTaskIds(JobSnapshot jobSnapshot,
+                                                       JobQueryCriteria<TaskStatus.TaskState, JobDescriptor.JobSpecCase> queryCriteria) {
+        JobSnapshotIndexes indexes = jobSnapshot.getIndexes();
+        List<Set<String>> matches = new ArrayList<>();
+
+        if (!queryCriteria.getTaskIds().isEmpty()) {
+            matches.add(queryCriteria.getTaskIds());
+        }
+        if (!queryCriteria.getTaskStates().isEmpty()) {
+            Set<String> anyState = new HashSet<>();
+            queryCriteria.getTaskStates().forEach(taskState -> anyState.addAll(indexes.getTaskIdsByState(
+                    GrpcJobManagementModelConverters.toCoreTaskState(taskState)
+            )));
+            matches.add(anyState);
+        }
+
+        return intersect(matches);
+    }
+
+    private Optional<Set<String>> intersect(List<Set<String>> matches) {
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+        matches.sort(Comparator.comparingInt(Set::size));
+        Set<String> smallest = matches.get(0);
+        if (matches.size() == 1) {
+            return Optional.of(smallest);
+        }
+        Set<String> result = new HashSet<>();
+        for (String id : smallest) {
+            boolean inAll = true;
+            for (int i = 1; inAll && i < matches.size(); i++) {
+                inAll = matches.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return Optional.of(result);
+    }
+
     private List<JobChangeNotification> buildSnapshot(JobSnapshot snapshot,
                                                       long now,
                                                       V3JobQueryCriteriaEvaluator jobsPredicate,
@@ -443,10 +545,7 @@ public class LocalCacheQueryProcessor {
     }
 
     private JobChangeNotification toGrpcJobEvent(Job<?> job, long now, Set<String> jobFields) {
-        com.netflix.titus.grpc.protogen.Job grpcJob = GrpcJobManagementModelConverters.toGrpcJob(job);
-        if (!jobFields.isEmpty()) {
-            grpcJob = ProtobufExt.copy(grpcJob, jobFields);
-        }
+        com.netflix.titus.grpc.protogen.Job grpcJob = notificationCache.toGrpcJob(job, jobFields);
         return JobChangeNotification.newBuilder()
                 .setJobUpdate(JobChangeNotification.JobUpdate.newBuilder().setJob(grpcJob))
                 .setTimestamp(now)
@@ -457,10 +556,7 @@ public class LocalCacheQueryProcessor {
                                                   boolean movedFromAnotherJob,
                                                   long now,
                                                   Set<String> taskFields) {
-        Task grpcTask = GrpcJobManagementModelConverters.toGrpcTask(task, logStorageInfo);
-        if (!taskFields.isEmpty()) {
-            grpcTask = ProtobufExt.copy(grpcTask, taskFields);
-        }
+        Task grpcTask = notificationCache.toGrpcTask(task, taskFields);
         return JobChangeNotification.newBuilder()
                 .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(grpcTask).setMovedFromAnotherJob(movedFromAnotherJob))
                 .setTimestamp(now)
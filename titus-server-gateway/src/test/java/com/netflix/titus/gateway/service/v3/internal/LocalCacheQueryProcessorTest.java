@@ -336,6 +336,28 @@ public class LocalCacheQueryProcessorTest {
         });
     }
 
+    @Test
+    public void testObserveJobsSubscribersShareConvertedTasks() throws InterruptedException {
+        ExtTestSubscriber<JobChangeNotification> subscriber1 = new ExtTestSubscriber<>();
+        ExtTestSubscriber<JobChangeNotification> subscriber2 = new ExtTestSubscriber<>();
+        processor.observeJobs(ObserveJobsQuery.getDefaultInstance()).subscribe(subscriber1);
+        processor.observeJobs(ObserveJobsQuery.getDefaultInstance()).subscribe(subscriber2);
+
+        // Snapshot
+        emitEvent(Pair.of(jobDataReplicator.getCurrent(), JobManagerEvent.snapshotMarker()));
+        expectSnapshot(subscriber1);
+        expectSnapshot(subscriber2);
+
+        Pair<Job<?>, List<Task>> jobAndTasks = addToJobDataReplicator(newJobAndTasks("job1", 1));
+        TaskUpdateEvent taskUpdateEvent = TaskUpdateEvent.newTask(jobAndTasks.getLeft(), jobAndTasks.getRight().get(0), JUNIT_CALL_METADATA);
+        emitEvent(Pair.of(jobDataReplicator.getCurrent(), taskUpdateEvent));
+
+        JobChangeNotification notification1 = subscriber1.takeNext(30, TimeUnit.SECONDS);
+        JobChangeNotification notification2 = subscriber2.takeNext(30, TimeUnit.SECONDS);
+        assertThat(notification1.getNotificationCase()).isEqualTo(JobChangeNotification.NotificationCase.TASKUPDATE);
+        assertThat(notification1.getTaskUpdate().getTask()).isSameAs(notification2.getTaskUpdate().getTask());
+    }
+
     @Test
     public void testObserveJob() throws InterruptedException {
         ExtTestSubscriber<JobChangeNotification> subscriber = new ExtTestSubscriber<>();
@@ -76,7 +76,8 @@ public class MasterEndpointModule extends AbstractModule {
                         return UNIDENTIFIED;
                     }
                     return c.getCallers().get(0).getId();
-                }).orElse(UNIDENTIFIED)
+                }).orElse(UNIDENTIFIED),
+                titusRuntime.getRegistry()
         );
     }
 }
@@ -41,4 +41,39 @@ public interface GrpcMasterEndpointConfiguration {
      */
     @DefaultValue("256")
     int getServerStreamsThreadPoolSize();
+
+    /**
+     * Max number of job and task updates buffered for a single observeJobs client, which does not keep up with
+     * the event stream. The initial snapshot is not counted.
+     */
+    @DefaultValue("10000")
+    int getObserveJobsBufferSize();
+
+    /**
+     * Action taken when the observeJobs client buffer is full. Either 'coalesce' to replace pending updates of the same
+     * job or task with the latest version (and terminate the stream if not possible), or 'drop' to terminate the stream
+     * immediately. A terminated client must re-subscribe, and receive a new snapshot.
+     */
+    @DefaultValue("coalesce")
+    String getObserveJobsOverflowPolicy();
+
+    /**
+     * Max number of recent job and task updates kept in memory, to serve observeJobs clients resuming the event
+     * stream from their last checkpoint, instead of loading a full snapshot. Set to zero to disable resume.
+     */
+    @DefaultValue("50000")
+    int getObserveJobsChangeLogSize();
+
+    /**
+     * How long the job and task updates are kept for observeJobs clients resuming the event stream.
+     */
+    @DefaultValue("300000")
+    long getObserveJobsChangeLogRetentionMs();
+
+    /**
+     * Resume checkpoint time is provided by a client, so the updates are replayed starting from an earlier time,
+     * to account for clock differences between the client and the server.
+     */
+    @DefaultValue("10000")
+    long getObserveJobsResumeMarginMs();
 }
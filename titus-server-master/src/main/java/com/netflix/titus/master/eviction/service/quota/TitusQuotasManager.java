@@ -42,6 +42,7 @@ import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ReactorExt;
 import com.netflix.titus.common.util.rx.ReactorRetriers;
 import com.netflix.titus.master.eviction.service.quota.job.EffectiveJobDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.job.JobHealthCounters;
 import com.netflix.titus.master.eviction.service.quota.job.JobQuotaController;
 import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
 import com.netflix.titus.runtime.connector.eviction.EvictionConfiguration;
@@ -66,6 +67,7 @@ public class TitusQuotasManager {
     private final V3JobOperations jobOperations;
     private final EffectiveJobDisruptionBudgetResolver budgetResolver;
     private final ContainerHealthService containerHealthService;
+    private final JobHealthCounters jobHealthCounters;
     private final SystemQuotaController systemQuotaController;
     private final TitusRuntime titusRuntime;
 
@@ -85,6 +87,7 @@ public class TitusQuotasManager {
                               TitusRuntime titusRuntime) {
         this.budgetResolver = budgetResolver;
         this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = new JobHealthCounters(jobOperations, containerHealthService);
         this.systemQuotaController = systemQuotaController;
         this.jobOperations = jobOperations;
         this.appsExemptFromSystemDisruptionWindowMatcherFactory = RegExpExt.dynamicMatcher(evictionConfiguration::getAppsExemptFromSystemDisruptionWindow,
@@ -94,6 +97,7 @@ public class TitusQuotasManager {
 
     @Activator
     public void enterActiveMode() {
+        jobHealthCounters.activate();
         this.jobUpdateDisposable = jobOperations.observeJobsReactor()
                 .filter(event -> event instanceof JobUpdateEvent)
                 .map(event -> (Job) event.getCurrent())
@@ -105,6 +109,7 @@ public class TitusQuotasManager {
     @PreDestroy
     public void shutdown() {
         ReactorExt.safeDispose(jobUpdateDisposable);
+        jobHealthCounters.shutdown();
     }
 
     public ConsumptionResult tryConsumeQuota(Job<?> job, Task task) {
@@ -151,7 +156,7 @@ public class TitusQuotasManager {
         if (jobQuotaController != null) {
             jobQuotaControllersByJobId.put(newJob.getId(), jobQuotaController.update(newJob));
         } else {
-            jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, budgetResolver, containerHealthService, titusRuntime));
+            jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, budgetResolver, containerHealthService, jobHealthCounters, titusRuntime));
         }
     }
 
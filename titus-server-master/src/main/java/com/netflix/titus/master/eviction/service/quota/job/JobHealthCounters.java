@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthSnapshotEvent;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthUpdateEvent;
+import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.util.rx.ReactorExt;
+import com.netflix.titus.common.util.rx.ReactorRetriers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+/**
+ * Number of started and healthy tasks of each job, maintained from job and container health events. Each update
+ * costs O(1), so {@link UnhealthyTasksLimitTracker} can reject a quota request without checking the health of all
+ * tasks of a job.
+ * <p>
+ * The counters are empty until {@link #activate()} is called. After that they follow the job and container health
+ * events, so for the time an event is in flight they may be either too low or too high (for example a task which
+ * became unhealthy is still counted until its health event is processed). This is the same staleness as of the
+ * container health service itself, but clients must not assume that the counters are a lower or an upper bound.
+ */
+public class JobHealthCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobHealthCounters.class);
+
+    private static final String NAME = JobHealthCounters.class.getSimpleName();
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    private final V3JobOperations jobOperations;
+    private final ContainerHealthService containerHealthService;
+
+    private final Object lock = new Object();
+
+    /**
+     * Non-finished tasks. Accessed with the lock held.
+     */
+    private final Map<String, TaskHealth> tasksById = new HashMap<>();
+
+    private final ConcurrentMap<String, AtomicInteger> healthyByJobId = new ConcurrentHashMap<>();
+
+    private Disposable jobEventsDisposable;
+    private Disposable containerHealthEventsDisposable;
+
+    public JobHealthCounters(V3JobOperations jobOperations, ContainerHealthService containerHealthService) {
+        this.jobOperations = jobOperations;
+        this.containerHealthService = containerHealthService;
+    }
+
+    /**
+     * Subscribes to the event streams. The counters are rebuilt from the current state each time a subscription is
+     * (re)established, after the event stream is subscribed to, so no update is lost in between.
+     */
+    public void activate() {
+        this.jobEventsDisposable = jobOperations.observeJobsReactor()
+                .doOnSubscribe(subscription -> resync())
+                .transformDeferred(ReactorRetriers.instrumentedRetryer(NAME + "JobEvents", RETRY_INTERVAL, logger))
+                .subscribe(this::onJobEvent);
+        this.containerHealthEventsDisposable = containerHealthService.events(false)
+                .doOnSubscribe(subscription -> resync())
+                .transformDeferred(ReactorRetriers.instrumentedRetryer(NAME + "ContainerHealthEvents", RETRY_INTERVAL, logger))
+                .subscribe(this::onContainerHealthEvent);
+    }
+
+    public void shutdown() {
+        ReactorExt.safeDispose(jobEventsDisposable, containerHealthEventsDisposable);
+    }
+
+    public int getHealthyCount(String jobId) {
+        AtomicInteger counter = healthyByJobId.get(jobId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private void resync() {
+        synchronized (lock) {
+            tasksById.clear();
+            healthyByJobId.clear();
+            jobOperations.getTasks().forEach(this::updateTask);
+            logger.info("Rebuilt job health counters: tasks={}, jobsWithHealthyTasks={}", tasksById.size(), healthyByJobId.size());
+        }
+    }
+
+    private void onJobEvent(JobManagerEvent<?> event) {
+        synchronized (lock) {
+            if (event instanceof TaskUpdateEvent) {
+                updateTask(((TaskUpdateEvent) event).getCurrentTask());
+            } else if (event instanceof JobUpdateEvent) {
+                Job<?> job = ((JobUpdateEvent) event).getCurrent();
+                if (job.getStatus().getState() == JobState.Finished) {
+                    healthyByJobId.remove(job.getId());
+                }
+            }
+        }
+    }
+
+    private void onContainerHealthEvent(ContainerHealthEvent event) {
+        synchronized (lock) {
+            if (event instanceof ContainerHealthUpdateEvent) {
+                updateHealth(((ContainerHealthUpdateEvent) event).getContainerHealthStatus());
+            } else if (event instanceof ContainerHealthSnapshotEvent) {
+                ((ContainerHealthSnapshotEvent) event).getSnapshot().forEach(this::updateHealth);
+            }
+        }
+    }
+
+    private void updateTask(Task task) {
+        String taskId = task.getId();
+        TaskHealth previous = tasksById.get(taskId);
+        TaskState state = task.getStatus().getState();
+
+        if (state == TaskState.Finished) {
+            if (previous != null) {
+                tasksById.remove(taskId);
+                adjust(previous, null);
+            }
+            return;
+        }
+
+        boolean started = state == TaskState.Started;
+        // Health is read from the service when a task becomes started, as its health event may have been emitted
+        // before the task update
+        boolean healthy = previous != null && previous.started == started
+                ? previous.healthy
+                : started && isHealthy(containerHealthService.findHealthStatus(taskId));
+
+        TaskHealth current = new TaskHealth(task.getJobId(), started, healthy);
+        tasksById.put(taskId, current);
+        adjust(previous, current);
+    }
+
+    private void updateHealth(ContainerHealthStatus status) {
+        TaskHealth previous = tasksById.get(status.getTaskId());
+        if (previous == null) {
+            // Not known yet or finished. The health of a new task is read when its update event is received.
+            return;
+        }
+        TaskHealth current = new TaskHealth(previous.jobId, previous.started, status.getState() == ContainerHealthState.Healthy);
+        tasksById.put(status.getTaskId(), current);
+        adjust(previous, current);
+    }
+
+    /**
+     * A task may change its job (see {@link V3JobOperations#moveServiceTask}), in which case it is no longer counted
+     * for the source job, and is counted for the target one.
+     */
+    private void adjust(TaskHealth previous, TaskHealth current) {
+        boolean wasCounted = previous != null && previous.isCounted();
+        boolean isCounted = current != null && current.isCounted();
+        if (wasCounted && isCounted && previous.jobId.equals(current.jobId)) {
+            return;
+        }
+        if (isCounted) {
+            healthyByJobId.computeIfAbsent(current.jobId, jobId -> new AtomicInteger()).incrementAndGet();
+        }
+        if (wasCounted) {
+            AtomicInteger counter = healthyByJobId.get(previous.jobId);
+            if (counter != null) {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isHealthy(Optional<ContainerHealthStatus> statusOpt) {
+        return statusOpt.isPresent() && statusOpt.get().getState() == ContainerHealthState.Healthy;
+    }
+
+    private static class TaskHealth {
+
+        private final String jobId;
+        private final boolean started;
+        private final boolean healthy;
+
+        private TaskHealth(String jobId, boolean started, boolean healthy) {
+            this.jobId = jobId;
+            this.started = started;
+            this.healthy = healthy;
+        }
+
+        private boolean isCounted() {
+            return started && healthy;
+        }
+    }
+}
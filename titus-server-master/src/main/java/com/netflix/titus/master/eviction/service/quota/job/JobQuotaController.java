@@ -49,6 +49,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
     private final V3JobOperations jobOperations;
     private final EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver;
     private final ContainerHealthService containerHealthService;
+    private final JobHealthCounters jobHealthCounters;
     private final TitusRuntime titusRuntime;
     private final List<QuotaTracker> quotaTrackers;
     private final List<QuotaController<Job<?>>> quotaControllers;
@@ -57,14 +58,16 @@ public class JobQuotaController implements QuotaController<Job<?>> {
                               V3JobOperations jobOperations,
                               EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
                               ContainerHealthService containerHealthService,
+                              JobHealthCounters jobHealthCounters,
                               TitusRuntime titusRuntime) {
         this.job = job;
         this.jobOperations = jobOperations;
         this.effectiveDisruptionBudgetResolver = effectiveDisruptionBudgetResolver;
         this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = jobHealthCounters;
         this.titusRuntime = titusRuntime;
 
-        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, titusRuntime);
+        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, jobHealthCounters, titusRuntime);
         this.quotaControllers = buildQuotaControllers(job, jobOperations, effectiveDisruptionBudgetResolver, titusRuntime);
     }
 
@@ -72,15 +75,17 @@ public class JobQuotaController implements QuotaController<Job<?>> {
                                V3JobOperations jobOperations,
                                EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
                                ContainerHealthService containerHealthService,
+                               JobHealthCounters jobHealthCounters,
                                JobQuotaController previousJobQuotaController,
                                TitusRuntime titusRuntime) {
         this.job = newJob;
         this.jobOperations = jobOperations;
         this.effectiveDisruptionBudgetResolver = effectiveDisruptionBudgetResolver;
         this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = jobHealthCounters;
         this.titusRuntime = titusRuntime;
 
-        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, titusRuntime);
+        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, jobHealthCounters, titusRuntime);
         this.quotaControllers = mergeQuotaControllers(previousJobQuotaController.quotaControllers, newJob, jobOperations, effectiveDisruptionBudgetResolver, titusRuntime);
     }
 
@@ -159,6 +164,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
                 jobOperations,
                 effectiveDisruptionBudgetResolver,
                 containerHealthService,
+                jobHealthCounters,
                 this,
                 titusRuntime
         );
@@ -191,6 +197,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
                                                  V3JobOperations jobOperations,
                                                  EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
                                                  ContainerHealthService containerHealthService,
+                                                 JobHealthCounters jobHealthCounters,
                                                  TitusRuntime titusRuntime) {
         List<QuotaTracker> quotaTrackers = new ArrayList<>();
 
@@ -201,9 +208,9 @@ public class JobQuotaController implements QuotaController<Job<?>> {
 
         DisruptionBudgetPolicy policy = effectiveBudget.getDisruptionBudgetPolicy();
         if (policy instanceof AvailabilityPercentageLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, (AvailabilityPercentageLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, (AvailabilityPercentageLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService, jobHealthCounters));
         } else if (policy instanceof UnhealthyTasksLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, (UnhealthyTasksLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, (UnhealthyTasksLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService, jobHealthCounters));
         }
 
         return quotaTrackers;
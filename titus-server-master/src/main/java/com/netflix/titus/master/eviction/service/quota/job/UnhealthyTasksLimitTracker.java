@@ -56,11 +56,13 @@ public class UnhealthyTasksLimitTracker implements QuotaTracker {
 
     private final V3JobOperations jobOperations;
     private final ContainerHealthService containerHealthService;
+    private final JobHealthCounters jobHealthCounters;
 
     private UnhealthyTasksLimitTracker(Job<?> job,
                                        int minimumHealthyCount,
                                        V3JobOperations jobOperations,
-                                       ContainerHealthService containerHealthService) {
+                                       ContainerHealthService containerHealthService,
+                                       JobHealthCounters jobHealthCounters) {
         int jobSize = JobFunctions.getJobDesiredSize(job);
 
         this.job = job;
@@ -75,6 +77,7 @@ public class UnhealthyTasksLimitTracker implements QuotaTracker {
                 .build();
         this.jobOperations = jobOperations;
         this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = jobHealthCounters;
     }
 
     @Override
@@ -83,20 +86,43 @@ public class UnhealthyTasksLimitTracker implements QuotaTracker {
             return belowJobSizeThresholdQuota.toBuilder().withReference(reference).build();
         }
 
-        int healthyCount = countHealthy().getLeft();
-        long quota = Math.max(0, healthyCount - minimumHealthyCount);
-        if (quota > 0) {
+        // The counters follow the container health events, and are as current as the container health service, except
+        // for the events still in flight. They are only used to reject requests early, without checking all tasks.
+        // Rejecting on a stale count is safe, as the eviction is retried.
+        int countedHealthy = jobHealthCounters.getHealthyCount(job.getId());
+        if (countedHealthy <= minimumHealthyCount) {
             return EvictionQuota.newBuilder()
                     .withReference(reference)
-                    .withQuota(quota)
-                    .withMessage("Found %s healthy containers, and the required minimum is %s", healthyCount, minimumHealthyCount)
+                    .withQuota(0)
+                    .withMessage("Not enough healthy containers. Found %s and the required minimum is %s",
+                            countedHealthy, minimumHealthyCount
+                    )
                     .build();
         }
 
+        // A grant is always confirmed by checking the health of all tasks, so a not yet processed event never lets
+        // the job go below its minimum.
+        Pair<Integer, String> healthyAndReport = countHealthy();
+        int healthyCount = healthyAndReport.getLeft();
+        if (healthyCount > minimumHealthyCount) {
+            return newPositiveQuota(reference, healthyCount);
+        }
+
+        String report = healthyAndReport.getRight();
         return EvictionQuota.newBuilder()
                 .withReference(reference)
                 .withQuota(0)
-                .withMessage("Not enough healthy containers. Found %s and the required minimum is %s", healthyCount, minimumHealthyCount)
+                .withMessage("Not enough healthy containers. Found %s and the required minimum is %s%s",
+                        healthyCount, minimumHealthyCount, report.isEmpty() ? "" : ": " + report
+                )
+                .build();
+    }
+
+    private EvictionQuota newPositiveQuota(Reference reference, int healthyCount) {
+        return EvictionQuota.newBuilder()
+                .withReference(reference)
+                .withQuota(healthyCount - minimumHealthyCount)
+                .withMessage("Found %s healthy containers, and the required minimum is %s", healthyCount, minimumHealthyCount)
                 .build();
     }
 
@@ -140,32 +166,30 @@ public class UnhealthyTasksLimitTracker implements QuotaTracker {
                 }
                 if (counter >= TASK_ID_REPORT_LIMIT && counter < notStartedOrUnhealthyTasks.size()) {
                     builder.append(",... dropped ").append(notStartedOrUnhealthyTasks.size() - counter).append(" tasks]");
+                    break;
                 }
             }
             return Pair.of(healthy, builder.toString());
         }
 
-        return Pair.of(
-                healthy,
-                healthy > minimumHealthyCount
-                        ? ""
-                        : String.format("not enough healthy containers: healthy=%s, minimum=%s", healthy, minimumHealthyCount)
-        );
+        return Pair.of(healthy, "");
     }
 
     public static UnhealthyTasksLimitTracker percentageLimit(Job<?> job,
                                                              AvailabilityPercentageLimitDisruptionBudgetPolicy policy,
                                                              V3JobOperations jobOperations,
-                                                             ContainerHealthService containerHealthService) {
+                                                             ContainerHealthService containerHealthService,
+                                                             JobHealthCounters jobHealthCounters) {
 
-        return new UnhealthyTasksLimitTracker(job, computeHealthyPoolSizeFromPercentage(job, policy), jobOperations, containerHealthService);
+        return new UnhealthyTasksLimitTracker(job, computeHealthyPoolSizeFromPercentage(job, policy), jobOperations, containerHealthService, jobHealthCounters);
     }
 
     public static UnhealthyTasksLimitTracker absoluteLimit(Job<?> job,
                                                            UnhealthyTasksLimitDisruptionBudgetPolicy policy,
                                                            V3JobOperations jobOperations,
-                                                           ContainerHealthService containerHealthService) {
-        return new UnhealthyTasksLimitTracker(job, computeHealthyPoolSizeFromAbsoluteLimit(job, policy), jobOperations, containerHealthService);
+                                                           ContainerHealthService containerHealthService,
+                                                           JobHealthCounters jobHealthCounters) {
+        return new UnhealthyTasksLimitTracker(job, computeHealthyPoolSizeFromAbsoluteLimit(job, policy), jobOperations, containerHealthService, jobHealthCounters);
     }
 
     @VisibleForTesting
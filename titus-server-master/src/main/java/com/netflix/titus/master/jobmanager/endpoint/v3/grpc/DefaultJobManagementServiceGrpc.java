@@ -137,6 +137,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
     private final Scheduler observeJobsScheduler;
     private final DefaultGrpcObjectsCache grpcObjectsCache;
     private final DefaultJobManagementServiceGrpcMetrics metrics;
+    private final ObserveJobsChangeLog changeLog;
     private final ObserveJobsContext eventProcessingContext;
 
     @Inject
@@ -170,12 +171,22 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
         this.grpcObjectsCache = new DefaultGrpcObjectsCache(jobOperations, grpcObjectsCacheConfiguration, logStorageInfo, leaderActivator, titusRuntime);
         grpcObjectsCache.activate();
         this.metrics = new DefaultJobManagementServiceGrpcMetrics(titusRuntime);
+        this.changeLog = new ObserveJobsChangeLog(
+                jobOperations,
+                configuration.getObserveJobsChangeLogSize(),
+                configuration.getObserveJobsChangeLogRetentionMs(),
+                configuration.getObserveJobsResumeMarginMs(),
+                titusRuntime
+        );
         this.eventProcessingContext = new ObserveJobsContext(
                 jobOperations,
                 callMetadataResolver,
                 grpcObjectsCache,
                 observeJobsScheduler,
                 metrics,
+                configuration.getObserveJobsBufferSize(),
+                ObserveJobsEventBuffer.OverflowPolicy.parse(configuration.getObserveJobsOverflowPolicy()),
+                changeLog,
                 titusRuntime
         );
     }
@@ -183,6 +194,7 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
     @PreDestroy
     public void shutdown() {
         metrics.shutdown();
+        changeLog.shutdown();
         grpcObjectsCache.shutdown();
         observeJobsThreadPool.shutdownNow();
     }
@@ -23,6 +23,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Gauge;
@@ -56,6 +57,7 @@ class DefaultJobManagementServiceGrpcMetrics {
 
     private final ConcurrentMap<String, StreamHolder> streamHolders = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Gauge> pendingSubscriptionsByCallerId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> maxBufferDepthByCallerId = new ConcurrentHashMap<>();
     private final ScheduleReference scheduleRef;
 
     DefaultJobManagementServiceGrpcMetrics(TitusRuntime titusRuntime) {
@@ -67,8 +69,8 @@ class DefaultJobManagementServiceGrpcMetrics {
         scheduleRef.cancel();
     }
 
-    void observeJobsStarted(String trxId, CallMetadata callMetadata) {
-        streamHolders.put(trxId, new StreamHolder(callMetadata));
+    void observeJobsStarted(String trxId, CallMetadata callMetadata, IntSupplier bufferDepthSupplier) {
+        streamHolders.put(trxId, new StreamHolder(callMetadata, bufferDepthSupplier));
     }
 
     void observeJobsUnsubscribed(String trxId, long elapsed) {
@@ -99,41 +101,81 @@ class DefaultJobManagementServiceGrpcMetrics {
         }
     }
 
+    void observeJobsEventsCoalesced(String trxId) {
+        StreamHolder holder = streamHolders.get(trxId);
+        if (holder != null) {
+            holder.eventCoalesced();
+        }
+    }
+
+    void observeJobsBufferOverflow(String trxId) {
+        StreamHolder holder = streamHolders.get(trxId);
+        if (holder != null) {
+            holder.bufferOverflow();
+        }
+    }
+
+    void observeJobsResumeRequested(String trxId, boolean resumed) {
+        StreamHolder holder = streamHolders.get(trxId);
+        if (holder != null) {
+            holder.resumeRequested(resumed);
+        }
+    }
+
     void updatePendingSubscriptionsGauges() {
         Map<String, Integer> counters = new HashMap<>();
+        Map<String, Integer> maxBufferDepths = new HashMap<>();
         for (StreamHolder holder : streamHolders.values()) {
             counters.put(holder.getCallerId(), counters.getOrDefault(holder.getCallerId(), 0) + 1);
+            maxBufferDepths.put(holder.getCallerId(), Math.max(maxBufferDepths.getOrDefault(holder.getCallerId(), 0), holder.getBufferDepth()));
         }
-        Set<String> lost = CollectionsExt.copyAndRemove(pendingSubscriptionsByCallerId.keySet(), counters.keySet());
+        updateGauges(pendingSubscriptionsByCallerId, "observeJobsSubscriptions", counters);
+        updateGauges(maxBufferDepthByCallerId, "observeJobsSubscriptionMaxBufferDepth", maxBufferDepths);
+    }
+
+    private void updateGauges(ConcurrentMap<String, Gauge> gauges, String name, Map<String, Integer> values) {
+        Set<String> lost = CollectionsExt.copyAndRemove(gauges.keySet(), values.keySet());
         for (String id : lost) {
-            Gauge gauge = pendingSubscriptionsByCallerId.remove(id);
+            Gauge gauge = gauges.remove(id);
             if (gauge != null) {
                 gauge.set(0);
             }
         }
-        counters.forEach((callerId, count) -> {
-            Gauge gauge = pendingSubscriptionsByCallerId.computeIfAbsent(callerId, c ->
-                    registry.gauge(ROOT + "observeJobsSubscriptions", "callerId", callerId)
+        values.forEach((callerId, value) -> {
+            Gauge gauge = gauges.computeIfAbsent(callerId, c ->
+                    registry.gauge(ROOT + name, "callerId", callerId)
             );
-            gauge.set(count);
+            gauge.set(value);
         });
     }
 
     private class StreamHolder {
 
         private final String callerId;
+        private final IntSupplier bufferDepthSupplier;
         private final Counter eventsCounter;
+        private final Counter coalescedEventsCounter;
+        private final Counter bufferOverflowCounter;
 
-        private StreamHolder(CallMetadata callMetadata) {
+        private StreamHolder(CallMetadata callMetadata, IntSupplier bufferDepthSupplier) {
             this.callerId = CollectionsExt.isNullOrEmpty(callMetadata.getCallers()) ? "unknown" : callMetadata.getCallers().get(0).getId();
+            this.bufferDepthSupplier = bufferDepthSupplier;
             this.eventsCounter = registry.counter(ROOT + "observeJobsSubscriptionEvents",
                     "callerId", callerId);
+            this.coalescedEventsCounter = registry.counter(ROOT + "observeJobsSubscriptionCoalescedEvents",
+                    "callerId", callerId);
+            this.bufferOverflowCounter = registry.counter(ROOT + "observeJobsSubscriptionBufferOverflows",
+                    "callerId", callerId);
         }
 
         private String getCallerId() {
             return callerId;
         }
 
+        private int getBufferDepth() {
+            return bufferDepthSupplier.getAsInt();
+        }
+
         private void unsubscribed(long elapsed) {
             registry.timer(ROOT + "observeJobsSubscriptionExecutionTime",
                     "callerId", callerId,
@@ -159,5 +201,20 @@ class DefaultJobManagementServiceGrpcMetrics {
         private void eventEmitted() {
             eventsCounter.increment();
         }
+
+        private void eventCoalesced() {
+            coalescedEventsCounter.increment();
+        }
+
+        private void bufferOverflow() {
+            bufferOverflowCounter.increment();
+        }
+
+        private void resumeRequested(boolean resumed) {
+            registry.counter(ROOT + "observeJobsSubscriptionResumes",
+                    "callerId", callerId,
+                    "resumed", Boolean.toString(resumed)
+            ).increment();
+        }
     }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.jobmanager.endpoint.v3.grpc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.rx.ObservableExt;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Subscription;
+
+import static com.netflix.titus.common.util.FunctionExt.alwaysTrue;
+
+/**
+ * Bounded, in-memory log of recent job and task updates. It is used to resume an observeJobs stream from a client
+ * checkpoint, by sending only the jobs and tasks that changed since then, instead of a full snapshot.
+ * The log subscribes to the job event stream on first use, so it is only active if there are clients using it.
+ */
+class ObserveJobsChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObserveJobsChangeLog.class);
+
+    private final V3JobOperations jobOperations;
+    private final int maxSize;
+    private final long retentionMs;
+    private final long resumeMarginMs;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+
+    /**
+     * Recorded events with their arrival time.
+     */
+    private final Deque<Pair<Long, JobManagerEvent<?>>> events = new ArrayDeque<>();
+
+    /**
+     * Events recorded at or before this time may be missing from the log, either because they happened before
+     * the log subscription was created, or were evicted.
+     */
+    private long lostUpTo = Long.MAX_VALUE;
+
+    private Subscription subscription;
+    private boolean shutdown;
+
+    ObserveJobsChangeLog(V3JobOperations jobOperations,
+                         int maxSize,
+                         long retentionMs,
+                         long resumeMarginMs,
+                         TitusRuntime titusRuntime) {
+        this.jobOperations = jobOperations;
+        this.maxSize = maxSize;
+        this.retentionMs = retentionMs;
+        this.resumeMarginMs = resumeMarginMs;
+        this.clock = titusRuntime.getClock();
+    }
+
+    void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            ObservableExt.safeUnsubscribe(subscription);
+            reset();
+        }
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Starts recording the job events if not done yet, or if the previous subscription terminated.
+     */
+    void activate() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (lock) {
+            if (shutdown || (subscription != null && !subscription.isUnsubscribed())) {
+                return;
+            }
+            reset();
+            this.lostUpTo = clock.wallTime();
+            this.subscription = jobOperations.observeJobs(alwaysTrue(), alwaysTrue(), false).subscribe(
+                    this::record,
+                    e -> {
+                        logger.warn("Job event stream terminated with an error. Resetting the change log", e);
+                        synchronized (lock) {
+                            reset();
+                        }
+                    },
+                    () -> {
+                        logger.info("Job event stream completed. Resetting the change log");
+                        synchronized (lock) {
+                            reset();
+                        }
+                    }
+            );
+        }
+    }
+
+    /**
+     * Returns the most recent event of each job and task changed since the given time (minus the resume margin),
+     * in the order of their last update. If the log does not cover the whole period, returns {@link Optional#empty()}.
+     */
+    Optional<List<JobManagerEvent<?>>> findChangesSince(long timestamp) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        long from = timestamp - resumeMarginMs;
+        synchronized (lock) {
+            trim(clock.wallTime());
+            if (subscription == null || subscription.isUnsubscribed() || from <= lostUpTo) {
+                return Optional.empty();
+            }
+
+            Map<String, JobManagerEvent<?>> latest = new LinkedHashMap<>();
+            events.descendingIterator().forEachRemaining(entry -> {
+                if (entry.getLeft() >= from) {
+                    JobManagerEvent<?> event = entry.getRight();
+                    latest.putIfAbsent(toKey(event), event);
+                }
+            });
+            List<JobManagerEvent<?>> result = new ArrayList<>(latest.values());
+            // Collected from the newest to the oldest.
+            Collections.reverse(result);
+            return Optional.of(result);
+        }
+    }
+
+    @VisibleForTesting
+    int size() {
+        synchronized (lock) {
+            return events.size();
+        }
+    }
+
+    private void record(JobManagerEvent<?> event) {
+        if (!(event instanceof JobUpdateEvent || event instanceof TaskUpdateEvent)) {
+            return;
+        }
+        synchronized (lock) {
+            long now = clock.wallTime();
+            events.addLast(Pair.of(now, event));
+            trim(now);
+        }
+    }
+
+    private void trim(long now) {
+        long deadline = now - retentionMs;
+        while (!events.isEmpty() && (events.size() > maxSize || events.peekFirst().getLeft() < deadline)) {
+            this.lostUpTo = events.removeFirst().getLeft();
+        }
+    }
+
+    private void reset() {
+        events.clear();
+        this.lostUpTo = Long.MAX_VALUE;
+        this.subscription = null;
+    }
+
+    private static String toKey(JobManagerEvent<?> event) {
+        if (event instanceof JobUpdateEvent) {
+            return "job/" + ((JobUpdateEvent) event).getCurrent().getId();
+        }
+        return "task/" + ((TaskUpdateEvent) event).getCurrentTask().getId();
+    }
+}
@@ -37,6 +37,9 @@ class ObserveJobsContext {
     private final GrpcObjectsCache grpcObjectsCache;
     private final Scheduler observeJobsScheduler;
     private final DefaultJobManagementServiceGrpcMetrics metrics;
+    private final int bufferSize;
+    private final ObserveJobsEventBuffer.OverflowPolicy overflowPolicy;
+    private final ObserveJobsChangeLog changeLog;
     private final TitusRuntime titusRuntime;
 
     ObserveJobsContext(V3JobOperations jobOperations,
@@ -44,12 +47,18 @@ class ObserveJobsContext {
                        GrpcObjectsCache grpcObjectsCache,
                        Scheduler observeJobsScheduler,
                        DefaultJobManagementServiceGrpcMetrics metrics,
+                       int bufferSize,
+                       ObserveJobsEventBuffer.OverflowPolicy overflowPolicy,
+                       ObserveJobsChangeLog changeLog,
                        TitusRuntime titusRuntime) {
         this.jobOperations = jobOperations;
         this.callMetadataResolver = callMetadataResolver;
         this.grpcObjectsCache = grpcObjectsCache;
         this.observeJobsScheduler = observeJobsScheduler;
         this.metrics = metrics;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.changeLog = changeLog;
         this.titusRuntime = titusRuntime;
     }
 
@@ -73,6 +82,18 @@ class ObserveJobsContext {
         return metrics;
     }
 
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public ObserveJobsEventBuffer.OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public ObserveJobsChangeLog getChangeLog() {
+        return changeLog;
+    }
+
     public TitusRuntime getTitusRuntime() {
         return titusRuntime;
     }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.endpoint.v3.grpc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+
+/**
+ * Bounded buffer of job service events waiting to be sent to a single observeJobs client. The initial snapshot is
+ * always accepted as a whole, as its size is bounded by the number of jobs and tasks. The limit is applied to the
+ * updates following the snapshot end marker. When the buffer is full, an update of a job or a task which is already
+ * buffered replaces the pending one if {@link OverflowPolicy#Coalesce} is set. In any other case the buffer
+ * overflows, and the subscription must be terminated, so the client re-subscribes and gets a new snapshot.
+ * <p>
+ * Keep alive responses are never coalesced, as moving a newer checkpoint into an older slot would acknowledge it
+ * before the events queued ahead of it are sent. A keep alive that does not fit is dropped instead, as a later
+ * checkpoint follows anyway.
+ * <p>
+ * The buffer is accessed by the job service event stream and the GRPC drain loop only, so a simple monitor is used.
+ */
+class ObserveJobsEventBuffer {
+
+    enum OverflowPolicy {
+        /**
+         * Replace a pending update of the same job or task with the latest one.
+         */
+        Coalesce,
+
+        /**
+         * Terminate the subscription, forcing the client to re-subscribe.
+         */
+        Drop;
+
+        static OverflowPolicy parse(String value) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(value)) {
+                    return policy;
+                }
+            }
+            return Coalesce;
+        }
+    }
+
+    enum OfferResult {
+        Added,
+        Coalesced,
+        Dropped,
+        Overflow
+    }
+
+    private final int maxSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Deque<Slot> slots = new ArrayDeque<>();
+    private final Map<String, Slot> slotsByKey = new HashMap<>();
+    private boolean snapshotCompleted;
+
+    ObserveJobsEventBuffer(int maxSize, OverflowPolicy overflowPolicy) {
+        this.maxSize = maxSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    synchronized OfferResult offer(JobChangeNotification event) {
+        String key = keyOf(event);
+        if (snapshotCompleted && slots.size() >= maxSize) {
+            if (overflowPolicy == OverflowPolicy.Coalesce && key != null) {
+                Slot pending = slotsByKey.get(key);
+                if (pending != null) {
+                    pending.event = event;
+                    return OfferResult.Coalesced;
+                }
+            }
+            if (event.getNotificationCase() == JobChangeNotification.NotificationCase.KEEPALIVERESPONSE) {
+                return OfferResult.Dropped;
+            }
+            return OfferResult.Overflow;
+        }
+
+        Slot slot = new Slot(key, event);
+        slots.addLast(slot);
+        if (key != null) {
+            slotsByKey.put(key, slot);
+        }
+        if (event.getNotificationCase() == JobChangeNotification.NotificationCase.SNAPSHOTEND) {
+            this.snapshotCompleted = true;
+        }
+        return OfferResult.Added;
+    }
+
+    synchronized JobChangeNotification poll() {
+        Slot slot = slots.pollFirst();
+        if (slot == null) {
+            return null;
+        }
+        if (slot.key != null) {
+            slotsByKey.remove(slot.key, slot);
+        }
+        return slot.event;
+    }
+
+    synchronized boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    synchronized void clear() {
+        slots.clear();
+        slotsByKey.clear();
+    }
+
+    private static String keyOf(JobChangeNotification event) {
+        switch (event.getNotificationCase()) {
+            case JOBUPDATE:
+                return "job/" + event.getJobUpdate().getJob().getId();
+            case TASKUPDATE:
+                return "task/" + event.getTaskUpdate().getTask().getId();
+            default:
+                return null;
+        }
+    }
+
+    private static class Slot {
+
+        private final String key;
+        private JobChangeNotification event;
+
+        private Slot(String key, JobChangeNotification event) {
+            this.key = key;
+            this.event = event;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.netflix.titus.master.jobmanager.endpoint.v3.grpc;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -30,10 +31,15 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.api.model.callmetadata.CallMetadata;
 import com.netflix.titus.api.model.callmetadata.CallMetadataConstants;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.ExceptionExt;
+import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.rx.ObservableExt;
 import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.grpc.protogen.JobChangeNotification;
@@ -56,9 +62,15 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Subscription;
 
+import static com.netflix.titus.api.jobmanager.service.JobManagerConstants.OBSERVE_JOBS_RESUME_FROM_TIMESTAMP;
+import static com.netflix.titus.api.jobmanager.service.JobManagerConstants.OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID;
 import static com.netflix.titus.master.jobmanager.endpoint.v3.grpc.ObserveJobsContext.SNAPSHOT_END_MARKER;
 import static com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobQueryModelConverters.toJobQueryCriteria;
 
+/**
+ * Job event stream for a single GRPC client. Events are buffered in a bounded {@link ObserveJobsEventBuffer}, and
+ * written to the client only when its GRPC stream is ready, so a slow client does not cause unbounded memory growth.
+ */
 class ObserveJobsSubscription {
 
     private static final Logger logger = LoggerFactory.getLogger(ObserveJobsSubscription.class);
@@ -70,13 +82,13 @@ class ObserveJobsSubscription {
 
     // GRPC channel
     private final BlockingQueue<Pair<Long, ObserveJobsWithKeepAliveRequest>> grpcClientEvents = new LinkedBlockingDeque<>();
-    private volatile StreamObserver<JobChangeNotification> grpcResponseObserver;
+    private volatile ServerCallStreamObserver<JobChangeNotification> grpcResponseObserver;
     private volatile boolean grpcStreamInitiated;
     private volatile boolean grpcSnapshotMarkerSent;
     private volatile boolean grpcStreamCancelled;
 
     // Job service
-    private final BlockingQueue<JobChangeNotification> jobServiceEvents = new LinkedBlockingDeque<>();
+    private final ObserveJobsEventBuffer jobServiceEvents;
     private volatile long lastCheckpointTimestampNano = System.nanoTime();
     private volatile Throwable jobServiceError;
     private volatile boolean jobServiceCompleted;
@@ -90,6 +102,7 @@ class ObserveJobsSubscription {
         this.metrics = context.getMetrics();
         this.titusRuntime = context.getTitusRuntime();
         this.withArchived = withArchived;
+        this.jobServiceEvents = new ObserveJobsEventBuffer(context.getBufferSize(), context.getOverflowPolicy());
     }
 
     void observeJobs(ObserveJobsQuery query, StreamObserver<JobChangeNotification> responseObserver) {
@@ -124,12 +137,14 @@ class ObserveJobsSubscription {
     }
 
     private void connect(StreamObserver<JobChangeNotification> responseObserver) {
-        this.grpcResponseObserver = responseObserver;
         ServerCallStreamObserver<JobChangeNotification> serverObserver = (ServerCallStreamObserver<JobChangeNotification>) responseObserver;
+        this.grpcResponseObserver = serverObserver;
         serverObserver.setOnCancelHandler(() -> {
             grpcStreamCancelled = true;
             drain();
         });
+        // Buffered events are written only when the GRPC transport can accept them.
+        serverObserver.setOnReadyHandler(this::drain);
     }
 
     private void drain() {
@@ -155,12 +170,13 @@ class ObserveJobsSubscription {
                 wip.lazySet(1);
 
                 if (grpcStreamInitiated || tryInitialize()) {
-                    while (true) {
+                    while (grpcResponseObserver.isReady()) {
                         boolean completed = jobServiceCompleted;
                         JobChangeNotification jobServiceEvent = jobServiceEvents.poll();
                         // We do not forward the internal keep alive / checkpoint requests, and only use it for synchronization
-                        // with the client initiated keep alive.
-                        if (jobServiceEvent != null && jobServiceEvent.getNotificationCase() == JobChangeNotification.NotificationCase.KEEPALIVERESPONSE) {
+                        // with the client initiated keep alive. The resume marker is the only keep alive sent to the client.
+                        if (jobServiceEvent != null && jobServiceEvent.getNotificationCase() == JobChangeNotification.NotificationCase.KEEPALIVERESPONSE
+                                && !isResumeMarker(jobServiceEvent)) {
                             if (grpcSnapshotMarkerSent) {
                                 this.lastCheckpointTimestampNano = jobServiceEvent.getKeepAliveResponse().getTimestamp();
                             }
@@ -199,7 +215,19 @@ class ObserveJobsSubscription {
 
         String trxId = UUID.randomUUID().toString();
         CallMetadata callMetadata = context.getCallMetadataResolver().resolve().orElse(CallMetadataConstants.UNDEFINED_CALL_METADATA);
-        metrics.observeJobsStarted(trxId, callMetadata);
+        metrics.observeJobsStarted(trxId, callMetadata, jobServiceEvents::size);
+
+        // The resume checkpoint is not a filter, so we take it out of the query. Only unfiltered streams can be resumed.
+        Optional<Long> resumeFrom = Optional.empty();
+        if (query.containsFilteringCriteria(OBSERVE_JOBS_RESUME_FROM_TIMESTAMP)) {
+            resumeFrom = StringExt.parseLong(query.getFilteringCriteriaOrThrow(OBSERVE_JOBS_RESUME_FROM_TIMESTAMP));
+            query = query.toBuilder().removeFilteringCriteria(OBSERVE_JOBS_RESUME_FROM_TIMESTAMP).build();
+        }
+        boolean resumable = query.getFilteringCriteriaCount() == 0;
+        if (resumable) {
+            context.getChangeLog().activate();
+        }
+        Optional<Long> resumeFromTimestamp = resumable ? resumeFrom : Optional.empty();
 
         JobQueryCriteria<TaskStatus.TaskState, JobDescriptor.JobSpecCase> criteria = toJobQueryCriteria(query);
         V3JobQueryCriteriaEvaluator jobsPredicate = new V3JobQueryCriteriaEvaluator(criteria, titusRuntime);
@@ -213,7 +241,9 @@ class ObserveJobsSubscription {
                 .subscribeOn(context.getObserveJobsScheduler(), false)
                 .map(event -> GrpcJobManagementModelConverters.toGrpcJobChangeNotification(event, context.getGrpcObjectsCache(), titusRuntime.getClock().wallTime()))
                 .compose(ObservableExt.head(() -> {
-                    List<JobChangeNotification> snapshot = createJobsSnapshot(jobsPredicate, tasksPredicate);
+                    List<JobChangeNotification> snapshot = resumeFromTimestamp
+                            .flatMap(timestamp -> createResumeSnapshot(trxId, timestamp))
+                            .orElseGet(() -> createJobsSnapshot(jobsPredicate, tasksPredicate));
                     snapshot.add(SNAPSHOT_END_MARKER);
                     return snapshot;
                 }))
@@ -229,7 +259,16 @@ class ObserveJobsSubscription {
                 .subscribe(
                         event -> {
                             metrics.observeJobsEventEmitted(trxId);
-                            jobServiceEvents.add(event);
+                            ObserveJobsEventBuffer.OfferResult result = jobServiceEvents.offer(event);
+                            if (result == ObserveJobsEventBuffer.OfferResult.Coalesced) {
+                                metrics.observeJobsEventsCoalesced(trxId);
+                            } else if (result == ObserveJobsEventBuffer.OfferResult.Overflow && !jobServiceCompleted) {
+                                metrics.observeJobsBufferOverflow(trxId);
+                                logger.warn("Job event buffer overflow, terminating the subscription: trxId={}, bufferSize={}", trxId, context.getBufferSize());
+                                jobServiceError = new StatusRuntimeException(Status.RESOURCE_EXHAUSTED
+                                        .withDescription("Client is too slow to consume the job event stream. Subscribe again to receive a new snapshot"));
+                                jobServiceCompleted = true;
+                            }
                             drain();
                         },
                         e -> {
@@ -305,6 +344,7 @@ class ObserveJobsSubscription {
         if (isDone) {
             Throwable e = jobServiceError;
             if (e != null) {
+                ObservableExt.safeUnsubscribe(jobServiceSubscription);
                 jobServiceEvents.clear();
                 ExceptionExt.silent(() -> grpcResponseObserver.onError(e));
                 return true;
@@ -341,6 +381,71 @@ class ObserveJobsSubscription {
         return snapshot;
     }
 
+    /**
+     * Creates the resume marker, followed by the latest version of each job and task changed since the client
+     * checkpoint. Jobs and tasks that no longer exist are sent in their final state, with removed jobs placed last,
+     * so their tasks are handled first. The marker is a part of the snapshot, which is not limited by the buffer, and
+     * as keep alive responses are never coalesced, a later checkpoint cannot take its place.
+     */
+    private Optional<List<JobChangeNotification>> createResumeSnapshot(String trxId, long resumeFrom) {
+        Optional<List<JobManagerEvent<?>>> changesOpt = context.getChangeLog().findChangesSince(resumeFrom);
+        metrics.observeJobsResumeRequested(trxId, changesOpt.isPresent());
+        if (!changesOpt.isPresent()) {
+            logger.info("Cannot resume the job event stream from the client checkpoint, sending the full snapshot: trxId={}, resumeFrom={}", trxId, resumeFrom);
+            return Optional.empty();
+        }
+        List<JobManagerEvent<?>> changes = changesOpt.get();
+        logger.info("Resuming the job event stream from the client checkpoint: trxId={}, resumeFrom={}, changes={}", trxId, resumeFrom, changes.size());
+
+        long now = titusRuntime.getClock().wallTime();
+        V3JobOperations jobOperations = context.getJobOperations();
+        List<JobChangeNotification> jobUpdates = new ArrayList<>();
+        List<JobChangeNotification> taskUpdates = new ArrayList<>();
+        List<JobChangeNotification> removedJobs = new ArrayList<>();
+        for (JobManagerEvent<?> event : changes) {
+            if (event instanceof JobUpdateEvent) {
+                Optional<Job<?>> current = jobOperations.getJob(((JobUpdateEvent) event).getCurrent().getId());
+                if (current.isPresent()) {
+                    jobUpdates.add(context.toJobChangeNotification(current.get(), now));
+                } else {
+                    removedJobs.add(toFinalStateNotification(event, now));
+                }
+            } else if (event instanceof TaskUpdateEvent) {
+                Optional<Pair<Job<?>, Task>> current = jobOperations.findTaskById(((TaskUpdateEvent) event).getCurrentTask().getId());
+                if (current.isPresent()) {
+                    taskUpdates.add(context.toJobChangeNotification(current.get().getRight(), now));
+                } else {
+                    taskUpdates.add(toFinalStateNotification(event, now));
+                }
+            }
+        }
+
+        List<JobChangeNotification> snapshot = new ArrayList<>(1 + jobUpdates.size() + taskUpdates.size() + removedJobs.size() + 1);
+        snapshot.add(toGrpcKeepAliveResponse(KeepAliveRequest.newBuilder()
+                .setRequestId(OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID)
+                .setTimestamp(resumeFrom)
+                .build()
+        ));
+        snapshot.addAll(jobUpdates);
+        snapshot.addAll(taskUpdates);
+        snapshot.addAll(removedJobs);
+        return Optional.of(snapshot);
+    }
+
+    private JobChangeNotification toFinalStateNotification(JobManagerEvent<?> event, long now) {
+        if (withArchived && event.isArchived()) {
+            return GrpcJobManagementModelConverters.toGrpcJobChangeNotification(event, context.getGrpcObjectsCache(), now);
+        }
+        if (event instanceof JobUpdateEvent) {
+            return context.toJobChangeNotification(((JobUpdateEvent) event).getCurrent(), now);
+        }
+        return context.toJobChangeNotification(((TaskUpdateEvent) event).getCurrentTask(), now);
+    }
+
+    private static boolean isResumeMarker(JobChangeNotification event) {
+        return event.getKeepAliveResponse().getRequest().getRequestId() == OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID;
+    }
+
     private JobChangeNotification toGrpcKeepAliveResponse(KeepAliveRequest keepAliveRequest) {
         return JobChangeNotification.newBuilder()
                 .setKeepAliveResponse(KeepAliveResponse.newBuilder()
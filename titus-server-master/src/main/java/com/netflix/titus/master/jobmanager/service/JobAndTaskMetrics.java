@@ -19,10 +19,10 @@ package com.netflix.titus.master.jobmanager.service;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -34,17 +34,15 @@ import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.titus.api.jobmanager.model.job.Job;
-import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
-import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.api.model.ApplicationSLA;
 import com.netflix.titus.api.model.Tier;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.DateTimeExt;
-import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.histogram.Histogram;
 import com.netflix.titus.common.util.histogram.HistogramDescriptor;
@@ -59,8 +57,10 @@ import rx.Subscription;
 import rx.schedulers.Schedulers;
 
 /**
- * Supplementary metrics based on both job/task state, and elapsed time. These metrics cannot be computed only
- * in response to system state change events. Instead, they are recomputed at regular interval.
+ * Supplementary metrics based on both job/task state, and elapsed time. Job and task counters are maintained
+ * incrementally from the job manager events (see {@link JobAndTaskMetricsTracker}). The time in state histograms
+ * cannot be computed only in response to system state change events. Instead, they are recomputed at regular interval
+ * from the tracked state. The tracked state is periodically reconciled with the job manager to correct any drift.
  * <p>
  */
 @Singleton
@@ -75,6 +75,8 @@ public class JobAndTaskMetrics {
     private static final String TASK_IN_STATE_METRIC_NAME = TASK_IN_STATE_ROOT_METRIC_NAME + "duration";
     private static final String TASK_STATE_CHANGE_METRIC_NAME = MetricConstants.METRIC_ROOT + "jobManager.taskStateUpdates";
 
+    private static final String METRICS_RECONCILIATION_METRIC_NAME = MetricConstants.METRIC_ROOT + "jobManager.metricsReconciliation";
+
     private static final List<String> TRACKED_STATES = Arrays.asList(
             TaskState.Accepted.name(),
             TaskState.Launched.name(),
@@ -83,6 +85,14 @@ public class JobAndTaskMetrics {
             TaskState.KillInitiated.name()
     );
 
+    private static final Set<TaskState> TRACKED_TASK_STATES = EnumSet.of(
+            TaskState.Accepted,
+            TaskState.Launched,
+            TaskState.StartInitiated,
+            TaskState.Started,
+            TaskState.KillInitiated
+    );
+
     private static final HistogramDescriptor HISTOGRAM_DESCRIPTOR = HistogramDescriptor.histogramOf(
             TimeUnit.MINUTES.toMillis(1),
             TimeUnit.MINUTES.toMillis(15),
@@ -102,13 +112,22 @@ public class JobAndTaskMetrics {
     private final JobManagerConfiguration configuration;
     private final Registry registry;
 
+    private final JobAndTaskMetricsTracker tracker = new JobAndTaskMetricsTracker();
+
     private final Map<String, Map<String, List<Gauge>>> capacityGroupsMetrics = new HashMap<>();
     private final Id jobCountLimitId;
-    private final Id jobCountId;
-    private final Id taskCountId;
+    private final Gauge emptyJobsGauge;
+    private final Gauge serviceJobsGauge;
+    private final Gauge batchJobsGauge;
+    private final Gauge tasksWithPodGauge;
+    private final Gauge tasksWithoutPodGauge;
+    private final Gauge tasksNotOwnedByKubeSchedulerGauge;
+    private final Id driftId;
 
     private Subscription taskLivenessRefreshSubscription;
     private Subscription taskStateUpdateSubscription;
+    private Subscription reconciliationSubscription;
+    private boolean initialized;
 
     @Inject
     public JobAndTaskMetrics(ApplicationSlaManagementService applicationSlaManagementService,
@@ -121,8 +140,30 @@ public class JobAndTaskMetrics {
         this.registry = registry;
 
         this.jobCountLimitId = registry.createId(JOBS_LIMIT_METRIC_NAME);
-        this.jobCountId = registry.createId(JOBS_METRIC_NAME);
-        this.taskCountId = registry.createId(TASKS_METRIC_NAME);
+
+        Id jobCountId = registry.createId(JOBS_METRIC_NAME);
+        this.emptyJobsGauge = registry.gauge(jobCountId.withTag("emptyJobs", "true"));
+        this.serviceJobsGauge = registry.gauge(jobCountId.withTags(
+                "jobType", "service",
+                "kubeScheduler", "true"
+        ));
+        this.batchJobsGauge = registry.gauge(jobCountId.withTags(
+                "jobType", "batch",
+                "kubeScheduler", "true"
+        ));
+
+        Id taskCountId = registry.createId(TASKS_METRIC_NAME);
+        this.tasksWithPodGauge = registry.gauge(taskCountId.withTags(
+                "kubeScheduler", "true",
+                "podCreated", "true"
+        ));
+        this.tasksWithoutPodGauge = registry.gauge(taskCountId.withTags(
+                "kubeScheduler", "true",
+                "podCreated", "false"
+        ));
+        this.tasksNotOwnedByKubeSchedulerGauge = registry.gauge(taskCountId.withTag("kubeScheduler", "false"));
+
+        this.driftId = registry.createId(METRICS_RECONCILIATION_METRIC_NAME + ".drift");
     }
 
     @Activator
@@ -132,13 +173,29 @@ public class JobAndTaskMetrics {
         this.taskStateUpdateSubscription = v3JobOperations.observeJobs().subscribe(
                 event -> {
                     if (event instanceof TaskUpdateEvent) {
-                        updateTaskMetrics((TaskUpdateEvent) event);
+                        TaskUpdateEvent taskUpdateEvent = (TaskUpdateEvent) event;
+                        tracker.onTaskUpdate(taskUpdateEvent.getCurrentJob(), taskUpdateEvent.getCurrentTask(), taskUpdateEvent.isArchived());
+                        updateTaskMetrics(taskUpdateEvent);
+                        updateCounts();
+                    } else if (event instanceof JobUpdateEvent) {
+                        JobUpdateEvent jobUpdateEvent = (JobUpdateEvent) event;
+                        tracker.onJobUpdate(jobUpdateEvent.getCurrent(), jobUpdateEvent.isArchived());
+                        updateCounts();
                     }
                 },
                 e -> logger.error("Event stream terminated with an error", e),
                 () -> logger.info("Event stream completed")
         );
 
+        // The event stream does not include the current state, so the reconciliation runs immediately after subscription.
+        long reconciliationIntervalMs = Math.max(intervalMs, configuration.getMetricsReconciliationIntervalMs());
+        this.reconciliationSubscription = ObservableExt.schedule(
+                METRICS_RECONCILIATION_METRIC_NAME + ".scheduler", registry, "JobAndTaskMetricsReconciliationAction",
+                Completable.fromAction(this::reconcile), 0, reconciliationIntervalMs, TimeUnit.MILLISECONDS, Schedulers.computation()
+        ).subscribe(result ->
+                result.ifPresent(error -> logger.warn("Job and task metrics reconciliation error", error))
+        );
+
         this.taskLivenessRefreshSubscription = ObservableExt.schedule(
                 TASK_IN_STATE_ROOT_METRIC_NAME + "scheduler", registry, "TaskLivenessRefreshAction",
                 Completable.fromAction(this::refresh), intervalMs, intervalMs, TimeUnit.MILLISECONDS, Schedulers.computation()
@@ -149,7 +206,7 @@ public class JobAndTaskMetrics {
 
     @PreDestroy
     public void shutdown() {
-        ObservableExt.safeUnsubscribe(taskStateUpdateSubscription, taskLivenessRefreshSubscription);
+        ObservableExt.safeUnsubscribe(taskStateUpdateSubscription, taskLivenessRefreshSubscription, reconciliationSubscription);
         registry.gauge(jobCountLimitId).set(0);
     }
 
@@ -167,18 +224,26 @@ public class JobAndTaskMetrics {
         ).increment();
     }
 
+    private void reconcile() {
+        int drift = tracker.reconcile(v3JobOperations::getJobsAndTasks);
+        registry.gauge(driftId).set(initialized ? drift : 0);
+        if (drift > 0) {
+            // The first reconciliation loads the initial state, so it is not a drift.
+            if (initialized) {
+                logger.info("Corrected job and task metrics drift: {} jobs/tasks out of sync", drift);
+            }
+            updateCounts();
+        }
+        initialized = true;
+    }
+
     private void refresh() {
         Map<String, Tier> tierMap = buildTierMap();
 
-        List<Pair<Job, List<Task>>> jobsAndTasks = v3JobOperations.getJobsAndTasks();
-        List<Job> jobs = v3JobOperations.getJobs();
-        List<Task> tasks = v3JobOperations.getTasks();
-
         registry.gauge(jobCountLimitId).set(configuration.getMaxActiveJobs());
-        updateJobCounts(jobsAndTasks);
-        updateTaskCounts(tasks);
+        updateCounts();
 
-        Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = buildCapacityGroupsHistograms(tierMap.keySet(), jobs);
+        Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = buildCapacityGroupsHistograms(tierMap.keySet());
         resetDroppedCapacityGroups(capacityGroupsHistograms.keySet());
         updateCapacityGroupCounters(capacityGroupsHistograms, tierMap);
     }
@@ -247,111 +312,38 @@ public class JobAndTaskMetrics {
         return gauges;
     }
 
-    /**
-     * Traverse all active jobs and update the count metrics
-     */
-    private void updateJobCounts(List<Pair<Job, List<Task>>> jobsAndTasks) {
-        int emptyJobs = 0;
-        int serviceJobsOwnedByKubeScheduler = 0;
-        int batchJobsOwnedByKubeScheduler = 0;
-
-        for (Pair<Job, List<Task>> jobAndTasks : jobsAndTasks) {
-            Job job = jobAndTasks.getLeft();
-            List<Task> tasks = jobAndTasks.getRight();
-
-            if (JobFunctions.getJobDesiredSize(job) == 0) {
-                emptyJobs++;
-            } else {
-                boolean serviceJob = JobFunctions.isServiceJob(job);
-                if (serviceJob) {
-                    serviceJobsOwnedByKubeScheduler++;
-                } else {
-                    batchJobsOwnedByKubeScheduler++;
-                }
-            }
-        }
-
-        registry.gauge(jobCountId.withTag("emptyJobs", "true")).set(emptyJobs);
-
-        registry.gauge(jobCountId.withTags(
-                "jobType", "service",
-                "kubeScheduler", "true"
-        )).set(serviceJobsOwnedByKubeScheduler);
-
-        registry.gauge(jobCountId.withTags(
-                "jobType", "batch",
-                "kubeScheduler", "true"
-        )).set(batchJobsOwnedByKubeScheduler);
-    }
-
-    /**
-     * Traverse all tasks and update the count metrics
-     */
-    private void updateTaskCounts(List<Task> tasks) {
-        int tasksOwnedByKubeScheduler = 0;
-        int tasksWithPodCreated = 0;
-        for (Task task : tasks) {
-            tasksOwnedByKubeScheduler++;
-            if (TaskStatus.hasPod(task)) {
-                tasksWithPodCreated++;
-            }
-        }
-        registry.gauge(taskCountId.withTags(
-                "kubeScheduler", "true",
-                "podCreated", "true"
-        )).set(tasksWithPodCreated);
-        registry.gauge(taskCountId.withTags(
-                "kubeScheduler", "true",
-                "podCreated", "false"
-        )).set(tasksOwnedByKubeScheduler - tasksWithPodCreated);
+    private void updateCounts() {
+        emptyJobsGauge.set(tracker.getEmptyJobs());
+        serviceJobsGauge.set(tracker.getServiceJobs());
+        batchJobsGauge.set(tracker.getBatchJobs());
 
-        registry.gauge(taskCountId.withTag("kubeScheduler", "false")).set(tasks.size() - tasksOwnedByKubeScheduler);
+        // All tasks are owned by the Kube scheduler.
+        int tasksWithPodCreated = tracker.getTasksWithPodCreated();
+        tasksWithPodGauge.set(tasksWithPodCreated);
+        tasksWithoutPodGauge.set(tracker.getTasks() - tasksWithPodCreated);
+        tasksNotOwnedByKubeSchedulerGauge.set(0);
     }
 
     /**
-     * Traverse all active tasks and collect their state and the time they stayed in this state (the latter in form of histogram).
+     * Collect the state of all tracked tasks, and the time they stayed in this state (the latter in form of histogram).
+     * Tasks in unknown capacity groups are assigned to the default one.
      *
      * @return mapOf(capacityGroupName - > mapOf ( taskState, histogram))
      */
-    private Map<String, Map<String, Histogram.Builder>> buildCapacityGroupsHistograms(Set<String> capacityGroups, List<Job> jobs) {
+    private Map<String, Map<String, Histogram.Builder>> buildCapacityGroupsHistograms(Set<String> capacityGroups) {
         Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = newCapacityHistograms(capacityGroups);
-        jobs.forEach(job -> resolveCapacityGroup(job, capacityGroupsHistograms).ifPresent(capacityGroup ->
-                buildCapacityGroupHistogram(job, capacityGroup, capacityGroupsHistograms)
-        ));
-        return capacityGroupsHistograms;
-    }
-
-    private void buildCapacityGroupHistogram(Job<?> job, String capacityGroup, Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms) {
-        // 'capacityGroupsHistograms' is pre-initialized, but to avoid race condition we make extra check here.
-        Map<String, Histogram.Builder> capacityGroupHistograms = capacityGroupsHistograms.computeIfAbsent(capacityGroup, k -> new HashMap<>());
-        List<Task> tasks;
-        try {
-            tasks = v3JobOperations.getTasks(job.getId());
-        } catch (Exception e) {
-            // We work on live data, which may be removed at any point in time.
-            return;
-        }
-        tasks.forEach(task -> {
-            long timestamp = task.getStatus().getTimestamp();
+        long now = System.currentTimeMillis();
+        tracker.forEachTaskInState(TRACKED_TASK_STATES, (capacityGroup, state, timestamp) -> {
             if (timestamp > 0) {
-                long durationMs = System.currentTimeMillis() - timestamp;
-                capacityGroupHistograms.computeIfAbsent(
-                        task.getStatus().getState().name(),
-                        name -> Histogram.newBuilder(HISTOGRAM_DESCRIPTOR)
-                ).increment(durationMs);
+                String resolved = capacityGroupsHistograms.containsKey(capacityGroup)
+                        ? capacityGroup
+                        : ApplicationSlaManagementService.DEFAULT_APPLICATION;
+                capacityGroupsHistograms.computeIfAbsent(resolved, k -> new HashMap<>())
+                        .computeIfAbsent(state.name(), name -> Histogram.newBuilder(HISTOGRAM_DESCRIPTOR))
+                        .increment(now - timestamp);
             }
         });
-    }
-
-    private Optional<String> resolveCapacityGroup(Job<?> job, Map<String, Map<String, Histogram.Builder>> capacityHistograms) {
-        String capacityGroup = job.getJobDescriptor().getCapacityGroup();
-        if (StringExt.isEmpty(capacityGroup)) {
-            capacityGroup = job.getJobDescriptor().getApplicationName();
-        }
-        if (StringExt.isEmpty(capacityGroup)) {
-            return Optional.of(ApplicationSlaManagementService.DEFAULT_APPLICATION);
-        }
-        return Optional.of(capacityHistograms.containsKey(capacityGroup) ? capacityGroup : ApplicationSlaManagementService.DEFAULT_APPLICATION);
+        return capacityGroupsHistograms;
     }
 
     private Map<String, Tier> buildTierMap() {
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.common.util.StringExt;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
+
+/**
+ * Job and task counters maintained incrementally from the job manager events, used by {@link JobAndTaskMetrics}.
+ * Tasks are also grouped by their capacity group and state, so the task liveness histograms can be computed without
+ * walking all jobs and tasks in the job manager. As events may be missed (for example during subscription), the
+ * state is periodically rebuilt from the job manager with {@link #reconcile(Supplier)}.
+ */
+class JobAndTaskMetricsTracker {
+
+    interface TaskInStateConsumer {
+        void accept(String capacityGroup, TaskState state, long timestamp);
+    }
+
+    private final Map<String, JobEntry> jobs = new HashMap<>();
+    private final Map<String, TaskEntry> tasks = new HashMap<>();
+    private final Map<String, Map<TaskState, Map<String, Long>>> taskTimestampsByCapacityGroupAndState = new HashMap<>();
+
+    private int emptyJobs;
+    private int serviceJobs;
+    private int batchJobs;
+    private int tasksWithPodCreated;
+
+    synchronized void onJobUpdate(Job<?> job, boolean archived) {
+        removeJob(job.getId());
+        if (!archived) {
+            addJob(job.getId(), new JobEntry(job));
+        }
+    }
+
+    synchronized void onTaskUpdate(Job<?> job, Task task, boolean archived) {
+        removeTask(task.getId());
+        if (!archived) {
+            addTask(task.getId(), new TaskEntry(job, task));
+        }
+    }
+
+    /**
+     * Replaces the current state with the one computed from the job manager data. The job manager snapshot is taken
+     * with the lock held, so no event update applied in the meantime is overwritten by older data.
+     *
+     * @return number of jobs and tasks for which the incrementally maintained state was out of sync
+     */
+    synchronized int reconcile(Supplier<List<Pair<Job, List<Task>>>> jobsAndTasksSupplier) {
+        List<Pair<Job, List<Task>>> jobsAndTasks = jobsAndTasksSupplier.get();
+        Map<String, JobEntry> newJobs = new HashMap<>();
+        Map<String, TaskEntry> newTasks = new HashMap<>();
+        for (Pair<Job, List<Task>> jobAndTasks : jobsAndTasks) {
+            Job<?> job = jobAndTasks.getLeft();
+            newJobs.put(job.getId(), new JobEntry(job));
+            for (Task task : jobAndTasks.getRight()) {
+                newTasks.put(task.getId(), new TaskEntry(job, task));
+            }
+        }
+
+        int drift = countDifferences(jobs, newJobs) + countDifferences(tasks, newTasks);
+        if (drift > 0) {
+            jobs.clear();
+            tasks.clear();
+            taskTimestampsByCapacityGroupAndState.clear();
+            emptyJobs = 0;
+            serviceJobs = 0;
+            batchJobs = 0;
+            tasksWithPodCreated = 0;
+            newJobs.forEach(this::addJob);
+            newTasks.forEach(this::addTask);
+        }
+        return drift;
+    }
+
+    synchronized int getEmptyJobs() {
+        return emptyJobs;
+    }
+
+    synchronized int getServiceJobs() {
+        return serviceJobs;
+    }
+
+    synchronized int getBatchJobs() {
+        return batchJobs;
+    }
+
+    synchronized int getTasks() {
+        return tasks.size();
+    }
+
+    synchronized int getTasksWithPodCreated() {
+        return tasksWithPodCreated;
+    }
+
+    /**
+     * Visits all tasks in the given states. The capacity group is the one set in the job descriptor (or the
+     * application name if not set), and may not be a known capacity group.
+     */
+    synchronized void forEachTaskInState(Set<TaskState> states, TaskInStateConsumer consumer) {
+        taskTimestampsByCapacityGroupAndState.forEach((capacityGroup, byState) -> byState.forEach((state, timestamps) -> {
+            if (states.contains(state)) {
+                timestamps.values().forEach(timestamp -> consumer.accept(capacityGroup, state, timestamp));
+            }
+        }));
+    }
+
+    private void addJob(String jobId, JobEntry entry) {
+        jobs.put(jobId, entry);
+        updateJobCounters(entry, 1);
+    }
+
+    private void removeJob(String jobId) {
+        JobEntry entry = jobs.remove(jobId);
+        if (entry != null) {
+            updateJobCounters(entry, -1);
+        }
+    }
+
+    private void updateJobCounters(JobEntry entry, int delta) {
+        if (entry.empty) {
+            emptyJobs += delta;
+        } else if (entry.service) {
+            serviceJobs += delta;
+        } else {
+            batchJobs += delta;
+        }
+    }
+
+    private void addTask(String taskId, TaskEntry entry) {
+        tasks.put(taskId, entry);
+        if (entry.podCreated) {
+            tasksWithPodCreated++;
+        }
+        taskTimestampsByCapacityGroupAndState
+                .computeIfAbsent(entry.capacityGroup, k -> new HashMap<>())
+                .computeIfAbsent(entry.state, k -> new HashMap<>())
+                .put(taskId, entry.timestamp);
+    }
+
+    private void removeTask(String taskId) {
+        TaskEntry entry = tasks.remove(taskId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.podCreated) {
+            tasksWithPodCreated--;
+        }
+        Map<TaskState, Map<String, Long>> byState = taskTimestampsByCapacityGroupAndState.get(entry.capacityGroup);
+        if (byState != null) {
+            Map<String, Long> timestamps = byState.get(entry.state);
+            if (timestamps != null) {
+                timestamps.remove(taskId);
+                if (timestamps.isEmpty()) {
+                    byState.remove(entry.state);
+                    if (byState.isEmpty()) {
+                        taskTimestampsByCapacityGroupAndState.remove(entry.capacityGroup);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <V> int countDifferences(Map<String, V> current, Map<String, V> expected) {
+        int differences = 0;
+        for (Map.Entry<String, V> entry : expected.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                differences++;
+            }
+        }
+        for (String key : current.keySet()) {
+            if (!expected.containsKey(key)) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    private static String getCapacityGroup(Job<?> job) {
+        String capacityGroup = job.getJobDescriptor().getCapacityGroup();
+        if (StringExt.isEmpty(capacityGroup)) {
+            capacityGroup = job.getJobDescriptor().getApplicationName();
+        }
+        return StringExt.isEmpty(capacityGroup) ? ApplicationSlaManagementService.DEFAULT_APPLICATION : capacityGroup;
+    }
+
+    private static class JobEntry {
+
+        private final boolean empty;
+        private final boolean service;
+
+        private JobEntry(Job<?> job) {
+            this.empty = JobFunctions.getJobDesiredSize(job) == 0;
+            this.service = JobFunctions.isServiceJob(job);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JobEntry jobEntry = (JobEntry) o;
+            return empty == jobEntry.empty && service == jobEntry.service;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(empty, service);
+        }
+    }
+
+    private static class TaskEntry {
+
+        private final String capacityGroup;
+        private final TaskState state;
+        private final long timestamp;
+        private final boolean podCreated;
+
+        private TaskEntry(Job<?> job, Task task) {
+            this.capacityGroup = getCapacityGroup(job);
+            this.state = task.getStatus().getState();
+            this.timestamp = task.getStatus().getTimestamp();
+            this.podCreated = TaskStatus.hasPod(task);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TaskEntry taskEntry = (TaskEntry) o;
+            return timestamp == taskEntry.timestamp && podCreated == taskEntry.podCreated
+                    && Objects.equals(capacityGroup, taskEntry.capacityGroup) && state == taskEntry.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(capacityGroup, state, timestamp, podCreated);
+        }
+    }
+}
@@ -34,6 +34,14 @@ public interface JobManagerConfiguration {
     @DefaultValue("1")
     long getReconcilerActiveTimeoutMs();
 
+    /**
+     * If greater than zero, each reconciliation loop iteration processes only the jobs with pending work, split into
+     * this number of partitions processed in parallel. All jobs are still processed every
+     * {@link #getReconcilerIdleTimeoutMs()}. Set to zero to process all jobs in each iteration on a single thread.
+     */
+    @DefaultValue("0")
+    int getReconcilerLoopPartitions();
+
     @DefaultValue("10")
     long getCheckpointIntervalMs();
 
@@ -97,6 +105,13 @@ public interface JobManagerConfiguration {
     @DefaultValue("10000")
     long getTaskLivenessPollerIntervalMs();
 
+    /**
+     * Job and task metrics are maintained incrementally from the job manager events. This is the interval at which
+     * they are rebuilt from the job manager state, to correct any drift.
+     */
+    @DefaultValue("300000")
+    long getMetricsReconciliationIntervalMs();
+
     /**
      * Feature flag controlling job/task validation process.
      */
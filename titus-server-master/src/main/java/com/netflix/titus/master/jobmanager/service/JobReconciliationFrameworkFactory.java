@@ -16,13 +16,13 @@
 
 package com.netflix.titus.master.jobmanager.service;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -176,22 +176,7 @@ public class JobReconciliationFrameworkFactory {
     }
 
     ReconciliationFramework<JobManagerReconcilerEvent> newInstance() {
-        List<Pair<Job, List<Task>>> jobsAndTasks = loadJobsAndTasksFromStore(errorCollector);
-
-        // initialize fenzo with running tasks
-        List<InternalReconciliationEngine<JobManagerReconcilerEvent>> engines = new ArrayList<>();
-        for (Pair<Job, List<Task>> pair : jobsAndTasks) {
-            Job job = pair.getLeft();
-            List<Task> tasks = pair.getRight();
-            InternalReconciliationEngine<JobManagerReconcilerEvent> engine = newRestoredEngine(job, tasks);
-            engines.add(engine);
-            for (Task task : tasks) {
-                Optional<Task> validatedTask = validateTask(task);
-                if (!validatedTask.isPresent()) {
-                    errorCollector.invalidTaskRecord(task.getId());
-                }
-            }
-        }
+        List<InternalReconciliationEngine<JobManagerReconcilerEvent>> engines = loadEnginesFromStore(errorCollector);
 
         errorCollector.failIfTooManyBadRecords();
 
@@ -203,6 +188,7 @@ public class JobReconciliationFrameworkFactory {
                 jobManagerConfiguration.getCheckpointIntervalMs(),
                 INDEX_COMPARATORS,
                 JOB_EVENT_FACTORY,
+                jobManagerConfiguration.getReconcilerLoopPartitions(),
                 registry,
                 optionalScheduler
         );
@@ -264,53 +250,67 @@ public class JobReconciliationFrameworkFactory {
         return true;
     }
 
-    private List<Pair<Job, List<Task>>> loadJobsAndTasksFromStore(InitializationErrorCollector errorCollector) {
+    /**
+     * Jobs are streamed from the store in batches. Tasks of a job are fetched as soon as its job record is loaded,
+     * and the reconciliation engine is created as soon as all its tasks are available. This way the store queries run
+     * in parallel, and the bootstrap process does not hold the whole data set in intermediate collections.
+     */
+    private List<InternalReconciliationEngine<JobManagerReconcilerEvent>> loadEnginesFromStore(InitializationErrorCollector errorCollector) {
         long startTime = clock.wallTime();
 
-        // load all job/task pairs
-        List<Pair<Job, Pair<List<Task>, Integer>>> jobTasksPairs;
+        AtomicInteger jobCount = new AtomicInteger();
+        AtomicInteger taskCount = new AtomicInteger();
+        List<InternalReconciliationEngine<JobManagerReconcilerEvent>> engines;
         try {
-            jobTasksPairs = store.init().andThen(store.retrieveJobs().flatMap(retrievedJobsAndErrors -> {
-                errorCollector.corruptedJobRecords(retrievedJobsAndErrors.getRight());
-
-                List<Job<?>> retrievedJobs = retrievedJobsAndErrors.getLeft();
-                List<Observable<Pair<Job, Pair<List<Task>, Integer>>>> retrieveTasksObservables = new ArrayList<>();
-                for (Job job : retrievedJobs) {
-                    // TODO Finished jobs that were not archived immediately should be archived by background archive process
-                    if (job.getStatus().getState() == JobState.Finished) {
-                        logger.info("Not loading finished job: {}", job.getId());
-                        continue;
-                    }
-
-                    Optional<Job> validatedJob = validateJob(job);
-                    if (validatedJob.isPresent()) {
-                        Observable<Pair<Job, Pair<List<Task>, Integer>>> retrieveTasksObservable = store.retrieveTasksForJob(job.getId())
-                                .map(taskList -> new Pair<>(validatedJob.get(), taskList));
-                        retrieveTasksObservables.add(retrieveTasksObservable);
-                    } else {
-                        errorCollector.invalidJob(job.getId());
-                    }
-                }
-                return Observable.merge(retrieveTasksObservables, MAX_RETRIEVE_TASK_CONCURRENCY);
-            })).toList().toBlocking().singleOrDefault(Collections.emptyList());
-
-            int corruptedTaskRecords = jobTasksPairs.stream().mapToInt(p -> p.getRight().getRight()).sum();
-            errorCollector.corruptedTaskRecords(corruptedTaskRecords);
-
-            int taskCount = jobTasksPairs.stream().map(p -> p.getRight().getLeft().size()).reduce(0, (a, v) -> a + v);
-            loadedJobs.set(jobTasksPairs.size());
-            loadedTasks.set(taskCount);
-
-            for (Pair<Job, Pair<List<Task>, Integer>> jobTaskPair : jobTasksPairs) {
-                Job job = jobTaskPair.getLeft();
-                List<Task> tasks = jobTaskPair.getRight().getLeft();
-                List<String> taskStrings = tasks.stream()
-                        .map(t -> String.format("<%s,ks:%s>", t.getId(), t.getStatus().getState()))
-                        .collect(Collectors.toList());
-                logger.info("Loaded job: {} with tasks: {}", job.getId(), taskStrings);
-            }
-
-            logger.info("{} jobs and {} tasks loaded from store in {}ms", jobTasksPairs.size(), taskCount, clock.wallTime() - startTime);
+            engines = store.init().andThen(store.retrieveJobsInBatches()
+                    .flatMapIterable(retrievedJobsAndErrors -> {
+                        errorCollector.corruptedJobRecords(retrievedJobsAndErrors.getRight());
+                        return retrievedJobsAndErrors.getLeft();
+                    })
+                    .flatMap(job -> {
+                        Observable<Pair<Job, Pair<List<Task>, Integer>>> noResult = Observable.empty();
+
+                        // TODO Finished jobs that were not archived immediately should be archived by background archive process
+                        if (job.getStatus().getState() == JobState.Finished) {
+                            logger.info("Not loading finished job: {}", job.getId());
+                            return noResult;
+                        }
+
+                        Optional<Job> validatedJob = validateJob(job);
+                        if (!validatedJob.isPresent()) {
+                            errorCollector.invalidJob(job.getId());
+                            return noResult;
+                        }
+                        return store.retrieveTasksForJob(job.getId()).map(taskList -> Pair.of(validatedJob.get(), taskList));
+                    }, MAX_RETRIEVE_TASK_CONCURRENCY)
+                    .map(jobTaskPair -> {
+                        Job job = jobTaskPair.getLeft();
+                        List<Task> tasks = jobTaskPair.getRight().getLeft();
+                        errorCollector.corruptedTaskRecords(jobTaskPair.getRight().getRight());
+
+                        List<String> taskStrings = tasks.stream()
+                                .map(t -> String.format("<%s,ks:%s>", t.getId(), t.getStatus().getState()))
+                                .collect(Collectors.toList());
+                        logger.info("Loaded job: {} with tasks: {}", job.getId(), taskStrings);
+
+                        jobCount.incrementAndGet();
+                        taskCount.addAndGet(tasks.size());
+
+                        InternalReconciliationEngine<JobManagerReconcilerEvent> engine = newRestoredEngine(job, tasks);
+                        for (Task task : tasks) {
+                            Optional<Task> validatedTask = validateTask(task);
+                            if (!validatedTask.isPresent()) {
+                                errorCollector.invalidTaskRecord(task.getId());
+                            }
+                        }
+                        return engine;
+                    })
+            ).toList().toBlocking().singleOrDefault(Collections.emptyList());
+
+            loadedJobs.set(jobCount.get());
+            loadedTasks.set(taskCount.get());
+
+            logger.info("{} jobs and {} tasks loaded from store in {}ms", jobCount.get(), taskCount.get(), clock.wallTime() - startTime);
         } catch (Exception e) {
             logger.error("Failed to load jobs from the store during initialization:", e);
             throw new IllegalStateException("Failed to load jobs from the store during initialization", e);
@@ -318,7 +318,7 @@ public class JobReconciliationFrameworkFactory {
             storeLoadTimeMs.set(clock.wallTime() - startTime);
         }
 
-        return jobTasksPairs.stream().map(p -> Pair.of(p.getLeft(), p.getRight().getLeft())).collect(Collectors.toList());
+        return engines;
     }
 
     private Optional<Job> validateJob(Job job) {
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Gauge;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.titus.master.kubernetes.client.model.PodAddedEvent;
+import com.netflix.titus.master.kubernetes.client.model.PodEvent;
+import com.netflix.titus.master.kubernetes.client.model.PodUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * An ordered processing lane of {@link KubeNotificationProcessor}. All events of a task are routed to the same lane,
+ * and are processed in the order in which they were received. A pod update waiting in the queue is replaced by
+ * a newer update of the same pod, as only the latest pod state is relevant. Pod deletes and pod not found events
+ * are never coalesced.
+ */
+class KubeNotificationLane {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubeNotificationLane.class);
+
+    private final String laneId;
+    private final Scheduler scheduler;
+    private final Consumer<PodEvent> eventHandler;
+    private final Registry registry;
+
+    private final Map<String, Deque<PodEvent>> pendingByTaskId = new HashMap<>();
+    private final Queue<String> taskIdQueue = new ArrayDeque<>();
+    private int pendingCount;
+    private boolean draining;
+
+    private final Id metricsQueueSizeId;
+    private final Counter metricsReceived;
+    private final Counter metricsCoalesced;
+    private final Gauge metricsLag;
+
+    KubeNotificationLane(int laneIndex,
+                         Scheduler scheduler,
+                         Consumer<PodEvent> eventHandler,
+                         String metricsRoot,
+                         Registry registry) {
+        this.laneId = Integer.toString(laneIndex);
+        this.scheduler = scheduler;
+        this.eventHandler = eventHandler;
+        this.registry = registry;
+
+        this.metricsQueueSizeId = registry.createId(metricsRoot + "queueSize", "lane", laneId);
+        this.metricsReceived = registry.counter(metricsRoot + "received", "lane", laneId);
+        this.metricsCoalesced = registry.counter(metricsRoot + "coalesced", "lane", laneId);
+        this.metricsLag = registry.gauge(metricsRoot + "lag", "lane", laneId);
+        PolledMeter.using(registry).withId(metricsQueueSizeId).monitorValue(this, KubeNotificationLane::getQueueSize);
+    }
+
+    void shutdown() {
+        PolledMeter.remove(registry, metricsQueueSizeId);
+    }
+
+    synchronized int getQueueSize() {
+        return pendingCount;
+    }
+
+    void offer(PodEvent event) {
+        metricsReceived.increment();
+        boolean startDrain;
+        synchronized (this) {
+            Deque<PodEvent> pending = pendingByTaskId.get(event.getTaskId());
+            if (pending == null) {
+                pending = new ArrayDeque<>();
+                pendingByTaskId.put(event.getTaskId(), pending);
+                taskIdQueue.add(event.getTaskId());
+            }
+            if (event instanceof PodUpdatedEvent && isCoalescable(pending.peekLast())) {
+                pending.pollLast();
+                pendingCount--;
+                metricsCoalesced.increment();
+            }
+            pending.addLast(event);
+            pendingCount++;
+
+            startDrain = !draining;
+            draining = true;
+        }
+        if (startDrain) {
+            scheduler.schedule(this::drain);
+        }
+    }
+
+    private void drain() {
+        PodEvent event;
+        while ((event = poll()) != null) {
+            metricsLag.set(PodEvent.nextSequence() - event.getSequenceNumber());
+            try {
+                eventHandler.accept(event);
+            } catch (Exception e) {
+                logger.warn("[lane={}] Unexpected error when processing pod event: {}", laneId, event, e);
+            }
+        }
+    }
+
+    private synchronized PodEvent poll() {
+        String taskId = taskIdQueue.poll();
+        if (taskId == null) {
+            draining = false;
+            return null;
+        }
+        Deque<PodEvent> pending = pendingByTaskId.get(taskId);
+        PodEvent event = pending.pollFirst();
+        if (pending.isEmpty()) {
+            pendingByTaskId.remove(taskId);
+        } else {
+            taskIdQueue.add(taskId);
+        }
+        pendingCount--;
+        return event;
+    }
+
+    private static boolean isCoalescable(PodEvent pendingEvent) {
+        return pendingEvent instanceof PodAddedEvent || pendingEvent instanceof PodUpdatedEvent;
+    }
+}
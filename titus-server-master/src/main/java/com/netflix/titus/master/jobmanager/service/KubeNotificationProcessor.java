@@ -26,6 +26,8 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -45,7 +47,6 @@ import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.api.model.callmetadata.CallMetadata;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
-import com.netflix.titus.common.util.Evaluators;
 import com.netflix.titus.common.util.ExecutorsExt;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ReactorExt;
@@ -97,12 +98,14 @@ public class KubeNotificationProcessor {
 
     private final Timer metricsProcessed;
     private final Gauge metricsRunning;
-    private final Gauge metricsLag;
     private final Counter metricsChangesApplied;
     private final Counter metricsNoChangesApplied;
 
-    private ExecutorService notificationHandlerExecutor;
-    private Scheduler scheduler;
+    private final AtomicLong pendingCounter = new AtomicLong();
+
+    private final List<ExecutorService> notificationHandlerExecutors = new ArrayList<>();
+    private List<Scheduler> schedulers = new ArrayList<>();
+    private List<KubeNotificationLane> lanes = new ArrayList<>();
     private Disposable subscription;
 
     @Inject
@@ -121,59 +124,65 @@ public class KubeNotificationProcessor {
 
         this.metricsProcessed = titusRuntime.getRegistry().timer(METRICS_ROOT + "processed");
         this.metricsRunning = titusRuntime.getRegistry().gauge(METRICS_ROOT + "running");
-        this.metricsLag = titusRuntime.getRegistry().gauge(METRICS_ROOT + "lag");
         this.metricsChangesApplied = titusRuntime.getRegistry().counter(METRICS_ROOT + "changes", "changed", "true");
         this.metricsNoChangesApplied = titusRuntime.getRegistry().counter(METRICS_ROOT + "changes", "changed", "false");
     }
 
+    /**
+     * Pod events are hash partitioned by task id into {@link KubernetesConfiguration#getPodEventProcessingLanes()}
+     * lanes, each with its own thread. This keeps the per task ordering of events, while events of different tasks
+     * are processed in parallel.
+     */
     @Activator
     public void enterActiveMode() {
-        this.scheduler = initializeNotificationScheduler();
-        AtomicLong pendingCounter = new AtomicLong();
+        int laneCount = Math.max(1, configuration.getPodEventProcessingLanes());
+        this.schedulers = IntStream.range(0, laneCount).mapToObj(this::initializeNotificationScheduler).collect(Collectors.toList());
+        this.lanes = IntStream.range(0, laneCount)
+                .mapToObj(laneIndex -> new KubeNotificationLane(laneIndex, schedulers.get(laneIndex), this::handleEvent, METRICS_ROOT, titusRuntime.getRegistry()))
+                .collect(Collectors.toList());
+
         this.subscription = kubeApiServerIntegrator.events().mergeWith(kubeJobManagementReconciler.getPodEventSource())
-                .subscribeOn(scheduler)
-                .publishOn(scheduler)
                 .doOnError(error -> logger.warn("Kube integration event stream terminated with an error (retrying soon)", error))
                 .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)))
                 .subscribe(
-                        event -> {
-                            Stopwatch stopwatch = Stopwatch.createStarted();
-                            pendingCounter.getAndIncrement();
-
-                            metricsRunning.set(pendingCounter.get());
-                            metricsLag.set(PodEvent.nextSequence() - event.getSequenceNumber());
-
-                            logger.info("New event [pending={}, lag={}]: {}", pendingCounter.get(), PodEvent.nextSequence() - event.getSequenceNumber(), event);
-                            processEvent(event)
-                                    .doAfterTerminate(() -> {
-                                        pendingCounter.decrementAndGet();
-                                        long elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
-                                        metricsProcessed.record(elapsed, TimeUnit.MILLISECONDS);
-                                        metricsRunning.set(pendingCounter.get());
-                                        logger.info("Event processed [pending={}]: event={}, elapsed={}", pendingCounter.get(), event, elapsed);
-                                    })
-                                    .subscribe(
-                                            next -> {
-                                                // nothing
-                                            },
-                                            error -> {
-                                                logger.info("Kube notification event state update error: event={}, error={}", event, error.getMessage());
-                                                logger.debug("Stack trace", error);
-                                            },
-                                            () -> {
-                                                // nothing
-                                            }
-                                    );
-                        },
+                        event -> lanes.get(Math.floorMod(event.getTaskId().hashCode(), lanes.size())).offer(event),
                         e -> logger.error("Event stream terminated"),
                         () -> logger.info("Event stream completed")
                 );
     }
 
     @VisibleForTesting
-    protected Scheduler initializeNotificationScheduler() {
-        this.notificationHandlerExecutor = ExecutorsExt.namedSingleThreadExecutor(KubeNotificationProcessor.class.getSimpleName());
-        return Schedulers.fromExecutor(notificationHandlerExecutor);
+    protected Scheduler initializeNotificationScheduler(int laneIndex) {
+        ExecutorService executor = ExecutorsExt.namedSingleThreadExecutor(KubeNotificationProcessor.class.getSimpleName() + "-" + laneIndex);
+        notificationHandlerExecutors.add(executor);
+        return Schedulers.fromExecutor(executor);
+    }
+
+    private void handleEvent(PodEvent event) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        metricsRunning.set(pendingCounter.incrementAndGet());
+
+        logger.debug("New event [pending={}]: {}", pendingCounter.get(), event);
+        processEvent(event)
+                .doAfterTerminate(() -> {
+                    metricsRunning.set(pendingCounter.decrementAndGet());
+                    long elapsed = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+                    metricsProcessed.record(elapsed, TimeUnit.MILLISECONDS);
+                    logger.debug("Event processed [pending={}]: event={}, elapsed={}", pendingCounter.get(), event, elapsed);
+                })
+                .subscribe(
+                        next -> {
+                            // nothing
+                        },
+                        error -> {
+                            logger.info("Kube notification event state update error: taskId={}, sequenceNumber={}, error={}",
+                                    event.getTaskId(), event.getSequenceNumber(), error.getMessage());
+                            logger.debug("Stack trace", error);
+                        },
+                        () -> {
+                            // nothing
+                        }
+                );
     }
 
     private Mono<Void> processEvent(PodEvent event) {
@@ -195,8 +204,9 @@ public class KubeNotificationProcessor {
 
     public void shutdown() {
         ReactorExt.safeDispose(subscription);
-        Evaluators.acceptNotNull(scheduler, Scheduler::dispose);
-        Evaluators.acceptNotNull(notificationHandlerExecutor, ExecutorService::shutdown);
+        lanes.forEach(KubeNotificationLane::shutdown);
+        schedulers.forEach(Scheduler::dispose);
+        notificationHandlerExecutors.forEach(ExecutorService::shutdown);
     }
 
     private Mono<Void> handlePodUpdatedEvent(PodEvent event, Job job, Task task) {
@@ -230,7 +240,7 @@ public class KubeNotificationProcessor {
 
         TaskStatus newTaskStatus = newTaskStatusOrError.getValue();
         if (TaskStatus.areEquivalent(task.getStatus(), newTaskStatus)) {
-            logger.info("Pod change notification does not change task status: taskId={}, status={}, eventSequenceNumber={}", task.getId(), newTaskStatus, event.getSequenceNumber());
+            logger.debug("Pod change notification does not change task status: taskId={}, status={}, eventSequenceNumber={}", task.getId(), newTaskStatus, event.getSequenceNumber());
         } else {
             logger.info("Pod notification changes task status: taskId={}, fromStatus={}, toStatus={}, eventSequenceNumber={}", task.getId(),
                     task.getStatus(), newTaskStatus, event.getSequenceNumber());
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.StringExt;
+import com.netflix.titus.common.util.guice.annotation.Activator;
+import com.netflix.titus.master.MetricConstants;
+import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared, indexed view over the pod and node informers. Pods are indexed by the node they run on, and by their phase,
+ * so the GC controllers and the job reconciler can visit only the candidate objects, instead of listing and filtering
+ * all pods and nodes on each run. Objects are keyed by their metadata names.
+ * <p>
+ * The informer event handlers are registered when the leader is activated. An informer replays its content to a new
+ * handler asynchronously, so {@link #hasSynced()} reports true only after every object held by the informers is
+ * present in the indexes. Before that, the indexes may be incomplete, and must not be used to decide that a pod or
+ * a node does not exist.
+ */
+@Singleton
+public class KubeInformerIndexes {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubeInformerIndexes.class);
+
+    private static final String METRIC_ROOT = MetricConstants.METRIC_KUBERNETES + "informerIndexes.";
+
+    private final StdKubeApiFacade kubeApiFacade;
+    private final Registry registry;
+
+    private final ConcurrentMap<String, V1Pod> podsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, V1Node> nodesByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> podNamesByNodeName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> podNamesByPhase = new ConcurrentHashMap<>();
+
+    private final Id podsGaugeId;
+    private final Id nodesGaugeId;
+
+    private volatile boolean activated;
+    private volatile boolean synced;
+
+    @Inject
+    public KubeInformerIndexes(StdKubeApiFacade kubeApiFacade, TitusRuntime titusRuntime) {
+        this.kubeApiFacade = kubeApiFacade;
+        this.registry = titusRuntime.getRegistry();
+
+        this.podsGaugeId = registry.createId(METRIC_ROOT + "pods");
+        this.nodesGaugeId = registry.createId(METRIC_ROOT + "nodes");
+        PolledMeter.using(registry).withId(podsGaugeId).monitorSize(podsByName);
+        PolledMeter.using(registry).withId(nodesGaugeId).monitorSize(nodesByName);
+    }
+
+    @Activator
+    public void enterActiveMode() {
+        activate();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PolledMeter.remove(registry, podsGaugeId);
+        PolledMeter.remove(registry, nodesGaugeId);
+    }
+
+    /**
+     * Returns true if both informers are synced, and all their objects are replayed to the indexes.
+     */
+    public boolean hasSynced() {
+        if (synced) {
+            return true;
+        }
+        activate();
+
+        SharedIndexInformer<V1Node> nodeInformer = kubeApiFacade.getNodeInformer();
+        SharedIndexInformer<V1Pod> podInformer = kubeApiFacade.getPodInformer();
+        if (!nodeInformer.hasSynced() || !podInformer.hasSynced()) {
+            return false;
+        }
+        if (!isReplayed(nodeInformer, nodesByName) || !isReplayed(podInformer, podsByName)) {
+            return false;
+        }
+        this.synced = true;
+        logger.info("Kube informer indexes synced: pods={}, nodes={}", podsByName.size(), nodesByName.size());
+        return true;
+    }
+
+    public Optional<V1Pod> findPod(String podName) {
+        return Optional.ofNullable(podsByName.get(podName));
+    }
+
+    public Optional<V1Node> findNode(String nodeName) {
+        return Optional.ofNullable(nodesByName.get(nodeName));
+    }
+
+    /**
+     * Returns names of all nodes with at least one pod assigned to them. The nodes may or may not be known.
+     */
+    public Set<String> getPodNodeNames() {
+        return new HashSet<>(podNamesByNodeName.keySet());
+    }
+
+    public List<V1Pod> getPodsOnNode(String nodeName) {
+        return getPods(podNamesByNodeName.get(nodeName));
+    }
+
+    public List<V1Pod> getPodsInPhase(String phase) {
+        return getPods(podNamesByPhase.get(phase));
+    }
+
+    private List<V1Pod> getPods(Set<String> podNames) {
+        if (podNames == null) {
+            return Collections.emptyList();
+        }
+        List<V1Pod> result = new ArrayList<>(podNames.size());
+        for (String podName : podNames) {
+            V1Pod pod = podsByName.get(podName);
+            if (pod != null) {
+                result.add(pod);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Once the initial replay is completed, the indexes are kept up to date by the event handlers, so this check is
+     * done until it succeeds for the first time only.
+     */
+    private static <T extends KubernetesObject> boolean isReplayed(SharedIndexInformer<T> informer, ConcurrentMap<String, T> index) {
+        for (T object : informer.getIndexer().list()) {
+            String name = KubeUtil.getMetadataName(object.getMetadata());
+            if (StringExt.isNotEmpty(name) && !index.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void activate() {
+        if (activated) {
+            return;
+        }
+        kubeApiFacade.getNodeInformer().addEventHandler(new ResourceEventHandler<V1Node>() {
+            @Override
+            public void onAdd(V1Node node) {
+                updateNode(node);
+            }
+
+            @Override
+            public void onUpdate(V1Node oldNode, V1Node newNode) {
+                updateNode(newNode);
+            }
+
+            @Override
+            public void onDelete(V1Node node, boolean deletedFinalStateUnknown) {
+                removeNode(node);
+            }
+        });
+        kubeApiFacade.getPodInformer().addEventHandler(new ResourceEventHandler<V1Pod>() {
+            @Override
+            public void onAdd(V1Pod pod) {
+                updatePod(pod);
+            }
+
+            @Override
+            public void onUpdate(V1Pod oldPod, V1Pod newPod) {
+                updatePod(newPod);
+            }
+
+            @Override
+            public void onDelete(V1Pod pod, boolean deletedFinalStateUnknown) {
+                removePod(pod);
+            }
+        });
+        this.activated = true;
+        logger.info("Kube informer indexes activated");
+    }
+
+    private void updateNode(V1Node node) {
+        String nodeName = KubeUtil.getMetadataName(node.getMetadata());
+        if (StringExt.isNotEmpty(nodeName)) {
+            nodesByName.put(nodeName, node);
+        }
+    }
+
+    private void removeNode(V1Node node) {
+        String nodeName = KubeUtil.getMetadataName(node.getMetadata());
+        if (StringExt.isNotEmpty(nodeName)) {
+            nodesByName.remove(nodeName);
+        }
+    }
+
+    private synchronized void updatePod(V1Pod pod) {
+        String podName = KubeUtil.getMetadataName(pod.getMetadata());
+        if (StringExt.isEmpty(podName)) {
+            return;
+        }
+        V1Pod previous = podsByName.put(podName, pod);
+        if (previous != null) {
+            removeFromIndex(podNamesByNodeName, getNodeName(previous), podName);
+            removeFromIndex(podNamesByPhase, getPhase(previous), podName);
+        }
+        addToIndex(podNamesByNodeName, getNodeName(pod), podName);
+        addToIndex(podNamesByPhase, getPhase(pod), podName);
+    }
+
+    private synchronized void removePod(V1Pod pod) {
+        String podName = KubeUtil.getMetadataName(pod.getMetadata());
+        if (StringExt.isEmpty(podName)) {
+            return;
+        }
+        V1Pod previous = podsByName.remove(podName);
+        if (previous != null) {
+            removeFromIndex(podNamesByNodeName, getNodeName(previous), podName);
+            removeFromIndex(podNamesByPhase, getPhase(previous), podName);
+        }
+    }
+
+    private static String getNodeName(V1Pod pod) {
+        return pod.getSpec() == null ? null : pod.getSpec().getNodeName();
+    }
+
+    private static String getPhase(V1Pod pod) {
+        return pod.getStatus() == null ? null : pod.getStatus().getPhase();
+    }
+
+    private static void addToIndex(ConcurrentMap<String, Set<String>> index, String key, String podName) {
+        if (StringExt.isNotEmpty(key)) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(podName);
+        }
+    }
+
+    private static void removeFromIndex(ConcurrentMap<String, Set<String>> index, String key, String podName) {
+        if (StringExt.isNotEmpty(key)) {
+            index.computeIfPresent(key, (k, podNames) -> {
+                podNames.remove(podName);
+                return podNames.isEmpty() ? null : podNames;
+            });
+        }
+    }
+}
@@ -52,6 +52,13 @@ public interface KubernetesConfiguration {
     @DefaultValue("600000")
     long getNodeLostTimeoutMs();
 
+    /**
+     * @return the number of lanes in which pod events are processed in parallel. Events of the same task are always
+     * processed in the same lane, in the order in which they were received.
+     */
+    @DefaultValue("8")
+    int getPodEventProcessingLanes();
+
     /**
      * @return the kube api server url to use. If this is empty, use the kube config path instead.
      */
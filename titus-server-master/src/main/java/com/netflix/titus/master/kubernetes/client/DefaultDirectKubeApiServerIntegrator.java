@@ -48,7 +48,10 @@ import com.netflix.titus.runtime.connector.kubernetes.KubeApiException;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import io.kubernetes.client.informer.ResourceEventHandler;
 import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.DirectProcessor;
@@ -85,10 +88,15 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
      */
     private final FluxSink<PodEvent> supplementaryPodEventSink = supplementaryPodEventProcessor.sink(FluxSink.OverflowStrategy.LATEST);
 
-    private final ConcurrentMap<String, V1Pod> pods = new ConcurrentHashMap<>();
+    /**
+     * Pods created, but not yet seen by the pod informer. Once the informer delivers a pod, it is served from the
+     * informer cache, so only a small record is kept here, instead of the full pod object.
+     */
+    private final ConcurrentMap<String, LaunchedPod> launchedPods = new ConcurrentHashMap<>();
 
     private final ExecutorService apiClientExecutor;
     private final Scheduler apiClientScheduler;
+    private final KubeApiCallWindow apiCallWindow;
 
     private final Optional<FitInjection> fitKubeInjection;
 
@@ -104,10 +112,17 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
         this.titusRuntime = titusRuntime;
 
         this.metrics = new DefaultDirectKubeApiServerIntegratorMetrics(titusRuntime);
-        metrics.observePodsCollection(pods);
+        metrics.observeLaunchedPods(launchedPods);
 
         this.apiClientExecutor = ExecutorsExt.instrumentedFixedSizeThreadPool(titusRuntime.getRegistry(), "kube-apiclient", configuration.getApiClientThreadPoolSize());
         this.apiClientScheduler = Schedulers.fromExecutorService(apiClientExecutor);
+        this.apiCallWindow = new KubeApiCallWindow(
+                Math.min(configuration.getPodCreateMinConcurrencyLimit(), configuration.getPodCreateConcurrencyLimit()),
+                configuration.getPodCreateConcurrencyLimit(),
+                configuration.getPodCreateLatencyTargetMs(),
+                titusRuntime.getClock(),
+                titusRuntime.getRegistry()
+        );
 
         FitFramework fit = titusRuntime.getFitFramework();
         if (fit.isActive()) {
@@ -123,6 +138,7 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
     @PreDestroy
     public void shutdown() {
+        apiCallWindow.shutdown();
         apiClientScheduler.dispose();
         apiClientExecutor.shutdown();
         metrics.shutdown();
@@ -130,7 +146,12 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
     @Override
     public Optional<V1Pod> findPod(String taskId) {
-        return Optional.ofNullable(pods.get(taskId));
+        V1Pod pod = kubeApiFacade.getPodInformer().getIndexer().getByKey(KUBERNETES_NAMESPACE + "/" + taskId);
+        if (pod != null) {
+            return Optional.of(pod);
+        }
+        LaunchedPod launchedPod = launchedPods.get(taskId);
+        return launchedPod == null ? Optional.empty() : Optional.of(launchedPod.toV1Pod());
     }
 
     @Override
@@ -138,11 +159,17 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
         return kubeApiFacade.isReadyForScheduling();
     }
 
+    /**
+     * Pods are built on the API client thread pool, and next created via {@link KubeApiCallWindow}, which bounds
+     * the number of concurrent calls to the Kube API server.
+     */
     @Override
     public Mono<Void> launchTask(Job job, Task task) {
         return Mono.fromCallable(() -> {
                     try {
+                        Stopwatch timer = Stopwatch.createStarted();
                         V1Pod v1Pod = podFactory.buildV1Pod(job, task);
+                        metrics.podBuild(timer.elapsed(TimeUnit.MICROSECONDS));
                         logger.info("creating pod: {}", formatPodEssentials(v1Pod));
                         logger.debug("complete pod data: {}", v1Pod);
                         return v1Pod;
@@ -151,47 +178,62 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
                         throw new IllegalStateException("Unable to convert task to pod " + task.getId(), e);
                     }
                 })
-                .flatMap(v1Pod -> launchPod(task, v1Pod))
                 .subscribeOn(apiClientScheduler)
+                .flatMap(v1Pod -> apiCallWindow.submit(false, launchPod(task, v1Pod)))
                 .timeout(Duration.ofMillis(configuration.getKubeApiClientTimeoutMs()))
                 .doOnError(TimeoutException.class, e -> metrics.launchTimeout(configuration.getKubeApiClientTimeoutMs()))
                 .ignoreElement()
                 .cast(Void.class);
     }
 
+    /**
+     * Pod deletes are submitted to {@link KubeApiCallWindow} with high priority, so they are not delayed by pending
+     * pod launches.
+     */
     @Override
     public Mono<Void> terminateTask(Task task) {
         String taskId = task.getId();
 
-        return Mono.<Void>fromRunnable(() -> {
+        Mono<Void> terminateAction = Mono.defer(() -> {
             Stopwatch timer = Stopwatch.createStarted();
-            try {
-                logger.info("Deleting pod: {}", taskId);
-                kubeApiFacade.deleteNamespacedPod(KUBERNETES_NAMESPACE, taskId, configuration.getDeleteGracePeriodSeconds());
-                metrics.terminateSuccess(task, timer.elapsed(TimeUnit.MILLISECONDS));
-            } catch (JsonSyntaxException e) {
-                // this is probably successful. the generated client has the wrong response type
-                metrics.terminateSuccess(task, timer.elapsed(TimeUnit.MILLISECONDS));
-            } catch (KubeApiException e) {
-                metrics.terminateError(task, e, timer.elapsed(TimeUnit.MILLISECONDS));
-
-                if (e.getErrorCode() == KubeApiException.ErrorCode.NOT_FOUND && task.getStatus().getState() == TaskState.Accepted) {
-                    sendEvent(PodEvent.onPodNotFound(task,
-                            TaskStatus.newBuilder()
-                                    .withState(TaskState.Finished)
-                                    .withReasonCode(TaskStatus.REASON_TASK_LOST)
-                                    .withReasonMessage("Task terminate requested, but its container is not found")
-                                    .withTimestamp(titusRuntime.getClock().wallTime())
-                                    .build()
-                    ));
-                } else {
-                    logger.error("Failed to kill task: {} with error: {}", taskId, KubeUtil.toErrorDetails(e), e);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to kill task: {} with error: {}", taskId, KubeUtil.toErrorDetails(e), e);
-                metrics.terminateError(task, e, timer.elapsed(TimeUnit.MILLISECONDS));
-            }
-        }).subscribeOn(apiClientScheduler).timeout(Duration.ofMillis(configuration.getKubeApiClientTimeoutMs()));
+            logger.info("Deleting pod: {}", taskId);
+            return deletePod(taskId)
+                    .doOnSuccess(ignore -> {
+                        launchedPods.remove(taskId);
+                        metrics.terminateSuccess(task, timer.elapsed(TimeUnit.MILLISECONDS));
+                    })
+                    .onErrorResume(error -> {
+                        onTerminateError(task, error, timer.elapsed(TimeUnit.MILLISECONDS));
+                        return Mono.empty();
+                    });
+        });
+        return apiCallWindow.submit(true, terminateAction).timeout(Duration.ofMillis(configuration.getKubeApiClientTimeoutMs()));
+    }
+
+    private void onTerminateError(Task task, Throwable error, long elapsedMs) {
+        String taskId = task.getId();
+        if (error instanceof JsonSyntaxException) {
+            // this is probably successful. the generated client has the wrong response type
+            metrics.terminateSuccess(task, elapsedMs);
+            return;
+        }
+        metrics.terminateError(task, error, elapsedMs);
+
+        if (error instanceof KubeApiException
+                && ((KubeApiException) error).getErrorCode() == KubeApiException.ErrorCode.NOT_FOUND
+                && task.getStatus().getState() == TaskState.Accepted) {
+            launchedPods.remove(taskId);
+            sendEvent(PodEvent.onPodNotFound(task,
+                    TaskStatus.newBuilder()
+                            .withState(TaskState.Finished)
+                            .withReasonCode(TaskStatus.REASON_TASK_LOST)
+                            .withReasonMessage("Task terminate requested, but its container is not found")
+                            .withTimestamp(titusRuntime.getClock().wallTime())
+                            .build()
+            ));
+        } else {
+            logger.error("Failed to kill task: {} with error: {}", taskId, KubeUtil.toErrorDetails(error), error);
+        }
     }
 
     @Override
@@ -205,25 +247,46 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
     }
 
     private Mono<V1Pod> launchPod(Task task, V1Pod v1Pod) {
-        return Mono.fromCallable(() -> {
+        return Mono.defer(() -> {
             Stopwatch timer = Stopwatch.createStarted();
-            try {
-                fitKubeInjection.ifPresent(i -> i.beforeImmediate(KubeFitAction.ErrorKind.POD_CREATE_ERROR.name()));
-
-                kubeApiFacade.createNamespacedPod(KUBERNETES_NAMESPACE, v1Pod);
-                pods.putIfAbsent(task.getId(), v1Pod);
-
-                metrics.launchSuccess(task, v1Pod, timer.elapsed(TimeUnit.MILLISECONDS));
-
-                return v1Pod;
-            } catch (Exception e) {
-                logger.error("Unable to create pod with error: {}", KubeUtil.toErrorDetails(e), e);
+            return createPod(v1Pod)
+                    .doOnSuccess(ignore -> {
+                        onPodLaunched(task.getId(), v1Pod);
+                        metrics.launchSuccess(task, v1Pod, timer.elapsed(TimeUnit.MILLISECONDS));
+                    })
+                    .onErrorMap(error -> {
+                        logger.error("Unable to create pod with error: {}", KubeUtil.toErrorDetails(error), error);
+
+                        metrics.launchError(task, error, timer.elapsed(TimeUnit.MILLISECONDS));
+
+                        return new IllegalStateException("Unable to launch a task " + task.getId(), error);
+                    })
+                    .thenReturn(v1Pod);
+        });
+    }
 
-                metrics.launchError(task, e, timer.elapsed(TimeUnit.MILLISECONDS));
+    private Mono<Void> createPod(V1Pod v1Pod) {
+        if (configuration.isAsyncApiEnabled()) {
+            return Mono.defer(() -> {
+                fitKubeInjection.ifPresent(i -> i.beforeImmediate(KubeFitAction.ErrorKind.POD_CREATE_ERROR.name()));
+                return kubeApiFacade.createNamespacedPodAsync(KUBERNETES_NAMESPACE, v1Pod).then();
+            });
+        }
+        return Mono.<Void>fromCallable(() -> {
+            fitKubeInjection.ifPresent(i -> i.beforeImmediate(KubeFitAction.ErrorKind.POD_CREATE_ERROR.name()));
+            kubeApiFacade.createNamespacedPod(KUBERNETES_NAMESPACE, v1Pod);
+            return null;
+        }).subscribeOn(apiClientScheduler);
+    }
 
-                throw new IllegalStateException("Unable to launch a task " + task.getId(), e);
-            }
-        });
+    private Mono<Void> deletePod(String taskId) {
+        if (configuration.isAsyncApiEnabled()) {
+            return kubeApiFacade.deleteNamespacedPodAsync(KUBERNETES_NAMESPACE, taskId, configuration.getDeleteGracePeriodSeconds());
+        }
+        return Mono.<Void>fromCallable(() -> {
+            kubeApiFacade.deleteNamespacedPod(KUBERNETES_NAMESPACE, taskId, configuration.getDeleteGracePeriodSeconds());
+            return null;
+        }).subscribeOn(apiClientScheduler);
     }
 
     private Flux<PodEvent> kubeInformerEvents() {
@@ -238,12 +301,11 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
                             return;
                         }
 
-                        V1Pod old = pods.get(taskId);
-                        pods.put(taskId, pod);
+                        LaunchedPod launchedPod = onPodVisibleInInformer(taskId);
 
                         PodEvent podEvent;
-                        if (old != null) {
-                            podEvent = PodEvent.onUpdate(old, pod, findNode(pod));
+                        if (launchedPod != null) {
+                            podEvent = PodEvent.onUpdate(launchedPod.toV1Pod(), pod, findNode(pod));
                             metrics.onUpdate(pod);
                         } else {
                             podEvent = PodEvent.onAdd(pod);
@@ -269,7 +331,7 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
                         metrics.onUpdate(newPod);
 
-                        pods.put(taskId, newPod);
+                        onPodVisibleInInformer(taskId);
 
                         PodUpdatedEvent podEvent = PodEvent.onUpdate(oldPod, newPod, findNode(newPod));
                         sink.next(podEvent);
@@ -292,7 +354,7 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
                         metrics.onDelete(pod);
 
-                        pods.remove(taskId);
+                        launchedPods.remove(taskId);
 
                         PodDeletedEvent podEvent = PodEvent.onDelete(pod, deletedFinalStateUnknown, findNode(pod));
                         sink.next(podEvent);
@@ -311,6 +373,25 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
         });
     }
 
+    /**
+     * The informer may deliver a new pod before the create call completes. The record is removed again if the pod
+     * is already in the informer cache, so it does not stay behind.
+     */
+    private void onPodLaunched(String taskId, V1Pod v1Pod) {
+        launchedPods.put(taskId, new LaunchedPod(v1Pod, titusRuntime.getClock().wallTime()));
+        if (kubeApiFacade.getPodInformer().getIndexer().getByKey(KUBERNETES_NAMESPACE + "/" + taskId) != null) {
+            onPodVisibleInInformer(taskId);
+        }
+    }
+
+    private LaunchedPod onPodVisibleInInformer(String taskId) {
+        LaunchedPod launchedPod = launchedPods.remove(taskId);
+        if (launchedPod != null) {
+            metrics.launchToInformerLatency(titusRuntime.getClock().wallTime() - launchedPod.launchTimestamp);
+        }
+        return launchedPod;
+    }
+
     private void sendEvent(PodEvent podEvent) {
         supplementaryPodEventSink.next(podEvent);
     }
@@ -326,4 +407,29 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
     private static boolean isEbsVolumeConflictException(KubeApiException apiException) {
         return apiException.getErrorCode() == KubeApiException.ErrorCode.CONFLICT_ALREADY_EXISTS;
     }
+
+    /**
+     * Launch timestamp and the pod fields needed to report a pod, before the informer delivers it.
+     */
+    private static class LaunchedPod {
+
+        private final String name;
+        private final String schedulerName;
+        private final String nodeName;
+        private final long launchTimestamp;
+
+        private LaunchedPod(V1Pod v1Pod, long launchTimestamp) {
+            this.name = v1Pod.getMetadata().getName();
+            this.schedulerName = v1Pod.getSpec() == null ? null : v1Pod.getSpec().getSchedulerName();
+            this.nodeName = v1Pod.getSpec() == null ? null : v1Pod.getSpec().getNodeName();
+            this.launchTimestamp = launchTimestamp;
+        }
+
+        private V1Pod toV1Pod() {
+            return new V1Pod()
+                    .metadata(new V1ObjectMeta().name(name).namespace(KUBERNETES_NAMESPACE))
+                    .spec(new V1PodSpec().schedulerName(schedulerName).nodeName(nodeName))
+                    .status(new V1PodStatus());
+        }
+    }
 }
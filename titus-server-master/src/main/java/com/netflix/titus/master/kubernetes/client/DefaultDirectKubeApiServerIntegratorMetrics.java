@@ -41,8 +41,10 @@ class DefaultDirectKubeApiServerIntegratorMetrics {
 
     private final Registry registry;
 
-    private final Id podGaugeId;
+    private final Id launchedPodGaugeId;
+    private final Id podBuildId;
     private final Id launchCounterId;
+    private final Id launchToInformerLatencyId;
     private final Id terminateCounterId;
     private final Id eventCounterId;
     private final Id persistentVolumeCreateCounterId;
@@ -52,8 +54,10 @@ class DefaultDirectKubeApiServerIntegratorMetrics {
 
     DefaultDirectKubeApiServerIntegratorMetrics(TitusRuntime titusRuntime) {
         this.registry = titusRuntime.getRegistry();
-        this.podGaugeId = registry.createId(ROOT + "pods");
+        this.launchedPodGaugeId = registry.createId(ROOT + "launchedPods");
+        this.podBuildId = registry.createId(ROOT + "podBuild");
         this.launchCounterId = registry.createId(ROOT + "launches");
+        this.launchToInformerLatencyId = registry.createId(ROOT + "launchToInformerLatency");
         this.terminateCounterId = registry.createId(ROOT + "terminates");
         this.eventCounterId = registry.createId(ROOT + "events");
         this.persistentVolumeCreateCounterId = registry.createId(PV_ROOT + "create");
@@ -67,11 +71,11 @@ class DefaultDirectKubeApiServerIntegratorMetrics {
     }
 
     void shutdown() {
-        PolledMeter.remove(registry, podGaugeId);
+        PolledMeter.remove(registry, launchedPodGaugeId);
     }
 
-    void observePodsCollection(ConcurrentMap<String, V1Pod> pods) {
-        PolledMeter.using(registry).withId(podGaugeId).monitorSize(pods);
+    void observeLaunchedPods(ConcurrentMap<String, ?> launchedPods) {
+        PolledMeter.using(registry).withId(launchedPodGaugeId).monitorSize(launchedPods);
     }
 
     void persistentVolumeCreateSuccess(long elapsedMs) {
@@ -96,6 +100,10 @@ class DefaultDirectKubeApiServerIntegratorMetrics {
         )).record(elapsedMs, TimeUnit.MILLISECONDS);
     }
 
+    void podBuild(long elapsedMicros) {
+        registry.timer(podBuildId).record(elapsedMicros, TimeUnit.MICROSECONDS);
+    }
+
     void launchSuccess(Task task, V1Pod v1Pod, long elapsedMs) {
         podSizeMetrics.record(KubeUtil.estimatePodSize(v1Pod));
         registry.timer(launchCounterId.withTag("status", "success")).record(elapsedMs, TimeUnit.MILLISECONDS);
@@ -112,6 +120,10 @@ class DefaultDirectKubeApiServerIntegratorMetrics {
         registry.timer(launchCounterId.withTag("status", "timeout")).record(elapsedMs, TimeUnit.MILLISECONDS);
     }
 
+    void launchToInformerLatency(long elapsedMs) {
+        registry.timer(launchToInformerLatencyId).record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
     void terminateSuccess(Task task, long elapsedMs) {
         registry.timer(terminateCounterId.withTag("status", "success")).record(elapsedMs, TimeUnit.MILLISECONDS);
     }
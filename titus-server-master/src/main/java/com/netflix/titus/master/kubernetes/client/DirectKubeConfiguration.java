@@ -24,7 +24,7 @@ import com.netflix.titus.runtime.connector.kubernetes.KubeConnectorConfiguration
 public interface DirectKubeConfiguration extends KubeConnectorConfiguration {
 
     /**
-     * Thread pool size for handling Kube apiClient calls.
+     * Thread pool size for handling Kube apiClient calls, when the async API is disabled.
      */
     @DefaultValue("20")
     int getApiClientThreadPoolSize();
@@ -32,7 +32,11 @@ public interface DirectKubeConfiguration extends KubeConnectorConfiguration {
     @DefaultValue("5000")
     long getKubeApiClientTimeoutMs();
 
-    @DefaultValue("true")
+    /**
+     * If true, pods are created and deleted with the non-blocking Kube API calls. Otherwise the blocking calls are
+     * made on the API client thread pool.
+     */
+    @DefaultValue("false")
     boolean isAsyncApiEnabled();
 
     /**
@@ -54,8 +58,21 @@ public interface DirectKubeConfiguration extends KubeConnectorConfiguration {
     int getDeleteGracePeriodSeconds();
 
     /**
-     * Maximum number of concurrent pod create requests.
+     * Maximum number of concurrent pod create and delete requests.
      */
     @DefaultValue("200")
     int getPodCreateConcurrencyLimit();
+
+    /**
+     * Minimum number of concurrent pod create and delete requests. The actual limit is adjusted between this value
+     * and {@link #getPodCreateConcurrencyLimit()}, depending on the Kube API server latency.
+     */
+    @DefaultValue("10")
+    int getPodCreateMinConcurrencyLimit();
+
+    /**
+     * Kube API call latency above which the concurrency limit is decreased.
+     */
+    @DefaultValue("1000")
+    long getPodCreateLatencyTargetMs();
 }
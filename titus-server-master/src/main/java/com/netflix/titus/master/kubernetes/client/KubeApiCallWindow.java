@@ -0,0 +1,215 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.kubernetes.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import com.google.common.base.Preconditions;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.master.MetricConstants;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Bounds the number of in-flight Kube API server calls. The limit is adjusted to the observed call latency, with
+ * an additive increase while the latency is below the target, and a multiplicative decrease when it is above it.
+ * High priority calls (pod deletes) are always started before the low priority ones (pod creates), so terminations
+ * are not delayed by a large backlog of launches.
+ */
+class KubeApiCallWindow {
+
+    private static final String ROOT = MetricConstants.METRIC_KUBERNETES + "kubeApiCallWindow.";
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetMs;
+    private final Clock clock;
+    private final Registry registry;
+
+    private final Queue<PendingCall<?>> highPriorityQueue = new ArrayDeque<>();
+    private final Queue<PendingCall<?>> lowPriorityQueue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private boolean draining;
+
+    private final Id limitGaugeId;
+    private final Id inFlightGaugeId;
+    private final Id highPriorityQueueGaugeId;
+    private final Id lowPriorityQueueGaugeId;
+
+    KubeApiCallWindow(int minLimit, int maxLimit, long latencyTargetMs, Clock clock, Registry registry) {
+        Preconditions.checkArgument(minLimit > 0, "Minimum limit must be > 0: %s", minLimit);
+        Preconditions.checkArgument(maxLimit >= minLimit, "Maximum limit must be >= minimum limit: %s < %s", maxLimit, minLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetMs = latencyTargetMs;
+        this.clock = clock;
+        this.registry = registry;
+        this.limit = minLimit;
+
+        this.limitGaugeId = registry.createId(ROOT + "limit");
+        this.inFlightGaugeId = registry.createId(ROOT + "inFlight");
+        this.highPriorityQueueGaugeId = registry.createId(ROOT + "queued", "priority", "high");
+        this.lowPriorityQueueGaugeId = registry.createId(ROOT + "queued", "priority", "low");
+        PolledMeter.using(registry).withId(limitGaugeId).monitorValue(this, KubeApiCallWindow::getLimit);
+        PolledMeter.using(registry).withId(inFlightGaugeId).monitorValue(this, KubeApiCallWindow::getInFlight);
+        PolledMeter.using(registry).withId(highPriorityQueueGaugeId).monitorValue(this, self -> self.getQueueSize(true));
+        PolledMeter.using(registry).withId(lowPriorityQueueGaugeId).monitorValue(this, self -> self.getQueueSize(false));
+    }
+
+    void shutdown() {
+        PolledMeter.remove(registry, limitGaugeId);
+        PolledMeter.remove(registry, inFlightGaugeId);
+        PolledMeter.remove(registry, highPriorityQueueGaugeId);
+        PolledMeter.remove(registry, lowPriorityQueueGaugeId);
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueueSize(boolean highPriority) {
+        return highPriority ? highPriorityQueue.size() : lowPriorityQueue.size();
+    }
+
+    /**
+     * Returns a {@link Mono} which subscribes to the given call once there is a free slot in the window. Unsubscribing
+     * from the returned {@link Mono} (for example on timeout) cancels the call, and releases its slot.
+     */
+    <T> Mono<T> submit(boolean highPriority, Mono<T> call) {
+        return Mono.create(sink -> {
+            PendingCall<T> pendingCall = new PendingCall<>(call, sink);
+            sink.onCancel(pendingCall::cancel);
+            synchronized (this) {
+                (highPriority ? highPriorityQueue : lowPriorityQueue).add(pendingCall);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Calls completing synchronously release their slots from within {@link PendingCall#start()}. To avoid deep
+     * recursion, only one thread at a time starts the calls, and it repeats until there is nothing more to start.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            List<PendingCall<?>> toStart = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < (int) limit) {
+                    PendingCall<?> next = highPriorityQueue.poll();
+                    if (next == null) {
+                        next = lowPriorityQueue.poll();
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    if (!next.isCancelled()) {
+                        inFlight++;
+                        toStart.add(next);
+                    }
+                }
+                if (toStart.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+            }
+            toStart.forEach(PendingCall::start);
+        }
+    }
+
+    private void release(long latencyMs) {
+        synchronized (this) {
+            inFlight--;
+            if (latencyMs >= 0) {
+                if (latencyMs > latencyTargetMs) {
+                    limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                } else {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+        }
+        drain();
+    }
+
+    private class PendingCall<T> {
+
+        private final Mono<T> call;
+        private final MonoSink<T> sink;
+
+        private boolean cancelled;
+        private Disposable subscription;
+
+        private PendingCall(Mono<T> call, MonoSink<T> sink) {
+            this.call = call;
+            this.sink = sink;
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void start() {
+            if (isCancelled()) {
+                release(-1);
+                return;
+            }
+            long startTime = clock.wallTime();
+            Disposable newSubscription = call
+                    .doFinally(signal -> release(clock.wallTime() - startTime))
+                    .subscribe(sink::success, sink::error, sink::success);
+            boolean cancelledMeanwhile;
+            synchronized (this) {
+                this.subscription = newSubscription;
+                cancelledMeanwhile = cancelled;
+            }
+            if (cancelledMeanwhile) {
+                newSubscription.dispose();
+            }
+        }
+
+        private void cancel() {
+            Disposable toDispose;
+            synchronized (this) {
+                cancelled = true;
+                toDispose = subscription;
+            }
+            if (toDispose != null) {
+                toDispose.dispose();
+            }
+        }
+    }
+}
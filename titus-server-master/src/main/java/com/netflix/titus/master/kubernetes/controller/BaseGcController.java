@@ -20,10 +20,13 @@ import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PreDestroy;
 import javax.inject.Named;
 
+import com.google.common.base.Stopwatch;
 import com.netflix.spectator.api.Gauge;
+import com.netflix.spectator.api.Timer;
 import com.netflix.titus.common.framework.scheduler.LocalScheduler;
 import com.netflix.titus.common.framework.scheduler.ScheduleReference;
 import com.netflix.titus.common.framework.scheduler.model.ScheduleDescriptor;
@@ -59,6 +62,7 @@ public abstract class BaseGcController<T> {
     protected final Gauge skippedGauge;
     protected final Gauge successesGauge;
     protected final Gauge failuresGauge;
+    protected final Timer scanTimer;
 
     public BaseGcController(
             String name,
@@ -78,6 +82,7 @@ public abstract class BaseGcController<T> {
         this.skippedGauge = titusRuntime.getRegistry().gauge(metricRoot, "type", "skipped");
         this.successesGauge = titusRuntime.getRegistry().gauge(metricRoot, "type", "successes");
         this.failuresGauge = titusRuntime.getRegistry().gauge(metricRoot, "type", "failures");
+        this.scanTimer = titusRuntime.getRegistry().timer(metricRoot + ".scan");
         this.tokenBucketConfiguration = tokenBucketConfiguration;
         this.controllerConfiguration = controllerConfiguration;
     }
@@ -131,11 +136,14 @@ public abstract class BaseGcController<T> {
         }
 
         List<T> allItemsToGc = Collections.emptyList();
+        Stopwatch scanStopwatch = Stopwatch.createStarted();
         try {
             allItemsToGc = getItemsToGc();
         } catch (Exception e) {
             logger.error("Unable to get items to GC due to:", e);
         }
+        long scanTimeMs = scanStopwatch.elapsed(TimeUnit.MILLISECONDS);
+        scanTimer.record(scanTimeMs, TimeUnit.MILLISECONDS);
 
         int total = allItemsToGc.size();
         int limitedNumberOfItemsToGc = (int) Math.min(total, tokenBucket.getNumberOfTokens());
@@ -160,8 +168,8 @@ public abstract class BaseGcController<T> {
             }
         }
         setGauges(skipped, successes, failures);
-        logger.info("Finished GC iteration total:{}, skipped: {}, successes: {}, failures: {}", total,
-                skipped, successes, failures);
+        logger.info("Finished GC iteration total:{}, skipped: {}, successes: {}, failures: {}, scanTimeMs: {}", total,
+                skipped, successes, failures, scanTimeMs);
     }
 
     public abstract boolean shouldGc();
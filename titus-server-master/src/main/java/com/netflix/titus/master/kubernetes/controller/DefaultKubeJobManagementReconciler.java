@@ -22,7 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,8 +31,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import com.google.common.base.Stopwatch;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
 import com.netflix.titus.api.jobmanager.TaskAttributes;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
@@ -43,7 +45,6 @@ import com.netflix.titus.common.framework.scheduler.model.ScheduleDescriptor;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.Evaluators;
 import com.netflix.titus.common.util.ExecutorsExt;
-import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.guice.annotation.Deactivator;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
@@ -53,11 +54,10 @@ import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.kubernetes.client.DirectKubeConfiguration;
 import com.netflix.titus.master.kubernetes.client.model.PodEvent;
 import com.netflix.titus.master.kubernetes.client.model.PodNotFoundEvent;
+import com.netflix.titus.master.kubernetes.KubeInformerIndexes;
 import com.netflix.titus.master.kubernetes.KubernetesConfiguration;
-import com.netflix.titus.master.kubernetes.KubeUtil;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import io.kubernetes.client.openapi.models.V1Node;
-import io.kubernetes.client.openapi.models.V1Pod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.DirectProcessor;
@@ -90,6 +90,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
     private final DirectKubeConfiguration directKubeConfiguration;
     private final FixedIntervalTokenBucketConfiguration gcUnknownPodsTokenBucketConfiguration;
     private final StdKubeApiFacade kubeApiFacade;
+    private final KubeInformerIndexes kubeInformerIndexes;
     private final V3JobOperations v3JobOperations;
 
     private final Clock clock;
@@ -99,6 +100,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
     private final FluxSink<PodEvent> podEventSink = podEventProcessor.sink(FluxSink.OverflowStrategy.IGNORE);
 
     private final Map<OrphanedKind, Gauge> orphanedTaskGauges;
+    private final Timer reconcileTimer;
 
     private ScheduleReference schedulerRef;
 
@@ -107,12 +109,14 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
                                               DirectKubeConfiguration directKubeConfiguration,
                                               @Named(GC_UNKNOWN_PODS) FixedIntervalTokenBucketConfiguration gcUnknownPodsTokenBucketConfiguration,
                                               StdKubeApiFacade kubeApiFacade,
+                                              KubeInformerIndexes kubeInformerIndexes,
                                               V3JobOperations v3JobOperations,
                                               TitusRuntime titusRuntime) {
         this.kubernetesConfiguration = kubernetesConfiguration;
         this.directKubeConfiguration = directKubeConfiguration;
         this.gcUnknownPodsTokenBucketConfiguration = gcUnknownPodsTokenBucketConfiguration;
         this.kubeApiFacade = kubeApiFacade;
+        this.kubeInformerIndexes = kubeInformerIndexes;
         this.v3JobOperations = v3JobOperations;
         this.clock = titusRuntime.getClock();
         this.titusRuntime = titusRuntime;
@@ -123,6 +127,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
                 Function.identity(),
                 kind -> registry.gauge(MetricConstants.METRIC_KUBERNETES + "orphanedTasks", "kind", kind.name())
         ));
+        this.reconcileTimer = registry.timer(MetricConstants.METRIC_KUBERNETES + "reconcile");
     }
 
     @Activator
@@ -158,39 +163,28 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
             logger.info("Skipping the job management / Kube reconciliation cycle: reconciler disabled");
             return;
         }
-        if (!kubeApiFacade.getNodeInformer().hasSynced() || !kubeApiFacade.getPodInformer().hasSynced()) {
+        if (!kubeInformerIndexes.hasSynced()) {
             logger.info("Skipping the job management / Kube reconciliation cycle: Kube informers not ready (node={}, pod={})",
                     kubeApiFacade.getNodeInformer().hasSynced(), kubeApiFacade.getPodInformer().hasSynced()
             );
             return;
         }
 
-        List<V1Node> nodes = kubeApiFacade.getNodeInformer().getIndexer().list()
-                .stream()
-                .filter(n -> StringExt.isNotEmpty(KubeUtil.getMetadataName(n.getMetadata())))
-                .collect(Collectors.toList());
-        List<V1Pod> pods = kubeApiFacade.getPodInformer().getIndexer().list()
-                .stream()
-                .filter(p -> StringExt.isNotEmpty(KubeUtil.getMetadataName(p.getMetadata())))
-                .collect(Collectors.toList());
+        Stopwatch stopwatch = Stopwatch.createStarted();
         List<Task> tasks = v3JobOperations.getTasks();
+        transitionOrphanedTasks(tasks);
 
-        Map<String, V1Node> nodesById = nodes.stream().collect(Collectors.toMap(
-                node -> KubeUtil.getMetadataName(node.getMetadata()),
-                Function.identity()
-        ));
-        Map<String, Task> currentTasks = tasks.stream().collect(Collectors.toMap(Task::getId, Function.identity()));
-        Set<String> currentPodNames = pods.stream().map(p -> KubeUtil.getMetadataName(p.getMetadata())).collect(Collectors.toSet());
-
-        transitionOrphanedTasks(currentTasks, currentPodNames, nodesById);
+        long elapsedMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        reconcileTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        logger.info("Finished the job management / Kube reconciliation cycle: tasks={}, elapsedMs={}", tasks.size(), elapsedMs);
     }
 
     /**
      * Transition orphaned tasks to Finished that don't exist in Kubernetes.
      */
-    private void transitionOrphanedTasks(Map<String, Task> currentTasks, Set<String> currentPodNames, Map<String, V1Node> nodes) {
-        List<Task> tasksNotInApiServer = currentTasks.values().stream()
-                .filter(t -> shouldTaskBeInApiServer(t) && !currentPodNames.contains(t.getId()))
+    private void transitionOrphanedTasks(List<Task> tasks) {
+        List<Task> tasksNotInApiServer = tasks.stream()
+                .filter(t -> shouldTaskBeInApiServer(t) && !kubeInformerIndexes.findPod(t.getId()).isPresent())
                 .collect(Collectors.toList());
 
         Map<OrphanedKind, List<Task>> orphanedTasksByKind = new HashMap<>();
@@ -198,7 +192,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
             if (task.getStatus().getState().equals(TaskState.KillInitiated)) {
                 orphanedTasksByKind.computeIfAbsent(OrphanedKind.KILL_INITIATED, s -> new ArrayList<>()).add(task);
             } else {
-                if (findNode(task, nodes).isPresent()) {
+                if (findNode(task).isPresent()) {
                     orphanedTasksByKind.computeIfAbsent(OrphanedKind.UNKNOWN, s -> new ArrayList<>()).add(task);
                 } else {
                     orphanedTasksByKind.computeIfAbsent(OrphanedKind.NODE_TERMINATED, s -> new ArrayList<>()).add(task);
@@ -243,7 +237,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
         });
     }
 
-    private Optional<V1Node> findNode(Task task, Map<String, V1Node> nodes) {
+    private Optional<V1Node> findNode(Task task) {
         // Node name may be different from agent instance id. We use the instance id attribute only as a fallback.
         String nodeName = task.getTaskContext().getOrDefault(
                 TaskAttributes.TASK_ATTRIBUTES_KUBE_NODE_NAME,
@@ -252,7 +246,7 @@ public class DefaultKubeJobManagementReconciler implements KubeJobManagementReco
         if (nodeName == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(nodes.get(nodeName));
+        return kubeInformerIndexes.findNode(nodeName);
     }
 
     private boolean shouldTaskBeInApiServer(Task task) {
@@ -16,9 +16,9 @@
 
 package com.netflix.titus.master.kubernetes.controller;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -28,7 +28,7 @@ import com.netflix.titus.common.framework.scheduler.LocalScheduler;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
-import com.netflix.titus.master.kubernetes.KubeUtil;
+import com.netflix.titus.master.kubernetes.KubeInformerIndexes;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import io.kubernetes.client.openapi.models.V1Pod;
 import org.slf4j.Logger;
@@ -42,6 +42,7 @@ public class PodOnUnknownNodeGcController extends BaseGcController<V1Pod> {
 
     private static final Logger logger = LoggerFactory.getLogger(PodOnUnknownNodeGcController.class);
     private final StdKubeApiFacade kubeApiFacade;
+    private final KubeInformerIndexes kubeInformerIndexes;
 
     @Inject
     public PodOnUnknownNodeGcController(
@@ -49,7 +50,8 @@ public class PodOnUnknownNodeGcController extends BaseGcController<V1Pod> {
             @Named(GC_CONTROLLER) LocalScheduler scheduler,
             @Named(POD_ON_UNKNOWN_NODE_GC_CONTROLLER) FixedIntervalTokenBucketConfiguration tokenBucketConfiguration,
             @Named(POD_ON_UNKNOWN_NODE_GC_CONTROLLER) ControllerConfiguration controllerConfiguration,
-            StdKubeApiFacade kubeApiFacade
+            StdKubeApiFacade kubeApiFacade,
+            KubeInformerIndexes kubeInformerIndexes
     ) {
         super(
                 POD_ON_UNKNOWN_NODE_GC_CONTROLLER,
@@ -60,23 +62,31 @@ public class PodOnUnknownNodeGcController extends BaseGcController<V1Pod> {
                 controllerConfiguration
         );
         this.kubeApiFacade = kubeApiFacade;
+        this.kubeInformerIndexes = kubeInformerIndexes;
     }
 
     @Override
     public boolean shouldGc() {
-        return kubeApiFacade.getNodeInformer().hasSynced() && kubeApiFacade.getPodInformer().hasSynced();
+        return kubeInformerIndexes.hasSynced();
     }
 
+    /**
+     * Only pods assigned to nodes not present in the node informer are visited.
+     */
     @Override
     public List<V1Pod> getItemsToGc() {
-        Set<String> knownNodeNames = kubeApiFacade.getNodeInformer().getIndexer().list()
-                .stream()
-                .map(n -> KubeUtil.getMetadataName(n.getMetadata()))
-                .collect(Collectors.toSet());
-        return kubeApiFacade.getPodInformer().getIndexer().list()
-                .stream()
-                .filter(p -> isPodOnUnknownNode(p, knownNodeNames))
-                .collect(Collectors.toList());
+        Predicate<String> isKnownNode = nodeName -> kubeInformerIndexes.findNode(nodeName).isPresent();
+        List<V1Pod> result = new ArrayList<>();
+        for (String nodeName : kubeInformerIndexes.getPodNodeNames()) {
+            if (!isKnownNode.test(nodeName)) {
+                for (V1Pod pod : kubeInformerIndexes.getPodsOnNode(nodeName)) {
+                    if (isPodOnUnknownNode(pod, isKnownNode)) {
+                        result.add(pod);
+                    }
+                }
+            }
+        }
+        return result;
     }
 
     @Override
@@ -85,12 +95,12 @@ public class PodOnUnknownNodeGcController extends BaseGcController<V1Pod> {
     }
 
     @VisibleForTesting
-    boolean isPodOnUnknownNode(V1Pod pod, Set<String> knownNodeNames) {
+    boolean isPodOnUnknownNode(V1Pod pod, Predicate<String> isKnownNode) {
         if (pod == null || pod.getSpec() == null) {
             return false;
         }
 
         String nodeName = pod.getSpec().getNodeName();
-        return StringExt.isNotEmpty(nodeName) && !knownNodeNames.contains(nodeName);
+        return StringExt.isNotEmpty(nodeName) && !isKnownNode.test(nodeName);
     }
 }
\ No newline at end of file
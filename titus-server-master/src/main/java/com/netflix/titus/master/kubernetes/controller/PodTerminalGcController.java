@@ -16,6 +16,9 @@
 
 package com.netflix.titus.master.kubernetes.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -32,6 +35,7 @@ import com.netflix.titus.common.framework.scheduler.LocalScheduler;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
 import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.master.kubernetes.KubeInformerIndexes;
 import com.netflix.titus.master.kubernetes.KubeUtil;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import io.kubernetes.client.openapi.models.V1Pod;
@@ -39,13 +43,20 @@ import io.kubernetes.client.openapi.models.V1PodStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.netflix.titus.runtime.kubernetes.KubeConstants.FAILED;
+import static com.netflix.titus.runtime.kubernetes.KubeConstants.SUCCEEDED;
+
 @Singleton
 public class PodTerminalGcController extends BaseGcController<V1Pod> {
     public static final String POD_TERMINAL_GC_CONTROLLER = "podTerminalGcController";
     public static final String POD_TERMINAL_GC_CONTROLLER_DESCRIPTION = "GC pods that are terminal to Titus.";
 
     private static final Logger logger = LoggerFactory.getLogger(PodTerminalGcController.class);
+
+    private static final List<String> TERMINAL_POD_PHASES = Arrays.asList(SUCCEEDED, FAILED);
+
     private final StdKubeApiFacade kubeApiFacade;
+    private final KubeInformerIndexes kubeInformerIndexes;
     private final Clock clock;
     private final KubeControllerConfiguration kubeControllerConfiguration;
     private final V3JobOperations v3JobOperations;
@@ -57,6 +68,7 @@ public class PodTerminalGcController extends BaseGcController<V1Pod> {
             @Named(POD_TERMINAL_GC_CONTROLLER) FixedIntervalTokenBucketConfiguration tokenBucketConfiguration,
             @Named(POD_TERMINAL_GC_CONTROLLER) ControllerConfiguration controllerConfiguration,
             StdKubeApiFacade kubeApiFacade,
+            KubeInformerIndexes kubeInformerIndexes,
             KubeControllerConfiguration kubeControllerConfiguration,
             V3JobOperations v3JobOperations
     ) {
@@ -69,6 +81,7 @@ public class PodTerminalGcController extends BaseGcController<V1Pod> {
                 controllerConfiguration
         );
         this.kubeApiFacade = kubeApiFacade;
+        this.kubeInformerIndexes = kubeInformerIndexes;
         this.kubeControllerConfiguration = kubeControllerConfiguration;
         this.clock = titusRuntime.getClock();
         this.v3JobOperations = v3JobOperations;
@@ -76,16 +89,36 @@ public class PodTerminalGcController extends BaseGcController<V1Pod> {
 
     @Override
     public boolean shouldGc() {
-        return kubeApiFacade.getPodInformer().hasSynced();
+        return kubeInformerIndexes.hasSynced();
     }
 
+    /**
+     * Only pods of terminal tasks, and pods in a terminal phase are visited, as the remaining ones are never GCed.
+     */
     @Override
     public List<V1Pod> getItemsToGc() {
         Map<String, Task> currentTasks = v3JobOperations.getTasks().stream()
                 .collect(Collectors.toMap(Task::getId, Function.identity()));
-        return kubeApiFacade.getPodInformer().getIndexer().list().stream()
-                .filter(p -> isPodTerminal(p, currentTasks))
-                .collect(Collectors.toList());
+
+        Map<String, V1Pod> candidates = new HashMap<>();
+        currentTasks.values().forEach(task -> {
+            if (TaskState.isTerminalState(task.getStatus().getState())) {
+                kubeInformerIndexes.findPod(task.getId()).ifPresent(pod -> candidates.put(task.getId(), pod));
+            }
+        });
+        for (String phase : TERMINAL_POD_PHASES) {
+            kubeInformerIndexes.getPodsInPhase(phase).forEach(pod ->
+                    candidates.put(KubeUtil.getMetadataName(pod.getMetadata()), pod)
+            );
+        }
+
+        List<V1Pod> result = new ArrayList<>();
+        for (V1Pod pod : candidates.values()) {
+            if (isPodTerminal(pod, currentTasks)) {
+                result.add(pod);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -162,4 +162,16 @@ public interface KubePodConfiguration {
      * @return the pod spec target region to use
      */
     String getTargetRegion();
+
+    /**
+     * Maximum number of jobs for which pod templates are cached.
+     */
+    @DefaultValue("10000")
+    long getPodTemplateCacheMaxSize();
+
+    /**
+     * Time after which a cached pod template is rebuilt, so configuration changes are picked up by running jobs.
+     */
+    @DefaultValue("300000")
+    long getPodTemplateCacheExpiryMs();
 }
@@ -16,17 +16,23 @@
 
 package com.netflix.titus.master.kubernetes.pod.v1;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
 import com.netflix.titus.api.jobmanager.JobAttributes;
 import com.netflix.titus.api.jobmanager.TaskAttributes;
 import com.netflix.titus.api.jobmanager.model.job.BasicContainer;
@@ -42,12 +48,15 @@ import com.netflix.titus.api.jobmanager.model.job.LogStorageInfo;
 import com.netflix.titus.api.jobmanager.model.job.LogStorageInfos;
 import com.netflix.titus.api.jobmanager.model.job.SecurityProfile;
 import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.Version;
 import com.netflix.titus.api.model.ApplicationSLA;
 import com.netflix.titus.api.model.EfsMount;
+import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.Evaluators;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.jobmanager.service.JobManagerUtil;
 import com.netflix.titus.master.kubernetes.PerformanceToolUtil;
 import com.netflix.titus.master.kubernetes.pod.KubePodConfiguration;
@@ -63,6 +72,7 @@ import com.netflix.titus.runtime.kubernetes.KubeConstants;
 import io.kubernetes.client.custom.Quantity;
 import io.kubernetes.client.openapi.models.V1Affinity;
 import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1ContainerBuilder;
 import io.kubernetes.client.openapi.models.V1EmptyDirVolumeSource;
 import io.kubernetes.client.openapi.models.V1EnvVar;
 import io.kubernetes.client.openapi.models.V1NFSVolumeSource;
@@ -70,8 +80,12 @@ import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodSpec;
 import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraintBuilder;
 import io.kubernetes.client.openapi.models.V1Volume;
+import io.kubernetes.client.openapi.models.V1VolumeBuilder;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
+import io.kubernetes.client.openapi.models.V1VolumeMountBuilder;
 
 import static com.netflix.titus.api.jobmanager.JobAttributes.JOB_CONTAINER_ATTRIBUTE_ACCOUNT_ID;
 import static com.netflix.titus.api.jobmanager.JobAttributes.JOB_CONTAINER_ATTRIBUTE_IMDS_REQUIRE_TOKEN;
@@ -162,11 +176,19 @@ import static com.netflix.titus.master.kubernetes.pod.KubePodUtil.selectSchedule
 import static com.netflix.titus.master.kubernetes.pod.KubePodUtil.toV1EnvVar;
 
 
+/**
+ * Pod factory for the V1 pod schema. Most of the pod data depends on the job only, so it is built once per job version
+ * into a {@link PodTemplate}, and only the task specific parts (task id, environment, affinity, tolerations, EBS volume)
+ * are resolved for each task.
+ */
 @Singleton
 public class V1SpecPodFactory implements PodFactory {
 
     public static final String DEV_SHM = "dev-shm";
     public static final String DEV_SHM_MOUNT_PATH = "/dev/shm";
+
+    private static final String METRIC_ROOT = MetricConstants.METRIC_KUBERNETES + "podFactory.";
+
     private final KubePodConfiguration configuration;
     private final ApplicationSlaManagementService capacityGroupManagement;
     private final PodAffinityFactory podAffinityFactory;
@@ -176,6 +198,12 @@ public class V1SpecPodFactory implements PodFactory {
     private final LogStorageInfo<Task> logStorageInfo;
     private final SchedulerConfiguration schedulerConfiguration;
 
+    private final Cache<String, PodTemplate> templateCache;
+
+    private final Registry registry;
+    private final Id templateCacheId;
+    private final Id templateBuildId;
+
     @Inject
     public V1SpecPodFactory(KubePodConfiguration configuration,
                             ApplicationSlaManagementService capacityGroupManagement,
@@ -184,7 +212,8 @@ public class V1SpecPodFactory implements PodFactory {
                             TopologyFactory topologyFactory,
                             ContainerEnvFactory containerEnvFactory,
                             LogStorageInfo<Task> logStorageInfo,
-                            SchedulerConfiguration schedulerConfiguration) {
+                            SchedulerConfiguration schedulerConfiguration,
+                            TitusRuntime titusRuntime) {
         this.configuration = configuration;
         this.capacityGroupManagement = capacityGroupManagement;
         this.podAffinityFactory = podAffinityFactory;
@@ -194,13 +223,23 @@ public class V1SpecPodFactory implements PodFactory {
         this.logStorageInfo = logStorageInfo;
         this.schedulerConfiguration = schedulerConfiguration;
 
+        this.templateCache = Caffeine.newBuilder()
+                .maximumSize(configuration.getPodTemplateCacheMaxSize())
+                .expireAfterWrite(configuration.getPodTemplateCacheExpiryMs(), TimeUnit.MILLISECONDS)
+                .build();
+
+        this.registry = titusRuntime.getRegistry();
+        this.templateCacheId = registry.createId(METRIC_ROOT + "templateCache");
+        this.templateBuildId = registry.createId(METRIC_ROOT + "templateBuild");
     }
 
     @Override
     public V1Pod buildV1Pod(Job<?> job, Task task) {
+        PodTemplate template = getPodTemplate(job);
 
         String taskId = task.getId();
-        Map<String, String> annotations = createV1SchemaPodAnnotations(job, task);
+        Map<String, String> annotations = new HashMap<>(template.getAnnotations());
+        appendTaskAnnotations(annotations, job, task);
 
         Pair<V1Affinity, Map<String, String>> affinityWithMetadata = podAffinityFactory.buildV1Affinity(job, task);
         annotations.putAll(affinityWithMetadata.getRight());
@@ -209,17 +248,10 @@ public class V1SpecPodFactory implements PodFactory {
         List<V1EnvVar> envVarsList = toV1EnvVar(envVarsWithIndex.getRight());
         annotations.put(POD_SYSTEM_ENV_VAR_NAMES, String.join(",", envVarsWithIndex.getLeft()));
 
-        Map<String, String> labels = new HashMap<>();
-        labels.put(KubeConstants.POD_LABEL_JOB_ID, job.getId());
+        Map<String, String> labels = new HashMap<>(template.getLabels());
         labels.put(KubeConstants.POD_LABEL_TASK_ID, taskId);
 
-        JobManagerUtil.getRelocationBinpackMode(job).ifPresent(mode -> labels.put(KubeConstants.POD_LABEL_RELOCATION_BINPACK, mode));
-
-        // A V1Container has no room to store the original tag that the Image came from, so we store it as an
-        // annotation. Only saving the 'main' one for now.
-        annotations.put(POD_IMAGE_TAG_PREFIX + "main", job.getJobDescriptor().getContainer().getImage().getTag());
-
-        JobDescriptor<?> jobDescriptor = job.getJobDescriptor();
+        // Capacity groups may change independently of the job, so they are resolved for each task.
         String capacityGroup = JobManagerUtil.getCapacityGroupDescriptorName(job.getJobDescriptor(), capacityGroupManagement).toLowerCase();
         labels.put(KubeConstants.LABEL_CAPACITY_GROUP, capacityGroup);
 
@@ -229,28 +261,24 @@ public class V1SpecPodFactory implements PodFactory {
                 .annotations(annotations)
                 .labels(labels);
 
-        V1Container container = new V1Container()
-                .name("main")
-                .image(KubePodUtil.buildImageString(configuration.getRegistryUrl(), jobDescriptor.getContainer().getImage()))
-                .env(envVarsList)
-                .resources(buildV1ResourceRequirements(job.getJobDescriptor().getContainer().getContainerResources()))
-                .imagePullPolicy(DEFAULT_IMAGE_PULL_POLICY)
-                .volumeMounts(KubePodUtil.buildV1VolumeMounts(job.getJobDescriptor().getContainer().getVolumeMounts()));
-
-        Container jobContainer = jobDescriptor.getContainer();
-        if (CollectionsExt.isNullOrEmpty(jobContainer.getCommand()) && !shouldSkipEntryPointJoin(jobDescriptor.getAttributes())) {
-            // use the old behavior where the agent needs to do shell splitting
-            String entrypointStr = StringExt.concatenate(jobContainer.getEntryPoint(), " ");
-            container.setCommand(Collections.singletonList(entrypointStr));
-            annotations.put(ENTRYPOINT_SHELL_SPLITTING_ENABLED, "true");
-        } else {
-            container.setCommand(jobContainer.getEntryPoint());
-            container.setArgs(jobContainer.getCommand());
+        // volumes need to be correctly added to pod spec
+        List<V1Volume> volumes = template.newVolumes();
+        List<V1VolumeMount> volumeMounts = template.newVolumeMounts();
+        Optional<Pair<V1Volume, V1VolumeMount>> optionalEbsVolumeInfo = buildV1EBSObjects(job, task);
+        if (optionalEbsVolumeInfo.isPresent()) {
+            volumes.add(optionalEbsVolumeInfo.get().getLeft());
+            volumeMounts.add(optionalEbsVolumeInfo.get().getRight());
         }
+        volumes.addAll(template.newTrailingVolumes());
+        volumeMounts.addAll(template.newTrailingVolumeMounts());
+
+        V1Container container = template.newMainContainer()
+                .env(envVarsList)
+                .volumeMounts(volumeMounts);
 
-        List<V1Container> extraContainers = buildV1ExtraContainers(job.getJobDescriptor().getExtraContainers());
-        List<V1Container> allContainers = Stream.concat(Stream.of(container), extraContainers.stream()).collect(Collectors.toList());
-        List<V1Volume> volumes = buildV1Volumes(job.getJobDescriptor().getVolumes());
+        List<V1Container> allContainers = new ArrayList<>();
+        allContainers.add(container);
+        allContainers.addAll(template.newExtraContainers());
 
         ApplicationSLA capacityGroupDescriptor = JobManagerUtil.getCapacityGroupDescriptor(job.getJobDescriptor(), capacityGroupManagement);
         String schedulerName = selectScheduler(schedulerConfiguration, capacityGroupDescriptor, configuration);
@@ -260,25 +288,90 @@ public class V1SpecPodFactory implements PodFactory {
                 .schedulerName(schedulerName)
                 .containers(allContainers)
                 .volumes(volumes)
-                .terminationGracePeriodSeconds(getTerminationGracePeriodSeconds(job))
+                .terminationGracePeriodSeconds(template.getTerminationGracePeriodSeconds())
                 .restartPolicy(NEVER_RESTART_POLICY)
                 .dnsPolicy(DEFAULT_DNS_POLICY)
                 .affinity(affinityWithMetadata.getLeft())
                 .priorityClassName(priorityClassName)
                 .tolerations(taintTolerationFactory.buildV1Toleration(job, task))
-                .topologySpreadConstraints(topologyFactory.buildTopologySpreadConstraints(job));
+                .topologySpreadConstraints(template.newTopologySpreadConstraints());
 
-        // volumes need to be correctly added to pod spec
-        Optional<Pair<V1Volume, V1VolumeMount>> optionalEbsVolumeInfo = buildV1EBSObjects(job, task);
-        if (optionalEbsVolumeInfo.isPresent()) {
-            spec.addVolumesItem(optionalEbsVolumeInfo.get().getLeft());
-            container.addVolumeMountsItem(optionalEbsVolumeInfo.get().getRight());
+        return new V1Pod().metadata(metadata).spec(spec);
+    }
+
+    private PodTemplate getPodTemplate(Job<?> job) {
+        PodTemplate template = templateCache.getIfPresent(job.getId());
+        if (template != null && template.isBuiltFor(job)) {
+            registry.counter(templateCacheId.withTag("result", "hit")).increment();
+            return template;
         }
+        registry.counter(templateCacheId.withTag("result", "miss")).increment();
 
-        appendEfsMounts(spec, container, job);
-        appendShmMount(spec, container, job);
+        long startTime = System.nanoTime();
+        template = buildPodTemplate(job);
+        registry.timer(templateBuildId).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
 
-        return new V1Pod().metadata(metadata).spec(spec);
+        templateCache.put(job.getId(), template);
+        return template;
+    }
+
+    /**
+     * Builds the part of the pod that depends on the job only. The returned template is shared by all tasks of the job.
+     */
+    @VisibleForTesting
+    PodTemplate buildPodTemplate(Job<?> job) {
+        JobDescriptor<?> jobDescriptor = job.getJobDescriptor();
+        Map<String, String> annotations = createV1SchemaJobAnnotations(job);
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put(KubeConstants.POD_LABEL_JOB_ID, job.getId());
+
+        JobManagerUtil.getRelocationBinpackMode(job).ifPresent(mode -> labels.put(KubeConstants.POD_LABEL_RELOCATION_BINPACK, mode));
+
+        // A V1Container has no room to store the original tag that the Image came from, so we store it as an
+        // annotation. Only saving the 'main' one for now.
+        annotations.put(POD_IMAGE_TAG_PREFIX + "main", jobDescriptor.getContainer().getImage().getTag());
+
+        V1Container container = new V1Container()
+                .name("main")
+                .image(KubePodUtil.buildImageString(configuration.getRegistryUrl(), jobDescriptor.getContainer().getImage()))
+                .resources(buildV1ResourceRequirements(jobDescriptor.getContainer().getContainerResources()))
+                .imagePullPolicy(DEFAULT_IMAGE_PULL_POLICY);
+
+        Container jobContainer = jobDescriptor.getContainer();
+        if (CollectionsExt.isNullOrEmpty(jobContainer.getCommand()) && !shouldSkipEntryPointJoin(jobDescriptor.getAttributes())) {
+            // use the old behavior where the agent needs to do shell splitting
+            String entrypointStr = StringExt.concatenate(jobContainer.getEntryPoint(), " ");
+            container.setCommand(Collections.singletonList(entrypointStr));
+            annotations.put(ENTRYPOINT_SHELL_SPLITTING_ENABLED, "true");
+        } else {
+            container.setCommand(jobContainer.getEntryPoint());
+            container.setArgs(jobContainer.getCommand());
+        }
+
+        List<V1VolumeMount> volumeMounts = KubePodUtil.buildV1VolumeMounts(jobContainer.getVolumeMounts());
+        List<V1Volume> volumes = new ArrayList<>(buildV1Volumes(jobDescriptor.getVolumes()));
+
+        // The EBS volume is task specific, and goes in between the job volumes, and the EFS and shm ones.
+        V1PodSpec trailingSpec = new V1PodSpec().volumes(new ArrayList<>(volumes));
+        V1Container trailingContainer = new V1Container().volumeMounts(new ArrayList<>());
+        appendEfsMounts(trailingSpec, trailingContainer, job);
+        appendShmMount(trailingSpec, trailingContainer, job);
+        List<V1Volume> trailingVolumes = new ArrayList<>(trailingSpec.getVolumes().subList(volumes.size(), trailingSpec.getVolumes().size()));
+
+        return new PodTemplate(
+                job,
+                annotations,
+                labels,
+                container,
+                buildV1ExtraContainers(jobDescriptor.getExtraContainers()),
+                volumes,
+                volumeMounts,
+                trailingVolumes,
+                trailingContainer.getVolumeMounts(),
+                getTerminationGracePeriodSeconds(job),
+                topologyFactory.buildTopologySpreadConstraints(job)
+        );
     }
 
     private List<V1Container> buildV1ExtraContainers(List<BasicContainer> extraContainers) {
@@ -345,6 +438,12 @@ public class V1SpecPodFactory implements PodFactory {
             Job<?> job,
             Task task
     ) {
+        Map<String, String> annotations = createV1SchemaJobAnnotations(job);
+        appendTaskAnnotations(annotations, job, task);
+        return annotations;
+    }
+
+    private Map<String, String> createV1SchemaJobAnnotations(Job<?> job) {
         com.netflix.titus.api.jobmanager.model.job.JobDescriptor<?> jobDescriptor = job.getJobDescriptor();
         Container container = jobDescriptor.getContainer();
 
@@ -395,10 +494,6 @@ public class V1SpecPodFactory implements PodFactory {
                 job.getJobDescriptor().getAttributes().get(JobAttributes.JOB_ATTRIBUTES_RUNTIME_PREDICTION_SEC),
                 runtimeInSec -> annotations.put(KubeConstants.JOB_RUNTIME_PREDICTION, runtimeInSec + "s")
         );
-        Evaluators.acceptNotNull(
-                task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_IP_ALLOCATION_ID),
-                id -> annotations.put(AnnotationKeyNetworkStaticIPAllocationUUID, id)
-        );
         Evaluators.acceptNotNull(
                 job.getJobDescriptor().getNetworkConfiguration().getNetworkModeName(),
                 modeName -> annotations.put(AnnotationKeyNetworkMode, modeName)
@@ -480,14 +575,21 @@ public class V1SpecPodFactory implements PodFactory {
             }
         });
 
-        appendS3WriterRole(annotations, job, task);
-        annotations.putAll(createEbsPodAnnotations(job, task));
         annotations.putAll(PerformanceToolUtil.toAnnotations(job));
         annotations.putAll(createPlatformSidecarAnnotations(job));
 
         return annotations;
     }
 
+    private void appendTaskAnnotations(Map<String, String> annotations, Job<?> job, Task task) {
+        Evaluators.acceptNotNull(
+                task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_IP_ALLOCATION_ID),
+                id -> annotations.put(AnnotationKeyNetworkStaticIPAllocationUUID, id)
+        );
+        appendS3WriterRole(annotations, job, task);
+        annotations.putAll(createEbsPodAnnotations(job, task));
+    }
+
     private boolean shouldSkipEntryPointJoin(Map<String, String> jobAttributes) {
         return Boolean.parseBoolean(jobAttributes.getOrDefault(JobAttributes.JOB_PARAMETER_ATTRIBUTES_ENTRY_POINT_SKIP_SHELL_PARSING,
                 "false").trim());
@@ -598,4 +700,106 @@ public class V1SpecPodFactory implements PodFactory {
 
         spec.addVolumesItem(volume);
     }
+
+    /**
+     * Job derived part of a pod. A template is valid for as long as the job version and descriptor do not change.
+     * The Kubernetes model objects are mutable, so each pod gets its own copies of them, built with the model builders.
+     */
+    @VisibleForTesting
+    static class PodTemplate {
+
+        private final Version jobVersion;
+        private final JobDescriptor<?> jobDescriptor;
+        private final Map<String, String> annotations;
+        private final Map<String, String> labels;
+        private final V1Container mainContainer;
+        private final List<V1Container> extraContainers;
+        private final List<V1Volume> volumes;
+        private final List<V1VolumeMount> volumeMounts;
+        private final List<V1Volume> trailingVolumes;
+        private final List<V1VolumeMount> trailingVolumeMounts;
+        private final Long terminationGracePeriodSeconds;
+        private final List<V1TopologySpreadConstraint> topologySpreadConstraints;
+
+        private PodTemplate(Job<?> job,
+                            Map<String, String> annotations,
+                            Map<String, String> labels,
+                            V1Container mainContainer,
+                            List<V1Container> extraContainers,
+                            List<V1Volume> volumes,
+                            List<V1VolumeMount> volumeMounts,
+                            List<V1Volume> trailingVolumes,
+                            List<V1VolumeMount> trailingVolumeMounts,
+                            Long terminationGracePeriodSeconds,
+                            List<V1TopologySpreadConstraint> topologySpreadConstraints) {
+            this.jobVersion = job.getVersion();
+            this.jobDescriptor = job.getJobDescriptor();
+            this.annotations = Collections.unmodifiableMap(annotations);
+            this.labels = Collections.unmodifiableMap(labels);
+            this.mainContainer = mainContainer;
+            this.extraContainers = Collections.unmodifiableList(extraContainers);
+            this.volumes = Collections.unmodifiableList(volumes);
+            this.volumeMounts = Collections.unmodifiableList(volumeMounts);
+            this.trailingVolumes = Collections.unmodifiableList(trailingVolumes);
+            this.trailingVolumeMounts = Collections.unmodifiableList(trailingVolumeMounts);
+            this.terminationGracePeriodSeconds = terminationGracePeriodSeconds;
+            this.topologySpreadConstraints = topologySpreadConstraints == null
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(topologySpreadConstraints);
+        }
+
+        boolean isBuiltFor(Job<?> job) {
+            return Objects.equals(jobVersion, job.getVersion()) && jobDescriptor.equals(job.getJobDescriptor());
+        }
+
+        Map<String, String> getAnnotations() {
+            return annotations;
+        }
+
+        Map<String, String> getLabels() {
+            return labels;
+        }
+
+        V1Container newMainContainer() {
+            return new V1ContainerBuilder(mainContainer).build();
+        }
+
+        List<V1Container> newExtraContainers() {
+            return extraContainers.stream().map(container -> new V1ContainerBuilder(container).build()).collect(Collectors.toList());
+        }
+
+        List<V1Volume> newVolumes() {
+            return copyVolumes(volumes);
+        }
+
+        List<V1VolumeMount> newVolumeMounts() {
+            return copyVolumeMounts(volumeMounts);
+        }
+
+        List<V1Volume> newTrailingVolumes() {
+            return copyVolumes(trailingVolumes);
+        }
+
+        List<V1VolumeMount> newTrailingVolumeMounts() {
+            return copyVolumeMounts(trailingVolumeMounts);
+        }
+
+        Long getTerminationGracePeriodSeconds() {
+            return terminationGracePeriodSeconds;
+        }
+
+        List<V1TopologySpreadConstraint> newTopologySpreadConstraints() {
+            return topologySpreadConstraints.stream()
+                    .map(constraint -> new V1TopologySpreadConstraintBuilder(constraint).build())
+                    .collect(Collectors.toList());
+        }
+
+        private static List<V1Volume> copyVolumes(List<V1Volume> volumes) {
+            return volumes.stream().map(volume -> new V1VolumeBuilder(volume).build()).collect(Collectors.toList());
+        }
+
+        private static List<V1VolumeMount> copyVolumeMounts(List<V1VolumeMount> volumeMounts) {
+            return volumeMounts.stream().map(volumeMount -> new V1VolumeMountBuilder(volumeMount).build()).collect(Collectors.toList());
+        }
+    }
 }
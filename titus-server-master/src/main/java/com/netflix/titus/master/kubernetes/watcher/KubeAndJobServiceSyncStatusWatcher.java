@@ -18,16 +18,20 @@ package com.netflix.titus.master.kubernetes.watcher;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.base.Stopwatch;
+import com.netflix.spectator.api.Timer;
 import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.Task;
@@ -44,6 +48,7 @@ import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.guice.annotation.Deactivator;
 import com.netflix.titus.common.util.tuple.Either;
 import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.kubernetes.ContainerResultCodeResolver;
 import com.netflix.titus.master.kubernetes.KubernetesConfiguration;
 import com.netflix.titus.master.kubernetes.PodToTaskMapper;
@@ -71,6 +76,8 @@ public class KubeAndJobServiceSyncStatusWatcher {
     private final ContainerResultCodeResolver containerResultCodeResolver;
     private final TitusRuntime titusRuntime;
 
+    private final Timer processTimer;
+
     private ScheduleReference schedulerRef;
 
     private final ConcurrentMap<String, TaskHolder> capturedState = new ConcurrentHashMap<>();
@@ -86,6 +93,7 @@ public class KubeAndJobServiceSyncStatusWatcher {
         this.jobService = jobService;
         this.containerResultCodeResolver = containerResultCodeResolver;
         this.titusRuntime = titusRuntime;
+        this.processTimer = titusRuntime.getRegistry().timer(MetricConstants.METRIC_KUBERNETES + "syncStatusWatcher.process");
     }
 
     @Activator
@@ -139,26 +147,28 @@ public class KubeAndJobServiceSyncStatusWatcher {
             return;
         }
 
+        Stopwatch stopwatch = Stopwatch.createStarted();
         try {
-            if (!jobService.getJobsAndTasks().isEmpty()) {
-                // Remove tasks not found in job service
-                Set<String> taskIds = jobService.getJobsAndTasks().stream()
+            // A single job service snapshot is used for the whole pass.
+            List<Pair<Job, List<Task>>> jobsAndTasks = jobService.getJobsAndTasks();
+            if (!jobsAndTasks.isEmpty()) {
+                List<Task> tasks = jobsAndTasks.stream()
                         .flatMap(jobAndTasks -> jobAndTasks.getRight().stream())
-                        .map(Task::getId)
-                        .collect(Collectors.toSet());
+                        .collect(Collectors.toList());
+
+                // Remove tasks not found in job service
+                Set<String> taskIds = tasks.stream().map(Task::getId).collect(Collectors.toSet());
                 capturedState.keySet().retainAll(taskIds);
 
                 // Update job service task state
-                jobService.getJobsAndTasks().forEach(jobAndTasks ->
-                        jobAndTasks.getRight().forEach(task -> {
-                            TaskHolder taskHolder = capturedState.get(task.getId());
-                            if (taskHolder == null || taskHolder.getPod() == null) {
-                                capturedState.put(task.getId(), new TaskHolder(task));
-                            } else {
-                                capturedState.put(task.getId(), new TaskHolder(taskHolder.getPod(), taskHolder.isPodDeleted()));
-                            }
-                        })
-                );
+                tasks.forEach(task -> {
+                    TaskHolder taskHolder = capturedState.get(task.getId());
+                    if (taskHolder == null || taskHolder.getPod() == null) {
+                        capturedState.put(task.getId(), new TaskHolder(task));
+                    } else {
+                        capturedState.put(task.getId(), new TaskHolder(taskHolder.getPod(), taskHolder.isPodDeleted()));
+                    }
+                });
             }
 
             logger.info("Captured state size: {}", (long) capturedState.values().size());
@@ -171,6 +181,9 @@ public class KubeAndJobServiceSyncStatusWatcher {
         } catch (Exception e) {
             logger.error("Processing error", e);
         }
+        long elapsedMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        processTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        logger.info("Sync status pass finished in {}ms", elapsedMs);
     }
 
     class TaskHolder {
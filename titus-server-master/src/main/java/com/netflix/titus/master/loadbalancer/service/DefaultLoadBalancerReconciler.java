@@ -18,8 +18,10 @@ package com.netflix.titus.master.loadbalancer.service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +37,7 @@ import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
 import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.titus.api.connector.cloud.LoadBalancer;
 import com.netflix.titus.api.connector.cloud.LoadBalancerConnector;
@@ -80,12 +83,20 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     // visibility across multiple reconciliation runs, which may run on different threads
     private final Set<JobLoadBalancer> markedAsOrphan = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Outcome of the last reconciliation for each load balancer, used to prioritize load balancers with changes and to
+     * skip the ones that have not changed since they were last found in sync.
+     */
+    private final ConcurrentMap<String, ReconciliationState> lastReconciled = new ConcurrentHashMap<>();
+
     private final LoadBalancerStore store;
     private final LoadBalancerConnector connector;
     private final LoadBalancerJobOperations jobOperations;
     // TODO: make dynamic and switch to a Supplier<Long>
     private final long delayMs;
     private final Supplier<Long> timeoutMs;
+    private final Supplier<Integer> concurrencyLimit;
+    private final Supplier<Long> unchangedSkipMaxMs;
     private final Runnable afterReconciliation;
     private final Registry registry;
     private final Scheduler scheduler;
@@ -93,11 +104,13 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     private final Counter registerCounter;
     private final Counter deregisterCounter;
     private final Counter removeCounter;
+    private final Counter changedCounter;
+    private final Counter skippedCounter;
     private final ContinuousSubscriptionMetrics fullReconciliationMetrics;
     private final ContinuousSubscriptionMetrics orphanUpdateMetrics;
     private final ContinuousSubscriptionMetrics removeMetrics;
     private final ContinuousSubscriptionMetrics removeTargetsMetrics;
-    private final ContinuousSubscriptionMetrics registeredIpsMetrics;
+    private final Timer registeredIpsTimer;
     private final Id ignoredMetricsId;
     private final Id orphanMetricsId;
 
@@ -123,6 +136,8 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         this.jobOperations = loadBalancerJobOperations;
         this.delayMs = configuration.getReconciliationDelayMs();
         this.timeoutMs = configuration::getReconciliationTimeoutMs;
+        this.concurrencyLimit = configuration::getReconciliationConcurrencyLimit;
+        this.unchangedSkipMaxMs = configuration::getReconciliationUnchangedSkipMaxMs;
         this.afterReconciliation = afterReconciliation;
         this.registry = registry;
         this.scheduler = scheduler;
@@ -132,11 +147,13 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         this.registerCounter = registry.counter(updatesCounterId.withTag("operation", "register"));
         this.deregisterCounter = registry.counter(updatesCounterId.withTag("operation", "deregister"));
         this.removeCounter = registry.counter(updatesCounterId.withTag("operation", "remove"));
+        this.changedCounter = registry.counter(METRIC_RECONCILER + ".changed", tags);
+        this.skippedCounter = registry.counter(METRIC_RECONCILER + ".skipped", tags);
         this.fullReconciliationMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".full", tags, registry);
         this.orphanUpdateMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".orphanUpdates", tags, registry);
         this.removeMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".remove", tags, registry);
         this.removeTargetsMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".removeTargets", tags, registry);
-        this.registeredIpsMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".getRegisteredIps", tags, registry);
+        this.registeredIpsTimer = registry.timer(METRIC_RECONCILER + ".getRegisteredIps.latency", tags);
         this.ignoredMetricsId = registry.createId(METRIC_RECONCILER + ".ignored", tags);
         this.orphanMetricsId = registry.createId(METRIC_RECONCILER + ".orphan", tags);
         PolledMeter.using(registry).withId(ignoredMetricsId).monitorSize(ignored);
@@ -155,7 +172,6 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     public void shutdown() {
         orphanUpdateMetrics.remove();
         removeMetrics.remove();
-        registeredIpsMetrics.remove();
         PolledMeter.remove(registry, ignoredMetricsId);
         PolledMeter.remove(registry, orphanMetricsId);
     }
@@ -165,9 +181,10 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         Observable<Map.Entry<String, List<JobLoadBalancerState>>> cleanupOrphansAndSnapshot = updateOrphanAssociations()
                 .andThen(snapshotAssociationsByLoadBalancer());
 
-        // full reconciliation run
-        Observable<TargetStateBatchable> updatesForAll = cleanupOrphansAndSnapshot
-                .flatMap(entry -> reconcile(entry.getKey(), entry.getValue()), 1)
+        // full reconciliation run, load balancers are subscribed to in the snapshot order (changed ones first)
+        Observable<TargetStateBatchable> updatesForAll = Observable.defer(() -> cleanupOrphansAndSnapshot
+                .flatMap(entry -> reconcile(entry.getKey(), entry.getValue()), Math.max(1, concurrencyLimit.get()))
+        )
                 .compose(ObservableExt.subscriptionTimeout(timeoutMs, TimeUnit.MILLISECONDS, scheduler))
                 .compose(fullReconciliationMetrics.asObservable())
                 .doOnError(e -> logger.error("reconciliation failed", e))
@@ -181,20 +198,26 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     }
 
     private Observable<TargetStateBatchable> reconcile(String loadBalancerId, List<JobLoadBalancerState> associations) {
-        Observable<TargetStateBatchable> updatesForLoadBalancer = connector.getLoadBalancer(loadBalancerId)
-                // merge known targets
-                .flatMap(loadBalancer -> ReactorExt.toSingle(
-                        store.getLoadBalancerTargets(loadBalancer.getId())
-                                .collect(Collectors.toSet())
-                                .map(knownTargets -> new LoadBalancerWithKnownTargets(loadBalancer, knownTargets))
-                ))
-                // the same metrics transformer can be used for all subscriptions only because they are all being
-                // serialized with flatMap(maxConcurrent: 1)
-                .compose(registeredIpsMetrics.asSingle())
-                .flatMapObservable(loadBalancerTargets -> updatesFor(loadBalancerTargets, associations));
+        Observable<TargetStateBatchable> updatesForLoadBalancer = Observable.defer(() -> {
+            long startTime = registry.clock().wallTime();
+            return connector.getLoadBalancer(loadBalancerId)
+                    // merge known targets
+                    .flatMap(loadBalancer -> ReactorExt.toSingle(
+                            store.getLoadBalancerTargets(loadBalancer.getId())
+                                    .collect(Collectors.toSet())
+                                    .map(knownTargets -> new LoadBalancerWithKnownTargets(loadBalancer, knownTargets))
+                    ))
+                    // multiple load balancers are reconciled concurrently, so each call is timed on its own
+                    .doOnSuccess(ignored -> registeredIpsTimer.record(registry.clock().wallTime() - startTime, TimeUnit.MILLISECONDS))
+                    .doOnError(ignored -> registeredIpsTimer.record(registry.clock().wallTime() - startTime, TimeUnit.MILLISECONDS))
+                    .flatMapObservable(loadBalancerTargets -> updatesFor(loadBalancerTargets, associations));
+        });
 
         return updatesForLoadBalancer
-                .doOnError(e -> logger.error("Error while reconciling load balancer {}", loadBalancerId, e))
+                .doOnError(e -> {
+                    logger.error("Error while reconciling load balancer {}", loadBalancerId, e);
+                    lastReconciled.remove(loadBalancerId);
+                })
                 .onErrorResumeNext(Observable.empty());
     }
 
@@ -213,10 +236,15 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
                                                         List<JobLoadBalancerState> associations) {
         Instant now = now();
 
-        ReconciliationUpdates updates = (loadBalancer.current.getState().equals(LoadBalancer.State.ACTIVE)) ?
-                updatesForActiveLoadBalancer(loadBalancer, associations)
+        boolean active = loadBalancer.current.getState().equals(LoadBalancer.State.ACTIVE);
+        Set<LoadBalancerTarget> shouldBeRegistered = active ? shouldBeRegistered(associations) : Collections.emptySet();
+        ReconciliationUpdates updates = active ?
+                updatesForActiveLoadBalancer(loadBalancer, shouldBeRegistered)
                 : updatesForRemovedLoadBalancer(loadBalancer, associations);
 
+        boolean inSync = active && updates.isEmpty() && associations.stream().allMatch(JobLoadBalancerState::isStateAssociated);
+        lastReconciled.put(loadBalancer.current.getId(), new ReconciliationState(associations, shouldBeRegistered, scheduler.now(), inSync));
+
         Completable cleanupTargets = (!updates.toRemove.isEmpty()) ?
                 ReactorExt.toCompletable(store.removeDeregisteredTargets(updates.toRemove))
                         // bring processing back the the Rx threads, otherwise it happens in the C* driver threadpool
@@ -246,12 +274,14 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
                 .andThen(updatesForLoadBalancer);
     }
 
-    private ReconciliationUpdates updatesForActiveLoadBalancer(LoadBalancerWithKnownTargets loadBalancer, List<JobLoadBalancerState> associations) {
-        Set<LoadBalancerTarget> shouldBeRegistered = associations.stream()
+    private Set<LoadBalancerTarget> shouldBeRegistered(List<JobLoadBalancerState> associations) {
+        return associations.stream()
                 .filter(JobLoadBalancerState::isStateAssociated)
                 .flatMap(association -> targetsForJobSafe(association).stream())
                 .collect(Collectors.toSet());
+    }
 
+    private ReconciliationUpdates updatesForActiveLoadBalancer(LoadBalancerWithKnownTargets loadBalancer, Set<LoadBalancerTarget> shouldBeRegistered) {
         Set<LoadBalancerTarget> toRegister = shouldBeRegistered.stream()
                 .filter(target -> !loadBalancer.current.getRegisteredIps().contains(target.getIpAddress()))
                 .collect(Collectors.toSet());
@@ -346,16 +376,39 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     }
 
     /**
+     * Load balancers whose associations or expected targets changed since their last reconciliation are emitted
+     * first. Unchanged load balancers that were found in sync less than <tt>unchangedSkipMaxMs</tt> ago are skipped,
+     * since the only thing that could have changed for them is the state of the load balancer itself.
+     *
      * @return emit loadBalancerId -> listOfAssociation pairs to subscribers
      */
     private Observable<Map.Entry<String, List<JobLoadBalancerState>>> snapshotAssociationsByLoadBalancer() {
         return Observable.defer(() -> {
             cleanupExpiredIgnored();
             logger.debug("Snapshotting current associations");
-            Set<Map.Entry<String, List<JobLoadBalancerState>>> pairs = store.getAssociations().stream()
-                    .collect(Collectors.groupingBy(JobLoadBalancerState::getLoadBalancerId))
-                    .entrySet();
-            return Observable.from(pairs);
+            Map<String, List<JobLoadBalancerState>> byLoadBalancer = store.getAssociations().stream()
+                    .collect(Collectors.groupingBy(JobLoadBalancerState::getLoadBalancerId));
+            lastReconciled.keySet().retainAll(byLoadBalancer.keySet());
+
+            long now = scheduler.now();
+            long skipMaxMs = unchangedSkipMaxMs.get();
+            List<Map.Entry<String, List<JobLoadBalancerState>>> changed = new ArrayList<>();
+            List<Map.Entry<String, List<JobLoadBalancerState>>> unchanged = new ArrayList<>();
+            int skipped = 0;
+            for (Map.Entry<String, List<JobLoadBalancerState>> entry : byLoadBalancer.entrySet()) {
+                ReconciliationState previous = lastReconciled.get(entry.getKey());
+                if (previous == null || !previous.isUnchanged(entry.getValue(), shouldBeRegistered(entry.getValue()))) {
+                    changed.add(entry);
+                } else if (previous.inSync && now - previous.timestamp < skipMaxMs) {
+                    skipped++;
+                } else {
+                    unchanged.add(entry);
+                }
+            }
+            changedCounter.increment(changed.size());
+            skippedCounter.increment(skipped);
+            logger.debug("Load balancers to reconcile: changed={}, unchanged={}, skipped={}", changed.size(), unchanged.size(), skipped);
+            return Observable.from(CollectionsExt.merge(changed, unchanged));
         });
     }
 
@@ -412,6 +465,33 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         }
     }
 
+    private static class ReconciliationState {
+        private final Set<JobLoadBalancerState> associations;
+        /**
+         * Targets of the associated jobs at the time of the reconciliation.
+         */
+        private final Set<LoadBalancerTarget> shouldBeRegistered;
+        private final long timestamp;
+        /**
+         * No updates were necessary, and no dissociated jobs were waiting to be cleaned up.
+         */
+        private final boolean inSync;
+
+        private ReconciliationState(List<JobLoadBalancerState> associations, Set<LoadBalancerTarget> shouldBeRegistered,
+                                    long timestamp, boolean inSync) {
+            this.associations = new HashSet<>(associations);
+            this.shouldBeRegistered = shouldBeRegistered;
+            this.timestamp = timestamp;
+            this.inSync = inSync;
+        }
+
+        private boolean isUnchanged(List<JobLoadBalancerState> associations, Set<LoadBalancerTarget> shouldBeRegistered) {
+            return this.associations.size() == associations.size()
+                    && this.associations.containsAll(associations)
+                    && this.shouldBeRegistered.equals(shouldBeRegistered);
+        }
+    }
+
     private class ReconciliationUpdates {
         private final String loadBalancerId;
         private final Set<LoadBalancerTarget> toRegister;
@@ -428,6 +508,10 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
             report();
         }
 
+        private boolean isEmpty() {
+            return toRegister.isEmpty() && toDeregister.isEmpty() && toRemove.isEmpty();
+        }
+
         private void report() {
             boolean found = false;
             if (!toRegister.isEmpty()) {
@@ -51,6 +51,22 @@ public interface LoadBalancerConfiguration {
     @DefaultValue("30000")
     long getReconciliationDelayMs();
 
+    /**
+     * How many load balancers are reconciled in parallel during a full reconciliation run. Each one costs a connector
+     * call to fetch its registered targets, so this should stay low enough to not exceed the rate limits of the
+     * cloud provider API.
+     */
+    @DefaultValue("4")
+    int getReconciliationConcurrencyLimit();
+
+    /**
+     * Load balancers that were in sync on their last reconciliation, and whose associations and expected targets have
+     * not changed since, are skipped by full reconciliation runs for up to this long. Changes made to them out of
+     * band are detected at least this often. Set to 0 to reconcile all load balancers on every run.
+     */
+    @DefaultValue("300000")
+    long getReconciliationUnchangedSkipMaxMs();
+
     /**
      * Minimum time that items are held in a buffer for batching.
      */
@@ -36,6 +36,7 @@ import com.netflix.titus.common.util.guice.ProxyType;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.guice.annotation.ProxyConfiguration;
 import com.netflix.titus.common.util.rx.ObservableExt;
+import com.netflix.titus.common.util.time.Clocks;
 import com.netflix.titus.master.MetricConstants;
 import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
 import com.netflix.titus.master.service.management.CompositeResourceConsumption;
@@ -58,9 +59,9 @@ import rx.subjects.PublishSubject;
 import static com.netflix.titus.common.util.CollectionsExt.copyAndRemove;
 
 /**
- * Periodically checks for SLA violations, and a pre-configured interval.
- *
- * @TODO Improve this implementation by immediately reacting to state changes in the system.
+ * Periodically checks for SLA violations, and a pre-configured interval. The resource consumption is maintained
+ * incrementally by {@link IncrementalResourceConsumptionEvaluator} from the job manager events, so each update cycle
+ * recomputes only the capacity groups with modified jobs, and publishes events for them.
  */
 @Singleton
 @ProxyConfiguration(types = ProxyType.ActiveGuard)
@@ -70,9 +71,10 @@ public class DefaultResourceConsumptionService implements ResourceConsumptionSer
 
     private static final String METRIC_CONSUMPTION = MetricConstants.METRIC_CAPACITY_MANAGEMENT + "consumption.";
 
-    static final long UPDATE_INTERVAL_MS = 5000;
+    static final long UPDATE_INTERVAL_MS = 1000;
 
     private final Supplier<ConsumptionEvaluationResult> evaluator;
+    private final IncrementalResourceConsumptionEvaluator incrementalEvaluator;
     private final Registry registry;
     private final Scheduler.Worker worker;
 
@@ -87,14 +89,26 @@ public class DefaultResourceConsumptionService implements ResourceConsumptionSer
     public DefaultResourceConsumptionService(ApplicationSlaManagementService applicationSlaManagementService,
                                              V3JobOperations v3JobOperations,
                                              Registry registry) {
-        this(ResourceConsumptionEvaluator.newEvaluator(applicationSlaManagementService, v3JobOperations), registry, Schedulers.computation());
+        this(new IncrementalResourceConsumptionEvaluator(applicationSlaManagementService, v3JobOperations, Clocks.system()), registry);
+    }
+
+    private DefaultResourceConsumptionService(IncrementalResourceConsumptionEvaluator incrementalEvaluator, Registry registry) {
+        this(incrementalEvaluator, incrementalEvaluator, registry, Schedulers.computation());
     }
 
     @VisibleForTesting
     DefaultResourceConsumptionService(Supplier<ConsumptionEvaluationResult> evaluator,
                                       Registry registry,
                                       Scheduler scheduler) {
+        this(evaluator, null, registry, scheduler);
+    }
+
+    private DefaultResourceConsumptionService(Supplier<ConsumptionEvaluationResult> evaluator,
+                                              IncrementalResourceConsumptionEvaluator incrementalEvaluator,
+                                              Registry registry,
+                                              Scheduler scheduler) {
         this.evaluator = evaluator;
+        this.incrementalEvaluator = incrementalEvaluator;
         this.registry = registry;
         this.worker = scheduler.createWorker();
     }
@@ -113,6 +127,9 @@ public class DefaultResourceConsumptionService implements ResourceConsumptionSer
             subscription.unsubscribe();
         }
         worker.unsubscribe();
+        if (incrementalEvaluator != null) {
+            incrementalEvaluator.shutdown();
+        }
         eventsSubject.onCompleted();
     }
 
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.service.management.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.JobManagerException;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.model.ApplicationSLA;
+import com.netflix.titus.common.util.rx.ObservableExt;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
+import com.netflix.titus.master.service.management.CompositeResourceConsumption;
+import com.netflix.titus.master.service.management.ResourceConsumption;
+import com.netflix.titus.master.service.management.ResourceConsumptions;
+import com.netflix.titus.master.service.management.internal.DefaultResourceConsumptionService.ConsumptionEvaluationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Subscription;
+
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.buildCapacityGroupConsumption;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.buildSystemConsumption;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.computeJobConsumption;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.resolveAppName;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.resolveCapacityGroup;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.updateConsumptionMap;
+
+/**
+ * Stateful variant of {@link ResourceConsumptionEvaluator}. The consumption of each job is kept between evaluations,
+ * and only jobs reported as modified by the job manager event stream are recomputed. Capacity groups owning the
+ * modified jobs are re-aggregated, and the remaining ones are reused as is. A full evaluation is done on the first
+ * invocation, after the event stream is re-subscribed, when the capacity group SLAs change, and every
+ * {@link #FULL_EVALUATION_INTERVAL_MS} to bound the effect of any inconsistency.
+ * <p>
+ * The {@link #get()} method is expected to be called from a single thread.
+ */
+class IncrementalResourceConsumptionEvaluator implements Supplier<ConsumptionEvaluationResult> {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalResourceConsumptionEvaluator.class);
+
+    static final long FULL_EVALUATION_INTERVAL_MS = 300_000;
+
+    private final ApplicationSlaManagementService applicationSlaManagementService;
+    private final V3JobOperations v3JobOperations;
+    private final Clock clock;
+
+    private final Set<String> modifiedJobIds = ConcurrentHashMap.newKeySet();
+    private volatile Subscription eventSubscription;
+
+    private Map<String, ApplicationSLA> applicationSlaMap = Collections.emptyMap();
+    private final Map<String, JobConsumption> jobConsumptions = new HashMap<>();
+    private final Map<String, Set<String>> capacityGroupJobIds = new HashMap<>();
+    private final Map<String, CompositeResourceConsumption> capacityGroupConsumptions = new HashMap<>();
+    private final Map<String, Integer> undefinedCapacityGroupCounters = new HashMap<>();
+    private long lastFullEvaluationTimestamp;
+
+    IncrementalResourceConsumptionEvaluator(ApplicationSlaManagementService applicationSlaManagementService,
+                                            V3JobOperations v3JobOperations,
+                                            Clock clock) {
+        this.applicationSlaManagementService = applicationSlaManagementService;
+        this.v3JobOperations = v3JobOperations;
+        this.clock = clock;
+    }
+
+    void shutdown() {
+        ObservableExt.safeUnsubscribe(eventSubscription);
+    }
+
+    @Override
+    public ConsumptionEvaluationResult get() {
+        boolean resubscribed = subscribeIfNeeded();
+
+        Map<String, ApplicationSLA> currentSlaMap = applicationSlaManagementService.getApplicationSLAs().stream()
+                .collect(Collectors.toMap(ApplicationSLA::getAppName, Function.identity()));
+        long now = clock.wallTime();
+        if (resubscribed || !currentSlaMap.equals(applicationSlaMap) || now - lastFullEvaluationTimestamp >= FULL_EVALUATION_INTERVAL_MS) {
+            this.applicationSlaMap = currentSlaMap;
+            evaluateAll();
+            this.lastFullEvaluationTimestamp = now;
+        } else {
+            evaluateModified();
+        }
+
+        return new ConsumptionEvaluationResult(
+                new HashSet<>(applicationSlaMap.keySet()),
+                new HashSet<>(undefinedCapacityGroupCounters.keySet()),
+                buildSystemConsumption(applicationSlaMap, capacityGroupConsumptions.values())
+        );
+    }
+
+    /**
+     * The event stream does not include the current state, and it may terminate with an error. In both cases
+     * the caller must run the full evaluation, which happens after the subscription is made, so no update is lost.
+     */
+    private boolean subscribeIfNeeded() {
+        Subscription current = eventSubscription;
+        if (current != null && !current.isUnsubscribed()) {
+            return false;
+        }
+        this.eventSubscription = v3JobOperations.observeJobs().subscribe(
+                this::onJobManagerEvent,
+                e -> logger.warn("Job event stream terminated with an error. Full resource consumption evaluation will be done in the next cycle", e),
+                () -> logger.info("Job event stream completed")
+        );
+        return true;
+    }
+
+    private void onJobManagerEvent(JobManagerEvent<?> event) {
+        if (event instanceof JobUpdateEvent) {
+            modifiedJobIds.add(((JobUpdateEvent) event).getCurrent().getId());
+        } else if (event instanceof TaskUpdateEvent) {
+            TaskUpdateEvent taskUpdateEvent = (TaskUpdateEvent) event;
+            Task current = taskUpdateEvent.getCurrentTask();
+            if (isConsumptionAffected(current, taskUpdateEvent.getPreviousTask())) {
+                modifiedJobIds.add(current.getJobId());
+            }
+        }
+    }
+
+    /**
+     * Task consumption depends only on the task state, and the instance type it runs on.
+     */
+    private boolean isConsumptionAffected(Task current, Optional<Task> previousOpt) {
+        if (!previousOpt.isPresent()) {
+            return true;
+        }
+        Task previous = previousOpt.get();
+        return current.getStatus().getState() != previous.getStatus().getState()
+                || !Objects.equals(
+                current.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_AGENT_ITYPE),
+                previous.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_AGENT_ITYPE)
+        );
+    }
+
+    private void evaluateAll() {
+        // Events received from now on will be re-applied in the next incremental evaluation, which is harmless.
+        modifiedJobIds.clear();
+
+        jobConsumptions.clear();
+        capacityGroupJobIds.clear();
+        undefinedCapacityGroupCounters.clear();
+        v3JobOperations.getJobsAndTasks().forEach(jobAndTasks -> addJob(jobAndTasks.getLeft(), jobAndTasks.getRight()));
+
+        capacityGroupConsumptions.clear();
+        applicationSlaMap.keySet().forEach(this::evaluateCapacityGroup);
+    }
+
+    private void evaluateModified() {
+        if (modifiedJobIds.isEmpty()) {
+            return;
+        }
+
+        Set<String> modifiedCapacityGroups = new HashSet<>();
+        for (Iterator<String> it = modifiedJobIds.iterator(); it.hasNext(); ) {
+            String jobId = it.next();
+            // Remove before reading the job state, so an update arriving concurrently is not lost.
+            it.remove();
+
+            JobConsumption removed = removeJob(jobId);
+            if (removed != null) {
+                modifiedCapacityGroups.add(removed.getCapacityGroup());
+            }
+            v3JobOperations.getJob(jobId).ifPresent(job -> {
+                try {
+                    modifiedCapacityGroups.add(addJob(job, v3JobOperations.getTasks(jobId)));
+                } catch (JobManagerException e) {
+                    // The job was removed in the meantime, and there is a job update event for it in the queue.
+                    logger.debug("Job {} not found", jobId);
+                }
+            });
+        }
+        modifiedCapacityGroups.forEach(this::evaluateCapacityGroup);
+        logger.debug("Re-evaluated resource consumption of capacity groups: {}", modifiedCapacityGroups);
+    }
+
+    private String addJob(Job<?> job, List<Task> tasks) {
+        String appName = resolveAppName(job);
+        Set<String> undefinedCapacityGroups = new HashSet<>();
+        String capacityGroup = resolveCapacityGroup(applicationSlaMap.keySet(), undefinedCapacityGroups, job, appName);
+        String undefinedCapacityGroup = undefinedCapacityGroups.isEmpty() ? null : undefinedCapacityGroups.iterator().next();
+
+        jobConsumptions.put(job.getId(), new JobConsumption(appName, capacityGroup, undefinedCapacityGroup, computeJobConsumption(job, tasks, appName)));
+        capacityGroupJobIds.computeIfAbsent(capacityGroup, g -> new HashSet<>()).add(job.getId());
+        if (undefinedCapacityGroup != null) {
+            undefinedCapacityGroupCounters.merge(undefinedCapacityGroup, 1, Integer::sum);
+        }
+        return capacityGroup;
+    }
+
+    private JobConsumption removeJob(String jobId) {
+        JobConsumption removed = jobConsumptions.remove(jobId);
+        if (removed == null) {
+            return null;
+        }
+        Set<String> jobIds = capacityGroupJobIds.get(removed.getCapacityGroup());
+        if (jobIds != null) {
+            jobIds.remove(jobId);
+            if (jobIds.isEmpty()) {
+                capacityGroupJobIds.remove(removed.getCapacityGroup());
+            }
+        }
+        if (removed.getUndefinedCapacityGroup() != null) {
+            undefinedCapacityGroupCounters.computeIfPresent(removed.getUndefinedCapacityGroup(), (g, count) -> count > 1 ? count - 1 : null);
+        }
+        return removed;
+    }
+
+    /**
+     * Application level consumptions are merged with {@link ResourceConsumptions#add}, which cannot be reversed,
+     * so a modified capacity group is re-aggregated from the cached consumptions of its jobs. No task is visited.
+     */
+    private void evaluateCapacityGroup(String capacityGroup) {
+        ApplicationSLA sla = applicationSlaMap.get(capacityGroup);
+        if (sla == null) {
+            capacityGroupConsumptions.remove(capacityGroup);
+            return;
+        }
+
+        Map<String, Map<String, ResourceConsumption>> consumptionMap = new HashMap<>();
+        Collection<String> jobIds = capacityGroupJobIds.getOrDefault(capacityGroup, Collections.emptySet());
+        jobIds.forEach(jobId -> {
+            JobConsumption jobConsumption = jobConsumptions.get(jobId);
+            updateConsumptionMap(jobConsumption.getAppName(), capacityGroup, jobConsumption.getConsumption(), consumptionMap);
+        });
+        capacityGroupConsumptions.put(
+                capacityGroup,
+                buildCapacityGroupConsumption(sla, consumptionMap.getOrDefault(capacityGroup, Collections.emptyMap()))
+        );
+    }
+
+    private static class JobConsumption {
+
+        private final String appName;
+        private final String capacityGroup;
+        private final String undefinedCapacityGroup;
+        private final ResourceConsumption consumption;
+
+        private JobConsumption(String appName, String capacityGroup, String undefinedCapacityGroup, ResourceConsumption consumption) {
+            this.appName = appName;
+            this.capacityGroup = capacityGroup;
+            this.undefinedCapacityGroup = undefinedCapacityGroup;
+            this.consumption = consumption;
+        }
+
+        private String getAppName() {
+            return appName;
+        }
+
+        private String getCapacityGroup() {
+            return capacityGroup;
+        }
+
+        private String getUndefinedCapacityGroup() {
+            return undefinedCapacityGroup;
+        }
+
+        private ResourceConsumption getConsumption() {
+            return consumption;
+        }
+    }
+}
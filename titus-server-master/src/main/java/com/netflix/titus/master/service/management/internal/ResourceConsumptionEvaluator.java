@@ -25,7 +25,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -98,24 +97,38 @@ class ResourceConsumptionEvaluator {
 
     private CompositeResourceConsumption buildSystemConsumption(Map<String, Map<String, ResourceConsumption>> capacityGroupConsumptionMap) {
         // Capacity group level
+        List<CompositeResourceConsumption> capacityGroupConsumptions = new ArrayList<>();
+        capacityGroupConsumptionMap.forEach((capacityGroup, appConsumptions) ->
+                capacityGroupConsumptions.add(buildCapacityGroupConsumption(applicationSlaMap.get(capacityGroup), appConsumptions))
+        );
+        return buildSystemConsumption(applicationSlaMap, capacityGroupConsumptions);
+    }
+
+    static CompositeResourceConsumption buildCapacityGroupConsumption(ApplicationSLA sla, Map<String, ResourceConsumption> appConsumptions) {
+        ResourceDimension allowedConsumption = ResourceDimensions.multiply(sla.getResourceDimension(), sla.getInstanceCount());
+        ResourceDimension maxConsumption = ResourceConsumptions.addMaxConsumptions(appConsumptions.values());
+
+        List<Map<String, Object>> attrsList = appConsumptions.values().stream().map(ResourceConsumption::getAttributes).collect(Collectors.toList());
+        return new CompositeResourceConsumption(
+                sla.getAppName(),
+                ConsumptionLevel.CapacityGroup,
+                ResourceConsumptions.addCurrentConsumptions(appConsumptions.values()),
+                maxConsumption,
+                allowedConsumption,
+                ResourceConsumptions.mergeAttributes(attrsList),
+                appConsumptions,
+                !ResourceDimensions.isBigger(allowedConsumption, maxConsumption)
+        );
+    }
+
+    /**
+     * Aggregates capacity group level consumptions into tier, and system levels.
+     */
+    static CompositeResourceConsumption buildSystemConsumption(Map<String, ApplicationSLA> applicationSlaMap,
+                                                               Collection<CompositeResourceConsumption> capacityGroupConsumptions) {
         Map<Tier, List<CompositeResourceConsumption>> tierConsumptions = new HashMap<>();
-        capacityGroupConsumptionMap.forEach((capacityGroup, appConsumptions) -> {
-
-            ApplicationSLA sla = applicationSlaMap.get(capacityGroup);
-            ResourceDimension allowedConsumption = ResourceDimensions.multiply(sla.getResourceDimension(), sla.getInstanceCount());
-            ResourceDimension maxConsumption = ResourceConsumptions.addMaxConsumptions(appConsumptions.values());
-
-            List<Map<String, Object>> attrsList = appConsumptions.values().stream().map(ResourceConsumption::getAttributes).collect(Collectors.toList());
-            CompositeResourceConsumption capacityGroupConsumption = new CompositeResourceConsumption(
-                    capacityGroup,
-                    ConsumptionLevel.CapacityGroup,
-                    ResourceConsumptions.addCurrentConsumptions(appConsumptions.values()),
-                    maxConsumption,
-                    allowedConsumption,
-                    ResourceConsumptions.mergeAttributes(attrsList),
-                    appConsumptions,
-                    !ResourceDimensions.isBigger(allowedConsumption, maxConsumption)
-            );
+        capacityGroupConsumptions.forEach(capacityGroupConsumption -> {
+            ApplicationSLA sla = applicationSlaMap.get(capacityGroupConsumption.getConsumerName());
             tierConsumptions.computeIfAbsent(sla.getTier(), t -> new ArrayList<>()).add(capacityGroupConsumption);
         });
 
@@ -139,47 +152,10 @@ class ResourceConsumptionEvaluator {
         v3JobOperations.getJobsAndTasks().forEach(jobsAndTasks -> {
             Job job = jobsAndTasks.getLeft();
             List<Task> tasks = jobsAndTasks.getRight();
-            List<Task> runningTasks = getRunningWorkers(tasks);
-
-            ResourceDimension taskResources = perTaskResourceDimension(job);
-            String appName = Evaluators.getOrDefault(job.getJobDescriptor().getApplicationName(), DEFAULT_APPLICATION);
-            ResourceDimension currentConsumption = ResourceDimensions.multiply(taskResources, runningTasks.size());
-            ResourceDimension maxConsumption = ResourceDimensions.multiply(taskResources, getMaxJobSize(job));
-
-            Map<String, List<Task>> tasksByInstanceType = tasks.stream().collect(
-                    groupingBy(task -> task.getTaskContext()
-                            .getOrDefault(TaskAttributes.TASK_ATTRIBUTES_AGENT_ITYPE, "unknown"))
-            );
-            Map<String, ResourceConsumption> consumptionByInstanceType = CollectionsExt.mapValuesWithKeys(
-                    tasksByInstanceType,
-                    (instanceType, instanceTypeTasks) -> {
-                        List<Task> runningInstanceTypeTasks = getRunningWorkers(instanceTypeTasks);
-                        ResourceDimension instanceTypeConsumption = ResourceDimensions.multiply(
-                                taskResources,
-                                runningInstanceTypeTasks.size()
-                        );
-                        return new ResourceConsumption(
-                                instanceType,
-                                ConsumptionLevel.InstanceType,
-                                instanceTypeConsumption,
-                                instanceTypeConsumption, // maxConsumption is not relevant at ConsumptionLevel.InstanceType
-                                getWorkerStateMap(instanceTypeTasks)
-                        );
-                    },
-                    HashMap::new
-            );
-            ResourceConsumption jobConsumption = new CompositeResourceConsumption(
-                    appName,
-                    ConsumptionLevel.Application,
-                    currentConsumption,
-                    maxConsumption,
-                    maxConsumption, // allowedConsumption is not relevant at ConsumptionLevel.Application
-                    getWorkerStateMap(tasks),
-                    consumptionByInstanceType,
-                    false // we consider a job is always within its allowed usage since it can't go over its max
-            );
-
-            String capacityGroup = resolveCapacityGroup(undefinedCapacityGroups, job, appName);
+            String appName = resolveAppName(job);
+            ResourceConsumption jobConsumption = computeJobConsumption(job, tasks, appName);
+
+            String capacityGroup = resolveCapacityGroup(definedCapacityGroups, undefinedCapacityGroups, job, appName);
             updateConsumptionMap(appName, capacityGroup, jobConsumption, consumptionMap);
         });
 
@@ -191,10 +167,58 @@ class ResourceConsumptionEvaluator {
         return Pair.of(consumptionMap, undefinedCapacityGroups);
     }
 
-    private void updateConsumptionMap(String applicationName,
-                                      String capacityGroup,
-                                      ResourceConsumption jobConsumption,
-                                      Map<String, Map<String, ResourceConsumption>> consumptionMap) {
+    static String resolveAppName(Job<?> job) {
+        return Evaluators.getOrDefault(job.getJobDescriptor().getApplicationName(), DEFAULT_APPLICATION);
+    }
+
+    /**
+     * @return application level consumption of a single job, with instance type level contributors
+     */
+    static CompositeResourceConsumption computeJobConsumption(Job<?> job, List<Task> tasks, String appName) {
+        List<Task> runningTasks = getRunningWorkers(tasks);
+
+        ResourceDimension taskResources = perTaskResourceDimension(job);
+        ResourceDimension currentConsumption = ResourceDimensions.multiply(taskResources, runningTasks.size());
+        ResourceDimension maxConsumption = ResourceDimensions.multiply(taskResources, getMaxJobSize(job));
+
+        Map<String, List<Task>> tasksByInstanceType = tasks.stream().collect(
+                groupingBy(task -> task.getTaskContext()
+                        .getOrDefault(TaskAttributes.TASK_ATTRIBUTES_AGENT_ITYPE, "unknown"))
+        );
+        Map<String, ResourceConsumption> consumptionByInstanceType = CollectionsExt.mapValuesWithKeys(
+                tasksByInstanceType,
+                (instanceType, instanceTypeTasks) -> {
+                    List<Task> runningInstanceTypeTasks = getRunningWorkers(instanceTypeTasks);
+                    ResourceDimension instanceTypeConsumption = ResourceDimensions.multiply(
+                            taskResources,
+                            runningInstanceTypeTasks.size()
+                    );
+                    return new ResourceConsumption(
+                            instanceType,
+                            ConsumptionLevel.InstanceType,
+                            instanceTypeConsumption,
+                            instanceTypeConsumption, // maxConsumption is not relevant at ConsumptionLevel.InstanceType
+                            getWorkerStateMap(instanceTypeTasks)
+                    );
+                },
+                HashMap::new
+        );
+        return new CompositeResourceConsumption(
+                appName,
+                ConsumptionLevel.Application,
+                currentConsumption,
+                maxConsumption,
+                maxConsumption, // allowedConsumption is not relevant at ConsumptionLevel.Application
+                getWorkerStateMap(tasks),
+                consumptionByInstanceType,
+                false // we consider a job is always within its allowed usage since it can't go over its max
+        );
+    }
+
+    static void updateConsumptionMap(String applicationName,
+                                     String capacityGroup,
+                                     ResourceConsumption jobConsumption,
+                                     Map<String, Map<String, ResourceConsumption>> consumptionMap) {
 
         Map<String, ResourceConsumption> capacityGroupAllocation = consumptionMap.computeIfAbsent(capacityGroup, k -> new HashMap<>());
 
@@ -208,13 +232,13 @@ class ResourceConsumptionEvaluator {
         }
     }
 
-    private int getMaxJobSize(Job<?> job) {
+    private static int getMaxJobSize(Job<?> job) {
         return JobFunctions.isServiceJob(job)
                 ? ((Job<ServiceJobExt>) job).getJobDescriptor().getExtensions().getCapacity().getMax()
                 : ((Job<BatchJobExt>) job).getJobDescriptor().getExtensions().getSize();
     }
 
-    private Map<String, Object> getWorkerStateMap(List<Task> tasks) {
+    private static Map<String, Object> getWorkerStateMap(List<Task> tasks) {
         Map<String, Object> tasksStates = newTaskStateMap();
         tasks.stream().map(task -> task.getStatus().getState()).forEach(taskState ->
                 tasksStates.put(taskState.name(), (int) tasksStates.get(taskState.name()) + 1)
@@ -222,7 +246,7 @@ class ResourceConsumptionEvaluator {
         return tasksStates;
     }
 
-    private Map<String, Object> newTaskStateMap() {
+    private static Map<String, Object> newTaskStateMap() {
         Map<String, Object> tasksStates = new HashMap<>();
         for (TaskState state : TaskState.values()) {
             tasksStates.put(state.name(), 0);
@@ -230,7 +254,7 @@ class ResourceConsumptionEvaluator {
         return tasksStates;
     }
 
-    private String resolveCapacityGroup(Set<String> undefinedCapacityGroups, Job job, String appName) {
+    static String resolveCapacityGroup(Set<String> definedCapacityGroups, Set<String> undefinedCapacityGroups, Job<?> job, String appName) {
         String capacityGroup = job.getJobDescriptor().getCapacityGroup();
         if (capacityGroup == null) {
             if (appName != null && definedCapacityGroups.contains(appName)) {
@@ -246,18 +270,6 @@ class ResourceConsumptionEvaluator {
         return capacityGroup;
     }
 
-    static Supplier<DefaultResourceConsumptionService.ConsumptionEvaluationResult> newEvaluator(ApplicationSlaManagementService applicationSlaManagementService,
-                                                                                                V3JobOperations v3JobOperations) {
-        return () -> {
-            ResourceConsumptionEvaluator evaluator = new ResourceConsumptionEvaluator(applicationSlaManagementService, v3JobOperations);
-            return new DefaultResourceConsumptionService.ConsumptionEvaluationResult(
-                    evaluator.getDefinedCapacityGroups(),
-                    evaluator.getUndefinedCapacityGroups(),
-                    evaluator.getSystemConsumption()
-            );
-        };
-    }
-
     /**
      * @return resource dimensions per task as defined in the job descriptor.
      */
@@ -274,7 +286,7 @@ class ResourceConsumptionEvaluator {
                 0);
     }
 
-    private List<Task> getRunningWorkers(List<Task> tasks) {
+    private static List<Task> getRunningWorkers(List<Task> tasks) {
         return tasks.stream().filter(t -> TaskState.isRunning(t.getStatus().getState())).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.model.callmetadata.CallMetadataConstants;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.percentageOfHealthyPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.unlimitedRate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobHealthCountersTest {
+
+    private static final String SERVICE_JOB = "serviceJob";
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(
+            jobComponentStub.getJobOperations(),
+            jobComponentStub.getContainerHealthService()
+    );
+
+    @After
+    public void tearDown() {
+        jobHealthCounters.shutdown();
+    }
+
+    @Test
+    public void testStartedAndHealthyTasksAreCounted() {
+        jobHealthCounters.activate();
+        Job<?> job = newJob();
+        List<Task> tasks = jobComponentStub.createDesiredTasks(job);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(0);
+
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(3);
+
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(2);
+
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Healthy);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(3);
+
+        jobComponentStub.moveTaskToState(tasks.get(1).getId(), TaskState.Finished);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(2);
+    }
+
+    @Test
+    public void testCountersAreBuiltFromCurrentStateOnActivation() {
+        Job<?> job = newJob();
+        List<Task> tasks = jobComponentStub.createDesiredTasks(job);
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+
+        jobHealthCounters.activate();
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(2);
+    }
+
+    @Test
+    public void testMovedTaskIsCountedForTargetJob() {
+        jobComponentStub.addJobTemplate(SERVICE_JOB, JobDescriptorGenerator.serviceJobDescriptors()
+                .map(jd -> JobFunctions.changeServiceJobCapacity(jd, 2))
+                .cast(JobDescriptor.class)
+        );
+        jobHealthCounters.activate();
+
+        Job<?> sourceJob = jobComponentStub.createJob(SERVICE_JOB);
+        Job<?> targetJob = jobComponentStub.createJob(SERVICE_JOB);
+        Task task = jobComponentStub.createDesiredTasks(sourceJob).get(0);
+        jobComponentStub.moveTaskToState(task, TaskState.Started);
+        assertThat(jobHealthCounters.getHealthyCount(sourceJob.getId())).isEqualTo(1);
+
+        jobComponentStub.getJobOperations()
+                .moveServiceTask(sourceJob.getId(), targetJob.getId(), task.getId(), CallMetadataConstants.UNDEFINED_CALL_METADATA)
+                .toBlocking()
+                .firstOrDefault(null);
+        assertThat(jobHealthCounters.getHealthyCount(sourceJob.getId())).isEqualTo(0);
+        assertThat(jobHealthCounters.getHealthyCount(targetJob.getId())).isEqualTo(1);
+    }
+
+    private Job<?> newJob() {
+        return jobComponentStub.createJob(newBatchJob(3, budget(percentageOfHealthyPolicy(50), unlimitedRate(), Collections.emptyList())));
+    }
+}
@@ -39,6 +39,8 @@ import com.netflix.titus.master.eviction.service.quota.QuotaController;
 import com.netflix.titus.master.eviction.service.quota.QuotaTracker;
 import com.netflix.titus.master.eviction.service.quota.TimeWindowQuotaTracker;
 import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import static com.netflix.titus.master.eviction.service.quota.job.JobQuotaController.buildQuotaControllers;
@@ -72,6 +74,18 @@ public class JobQuotaControllerTest {
 
     private final ContainerHealthService containerHealthService = jobComponentStub.getContainerHealthService();
 
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(jobOperations, containerHealthService);
+
+    @Before
+    public void setUp() {
+        jobHealthCounters.activate();
+    }
+
+    @After
+    public void tearDown() {
+        jobHealthCounters.shutdown();
+    }
+
     @Test
     public void testBuildQuotaTrackers() {
         testBuildQuotaTrackers(
@@ -112,7 +126,7 @@ public class JobQuotaControllerTest {
     }
 
     private void testBuildQuotaTrackers(Job<?> job, EffectiveJobDisruptionBudgetResolver fallback, Class<?>... expectedTypes) {
-        List<QuotaTracker> trackers = buildQuotaTrackers(job, jobOperations, fallback, containerHealthService, titusRuntime);
+        List<QuotaTracker> trackers = buildQuotaTrackers(job, jobOperations, fallback, containerHealthService, jobHealthCounters, titusRuntime);
         checkContains(trackers, expectedTypes);
     }
 
@@ -249,7 +263,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -263,7 +277,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -283,7 +297,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -333,7 +347,7 @@ public class JobQuotaControllerTest {
         scheduleJob(job, 10);
 
         EffectiveJobDisruptionBudgetResolver budgetResolver = j -> budget(perTaskRelocationLimitPolicy(100), hourlyRatePercentage(5), singletonList(officeHourTimeWindow()));
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, budgetResolver, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, budgetResolver, containerHealthService, jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(1);
 
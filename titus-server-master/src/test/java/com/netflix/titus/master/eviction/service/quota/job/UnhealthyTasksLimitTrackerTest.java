@@ -29,6 +29,8 @@ import com.netflix.titus.api.model.reference.Reference;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import static com.netflix.titus.master.eviction.service.quota.job.UnhealthyTasksLimitTracker.computeHealthyPoolSizeFromAbsoluteLimit;
@@ -48,6 +50,18 @@ public class UnhealthyTasksLimitTrackerTest {
 
     private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
 
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
+
+    @Before
+    public void setUp() {
+        jobHealthCounters.activate();
+    }
+
+    @After
+    public void tearDown() {
+        jobHealthCounters.shutdown();
+    }
+
     @Test
     public void testComputeHealthyPoolSizeFromPercentage() {
         testComputeHealthyPoolSizeFromPercentage(newBatchJobWithPercentageLimit(0, 80), 0);
@@ -81,7 +95,8 @@ public class UnhealthyTasksLimitTrackerTest {
                 job,
                 (AvailabilityPercentageLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
                 jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobComponentStub.getContainerHealthService(),
+                jobHealthCounters
         );
         testQuota(tracker, Reference.job(job.getId()));
     }
@@ -93,7 +108,8 @@ public class UnhealthyTasksLimitTrackerTest {
                 job,
                 (AvailabilityPercentageLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
                 jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobComponentStub.getContainerHealthService(),
+                jobHealthCounters
         );
         Reference jobReference = Reference.job(job.getId());
 
@@ -116,11 +132,38 @@ public class UnhealthyTasksLimitTrackerTest {
                 job,
                 (UnhealthyTasksLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
                 jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobComponentStub.getContainerHealthService(),
+                jobHealthCounters
         );
         testQuota(tracker, Reference.job(job.getId()));
     }
 
+    @Test
+    public void testQuotaIsNotGrantedFromStaleCounters() {
+        Job<?> job = newBatchJobWithAbsoluteLimit(10, 2);
+        JobHealthCounters staleCounters = new JobHealthCounters(jobOperations, jobComponentStub.getContainerHealthService()) {
+            @Override
+            public int getHealthyCount(String jobId) {
+                return 10;
+            }
+        };
+        UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.absoluteLimit(
+                job,
+                (UnhealthyTasksLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
+                jobOperations,
+                jobComponentStub.getContainerHealthService(),
+                staleCounters
+        );
+        Reference jobReference = Reference.job(job.getId());
+
+        // The counters report all tasks healthy, but none is started yet
+        assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(0);
+
+        jobOperations.getTasks().forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+        jobComponentStub.changeContainerHealth(jobOperations.getTasks().get(0).getId(), ContainerHealthState.Unhealthy);
+        assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(1);
+    }
+
     private void testQuota(UnhealthyTasksLimitTracker tracker, Reference jobReference) {
         // No tasks are started yet
         assertThat(tracker.getQuota(jobReference).getQuota()).isEqualTo(0);
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.endpoint.v3.grpc;
+
+import com.netflix.titus.grpc.protogen.JobChangeNotification;
+import com.netflix.titus.grpc.protogen.KeepAliveResponse;
+import com.netflix.titus.grpc.protogen.Task;
+import com.netflix.titus.master.jobmanager.endpoint.v3.grpc.ObserveJobsEventBuffer.OfferResult;
+import com.netflix.titus.master.jobmanager.endpoint.v3.grpc.ObserveJobsEventBuffer.OverflowPolicy;
+import org.junit.Test;
+
+import static com.netflix.titus.master.jobmanager.endpoint.v3.grpc.ObserveJobsContext.SNAPSHOT_END_MARKER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObserveJobsEventBufferTest {
+
+    @Test
+    public void testSnapshotIsNotLimited() {
+        ObserveJobsEventBuffer buffer = new ObserveJobsEventBuffer(1, OverflowPolicy.Drop);
+        assertThat(buffer.offer(newTaskUpdate("task1", 0))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.offer(newTaskUpdate("task2", 0))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.offer(SNAPSHOT_END_MARKER)).isEqualTo(OfferResult.Added);
+        assertThat(buffer.size()).isEqualTo(3);
+
+        assertThat(buffer.offer(newTaskUpdate("task1", 1))).isEqualTo(OfferResult.Overflow);
+    }
+
+    @Test
+    public void testCoalescing() {
+        ObserveJobsEventBuffer buffer = new ObserveJobsEventBuffer(2, OverflowPolicy.Coalesce);
+        buffer.offer(SNAPSHOT_END_MARKER);
+        assertThat(buffer.offer(newTaskUpdate("task1", 1))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.offer(newTaskUpdate("task1", 2))).isEqualTo(OfferResult.Coalesced);
+        assertThat(buffer.offer(newTaskUpdate("task2", 1))).isEqualTo(OfferResult.Overflow);
+
+        assertThat(buffer.poll()).isEqualTo(SNAPSHOT_END_MARKER);
+        assertThat(buffer.poll()).isEqualTo(newTaskUpdate("task1", 2));
+        assertThat(buffer.poll()).isNull();
+
+        // Consumed updates cannot be coalesced with.
+        assertThat(buffer.offer(newTaskUpdate("task1", 3))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.offer(newTaskUpdate("task2", 1))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testKeepAliveIsNeverCoalesced() {
+        ObserveJobsEventBuffer buffer = new ObserveJobsEventBuffer(2, OverflowPolicy.Coalesce);
+        buffer.offer(SNAPSHOT_END_MARKER);
+        assertThat(buffer.offer(newKeepAlive(1))).isEqualTo(OfferResult.Added);
+
+        // A newer checkpoint must not take the place of the older one, so it is dropped.
+        assertThat(buffer.offer(newKeepAlive(2))).isEqualTo(OfferResult.Dropped);
+        assertThat(buffer.poll()).isEqualTo(SNAPSHOT_END_MARKER);
+        assertThat(buffer.poll()).isEqualTo(newKeepAlive(1));
+        assertThat(buffer.poll()).isNull();
+
+        // Below the limit keep alive responses are queued one after another.
+        assertThat(buffer.offer(newKeepAlive(3))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.offer(newKeepAlive(4))).isEqualTo(OfferResult.Added);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    private static JobChangeNotification newKeepAlive(long timestamp) {
+        return JobChangeNotification.newBuilder()
+                .setKeepAliveResponse(KeepAliveResponse.newBuilder().setTimestamp(timestamp))
+                .build();
+    }
+
+    private static JobChangeNotification newTaskUpdate(String taskId, long timestamp) {
+        return JobChangeNotification.newBuilder()
+                .setTaskUpdate(JobChangeNotification.TaskUpdate.newBuilder().setTask(Task.newBuilder().setId(taskId)))
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
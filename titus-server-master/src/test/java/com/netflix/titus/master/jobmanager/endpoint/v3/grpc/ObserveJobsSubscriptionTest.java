@@ -16,8 +16,11 @@
 
 package com.netflix.titus.master.jobmanager.endpoint.v3.grpc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
@@ -25,9 +28,11 @@ import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.time.TestClock;
 import com.netflix.titus.grpc.protogen.JobChangeNotification;
 import com.netflix.titus.grpc.protogen.JobChangeNotification.JobUpdate;
 import com.netflix.titus.grpc.protogen.JobChangeNotification.TaskUpdate;
+import com.netflix.titus.grpc.protogen.JobStatus;
 import com.netflix.titus.grpc.protogen.KeepAliveRequest;
 import com.netflix.titus.grpc.protogen.ObserveJobsQuery;
 import com.netflix.titus.grpc.protogen.ObserveJobsWithKeepAliveRequest;
@@ -35,6 +40,8 @@ import com.netflix.titus.runtime.endpoint.metadata.AnonymousCallMetadataResolver
 import com.netflix.titus.testkit.model.job.JobComponentStub;
 import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
 import com.netflix.titus.testkit.model.job.NoOpGrpcObjectsCache;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.junit.Before;
@@ -42,12 +49,18 @@ import org.junit.Test;
 import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
 
+import static com.netflix.titus.api.jobmanager.service.JobManagerConstants.OBSERVE_JOBS_RESUME_FROM_TIMESTAMP;
+import static com.netflix.titus.api.jobmanager.service.JobManagerConstants.OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ObserveJobsSubscriptionTest {
 
     private static final String SERVICE_JOB_WITH_ONE_TASK = "serviceJobWithOneTask";
 
+    private static final int BUFFER_SIZE = 100;
+
+    private static final int CHANGE_LOG_SIZE = 1_000;
+
     private static final ObserveJobsQuery QUERY = ObserveJobsQuery.newBuilder().putFilteringCriteria("jobType", "service").build();
 
     private static final ObserveJobsWithKeepAliveRequest QUERY_REQUEST = ObserveJobsWithKeepAliveRequest.newBuilder()
@@ -56,6 +69,8 @@ public class ObserveJobsSubscriptionTest {
 
     private final TitusRuntime titusRuntime = TitusRuntimes.test();
 
+    private final TestClock clock = (TestClock) titusRuntime.getClock();
+
     private final TestScheduler testScheduler = Schedulers.test();
 
     private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
@@ -66,6 +81,9 @@ public class ObserveJobsSubscriptionTest {
             new NoOpGrpcObjectsCache(),
             testScheduler,
             new DefaultJobManagementServiceGrpcMetrics(titusRuntime),
+            BUFFER_SIZE,
+            ObserveJobsEventBuffer.OverflowPolicy.Coalesce,
+            new ObserveJobsChangeLog(jobComponentStub.getJobOperations(), CHANGE_LOG_SIZE, 60_000, 0, titusRuntime),
             titusRuntime
     );
 
@@ -75,6 +93,8 @@ public class ObserveJobsSubscriptionTest {
     private final BlockingQueue<JobChangeNotification> responseEvents = new LinkedBlockingDeque<>();
     private Throwable responseError;
     private boolean responseCompleted;
+    private volatile boolean responseReady = true;
+    private Runnable responseOnReadyHandler;
 
     @Before
     public void setUp() throws Exception {
@@ -100,11 +120,12 @@ public class ObserveJobsSubscriptionTest {
 
             @Override
             public boolean isReady() {
-                return true;
+                return responseReady;
             }
 
             @Override
             public void setOnReadyHandler(Runnable onReadyHandler) {
+                responseOnReadyHandler = onReadyHandler;
             }
 
             @Override
@@ -207,6 +228,23 @@ public class ObserveJobsSubscriptionTest {
         assertThat(jobsSubscription.jobServiceSubscription.isUnsubscribed()).isTrue();
     }
 
+    @Test
+    public void testEventsAreBufferedUntilClientIsReady() {
+        jobsSubscription.observeJobs(QUERY, responseStreamObserver);
+        expectSnapshotEvent();
+
+        responseReady = false;
+        Job<?> job1 = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        Job<?> job2 = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        triggerActions(5);
+        assertThat(responseEvents.poll()).isNull();
+
+        responseReady = true;
+        responseOnReadyHandler.run();
+        assertThat(expectJobUpdateEvent().getJob().getId()).isEqualTo(job1.getId());
+        assertThat(expectJobUpdateEvent().getJob().getId()).isEqualTo(job2.getId());
+    }
+
     @Test
     public void testKeepAlive() {
         StreamObserver<ObserveJobsWithKeepAliveRequest> request = jobsSubscription.observeJobsWithKeepAlive(responseStreamObserver);
@@ -234,6 +272,129 @@ public class ObserveJobsSubscriptionTest {
         ).build();
     }
 
+    @Test
+    public void testSlowClientUpdatesAreCoalescedUntilBufferOverflow() {
+        StreamObserver<ObserveJobsWithKeepAliveRequest> request = jobsSubscription.observeJobsWithKeepAlive(responseStreamObserver);
+        request.onNext(QUERY_REQUEST);
+        triggerActions(1);
+        expectSnapshotEvent();
+
+        // Fill the buffer with pending updates of different jobs.
+        responseReady = false;
+        List<Job<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            jobs.add(jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK));
+        }
+        triggerActions(1);
+        assertThat(responseEvents).isEmpty();
+
+        // A pending job is updated in place.
+        Job<?> killedJob = jobComponentStub.moveJobToKillInitiatedState(jobs.get(0));
+        triggerActions(1);
+        assertThat(responseError).isNull();
+
+        responseReady = true;
+        responseOnReadyHandler.run();
+        assertThat(responseEvents).hasSize(BUFFER_SIZE);
+        JobUpdate firstUpdate = expectJobUpdateEvent();
+        assertThat(firstUpdate.getJob().getId()).isEqualTo(killedJob.getId());
+        assertThat(firstUpdate.getJob().getStatus().getState()).isEqualTo(JobStatus.JobState.KillInitiated);
+        responseEvents.clear();
+
+        // Fill the buffer again, and add a job which cannot be coalesced.
+        responseReady = false;
+        for (int i = 0; i <= BUFFER_SIZE; i++) {
+            jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        }
+        triggerActions(1);
+        assertThat(responseError).isInstanceOf(StatusRuntimeException.class);
+        assertThat(((StatusRuntimeException) responseError).getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(responseEvents).isEmpty();
+    }
+
+    @Test
+    public void testObserveJobsWithKeepAliveResumedFromCheckpoint() {
+        Job<?> job1 = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        jobComponentStub.createDesiredTasks(job1);
+
+        context.getChangeLog().activate();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        long checkpoint = clock.wallTime();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+
+        Job<?> job2 = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        Task task2 = jobComponentStub.createDesiredTasks(job2).get(0);
+
+        StreamObserver<ObserveJobsWithKeepAliveRequest> request = jobsSubscription.observeJobsWithKeepAlive(responseStreamObserver);
+        request.onNext(newResumeRequest(checkpoint));
+
+        // Only the changes since the checkpoint are sent.
+        expectKeepAlive(OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID);
+        assertThat(expectJobUpdateEvent().getJob().getId()).isEqualTo(job2.getId());
+        assertThat(expectTaskUpdateEvent().getTask().getId()).isEqualTo(task2.getId());
+        expectSnapshotEvent();
+    }
+
+    @Test
+    public void testResumeMarkerIsKeptWhenBufferOverflows() {
+        context.getChangeLog().activate();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        long checkpoint = clock.wallTime();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+
+        // More changes than the buffer can hold.
+        int jobCount = BUFFER_SIZE;
+        for (int i = 0; i < jobCount; i++) {
+            Job<?> job = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+            jobComponentStub.createDesiredTasks(job);
+        }
+
+        responseReady = false;
+        StreamObserver<ObserveJobsWithKeepAliveRequest> request = jobsSubscription.observeJobsWithKeepAlive(responseStreamObserver);
+        request.onNext(newResumeRequest(checkpoint));
+        triggerActions(1);
+
+        // Internal checkpoint arrives before the client drains the resumed snapshot.
+        jobComponentStub.emitCheckpoint();
+        triggerActions(1);
+
+        responseReady = true;
+        responseOnReadyHandler.run();
+        assertThat(responseError).isNull();
+        expectKeepAlive(OBSERVE_JOBS_RESUME_MARKER_REQUEST_ID);
+        for (int i = 0; i < jobCount; i++) {
+            expectJobUpdateEvent();
+        }
+        for (int i = 0; i < jobCount; i++) {
+            expectTaskUpdateEvent();
+        }
+        expectSnapshotEvent();
+        assertThat(responseEvents).isEmpty();
+    }
+
+    @Test
+    public void testObserveJobsWithKeepAliveSnapshotIfCheckpointNotInChangeLog() {
+        long checkpoint = clock.wallTime();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        context.getChangeLog().activate();
+
+        Job<?> job1 = jobComponentStub.createJob(SERVICE_JOB_WITH_ONE_TASK);
+        Task task1 = jobComponentStub.createDesiredTasks(job1).get(0);
+
+        StreamObserver<ObserveJobsWithKeepAliveRequest> request = jobsSubscription.observeJobsWithKeepAlive(responseStreamObserver);
+        request.onNext(newResumeRequest(checkpoint));
+
+        assertThat(expectJobUpdateEvent().getJob().getId()).isEqualTo(job1.getId());
+        assertThat(expectTaskUpdateEvent().getTask().getId()).isEqualTo(task1.getId());
+        expectSnapshotEvent();
+    }
+
+    private ObserveJobsWithKeepAliveRequest newResumeRequest(long checkpoint) {
+        return ObserveJobsWithKeepAliveRequest.newBuilder()
+                .setQuery(ObserveJobsQuery.newBuilder().putFilteringCriteria(OBSERVE_JOBS_RESUME_FROM_TIMESTAMP, Long.toString(checkpoint)))
+                .build();
+    }
+
     private void triggerActions(int count) {
         for (int i = 0; i < count; i++) {
             testScheduler.triggerActions();
@@ -260,7 +421,7 @@ public class ObserveJobsSubscriptionTest {
         assertThat(nextEvent.getNotificationCase()).isEqualTo(JobChangeNotification.NotificationCase.SNAPSHOTEND);
     }
 
-    private void expectKeepAlive(int keepAliveRequestId) {
+    private void expectKeepAlive(long keepAliveRequestId) {
         JobChangeNotification nextEvent = responseEvents.poll();
         assertThat(nextEvent).isNotNull();
         assertThat(nextEvent.getNotificationCase()).isEqualTo(JobChangeNotification.NotificationCase.KEEPALIVERESPONSE);
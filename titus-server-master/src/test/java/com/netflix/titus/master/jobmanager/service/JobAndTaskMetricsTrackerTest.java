@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobAndTaskMetricsTrackerTest {
+
+    private final JobAndTaskMetricsTracker tracker = new JobAndTaskMetricsTracker();
+
+    @Test
+    public void testIncrementalUpdates() {
+        Job<BatchJobExt> job = JobGenerator.batchJobsOfSize(2).getValue();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+        Task task1 = started(tasks.get(0), 1_000);
+        Task task2 = started(tasks.get(1), 2_000);
+
+        tracker.onJobUpdate(job, false);
+        tracker.onTaskUpdate(job, tasks.get(0), false);
+        tracker.onTaskUpdate(job, task1, false);
+        tracker.onTaskUpdate(job, task2, false);
+
+        assertThat(tracker.getBatchJobs()).isEqualTo(1);
+        assertThat(tracker.getServiceJobs()).isEqualTo(0);
+        assertThat(tracker.getEmptyJobs()).isEqualTo(0);
+        assertThat(tracker.getTasks()).isEqualTo(2);
+        assertThat(collectTimestamps(TaskState.Started)).containsExactlyInAnyOrder(1_000L, 2_000L);
+        assertThat(collectTimestamps(TaskState.Accepted)).isEmpty();
+
+        // Archive a task
+        tracker.onTaskUpdate(job, task1, true);
+        assertThat(tracker.getTasks()).isEqualTo(1);
+        assertThat(collectTimestamps(TaskState.Started)).containsExactly(2_000L);
+
+        // Scale down to zero
+        tracker.onJobUpdate(JobFunctions.changeBatchJobSize(job, 0), false);
+        assertThat(tracker.getBatchJobs()).isEqualTo(0);
+        assertThat(tracker.getEmptyJobs()).isEqualTo(1);
+
+        // Archive the job
+        tracker.onJobUpdate(job, true);
+        assertThat(tracker.getEmptyJobs()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReconcile() {
+        Job<BatchJobExt> job = JobGenerator.batchJobsOfSize(2).getValue();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+        Task task1 = started(tasks.get(0), 1_000);
+        Task task2 = started(tasks.get(1), 2_000);
+
+        // Initial state
+        assertThat(tracker.reconcile(() -> Collections.singletonList(Pair.of(job, asList(task1, task2))))).isEqualTo(3);
+        assertThat(tracker.getBatchJobs()).isEqualTo(1);
+        assertThat(tracker.getTasks()).isEqualTo(2);
+
+        // No drift
+        assertThat(tracker.reconcile(() -> Collections.singletonList(Pair.of(job, asList(task1, task2))))).isEqualTo(0);
+
+        // Missed task update event
+        Task task2Updated = started(task2, 3_000);
+        assertThat(tracker.reconcile(() -> Collections.singletonList(Pair.of(job, asList(task1, task2Updated))))).isEqualTo(1);
+        assertThat(collectTimestamps(TaskState.Started)).containsExactlyInAnyOrder(1_000L, 3_000L);
+
+        // Missed archive events
+        assertThat(tracker.reconcile(Collections::emptyList)).isEqualTo(3);
+        assertThat(tracker.getBatchJobs()).isEqualTo(0);
+        assertThat(tracker.getTasks()).isEqualTo(0);
+        assertThat(collectTimestamps(TaskState.Started)).isEmpty();
+    }
+
+    private List<Long> collectTimestamps(TaskState state) {
+        List<Long> timestamps = new ArrayList<>();
+        tracker.forEachTaskInState(EnumSet.of(state), (capacityGroup, taskState, timestamp) -> timestamps.add(timestamp));
+        return timestamps;
+    }
+
+    private static Task started(Task task, long timestamp) {
+        return JobFunctions.changeTaskStatus(task, TaskStatus.newBuilder().withState(TaskState.Started).withTimestamp(timestamp).build());
+    }
+
+    private static List<Task> asList(Task... tasks) {
+        List<Task> result = new ArrayList<>();
+        Collections.addAll(result, tasks);
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.master.kubernetes.client.model.PodEvent;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.andPhase;
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.andRunning;
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.newPod;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KubeNotificationLaneTest {
+
+    private final Queue<Runnable> pendingRunnables = new LinkedList<>();
+
+    private final List<PodEvent> processed = new ArrayList<>();
+
+    private final KubeNotificationLane lane = new KubeNotificationLane(
+            0,
+            Schedulers.fromExecutor(pendingRunnables::add),
+            processed::add,
+            "test.",
+            new DefaultRegistry()
+    );
+
+    @Test
+    public void testPodUpdatesAreCoalesced() {
+        V1Pod pod = newPod("task1", andPhase("Pending"));
+        V1Pod runningPod = newPod("task1", andRunning());
+        V1Pod otherPod = newPod("task2", andRunning());
+
+        PodEvent added = PodEvent.onAdd(pod);
+        PodEvent firstUpdate = PodEvent.onUpdate(pod, pod, Optional.empty());
+        PodEvent otherUpdate = PodEvent.onUpdate(otherPod, otherPod, Optional.empty());
+        PodEvent secondUpdate = PodEvent.onUpdate(pod, runningPod, Optional.empty());
+
+        lane.offer(added);
+        lane.offer(firstUpdate);
+        lane.offer(otherUpdate);
+        lane.offer(secondUpdate);
+        assertThat(lane.getQueueSize()).isEqualTo(2);
+
+        runPending();
+        assertThat(processed).containsExactly(secondUpdate, otherUpdate);
+        assertThat(lane.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testPodDeleteIsNotCoalesced() {
+        V1Pod pod = newPod("task1", andRunning());
+
+        PodEvent update = PodEvent.onUpdate(pod, pod, Optional.empty());
+        PodEvent deleted = PodEvent.onDelete(pod, false, Optional.empty());
+        PodEvent updateAfterDelete = PodEvent.onUpdate(pod, pod, Optional.empty());
+
+        lane.offer(update);
+        lane.offer(deleted);
+        lane.offer(updateAfterDelete);
+
+        runPending();
+        assertThat(processed).containsExactly(update, deleted, updateAfterDelete);
+    }
+
+    private void runPending() {
+        Runnable next;
+        while ((next = pendingRunnables.poll()) != null) {
+            next.run();
+        }
+    }
+}
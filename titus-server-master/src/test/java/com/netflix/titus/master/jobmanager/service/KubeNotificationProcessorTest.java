@@ -111,7 +111,7 @@ public class KubeNotificationProcessorTest {
                 titusRuntime
         ) {
             @Override
-            protected Scheduler initializeNotificationScheduler() {
+            protected Scheduler initializeNotificationScheduler(int laneIndex) {
                 return Schedulers.immediate();
             }
         };
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.kubernetes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
+import com.netflix.titus.testkit.embedded.kube.event.EmbeddedKubeEvent;
+import com.netflix.titus.testkit.embedded.kube.event.SharedInformerStub;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Indexer;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.DirectProcessor;
+
+import static com.netflix.titus.master.kubernetes.NodeDataGenerator.newNode;
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.andNodeName;
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.andPhase;
+import static com.netflix.titus.master.kubernetes.PodDataGenerator.newPod;
+import static com.netflix.titus.runtime.kubernetes.KubeConstants.RUNNING;
+import static com.netflix.titus.runtime.kubernetes.KubeConstants.SUCCEEDED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KubeInformerIndexesTest {
+
+    private final StdKubeApiFacade kubeApiFacade = mock(StdKubeApiFacade.class);
+
+    private final DirectProcessor<EmbeddedKubeEvent<V1Pod>> podEvents = DirectProcessor.create();
+    private final DirectProcessor<EmbeddedKubeEvent<V1Node>> nodeEvents = DirectProcessor.create();
+
+    private KubeInformerIndexes indexes;
+
+    @Before
+    public void setUp() {
+        V1Pod pod1 = newPod("task1", andNodeName("node1"), andPhase(RUNNING));
+        V1Pod pod2 = newPod("task2", andNodeName("node2"), andPhase(SUCCEEDED));
+        when(kubeApiFacade.getPodInformer()).thenReturn(new SharedInformerStub<>(Arrays.asList(pod1, pod2), podEvents));
+        when(kubeApiFacade.getNodeInformer()).thenReturn(new SharedInformerStub<>(Collections.singletonList(newNode("node1")), nodeEvents));
+
+        indexes = new KubeInformerIndexes(kubeApiFacade, TitusRuntimes.internal());
+        indexes.enterActiveMode();
+        assertThat(indexes.hasSynced()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNotSyncedUntilReplayCompleted() {
+        V1Pod pod1 = newPod("task1", andNodeName("node1"), andPhase(RUNNING));
+        V1Pod pod2 = newPod("task2", andNodeName("node1"), andPhase(RUNNING));
+        V1Node node1 = newNode("node1");
+
+        SharedIndexInformer<V1Pod> podInformer = newSyncedInformer(Arrays.asList(pod1, pod2));
+        SharedIndexInformer<V1Node> nodeInformer = newSyncedInformer(Collections.singletonList(node1));
+        StdKubeApiFacade delayedReplayFacade = mock(StdKubeApiFacade.class);
+        when(delayedReplayFacade.getPodInformer()).thenReturn(podInformer);
+        when(delayedReplayFacade.getNodeInformer()).thenReturn(nodeInformer);
+
+        KubeInformerIndexes delayedIndexes = new KubeInformerIndexes(delayedReplayFacade, TitusRuntimes.internal());
+        delayedIndexes.enterActiveMode();
+
+        ArgumentCaptor<ResourceEventHandler> podHandlerCaptor = ArgumentCaptor.forClass(ResourceEventHandler.class);
+        ArgumentCaptor<ResourceEventHandler> nodeHandlerCaptor = ArgumentCaptor.forClass(ResourceEventHandler.class);
+        verify(podInformer).addEventHandler(podHandlerCaptor.capture());
+        verify(nodeInformer).addEventHandler(nodeHandlerCaptor.capture());
+
+        // Informers are synced, but nothing is replayed yet.
+        assertThat(delayedIndexes.hasSynced()).isFalse();
+
+        nodeHandlerCaptor.getValue().onAdd(node1);
+        podHandlerCaptor.getValue().onAdd(pod1);
+        assertThat(delayedIndexes.hasSynced()).isFalse();
+
+        podHandlerCaptor.getValue().onAdd(pod2);
+        assertThat(delayedIndexes.hasSynced()).isTrue();
+        assertThat(delayedIndexes.getPodsOnNode("node1")).hasSize(2);
+    }
+
+    @Test
+    public void testInitialState() {
+        assertThat(indexes.findPod("task1")).isPresent();
+        assertThat(indexes.findNode("node1")).isPresent();
+        assertThat(indexes.findNode("node2")).isEmpty();
+        assertThat(indexes.getPodNodeNames()).containsExactlyInAnyOrder("node1", "node2");
+        assertThat(indexes.getPodsOnNode("node2")).extracting(pod -> pod.getMetadata().getName()).containsExactly("task2");
+        assertThat(indexes.getPodsInPhase(SUCCEEDED)).extracting(pod -> pod.getMetadata().getName()).containsExactly("task2");
+    }
+
+    @Test
+    public void testPodUpdateIsReindexed() {
+        V1Pod previous = indexes.findPod("task1").get();
+        V1Pod updated = newPod("task1", andNodeName("node3"), andPhase(SUCCEEDED));
+        podEvents.onNext(EmbeddedKubeEvent.updated(updated, previous));
+
+        assertThat(indexes.getPodsOnNode("node1")).isEmpty();
+        assertThat(indexes.getPodNodeNames()).containsExactlyInAnyOrder("node2", "node3");
+        assertThat(indexes.getPodsInPhase(RUNNING)).isEmpty();
+        assertThat(indexes.getPodsInPhase(SUCCEEDED)).hasSize(2);
+    }
+
+    @Test
+    public void testPodAndNodeDelete() {
+        podEvents.onNext(EmbeddedKubeEvent.deleted(indexes.findPod("task2").get()));
+        nodeEvents.onNext(EmbeddedKubeEvent.deleted(indexes.findNode("node1").get()));
+
+        assertThat(indexes.findPod("task2")).isEmpty();
+        assertThat(indexes.getPodNodeNames()).containsExactly("node1");
+        assertThat(indexes.getPodsInPhase(SUCCEEDED)).isEmpty();
+        assertThat(indexes.findNode("node1")).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends KubernetesObject> SharedIndexInformer<T> newSyncedInformer(List<T> objects) {
+        Indexer<T> indexer = mock(Indexer.class);
+        when(indexer.list()).thenReturn(objects);
+        SharedIndexInformer<T> informer = mock(SharedIndexInformer.class);
+        when(informer.hasSynced()).thenReturn(true);
+        when(informer.getIndexer()).thenReturn(indexer);
+        return informer;
+    }
+}
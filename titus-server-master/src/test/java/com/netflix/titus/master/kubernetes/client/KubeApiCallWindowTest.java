@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.kubernetes.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.common.util.time.TestClock;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KubeApiCallWindowTest {
+
+    private static final long LATENCY_TARGET_MS = 1_000;
+
+    private final TestClock clock = Clocks.test();
+
+    private final List<String> started = new ArrayList<>();
+    private final List<MonoSink<String>> running = new ArrayList<>();
+
+    @Test
+    public void testHighPriorityCallsAreStartedFirst() {
+        KubeApiCallWindow window = new KubeApiCallWindow(1, 1, LATENCY_TARGET_MS, clock, new DefaultRegistry());
+
+        window.submit(false, newCall("launch1")).subscribe();
+        window.submit(false, newCall("launch2")).subscribe();
+        window.submit(true, newCall("terminate1")).subscribe();
+        assertThat(started).containsExactly("launch1");
+        assertThat(window.getQueueSize(true)).isEqualTo(1);
+        assertThat(window.getQueueSize(false)).isEqualTo(1);
+
+        completeNext();
+        assertThat(started).containsExactly("launch1", "terminate1");
+        completeNext();
+        assertThat(started).containsExactly("launch1", "terminate1", "launch2");
+        completeNext();
+        assertThat(window.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLimitAdaptsToLatency() {
+        KubeApiCallWindow window = new KubeApiCallWindow(2, 4, LATENCY_TARGET_MS, clock, new DefaultRegistry());
+        assertThat(window.getLimit()).isEqualTo(2);
+
+        // Fast calls increase the limit up to the maximum
+        for (int i = 0; i < 20; i++) {
+            window.submit(false, newCall("fast" + i)).subscribe();
+            completeNext();
+        }
+        assertThat(window.getLimit()).isEqualTo(4);
+
+        // Slow calls decrease the limit down to the minimum
+        for (int i = 0; i < 20; i++) {
+            window.submit(false, newCall("slow" + i)).subscribe();
+            clock.advanceTime(LATENCY_TARGET_MS + 1, TimeUnit.MILLISECONDS);
+            completeNext();
+        }
+        assertThat(window.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCancelledCallReleasesItsSlot() {
+        KubeApiCallWindow window = new KubeApiCallWindow(1, 1, LATENCY_TARGET_MS, clock, new DefaultRegistry());
+
+        Disposable first = window.submit(false, newCall("launch1")).subscribe();
+        Disposable second = window.submit(false, newCall("launch2")).subscribe();
+        window.submit(false, newCall("launch3")).subscribe();
+
+        second.dispose();
+        first.dispose();
+        assertThat(started).containsExactly("launch1", "launch3");
+        assertThat(window.getInFlight()).isEqualTo(1);
+    }
+
+    private Mono<String> newCall(String name) {
+        return Mono.create(sink -> {
+            started.add(name);
+            running.add(sink);
+        });
+    }
+
+    private void completeNext() {
+        running.remove(0).success("done");
+    }
+}
@@ -16,14 +16,13 @@
 
 package com.netflix.titus.master.kubernetes.controller;
 
-import java.util.Collections;
-
 import com.netflix.titus.common.framework.scheduler.LocalScheduler;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
 import com.netflix.titus.common.util.time.TestClock;
 import com.netflix.titus.common.util.time.internal.DefaultTestClock;
+import com.netflix.titus.master.kubernetes.KubeInformerIndexes;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
@@ -49,7 +48,8 @@ public class PodOnUnknownNodeGcControllerTest {
             scheduler,
             tokenBucketConfiguration,
             controllerConfiguration,
-            kubeApiFacade
+            kubeApiFacade,
+            mock(KubeInformerIndexes.class)
     );
 
     /**
@@ -62,7 +62,7 @@ public class PodOnUnknownNodeGcControllerTest {
                 .spec(new V1PodSpec().nodeName(NODE_NAME))
                 .status(null);
 
-        Assertions.assertThat(podGcController.isPodOnUnknownNode(pod, Collections.emptySet())).isTrue();
+        Assertions.assertThat(podGcController.isPodOnUnknownNode(pod, nodeName -> false)).isTrue();
     }
 
     /**
@@ -75,6 +75,6 @@ public class PodOnUnknownNodeGcControllerTest {
                 .spec(new V1PodSpec().nodeName(NODE_NAME))
                 .status(null);
 
-        Assertions.assertThat(podGcController.isPodOnUnknownNode(pod, Collections.singleton(NODE_NAME))).isFalse();
+        Assertions.assertThat(podGcController.isPodOnUnknownNode(pod, NODE_NAME::equals)).isFalse();
     }
 }
\ No newline at end of file
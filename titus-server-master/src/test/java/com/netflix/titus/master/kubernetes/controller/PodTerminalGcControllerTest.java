@@ -31,6 +31,7 @@ import com.netflix.titus.common.util.DateTimeExt;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
 import com.netflix.titus.common.util.time.TestClock;
 import com.netflix.titus.common.util.time.internal.DefaultTestClock;
+import com.netflix.titus.master.kubernetes.KubeInformerIndexes;
 import com.netflix.titus.runtime.connector.kubernetes.std.StdKubeApiFacade;
 import com.netflix.titus.testkit.model.job.JobGenerator;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
@@ -62,6 +63,7 @@ public class PodTerminalGcControllerTest {
             tokenBucketConfiguration,
             controllerConfiguration,
             kubeApiFacade,
+            mock(KubeInformerIndexes.class),
             kubeControllerConfiguration,
             v3JobOperations
     );
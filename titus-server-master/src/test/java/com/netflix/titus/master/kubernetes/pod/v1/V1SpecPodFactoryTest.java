@@ -112,10 +112,59 @@ public class V1SpecPodFactoryTest {
                 topologyFactory,
                 defaultAggregatingContainerEnvFactory,
                 logStorageInfo,
-                schedulerConfiguration
+                schedulerConfiguration,
+                titusRuntime
         );
     }
 
+    @Test
+    public void podTemplateIsReusedByTasksOfTheSameJobVersion() {
+        when(configuration.getPodTemplateCacheMaxSize()).thenReturn(100L);
+        when(configuration.getPodTemplateCacheExpiryMs()).thenReturn(60_000L);
+        V1SpecPodFactory cachingPodFactory = new V1SpecPodFactory(
+                configuration,
+                capacityGroupManagement,
+                podAffinityFactory,
+                taintTolerationFactory,
+                topologyFactory,
+                defaultAggregatingContainerEnvFactory,
+                logStorageInfo,
+                schedulerConfiguration,
+                titusRuntime
+        );
+
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        BatchJobTask task1 = JobGenerator.batchTasks(job).getValue();
+        BatchJobTask task2 = JobGenerator.batchTasks(job).skip(1).getValue();
+        when(podAffinityFactory.buildV1Affinity(any(), any())).thenReturn(Pair.of(new V1Affinity(), new HashMap<>()));
+
+        V1Pod pod1 = cachingPodFactory.buildV1Pod(job, task1);
+        V1Pod pod2 = cachingPodFactory.buildV1Pod(job, task2);
+        assertThat(pod1.getMetadata().getName()).isEqualTo(task1.getId());
+        assertThat(pod2.getMetadata().getName()).isEqualTo(task2.getId());
+        assertThat(pod2.getMetadata().getLabels()).containsEntry(KubeConstants.POD_LABEL_TASK_ID, task2.getId());
+        assertThat(pod1.getSpec().getContainers().get(0).getResources())
+                .isEqualTo(pod2.getSpec().getContainers().get(0).getResources())
+                .isNotSameAs(pod2.getSpec().getContainers().get(0).getResources());
+        assertThat(pod1.getSpec().getVolumes()).isEqualTo(pod2.getSpec().getVolumes());
+        assertThat(pod1.getSpec().getTopologySpreadConstraints()).isEqualTo(pod2.getSpec().getTopologySpreadConstraints());
+        assertThat(titusRuntime.getRegistry().counter("titusMaster.kubernetes.podFactory.templateCache", "result", "hit").count()).isEqualTo(1);
+
+        // A new job version gets a new template.
+        Job<BatchJobExt> updatedJob = job.toBuilder()
+                .withJobDescriptor(job.getJobDescriptor().toBuilder().withCapacityGroup("newGroup").build())
+                .build();
+        V1Pod pod3 = cachingPodFactory.buildV1Pod(updatedJob, task1);
+        assertThat(pod3.getSpec().getContainers().get(0).getResources())
+                .isEqualTo(pod1.getSpec().getContainers().get(0).getResources());
+        assertThat(titusRuntime.getRegistry().counter("titusMaster.kubernetes.podFactory.templateCache", "result", "miss").count()).isEqualTo(2);
+
+        // Modifying a pod does not affect the template.
+        pod3.getSpec().getContainers().get(0).getResources().getLimits().clear();
+        V1Pod pod4 = cachingPodFactory.buildV1Pod(updatedJob, task2);
+        assertThat(pod4.getSpec().getContainers().get(0).getResources().getLimits()).isNotEmpty();
+    }
+
     @Test
     public void relocationLabel() {
         Job<ServiceJobExt> job = JobGenerator.oneServiceJob();
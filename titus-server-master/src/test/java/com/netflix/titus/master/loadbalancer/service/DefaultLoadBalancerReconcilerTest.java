@@ -55,6 +55,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DefaultLoadBalancerReconcilerTest {
@@ -180,6 +182,48 @@ public class DefaultLoadBalancerReconcilerTest {
         });
     }
 
+    @Test(timeout = TEST_TIMEOUT_MS)
+    public void unchangedLoadBalancersInSyncAreSkipped() {
+        subscriber.unsubscribe();
+        reconciler.shutdown();
+        LoadBalancerConfiguration configuration = mockConfigWithDelay(delayMs);
+        when(configuration.getReconciliationUnchangedSkipMaxMs()).thenReturn(10 * delayMs);
+        reconciler = new DefaultLoadBalancerReconciler(configuration, store, connector,
+                new LoadBalancerJobOperations(v3JobOperations), () -> reconciliationCount.incrementAndGet(),
+                new NoopRegistry(), testScheduler);
+        subscriber = reconciler.events().test();
+
+        List<Task> tasks = LoadBalancerTests.buildTasksStarted(3, jobId);
+        JobLoadBalancer jobLoadBalancer = new JobLoadBalancer(jobId, loadBalancerId);
+        when(v3JobOperations.getTasks(jobId)).thenReturn(tasks.subList(0, 2));
+        reset(connector);
+        when(connector.getLoadBalancer(loadBalancerId)).thenReturn(Single.just(new LoadBalancer(
+                loadBalancerId,
+                LoadBalancer.State.ACTIVE,
+                CollectionsExt.asSet("1.1.1.1", "2.2.2.2")
+        )));
+        store.addOrUpdateLoadBalancer(jobLoadBalancer, State.ASSOCIATED).await();
+
+        // first run finds everything in sync
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertNoValues();
+        verify(connector, times(1)).getLoadBalancer(loadBalancerId);
+
+        // nothing changed, the load balancer is not fetched again
+        awaitReconciliationRuns(2);
+        subscriber.assertNotCompleted().assertNoValues();
+        verify(connector, times(1)).getLoadBalancer(loadBalancerId);
+
+        // a new task is detected as a change
+        when(v3JobOperations.getTasks(jobId)).thenReturn(tasks);
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertValueCount(1);
+        verify(connector, times(2)).getLoadBalancer(loadBalancerId);
+        TargetStateBatchable update = subscriber.getOnNextEvents().get(0);
+        assertThat(update.getState()).isEqualTo(LoadBalancerTarget.State.REGISTERED);
+        assertThat(update.getIdentifier().getIpAddress()).isEqualTo("3.3.3.3");
+    }
+
     @Test(timeout = TEST_TIMEOUT_MS)
     public void updatesAreIgnoredWhileCooldownIsActive() {
         long cooldownPeriodMs = 5 * delayMs;
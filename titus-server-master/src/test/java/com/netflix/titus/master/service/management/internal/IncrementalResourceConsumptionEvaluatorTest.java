@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.service.management.internal;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import com.netflix.titus.api.jobmanager.model.job.ContainerResources;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.model.ResourceDimension;
+import com.netflix.titus.api.model.Tier;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.common.util.time.TestClock;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.model.ResourceDimensions;
+import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
+import com.netflix.titus.master.service.management.CompositeResourceConsumption;
+import com.netflix.titus.master.service.management.ResourceConsumption;
+import com.netflix.titus.master.service.management.internal.DefaultResourceConsumptionService.ConsumptionEvaluationResult;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.netflix.titus.master.service.management.ResourceConsumptions.findConsumption;
+import static com.netflix.titus.master.service.management.internal.ResourceConsumptionEvaluator.perTaskResourceDimension;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IncrementalResourceConsumptionEvaluatorTest {
+
+    private static final ContainerResources CONTAINER_RESOURCES = ContainerResources.newBuilder()
+            .withCpu(1)
+            .withMemoryMB(1024)
+            .withDiskMB(512)
+            .withNetworkMbps(128)
+            .build();
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final TestClock clock = Clocks.test();
+
+    private final ApplicationSlaManagementService applicationSlaManagementService = mock(ApplicationSlaManagementService.class);
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final IncrementalResourceConsumptionEvaluator evaluator = new IncrementalResourceConsumptionEvaluator(
+            applicationSlaManagementService, jobComponentStub.getJobOperations(), clock
+    );
+
+    @Before
+    public void setUp() {
+        when(applicationSlaManagementService.getApplicationSLAs()).thenReturn(asList(
+                ConsumptionModelGenerator.DEFAULT_SLA, ConsumptionModelGenerator.CRITICAL_SLA_1, ConsumptionModelGenerator.NOT_USED_SLA
+        ));
+    }
+
+    @After
+    public void tearDown() {
+        evaluator.shutdown();
+    }
+
+    @Test
+    public void testTaskStateChangeUpdatesOnlyItsCapacityGroup() {
+        Pair<Job, List<Task>> critical = newBatchJob("criticalJob", ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName());
+        Job criticalJob = critical.getLeft();
+        Pair<Job, List<Task>> flex = newBatchJob("flexJob", ConsumptionModelGenerator.DEFAULT_SLA.getAppName());
+        jobComponentStub.moveTaskToState(flex.getRight().get(0), TaskState.Started);
+
+        ConsumptionEvaluationResult first = evaluator.get();
+        assertThat(findCapacityGroup(first, Tier.Critical, ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName()).getCurrentConsumption())
+                .isEqualTo(ResourceDimension.empty());
+
+        jobComponentStub.moveTaskToState(critical.getRight().get(0), TaskState.Started);
+        ConsumptionEvaluationResult second = evaluator.get();
+        assertThat(findCapacityGroup(second, Tier.Critical, ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName()).getCurrentConsumption())
+                .isEqualTo(perTaskResourceDimension(criticalJob));
+
+        jobComponentStub.moveTaskToState(critical.getRight().get(1), TaskState.Started);
+        ConsumptionEvaluationResult third = evaluator.get();
+        assertThat(findCapacityGroup(third, Tier.Critical, ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName()).getCurrentConsumption())
+                .isEqualTo(ResourceDimensions.multiply(perTaskResourceDimension(criticalJob), 2));
+
+        // The flex capacity group had no updates, so it is not re-evaluated.
+        assertThat(findCapacityGroup(third, Tier.Flex, ConsumptionModelGenerator.DEFAULT_SLA.getAppName()))
+                .isSameAs(findCapacityGroup(first, Tier.Flex, ConsumptionModelGenerator.DEFAULT_SLA.getAppName()));
+    }
+
+    @Test
+    public void testUndefinedCapacityGroupIsRemovedWhenJobIsMoved() {
+        Job job = newBatchJob("badCapacityJob", "missingCapacityGroup").getLeft();
+        assertThat(evaluator.get().getUndefinedCapacityGroups()).containsExactly("missingCapacityGroup");
+
+        jobComponentStub.changeJob(job.toBuilder()
+                .withJobDescriptor(job.getJobDescriptor().toBuilder()
+                        .withCapacityGroup(ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName())
+                        .build()
+                )
+                .build()
+        );
+        assertThat(evaluator.get().getUndefinedCapacityGroups()).isEmpty();
+    }
+
+    @Test
+    public void testIncrementalAndFullEvaluationsAreEqual() {
+        Pair<Job, List<Task>> critical = newBatchJob("criticalJob", ConsumptionModelGenerator.CRITICAL_SLA_1.getAppName());
+        newBatchJob("flexJob", ConsumptionModelGenerator.DEFAULT_SLA.getAppName());
+        evaluator.get();
+
+        jobComponentStub.moveTaskToState(critical.getRight().get(0), TaskState.Started);
+        CompositeResourceConsumption incremental = evaluator.get().getSystemConsumption();
+
+        clock.advanceTime(Duration.ofMillis(IncrementalResourceConsumptionEvaluator.FULL_EVALUATION_INTERVAL_MS));
+        CompositeResourceConsumption full = evaluator.get().getSystemConsumption();
+
+        assertThat(incremental).isEqualTo(full);
+        assertThat(full).isEqualTo(new ResourceConsumptionEvaluator(applicationSlaManagementService, jobComponentStub.getJobOperations()).getSystemConsumption());
+    }
+
+    private CompositeResourceConsumption findCapacityGroup(ConsumptionEvaluationResult result, Tier tier, String capacityGroup) {
+        return (CompositeResourceConsumption) findConsumption(result.getSystemConsumption(), tier.name(), capacityGroup).get();
+    }
+
+    private Pair<Job, List<Task>> newBatchJob(String name, String capacityGroup) {
+        Function<JobDescriptor<BatchJobExt>, JobDescriptor<BatchJobExt>> transformer = jd -> jd.toBuilder()
+                .withExtensions(jd.getExtensions().toBuilder().withSize(2).build())
+                .withCapacityGroup(capacityGroup)
+                .build();
+        jobComponentStub.addJobTemplate(name, JobDescriptorGenerator.batchJobDescriptors()
+                .map(jd -> jd.but(self -> self.getContainer().but(c -> CONTAINER_RESOURCES)))
+                .map(transformer::apply)
+        );
+        return jobComponentStub.createJobAndTasks(name);
+    }
+}
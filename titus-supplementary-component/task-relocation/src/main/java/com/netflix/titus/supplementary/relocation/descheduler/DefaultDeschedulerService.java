@@ -21,8 +21,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -37,7 +37,11 @@ import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.time.Clock;
 import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.runtime.RelocationAttributes;
 import com.netflix.titus.runtime.connector.eviction.EvictionConfiguration;
+import com.netflix.titus.runtime.connector.jobmanager.JobDataReplicator;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshot;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotIndexes;
 import com.netflix.titus.supplementary.relocation.connector.TitusNode;
 import com.netflix.titus.supplementary.relocation.connector.NodeDataResolver;
 import com.netflix.titus.supplementary.relocation.model.DeschedulingFailure;
@@ -54,6 +58,7 @@ import static com.netflix.titus.api.jobmanager.model.job.JobFunctions.hasDisrupt
 public class DefaultDeschedulerService implements DeschedulerService {
 
     private final ReadOnlyJobOperations jobOperations;
+    private final JobDataReplicator jobDataReplicator;
     private final ReadOnlyEvictionOperations evictionOperations;
     private final NodeDataResolver nodeDataResolver;
 
@@ -63,11 +68,13 @@ public class DefaultDeschedulerService implements DeschedulerService {
 
     @Inject
     public DefaultDeschedulerService(ReadOnlyJobOperations jobOperations,
+                                     JobDataReplicator jobDataReplicator,
                                      ReadOnlyEvictionOperations evictionOperations,
                                      NodeDataResolver nodeDataResolver,
                                      EvictionConfiguration evictionConfiguration,
                                      TitusRuntime titusRuntime) {
         this.jobOperations = jobOperations;
+        this.jobDataReplicator = jobDataReplicator;
         this.evictionOperations = evictionOperations;
         this.nodeDataResolver = nodeDataResolver;
         this.evictionConfiguration = evictionConfiguration;
@@ -77,12 +84,13 @@ public class DefaultDeschedulerService implements DeschedulerService {
 
     @Override
     public List<DeschedulingResult> deschedule(Map<String, TaskRelocationPlan> plannedAheadTaskRelocationPlans) {
-        List<Pair<Job, List<Task>>> allJobsAndTasks = jobOperations.getJobsAndTasks();
-        Map<String, Job<?>> jobs = allJobsAndTasks.stream().map(Pair::getLeft).collect(Collectors.toMap(Job::getId, j -> j));
-        Map<String, Task> tasksById = allJobsAndTasks.stream()
-                .flatMap(p -> p.getRight().stream())
-                .collect(Collectors.toMap(Task::getId, t -> t));
-        EvacuatedAgentsAllocationTracker evacuatedAgentsAllocationTracker = new EvacuatedAgentsAllocationTracker(nodeDataResolver.resolve(), tasksById);
+        JobSnapshot snapshot = jobDataReplicator.getCurrent();
+        Map<String, TitusNode> nodesById = nodeDataResolver.resolve();
+        Map<String, Task> tasksById = findRelocationCandidates(snapshot, nodesById);
+        Map<String, Job<?>> jobs = new HashMap<>();
+        tasksById.values().forEach(task -> snapshot.findJob(task.getJobId()).ifPresent(job -> jobs.put(job.getId(), job)));
+
+        EvacuatedAgentsAllocationTracker evacuatedAgentsAllocationTracker = new EvacuatedAgentsAllocationTracker(nodesById, tasksById);
         EvictionQuotaTracker evictionQuotaTracker = new EvictionQuotaTracker(evictionOperations, jobs);
 
         TaskMigrationDescheduler taskMigrationDescheduler = new TaskMigrationDescheduler(
@@ -148,6 +156,37 @@ public class DefaultDeschedulerService implements DeschedulerService {
         return CollectionsExt.merge(new ArrayList<>(allRequestedEvictions.values()), new ArrayList<>(regularEvictions.values()));
     }
 
+    /**
+     * Only tasks running on agents tagged for relocation, or tasks and jobs tagged for relocation can be descheduled.
+     * They are resolved from the job snapshot indexes, so the cost of a descheduling pass depends on the number of
+     * these tasks, not on the total number of tasks in the system.
+     */
+    private Map<String, Task> findRelocationCandidates(JobSnapshot snapshot, Map<String, TitusNode> nodesById) {
+        JobSnapshotIndexes indexes = snapshot.getIndexes();
+        Map<String, Task> taskMap = snapshot.getTaskMap();
+
+        Map<String, Task> result = new HashMap<>();
+        nodesById.forEach((nodeId, node) -> {
+            if (node.isServerGroupRelocationRequired() || node.isRelocationRequired() || node.isRelocationRequiredImmediately()) {
+                addTasks(indexes.getTaskIdsByAgentInstanceId(nodeId), taskMap, result);
+            }
+        });
+        addTasks(indexes.getTaskIdsByAttributeName(RelocationAttributes.RELOCATION_REQUIRED), taskMap, result);
+        addTasks(indexes.getTaskIdsByAttributeName(RelocationAttributes.RELOCATION_REQUIRED_IMMEDIATELY), taskMap, result);
+        indexes.getJobIdsByAttributeName(RelocationAttributes.RELOCATION_REQUIRED_BY).forEach(jobId -> result.putAll(snapshot.getTasks(jobId)));
+        indexes.getJobIdsByAttributeName(RelocationAttributes.RELOCATION_REQUIRED_BY_IMMEDIATELY).forEach(jobId -> result.putAll(snapshot.getTasks(jobId)));
+        return result;
+    }
+
+    private static void addTasks(Set<String> taskIds, Map<String, Task> taskMap, Map<String, Task> result) {
+        taskIds.forEach(taskId -> {
+            Task task = taskMap.get(taskId);
+            if (task != null) {
+                result.put(taskId, task);
+            }
+        });
+    }
+
     private TaskRelocationPlan newNotDelayedRelocationPlan(Task task, boolean approved) {
         long now = clock.wallTime();
         String reasonMessage = approved
@@ -20,6 +20,7 @@ import com.netflix.titus.api.eviction.service.ReadOnlyEvictionOperations;
 import com.netflix.titus.api.jobmanager.service.ReadOnlyJobOperations;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.runtime.connector.eviction.EvictionConfiguration;
+import com.netflix.titus.runtime.connector.jobmanager.JobDataReplicator;
 import com.netflix.titus.supplementary.relocation.connector.NodeDataResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,10 +30,11 @@ public class DeschedulerComponent {
 
     @Bean
     public DeschedulerService getDeschedulerService(ReadOnlyJobOperations jobOperations,
+                                                    JobDataReplicator jobDataReplicator,
                                                     ReadOnlyEvictionOperations evictionOperations,
                                                     NodeDataResolver nodeDataResolver,
                                                     EvictionConfiguration evictionConfiguration,
                                                     TitusRuntime titusRuntime) {
-        return new DefaultDeschedulerService(jobOperations, evictionOperations, nodeDataResolver, evictionConfiguration, titusRuntime);
+        return new DefaultDeschedulerService(jobOperations, jobDataReplicator, evictionOperations, nodeDataResolver, evictionConfiguration, titusRuntime);
     }
 }
@@ -17,7 +17,9 @@
 package com.netflix.titus.supplementary.relocation;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Preconditions;
 import com.netflix.titus.api.eviction.service.ReadOnlyEvictionOperations;
@@ -30,6 +32,9 @@ import com.netflix.titus.runtime.connector.eviction.EvictionDataReplicator;
 import com.netflix.titus.runtime.connector.eviction.EvictionServiceClient;
 import com.netflix.titus.runtime.connector.jobmanager.JobDataReplicator;
 import com.netflix.titus.runtime.connector.jobmanager.JobManagementClient;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshot;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotFactories;
+import com.netflix.titus.runtime.connector.jobmanager.snapshot.JobSnapshotFactory;
 import com.netflix.titus.supplementary.relocation.connector.TitusNode;
 import com.netflix.titus.supplementary.relocation.connector.NodeDataResolver;
 import com.netflix.titus.testkit.model.eviction.EvictionComponentStub;
@@ -75,9 +80,7 @@ public class RelocationConnectorStubs {
         context.getBeanFactory().registerSingleton("evictionServiceClient", evictionComponentStub.getEvictionServiceClient());
         context.getBeanFactory().registerSingleton("jobManagementClient", mock(JobManagementClient.class));
 
-        JobDataReplicator jobDataReplicator = mock(JobDataReplicator.class);
-        when(jobDataReplicator.getStalenessMs()).thenReturn(0L);
-        context.getBeanFactory().registerSingleton("jobDataReplicator", jobDataReplicator);
+        context.getBeanFactory().registerSingleton("jobDataReplicator", getJobDataReplicator());
 
         EvictionDataReplicator evictionDataReplicator = mock(EvictionDataReplicator.class);
         when(evictionDataReplicator.getStalenessMs()).thenReturn(0L);
@@ -96,6 +99,30 @@ public class RelocationConnectorStubs {
         return jobComponentStub.getJobOperations();
     }
 
+    /**
+     * Returns {@link JobDataReplicator} with a snapshot built from the current state of the job stub on each access.
+     */
+    public JobDataReplicator getJobDataReplicator() {
+        JobSnapshotFactory snapshotFactory = JobSnapshotFactories.newDefault(titusRuntime);
+        JobDataReplicator jobDataReplicator = mock(JobDataReplicator.class);
+        when(jobDataReplicator.getStalenessMs()).thenReturn(0L);
+        when(jobDataReplicator.getCurrent()).thenAnswer(invocation -> newJobSnapshot(snapshotFactory));
+        return jobDataReplicator;
+    }
+
+    private JobSnapshot newJobSnapshot(JobSnapshotFactory snapshotFactory) {
+        Map<String, Job<?>> jobsById = new HashMap<>();
+        Map<String, Map<String, Task>> tasksByJobId = new HashMap<>();
+        jobOperations.getJobsAndTasks().forEach(jobAndTasks -> {
+            Job<?> job = jobAndTasks.getLeft();
+            Map<String, Task> tasks = new HashMap<>();
+            jobAndTasks.getRight().forEach(task -> tasks.put(task.getId(), task));
+            jobsById.put(job.getId(), job);
+            tasksByJobId.put(job.getId(), tasks);
+        });
+        return snapshotFactory.newSnapshot(jobsById, tasksByJobId);
+    }
+
     public ReadOnlyEvictionOperations getEvictionOperations() {
         return evictionComponentStub.getEvictionOperations();
     }
@@ -35,6 +35,7 @@ import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.common.util.archaius2.Archaius2Ext;
 import com.netflix.titus.common.util.time.TestClock;
 import com.netflix.titus.runtime.RelocationAttributes;
+import com.netflix.titus.runtime.connector.jobmanager.JobDataReplicator;
 import com.netflix.titus.supplementary.relocation.RelocationConfiguration;
 import com.netflix.titus.supplementary.relocation.RelocationConnectorStubs;
 import com.netflix.titus.supplementary.relocation.TestDataFactory;
@@ -81,6 +82,7 @@ public class DefaultDeschedulerServiceTest {
 
     private final DefaultDeschedulerService deschedulerService = new DefaultDeschedulerService(
             dataGenerator.getJobOperations(),
+            dataGenerator.getJobDataReplicator(),
             dataGenerator.getEvictionOperations(),
             dataGenerator.getNodeDataResolver(),
             () -> "foo|bar",
@@ -140,6 +142,7 @@ public class DefaultDeschedulerServiceTest {
         ReadOnlyJobOperations jobOperations = mock(ReadOnlyJobOperations.class);
         DefaultDeschedulerService dds = new DefaultDeschedulerService(
                 jobOperations,
+                mock(JobDataReplicator.class),
                 mock(ReadOnlyEvictionOperations.class),
                 new KubernetesNodeDataResolver(configuration, TestDataFactory.mockFabric8IOConnector(), node -> true),
                 () -> "foo|bar",
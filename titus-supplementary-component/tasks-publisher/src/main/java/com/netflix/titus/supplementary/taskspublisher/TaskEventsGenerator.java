@@ -17,14 +17,20 @@ package com.netflix.titus.supplementary.taskspublisher;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.titus.api.jobmanager.JobAttributes;
 import com.netflix.titus.common.runtime.TitusRuntime;
-import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.grpc.protogen.Job;
+import com.netflix.titus.grpc.protogen.JobStatus;
 import com.netflix.titus.grpc.protogen.Task;
 import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
 import com.netflix.titus.supplementary.taskspublisher.es.ElasticSearchUtils;
+import com.netflix.titus.supplementary.taskspublisher.es.EsTaskPublisherMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.ConnectableFlux;
@@ -36,6 +42,7 @@ import reactor.core.scheduler.Schedulers;
 public class TaskEventsGenerator {
 
     private static final int THREAD_POOL_LIMIT = 500;
+    private static final int MAX_JOB_CACHE_SIZE = 40000;
 
     private final Logger logger = LoggerFactory.getLogger(TaskEventsGenerator.class);
 
@@ -45,6 +52,14 @@ public class TaskEventsGenerator {
     private final Scheduler scheduler;
     private ConnectableFlux<TaskDocument> taskEvents;
 
+    /**
+     * Jobs converted to the core model, fed by the job updates from {@link TitusClient#getJobAndTaskUpdates()}, so
+     * task updates do not require a remote call and a job conversion each. Entries are removed when a job finishes.
+     */
+    private final Cache<String, com.netflix.titus.api.jobmanager.model.job.Job<?>> jobCache;
+    private final AtomicLong jobCacheHits = new AtomicLong();
+    private final AtomicLong jobCacheMisses = new AtomicLong();
+
     public TaskEventsGenerator(TitusClient titusClient,
                                Map<String, String> taskDocumentBaseContext,
                                TitusRuntime titusRuntime) {
@@ -52,6 +67,8 @@ public class TaskEventsGenerator {
         this.taskDocumentBaseContext = taskDocumentBaseContext;
         this.titusRuntime = titusRuntime;
         this.scheduler = Schedulers.newBoundedElastic(THREAD_POOL_LIMIT, Integer.MAX_VALUE, "taskEventsGenerator", 60, true);
+        this.jobCache = Caffeine.newBuilder().maximumSize(MAX_JOB_CACHE_SIZE).build();
+        configureMetrics(titusRuntime.getRegistry());
         buildEventStream();
     }
 
@@ -66,37 +83,90 @@ public class TaskEventsGenerator {
     private void buildEventStream() {
         taskEvents = titusClient.getJobAndTaskUpdates()
                 .publishOn(scheduler)
-                .flatMap(jobOrTaskUpdate -> jobOrTaskUpdate.hasTask() ? Flux.just(jobOrTaskUpdate.getTask()) : Flux.empty())
-                .map(task -> {
-                    final Mono<Job> jobById = titusClient.getJobById(task.getJobId());
-                    return Pair.of(task, jobById);
-                })
-                .flatMap(taskMonoPair -> {
-                    final Task task = taskMonoPair.getLeft();
-                    return taskMonoPair.getRight()
-                            .flatMap(job -> {
-                                try {
-                                    final com.netflix.titus.api.jobmanager.model.job.Job coreJob = GrpcJobManagementModelConverters.toCoreJob(job);
-                                    final com.netflix.titus.api.jobmanager.model.job.Task coreTask = GrpcJobManagementModelConverters.toCoreTask(coreJob, task);
-                                    return Mono.just(TaskDocument.fromV3Task(coreTask, coreJob, ElasticSearchUtils.DATE_FORMAT, buildTaskContext(task)));
-                                } catch (Exception e) {
-                                    // If the mapping fails, we do not want to break the pipeline, and possible cause an infinite number
-                                    // of retries, each failing on the same bad job/task record. Instead, we log the error.
-                                    titusRuntime.getCodeInvariants().unexpectedError(
-                                            String.format("Cannot map Titus job/task to ES TaskDocument: job=%s, task=%s", job, task),
-                                            e
-                                    );
-                                    logger.warn("Cannot map Titus job/task to ES TaskDocument", e);
-                                    return Mono.empty();
-                                }
-                            }).flux();
+                .flatMap(jobOrTaskUpdate -> {
+                    if (jobOrTaskUpdate.hasJob()) {
+                        cacheJob(jobOrTaskUpdate.getJob());
+                        return Flux.empty();
+                    }
+                    return Flux.just(jobOrTaskUpdate.getTask());
                 })
+                .flatMap(task -> findJob(task.getJobId())
+                        .flatMap(coreJob -> toTaskDocument(coreJob, task))
+                        .flux()
+                )
                 .doOnError(error -> logger.error("TitusClient event stream error", error))
                 .retryWhen(TaskPublisherRetryUtil.buildRetryHandler(TaskPublisherRetryUtil.INITIAL_RETRY_DELAY_MS,
                         TaskPublisherRetryUtil.MAX_RETRY_DELAY_MS, -1))
                 .publish();
     }
 
+    private void cacheJob(Job job) {
+        // The finished job update is the last one for the job, after all its tasks finished, so the entry is released.
+        // A task update that still follows it, falls back to the remote lookup.
+        if (job.getStatus().getState() == JobStatus.JobState.Finished) {
+            jobCache.invalidate(job.getId());
+            return;
+        }
+        try {
+            jobCache.put(job.getId(), GrpcJobManagementModelConverters.toCoreJob(job));
+        } catch (Exception e) {
+            // The job is fetched again, and the error reported, when one of its tasks is mapped.
+            jobCache.invalidate(job.getId());
+            logger.warn("Cannot map Titus job {} to the core model", job.getId(), e);
+        }
+    }
+
+    private Mono<com.netflix.titus.api.jobmanager.model.job.Job<?>> findJob(String jobId) {
+        com.netflix.titus.api.jobmanager.model.job.Job<?> cached = jobCache.getIfPresent(jobId);
+        if (cached != null) {
+            jobCacheHits.incrementAndGet();
+            return Mono.just(cached);
+        }
+        jobCacheMisses.incrementAndGet();
+        return titusClient.getJobById(jobId).flatMap(job -> {
+            try {
+                com.netflix.titus.api.jobmanager.model.job.Job<?> coreJob = GrpcJobManagementModelConverters.toCoreJob(job);
+                jobCache.put(jobId, coreJob);
+                return Mono.just(coreJob);
+            } catch (Exception e) {
+                titusRuntime.getCodeInvariants().unexpectedError(String.format("Cannot map Titus job to the core model: job=%s", job), e);
+                logger.warn("Cannot map Titus job to the core model", e);
+                return Mono.empty();
+            }
+        });
+    }
+
+    private Mono<TaskDocument> toTaskDocument(com.netflix.titus.api.jobmanager.model.job.Job<?> coreJob, Task task) {
+        try {
+            final com.netflix.titus.api.jobmanager.model.job.Task coreTask = GrpcJobManagementModelConverters.toCoreTask(coreJob, task);
+            return Mono.just(TaskDocument.fromV3Task(coreTask, coreJob, ElasticSearchUtils.DATE_FORMAT, buildTaskContext(task)));
+        } catch (Exception e) {
+            // If the mapping fails, we do not want to break the pipeline, and possible cause an infinite number
+            // of retries, each failing on the same bad job/task record. Instead, we log the error.
+            titusRuntime.getCodeInvariants().unexpectedError(
+                    String.format("Cannot map Titus job/task to ES TaskDocument: job=%s, task=%s", coreJob, task),
+                    e
+            );
+            logger.warn("Cannot map Titus job/task to ES TaskDocument", e);
+            return Mono.empty();
+        }
+    }
+
+    private void configureMetrics(Registry registry) {
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_JOB_CACHE + "hits"))
+                .monitorValue(jobCacheHits);
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_JOB_CACHE + "misses"))
+                .monitorValue(jobCacheMisses);
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_JOB_CACHE + "hitRate"))
+                .monitorValue(this, self -> EsTaskPublisherMetrics.ratio(self.jobCacheHits.get(), self.jobCacheHits.get() + self.jobCacheMisses.get()));
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_JOB_CACHE + "size"))
+                .monitorValue(jobCache, Cache::estimatedSize);
+    }
+
     private Map<String, String> buildTaskContext(Task task) {
         String stack = "";
         if (task.getTaskContextMap().containsKey(JobAttributes.JOB_ATTRIBUTES_CELL)) {
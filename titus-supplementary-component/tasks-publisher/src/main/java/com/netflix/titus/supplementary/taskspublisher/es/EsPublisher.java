@@ -17,9 +17,14 @@ package com.netflix.titus.supplementary.taskspublisher.es;
 
 import java.text.SimpleDateFormat;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.netflix.spectator.api.Functions;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.patterns.PolledMeter;
@@ -53,6 +58,8 @@ public class EsPublisher implements TasksPublisher, LeaderActivationListener {
     private AtomicInteger numErrors = new AtomicInteger(0);
     private AtomicInteger numTasksUpdated = new AtomicInteger(0);
     private AtomicLong lastPublishedTimestamp;
+    private final AtomicLong numDocumentsReceived = new AtomicLong();
+    private final AtomicLong numDocumentsCoalesced = new AtomicLong();
     private Disposable subscription;
     private Disposable taskEventsSourceConnection;
     private final SimpleDateFormat indexDateFormat;
@@ -72,6 +79,7 @@ public class EsPublisher implements TasksPublisher, LeaderActivationListener {
     public void activate() {
         ConnectableFlux<TaskDocument> taskEvents = taskEventsGenerator.getTaskEvents();
         subscription = taskEvents.bufferTimeout(MAX_BATCH_SIZE, Duration.ofSeconds(5))
+                .map(this::coalesce)
                 .onBackpressureBuffer(MAX_BACKPRESSURE_BUFFER, BufferOverflowStrategy.ERROR)
                 .flatMap(taskDocuments ->
                                 esClient.bulkIndexDocuments(
@@ -116,6 +124,21 @@ public class EsPublisher implements TasksPublisher, LeaderActivationListener {
         return numTasksUpdated.get();
     }
 
+    /**
+     * A task may change its state multiple times within a bulk window. Only the latest document of each task is
+     * indexed, as the previous ones would be overwritten anyway.
+     */
+    @VisibleForTesting
+    List<TaskDocument> coalesce(List<TaskDocument> taskDocuments) {
+        Map<String, TaskDocument> latestById = new LinkedHashMap<>();
+        taskDocuments.forEach(taskDocument -> latestById.put(taskDocument.getId(), taskDocument));
+
+        numDocumentsReceived.addAndGet(taskDocuments.size());
+        numDocumentsCoalesced.addAndGet(taskDocuments.size() - latestById.size());
+
+        return latestById.size() == taskDocuments.size() ? taskDocuments : new ArrayList<>(latestById.values());
+    }
+
     private void configureMetrics() {
         PolledMeter.using(registry)
                 .withId(registry.createId(EsTaskPublisherMetrics.METRIC_ES_PUBLISHER + "errors"))
@@ -124,6 +147,16 @@ public class EsPublisher implements TasksPublisher, LeaderActivationListener {
                 .withId(registry.createId(EsTaskPublisherMetrics.METRIC_ES_PUBLISHER + "numTasksUpdated"))
                 .monitorValue(numTasksUpdated);
 
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_COALESCING + "received"))
+                .monitorValue(numDocumentsReceived);
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_COALESCING + "coalesced"))
+                .monitorValue(numDocumentsCoalesced);
+        PolledMeter.using(registry)
+                .withId(registry.createId(EsTaskPublisherMetrics.METRIC_COALESCING + "ratio"))
+                .monitorValue(this, self -> EsTaskPublisherMetrics.ratio(self.numDocumentsCoalesced.get(), self.numDocumentsReceived.get()));
+
         lastPublishedTimestamp = PolledMeter.using(registry)
                 .withId(registry.createId(EsTaskPublisherMetrics.METRIC_ES_PUBLISHER + "lastPublishedTimestamp"))
                 .monitorValue(new AtomicLong(registry.clock().wallTime()), Functions.AGE);
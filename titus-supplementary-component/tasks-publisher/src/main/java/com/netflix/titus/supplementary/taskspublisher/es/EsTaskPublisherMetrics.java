@@ -20,4 +20,18 @@ public class EsTaskPublisherMetrics {
     public static final String METRIC_ROOT = "titus.";
     public static final String METRIC_ES_PUBLISHER = METRIC_ROOT + "tasks.es.publish.";
 
+    /**
+     * Metrics of the job cache used to build task documents.
+     */
+    public static final String METRIC_JOB_CACHE = METRIC_ES_PUBLISHER + "jobCache.";
+
+    /**
+     * Metrics of the coalescing stage, that keeps only the latest task document per task id in a bulk request.
+     */
+    public static final String METRIC_COALESCING = METRIC_ES_PUBLISHER + "coalescing.";
+
+    public static double ratio(long part, long total) {
+        return total == 0 ? 0 : (double) part / total;
+    }
+
 }
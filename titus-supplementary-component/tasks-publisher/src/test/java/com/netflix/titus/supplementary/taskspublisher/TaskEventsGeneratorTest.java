@@ -16,6 +16,7 @@
 package com.netflix.titus.supplementary.taskspublisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -23,6 +24,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.ext.elasticsearch.EsClient;
@@ -37,6 +41,7 @@ import com.netflix.titus.supplementary.taskspublisher.es.EsPublisher;
 import com.netflix.titus.testkit.model.job.JobGenerator;
 import org.junit.Test;
 import org.mockito.stubbing.Answer;
+import reactor.core.publisher.ConnectableFlux;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -46,6 +51,8 @@ import static org.assertj.core.api.Java6Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -83,6 +90,59 @@ public class TaskEventsGeneratorTest {
         return mockConfig;
     }
 
+    @Test
+    public void testJobsAreTakenFromJobUpdates() {
+        com.netflix.titus.api.jobmanager.model.job.Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        List<JobOrTaskUpdate> updates = new ArrayList<>();
+        updates.add(JobOrTaskUpdate.jobUpdate(GrpcJobManagementModelConverters.toGrpcJob(job)));
+        JobGenerator.batchTasks(job).getValues(3).forEach(task ->
+                updates.add(JobOrTaskUpdate.taskUpdate(GrpcJobManagementModelConverters.toGrpcTask(task, new EmptyLogStorageInfo<>())))
+        );
+
+        TitusClient titusClient = mock(TitusClient.class);
+        when(titusClient.getJobAndTaskUpdates()).thenReturn(Flux.fromIterable(updates));
+
+        TaskEventsGenerator taskEventsGenerator = new TaskEventsGenerator(titusClient, Collections.emptyMap(), titusRuntime);
+        try {
+            ConnectableFlux<TaskDocument> taskEvents = taskEventsGenerator.getTaskEvents();
+            Mono<List<TaskDocument>> documents = taskEvents.take(3).collectList();
+            taskEvents.connect();
+
+            List<TaskDocument> result = documents.block(Duration.ofSeconds(30));
+            assertThat(result).hasSize(3);
+            result.forEach(document -> assertThat(document.getJobId()).isEqualTo(job.getId()));
+            verify(titusClient, never()).getJobById(anyString());
+        } finally {
+            taskEventsGenerator.shutdown();
+        }
+    }
+
+    @Test
+    public void testFinishedJobIsRemovedFromCache() {
+        com.netflix.titus.api.jobmanager.model.job.Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        com.netflix.titus.api.jobmanager.model.job.Job<BatchJobExt> finishedJob = JobFunctions.changeJobStatus(job, JobState.Finished, "test");
+        List<JobOrTaskUpdate> updates = new ArrayList<>();
+        updates.add(JobOrTaskUpdate.jobUpdate(GrpcJobManagementModelConverters.toGrpcJob(job)));
+        updates.add(JobOrTaskUpdate.jobUpdate(GrpcJobManagementModelConverters.toGrpcJob(finishedJob)));
+        updates.add(JobOrTaskUpdate.taskUpdate(GrpcJobManagementModelConverters.toGrpcTask(JobGenerator.batchTasks(job).getValue(), new EmptyLogStorageInfo<>())));
+
+        TitusClient titusClient = mock(TitusClient.class);
+        when(titusClient.getJobAndTaskUpdates()).thenReturn(Flux.fromIterable(updates));
+        when(titusClient.getJobById(job.getId())).thenReturn(Mono.just(GrpcJobManagementModelConverters.toGrpcJob(finishedJob)));
+
+        TaskEventsGenerator taskEventsGenerator = new TaskEventsGenerator(titusClient, Collections.emptyMap(), titusRuntime);
+        try {
+            ConnectableFlux<TaskDocument> taskEvents = taskEventsGenerator.getTaskEvents();
+            Mono<TaskDocument> document = taskEvents.next();
+            taskEvents.connect();
+
+            assertThat(document.block(Duration.ofSeconds(30)).getJobId()).isEqualTo(job.getId());
+            verify(titusClient).getJobById(job.getId());
+        } finally {
+            taskEventsGenerator.shutdown();
+        }
+    }
+
     @Test
     public void checkPublisherState() {
         int numTasks = 5;
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.supplementary.taskspublisher.es;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.ext.elasticsearch.EsClient;
+import com.netflix.titus.supplementary.taskspublisher.TaskDocument;
+import com.netflix.titus.supplementary.taskspublisher.TaskEventsGenerator;
+import com.netflix.titus.supplementary.taskspublisher.config.EsPublisherConfiguration;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EsPublisherTest {
+
+    @Test
+    public void testCoalescingKeepsLatestDocumentPerTask() {
+        Job<BatchJobExt> job = JobGenerator.oneBatchJob();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(2);
+
+        TaskDocument task1First = newTaskDocument(job, tasks.get(0));
+        TaskDocument task2 = newTaskDocument(job, tasks.get(1));
+        TaskDocument task1Second = newTaskDocument(job, tasks.get(0));
+
+        List<TaskDocument> coalesced = newEsPublisher().coalesce(Arrays.asList(task1First, task2, task1Second));
+        assertThat(coalesced).hasSize(2);
+        assertThat(coalesced.get(0)).isSameAs(task1Second);
+        assertThat(coalesced.get(1)).isSameAs(task2);
+    }
+
+    private EsPublisher newEsPublisher() {
+        EsPublisherConfiguration configuration = mock(EsPublisherConfiguration.class);
+        when(configuration.getTaskDocumentEsIndexName()).thenReturn("tasks_");
+        when(configuration.getTaskDocumentEsIndexDateSuffixPattern()).thenReturn("yyyyMM");
+        return new EsPublisher(mock(TaskEventsGenerator.class), mock(EsClient.class), configuration, new DefaultRegistry());
+    }
+
+    private TaskDocument newTaskDocument(Job<BatchJobExt> job, BatchJobTask task) {
+        return TaskDocument.fromV3Task(task, job, ElasticSearchUtils.DATE_FORMAT, Collections.emptyMap());
+    }
+}
@@ -74,6 +74,13 @@ public class EmbeddedStdKubeApiFacade implements StdKubeApiFacade {
         embeddedKubeCluster.deletePod(podName, deleteGracePeriod);
     }
 
+    @Override
+    public Mono<Void> deleteNamespacedPodAsync(String namespace, String podName, int deleteGracePeriod) {
+        return Mono.fromRunnable(() -> {
+            embeddedKubeCluster.deletePod(podName, deleteGracePeriod);
+        });
+    }
+
     @Override
     public SharedIndexInformer<V1Pod> getPodInformer() {
         List<V1Pod> snapshot = new ArrayList<>(embeddedKubeCluster.getPods().values());
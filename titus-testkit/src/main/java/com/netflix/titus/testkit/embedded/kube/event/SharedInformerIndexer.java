@@ -91,7 +91,9 @@ class SharedInformerIndexer<ApiType extends KubernetesObject> implements Indexer
 
     @Override
     public ApiType getByKey(String key) {
-        return null;
+        // The cache is keyed by object names. Keys of namespaced objects are in the 'namespace/name' format.
+        int separatorIdx = key.indexOf('/');
+        return cache.get(separatorIdx < 0 ? key : key.substring(separatorIdx + 1));
     }
 
     @Override
@@ -32,6 +32,7 @@ import java.util.stream.Collectors;
 import com.google.common.base.Preconditions;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
 import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
 import com.netflix.titus.api.jobmanager.model.job.Capacity;
 import com.netflix.titus.api.jobmanager.model.job.Job;
@@ -55,6 +56,8 @@ import com.netflix.titus.common.data.generator.MutableDataGenerator;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.rx.ObservableExt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 import rx.Observable;
 import rx.subjects.PublishSubject;
 
@@ -66,6 +69,8 @@ class StubbedJobData {
 
     private final PublishSubject<JobManagerEvent<?>> observeJobsSubject = PublishSubject.create();
 
+    private final Sinks.Many<ContainerHealthEvent> containerHealthPublisher = Sinks.many().multicast().directAllOrNothing();
+
     private final CallMetadata callMetadata = CallMetadata.newBuilder().withCallerId("StubbedData").build();
 
     StubbedJobData(TitusRuntime titusRuntime) {
@@ -154,6 +159,11 @@ class StubbedJobData {
 
     void changeContainerHealth(String taskId, ContainerHealthState healthState) {
         getJobHolderByTaskId(taskId).changeContainerHealth(taskId, healthState);
+        getTaskHealthStatus(taskId).ifPresent(status -> containerHealthPublisher.tryEmitNext(ContainerHealthEvent.healthChanged(status)));
+    }
+
+    Flux<ContainerHealthEvent> containerHealthEvents() {
+        return containerHealthPublisher.asFlux();
     }
 
     Task moveTaskToState(Task task, TaskState newState) {